@@ -0,0 +1,84 @@
+package com.github.doraeven.commons.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark Runner
+ * 
+ * <p>
+ * Runs the UUID benchmarks with the GC profiler, {@code gc.alloc.rate.norm} is
+ * the number of bytes allocated per operation, and writes all the results to
+ * one JMH JSON file.
+ * </p>
+ * 
+ * <ul>
+ * <li>{@link UUIDGenerationBenchmark} runs with 1, 2, 4, ... threads up to the
+ * number of processors.</li>
+ * <li>{@link UUIDBytesBenchmark}, {@link UUIDBase64Benchmark} and
+ * {@link UUIDBulkEncoderBenchmark} run with one thread.</li>
+ * <li>Built by the {@code benchmark} profile only,
+ * {@code mvn -Pbenchmark package}.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * Run the benchmarks
+	 * 
+	 * @param args the result file, {@code target/jmh-result.json} by default
+	 * @throws RunnerException if a benchmark fails
+	 * @throws IOException     if the result file can not be written
+	 */
+	public static void main(String[] args) throws RunnerException, IOException {
+		Path result = Path.of(args.length > 0 ? args[0] : DEFAULT_RESULT);
+		List<RunResult> results = new ArrayList<>();
+		for (int threads : threads(Runtime.getRuntime().availableProcessors())) {
+			results.addAll(new Runner(options(UUIDGenerationBenchmark.class).threads(threads).build()).run());
+		}
+		results.addAll(new Runner(options(UUIDBytesBenchmark.class).threads(1).build()).run());
+		results.addAll(new Runner(options(UUIDBase64Benchmark.class).threads(1).build()).run());
+		results.addAll(new Runner(options(UUIDBulkEncoderBenchmark.class).threads(1).build()).run());
+		try (PrintStream out = new PrintStream(result.toFile(), StandardCharsets.UTF_8)) {
+			ResultFormatFactory.getInstance(ResultFormatType.JSON, out).writeOut(results);
+		}
+	}
+
+	/**
+	 * The options of the benchmarks of the class, with the GC profiler
+	 */
+	private static ChainedOptionsBuilder options(Class<?> benchmark) {
+		return new OptionsBuilder().include("^" + benchmark.getName() + "\\.").addProfiler(GCProfiler.class);
+	}
+
+	/**
+	 * Powers of two below the number of processors, then the number of
+	 * processors
+	 */
+	private static List<Integer> threads(int processors) {
+		List<Integer> threads = new ArrayList<>();
+		for (int n = 1; n < processors; n <<= 1) {
+			threads.add(n);
+		}
+		threads.add(processors);
+		return threads;
+	}
+
+	private static final String DEFAULT_RESULT = "target/jmh-result.json";
+}
@@ -0,0 +1,156 @@
+package com.github.doraeven.commons.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.doraeven.commons.utils.UUIDUtils;
+
+/**
+ * UUID Base64 Benchmark
+ * 
+ * <p>
+ * Every {@code toBase64*} and {@code fromBase64*} variant of
+ * {@link UUIDUtils}. The {@code byte[]} variants go through commons-codec, the
+ * {@code long} and destination array variants are the allocation free
+ * encoders.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UUIDBase64Benchmark {
+
+	@Setup
+	public void setup() {
+		uuid = UUIDUtils.randomUUID();
+		msb = uuid.getMostSignificantBits();
+		lsb = uuid.getLeastSignificantBits();
+		bytes = UUIDUtils.toBytes(uuid);
+		base64Bytes = UUIDUtils.toBase64(uuid);
+		base64String = UUIDUtils.toBase64String(uuid);
+		base64URLSafeBytes = UUIDUtils.toBase64URLSafe(uuid);
+		base64URLSafeString = UUIDUtils.toBase64URLSafeString(uuid);
+		byteDst = new byte[22];
+		charDst = new char[22];
+	}
+
+	@Benchmark
+	public byte[] toBase64() {
+		return UUIDUtils.toBase64(uuid);
+	}
+
+	@Benchmark
+	public byte[] toBase64Bytes() {
+		return UUIDUtils.toBase64(bytes);
+	}
+
+	@Benchmark
+	public byte[] toBase64URLSafe() {
+		return UUIDUtils.toBase64URLSafe(uuid);
+	}
+
+	@Benchmark
+	public byte[] toBase64URLSafeByteArray() {
+		UUIDUtils.toBase64URLSafe(uuid, byteDst, 0);
+		return byteDst;
+	}
+
+	@Benchmark
+	public char[] toBase64URLSafeCharArray() {
+		UUIDUtils.toBase64URLSafe(uuid, charDst, 0);
+		return charDst;
+	}
+
+	@Benchmark
+	public byte[] toBase64URLSafeBitsByteArray() {
+		UUIDUtils.toBase64URLSafe(msb, lsb, byteDst, 0);
+		return byteDst;
+	}
+
+	@Benchmark
+	public char[] toBase64URLSafeBitsCharArray() {
+		UUIDUtils.toBase64URLSafe(msb, lsb, charDst, 0);
+		return charDst;
+	}
+
+	@Benchmark
+	public byte[] toBase64URLSafeBytes() {
+		return UUIDUtils.toBase64URLSafe(bytes);
+	}
+
+	@Benchmark
+	public String toBase64String() {
+		return UUIDUtils.toBase64String(uuid);
+	}
+
+	@Benchmark
+	public String toBase64StringBytes() {
+		return UUIDUtils.toBase64String(bytes);
+	}
+
+	@Benchmark
+	public String toBase64URLSafeString() {
+		return UUIDUtils.toBase64URLSafeString(uuid);
+	}
+
+	@Benchmark
+	public String toBase64URLSafeStringBytes() {
+		return UUIDUtils.toBase64URLSafeString(bytes);
+	}
+
+	@Benchmark
+	public byte[] fromBase64() {
+		return UUIDUtils.fromBase64(base64Bytes);
+	}
+
+	@Benchmark
+	public byte[] fromBase64String() {
+		return UUIDUtils.fromBase64(base64String);
+	}
+
+	@Benchmark
+	public UUID fromBase64URLSafeString() {
+		return UUIDUtils.fromBase64URLSafeString(base64URLSafeString);
+	}
+
+	@Benchmark
+	public UUID fromBase64URLSafe() {
+		return UUIDUtils.fromBase64URLSafe(base64URLSafeBytes, 0);
+	}
+
+	private UUID uuid;
+	private long msb;
+	private long lsb;
+	private byte[] bytes;
+
+	/**
+	 * The encodings of the UUID, decoded by the {@code fromBase64*} benchmarks
+	 */
+	private byte[] base64Bytes;
+	private String base64String;
+	private byte[] base64URLSafeBytes;
+	private String base64URLSafeString;
+
+	/**
+	 * Destinations of the allocation free encoders
+	 */
+	private byte[] byteDst;
+	private char[] charDst;
+}
@@ -0,0 +1,103 @@
+package com.github.doraeven.commons.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.doraeven.commons.utils.UUIDBulkEncoder;
+import com.github.doraeven.commons.utils.UUIDUtils;
+
+/**
+ * UUID Bulk Encoder Benchmark
+ * 
+ * <p>
+ * {@link UUIDBulkEncoder} against the per-UUID {@link UUIDUtils} loop, to
+ * canonical hex and to Base64URLSafe, on the same 512 UUIDs. The scores are
+ * per UUID.
+ * </p>
+ * 
+ * <ul>
+ * <li>The fork adds {@code jdk.incubator.vector}, the bulk encoder uses the
+ * SIMD kernel where the platform has one, see
+ * {@link UUIDBulkEncoder#isVectorized()}; without it both sides run the scalar
+ * encoders.</li>
+ * <li>Nothing is allocated per operation, the destinations are reused.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class UUIDBulkEncoderBenchmark {
+
+	@Setup
+	public void setup() {
+		uuids = new long[COUNT * 2];
+		UUIDUtils.randomUUIDs(uuids, 0, COUNT);
+		canonical = new byte[COUNT * CANONICAL_LENGTH];
+		base64URLSafe = new byte[COUNT * BASE64_URL_SAFE_LENGTH];
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public byte[] bulkToCanonical() {
+		UUIDBulkEncoder.toCanonical(uuids, 0, COUNT, canonical, 0);
+		return canonical;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public byte[] scalarToCanonical() {
+		for (int i = 0; i < COUNT; i++) {
+			UUIDUtils.toCanonical(uuids[2 * i], uuids[2 * i + 1], canonical, i * CANONICAL_LENGTH);
+		}
+		return canonical;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public byte[] bulkToBase64URLSafe() {
+		UUIDBulkEncoder.toBase64URLSafe(uuids, 0, COUNT, base64URLSafe, 0);
+		return base64URLSafe;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public byte[] scalarToBase64URLSafe() {
+		for (int i = 0; i < COUNT; i++) {
+			UUIDUtils.toBase64URLSafe(uuids[2 * i], uuids[2 * i + 1], base64URLSafe, i * BASE64_URL_SAFE_LENGTH);
+		}
+		return base64URLSafe;
+	}
+
+	/**
+	 * The number of UUIDs per invocation, the source and the destinations stay in
+	 * the caches
+	 */
+	private static final int COUNT = 512;
+
+	private static final int CANONICAL_LENGTH = 36;
+	private static final int BASE64_URL_SAFE_LENGTH = 22;
+
+	/**
+	 * Most/least significant bits pairs
+	 */
+	private long[] uuids;
+	private byte[] canonical;
+	private byte[] base64URLSafe;
+}
@@ -0,0 +1,131 @@
+package com.github.doraeven.commons.benchmark;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.doraeven.commons.utils.UUIDUtils;
+
+/**
+ * UUID Bytes Benchmark
+ * 
+ * <p>
+ * Every {@code toBytes} and {@code fromBytes} variant of {@link UUIDUtils}, on
+ * a byte array, a heap buffer and a native memory segment. Only the
+ * {@code toBytes(UUID)} variant should allocate besides the decoded UUID.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UUIDBytesBenchmark {
+
+	@Setup
+	public void setup() {
+		uuid = UUIDUtils.randomUUID();
+		bytes = UUIDUtils.toBytes(uuid);
+		buffer = ByteBuffer.allocate(16);
+		segment = MemorySegment.ofArray(new long[2]);
+		UUIDUtils.toBytes(uuid, segment, 0);
+	}
+
+	@Benchmark
+	public byte[] toBytes() {
+		return UUIDUtils.toBytes(uuid);
+	}
+
+	@Benchmark
+	public byte[] toBytesArray() {
+		UUIDUtils.toBytes(uuid, bytes, 0);
+		return bytes;
+	}
+
+	@Benchmark
+	public byte[] toBytesArrayLittleEndian() {
+		UUIDUtils.toBytes(uuid, bytes, 0, ByteOrder.LITTLE_ENDIAN);
+		return bytes;
+	}
+
+	@Benchmark
+	public ByteBuffer toBytesBuffer() {
+		UUIDUtils.toBytes(uuid, buffer.clear());
+		return buffer;
+	}
+
+	@Benchmark
+	public ByteBuffer toBytesBufferLittleEndian() {
+		UUIDUtils.toBytes(uuid, buffer.clear(), ByteOrder.LITTLE_ENDIAN);
+		return buffer;
+	}
+
+	@Benchmark
+	public MemorySegment toBytesSegment() {
+		UUIDUtils.toBytes(uuid, segment, 0);
+		return segment;
+	}
+
+	@Benchmark
+	public MemorySegment toBytesSegmentLittleEndian() {
+		UUIDUtils.toBytes(uuid, segment, 0, ByteOrder.LITTLE_ENDIAN);
+		return segment;
+	}
+
+	@Benchmark
+	public UUID fromBytes() {
+		return UUIDUtils.fromBytes(bytes);
+	}
+
+	@Benchmark
+	public UUID fromBytesOffset() {
+		return UUIDUtils.fromBytes(bytes, 0);
+	}
+
+	@Benchmark
+	public UUID fromBytesOffsetLittleEndian() {
+		return UUIDUtils.fromBytes(bytes, 0, ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Benchmark
+	public UUID fromBytesBuffer() {
+		return UUIDUtils.fromBytes(buffer.clear());
+	}
+
+	@Benchmark
+	public UUID fromBytesBufferLittleEndian() {
+		return UUIDUtils.fromBytes(buffer.clear(), ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Benchmark
+	public UUID fromBytesSegment() {
+		return UUIDUtils.fromBytes(segment, 0);
+	}
+
+	@Benchmark
+	public UUID fromBytesSegmentLittleEndian() {
+		return UUIDUtils.fromBytes(segment, 0, ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private UUID uuid;
+	private byte[] bytes;
+	private ByteBuffer buffer;
+	private MemorySegment segment;
+}
@@ -0,0 +1,49 @@
+package com.github.doraeven.commons.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.doraeven.commons.utils.UUIDUtils;
+
+/**
+ * UUID Generation Benchmark
+ * 
+ * <p>
+ * Random UUID generation, {@link UUID#randomUUID()} as the reference. The
+ * number of threads is set by {@link BenchmarkRunner}, from 1 to the number of
+ * processors, to show the contention on the random source.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UUIDGenerationBenchmark {
+
+	@Benchmark
+	public UUID randomUUID() {
+		return UUIDUtils.randomUUID();
+	}
+
+	@Benchmark
+	public String getRandomUUID() {
+		return UUIDUtils.getRandomUUID();
+	}
+
+	@Benchmark
+	public UUID jdkRandomUUID() {
+		return UUID.randomUUID();
+	}
+}
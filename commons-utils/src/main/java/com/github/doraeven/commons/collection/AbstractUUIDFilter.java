@@ -0,0 +1,174 @@
+package com.github.doraeven.commons.collection;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Probabilistic UUID membership filter
+ * 
+ * <p>
+ * The filter state is one {@code long[]} updated with atomic bitwise
+ * operations, so concurrent adds never lock. The words are saved to and loaded
+ * from a file through a memory mapping, after a 32 byte header holding the
+ * filter type and its parameters.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+abstract class AbstractUUIDFilter {
+
+	AbstractUUIDFilter(long[] words) {
+		this.words = words;
+	}
+
+	/**
+	 * Write the filter to the file through a memory mapping, replacing its
+	 * content. Concurrent adds may or may not be part of the file.
+	 * 
+	 * @param path the file
+	 * @throws IOException if the file can not be written
+	 */
+	public void save(Path path) throws IOException {
+		long bytes = HEADER_BYTES + (long) words.length * Long.BYTES;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+				Arena mapping = Arena.ofConfined()) {
+			MemorySegment file = channel.map(MapMode.READ_WRITE, 0, bytes, mapping);
+			file.set(INT_LAYOUT, 0, MAGIC);
+			file.set(INT_LAYOUT, 4, type());
+			file.set(INT_LAYOUT, 8, parameter());
+			file.set(INT_LAYOUT, 12, 0);
+			file.set(LONG_LAYOUT, 16, count());
+			file.set(LONG_LAYOUT, 24, words.length);
+			MemorySegment.copy(words, 0, file, LONG_LAYOUT, HEADER_BYTES, words.length);
+			file.force();
+		}
+	}
+
+	/**
+	 * Remove all UUIDs, not atomic with respect to concurrent adds
+	 */
+	public void clear() {
+		Arrays.fill(words, 0);
+	}
+
+	/**
+	 * Returns the memory used by the filter state
+	 * 
+	 * @return the size in bytes
+	 */
+	public long getSizeInBytes() {
+		return (long) words.length * Long.BYTES;
+	}
+
+	/**
+	 * The filter type written to the header
+	 */
+	abstract int type();
+
+	/**
+	 * The type specific parameter written to the header
+	 */
+	abstract int parameter();
+
+	/**
+	 * The number of UUIDs written to the header
+	 */
+	abstract long count();
+
+	/**
+	 * Read a file written by {@link #save(Path)} through a memory mapping
+	 */
+	static Image load(Path path, int type) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+				Arena mapping = Arena.ofConfined()) {
+			long bytes = channel.size();
+			if (bytes < HEADER_BYTES) {
+				throw new IOException("Not a UUID filter file: " + path);
+			}
+			MemorySegment file = channel.map(MapMode.READ_ONLY, 0, bytes, mapping);
+			if (file.get(INT_LAYOUT, 0) != MAGIC || file.get(INT_LAYOUT, 4) != type) {
+				throw new IOException("Not a UUID filter file of type " + type + ": " + path);
+			}
+			long length = file.get(LONG_LAYOUT, 24);
+			if (length < 1 || length > MAX_WORDS || bytes != HEADER_BYTES + length * Long.BYTES) {
+				throw new IOException("Corrupted UUID filter file, words: " + length + ": " + path);
+			}
+			long[] words = new long[(int) length];
+			MemorySegment.copy(file, LONG_LAYOUT, HEADER_BYTES, words, 0, words.length);
+			return new Image(file.get(INT_LAYOUT, 8), file.get(LONG_LAYOUT, 16), words);
+		}
+	}
+
+	/**
+	 * Mix the 128 bits into 64, murmur3 fmix64 of the folded halves
+	 */
+	static long hash(long msb, long lsb) {
+		return mix(msb ^ mix(lsb));
+	}
+
+	/**
+	 * murmur3 fmix64
+	 */
+	static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * The content of a filter file
+	 */
+	static final class Image {
+
+		Image(int parameter, long count, long[] words) {
+			this.parameter = parameter;
+			this.count = count;
+			this.words = words;
+		}
+
+		final int parameter;
+		final long count;
+		final long[] words;
+	}
+
+	/**
+	 * The largest number of words
+	 */
+	static final int MAX_WORDS = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Atomic access to the words
+	 */
+	static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+	/**
+	 * File header: magic, type, parameter, reserved, count and number of words
+	 */
+	private static final int MAGIC = 0x55554946;
+	private static final int HEADER_BYTES = 32;
+
+	/**
+	 * Little endian on disk, whatever the platform
+	 */
+	private static final ValueLayout.OfInt INT_LAYOUT = ValueLayout.JAVA_INT_UNALIGNED
+			.withOrder(ByteOrder.LITTLE_ENDIAN);
+	private static final ValueLayout.OfLong LONG_LAYOUT = ValueLayout.JAVA_LONG_UNALIGNED
+			.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+	final long[] words;
+}
@@ -0,0 +1,354 @@
+package com.github.doraeven.commons.collection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import com.github.doraeven.commons.utils.UUIDBitsConsumer;
+
+/**
+ * Open addressing UUID hash table
+ * 
+ * <p>
+ * The keys are stored inline as most/least significant bits pairs in one
+ * {@code long[]}, with linear probing and backward shift deletion, so neither
+ * inserts nor lookups create objects. The nil UUID marks a free slot and is
+ * kept outside of the table.
+ * </p>
+ * 
+ * <p>
+ * Subclasses keep their values in arrays parallel to the slots.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+abstract class AbstractUUIDHashTable {
+
+	AbstractUUIDHashTable(int expectedSize, float loadFactor) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+		}
+		if (!(loadFactor > 0 && loadFactor < 1)) {
+			throw new IllegalArgumentException("loadFactor must be between 0 and 1: " + loadFactor);
+		}
+		this.loadFactor = loadFactor;
+		int capacity = tableSize(expectedSize, loadFactor);
+		this.keys = new long[capacity * 2];
+		this.mask = capacity - 1;
+		this.maxFill = maxFill(capacity, loadFactor);
+	}
+
+	/**
+	 * Returns the number of UUIDs
+	 * 
+	 * @return the number of UUIDs
+	 */
+	public int size() {
+		return containsNil ? size + 1 : size;
+	}
+
+	/**
+	 * Returns true if there is no UUID
+	 * 
+	 * @return true if there is no UUID
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns true if the UUID is present
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if the UUID is present
+	 */
+	public boolean containsKey(long msb, long lsb) {
+		if (msb == 0 && lsb == 0) {
+			return containsNil;
+		}
+		return find(msb, lsb) >= 0;
+	}
+
+	/**
+	 * Returns true if the UUID is present
+	 * 
+	 * @param uuid the UUID
+	 * @return true if the UUID is present
+	 */
+	public boolean containsKey(UUID uuid) {
+		return containsKey(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Remove all UUIDs, the capacity is kept
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0);
+		clearValues();
+		size = 0;
+		containsNil = false;
+	}
+
+	/**
+	 * Grow the table so it holds the expected number of UUIDs without resizing
+	 * 
+	 * @param expectedSize the expected number of UUIDs
+	 */
+	public void ensureCapacity(int expectedSize) {
+		int capacity = tableSize(expectedSize, loadFactor);
+		if (capacity > mask + 1) {
+			rehash(capacity);
+		}
+	}
+
+	/**
+	 * Shrink the table to the smallest capacity holding the current UUIDs
+	 */
+	public void trimToSize() {
+		int capacity = tableSize(size, loadFactor);
+		if (capacity < mask + 1) {
+			rehash(capacity);
+		}
+	}
+
+	/**
+	 * Performs the action for each UUID, in table order, without creating UUID
+	 * objects
+	 * 
+	 * @param action the action
+	 */
+	public void forEachKey(UUIDBitsConsumer action) {
+		if (containsNil) {
+			action.accept(0, 0);
+		}
+		final long[] keys = this.keys;
+		for (int i = 0; i < keys.length; i += 2) {
+			long msb = keys[i];
+			long lsb = keys[i + 1];
+			if (msb != 0 || lsb != 0) {
+				action.accept(msb, lsb);
+			}
+		}
+	}
+
+	/**
+	 * Returns the slot of the key, or {@code ~slot} of the free slot where it would
+	 * be inserted. The key must not be the nil UUID.
+	 */
+	final int find(long msb, long lsb) {
+		final long[] keys = this.keys;
+		int slot = hash(msb, lsb) & mask;
+		for (;;) {
+			long k0 = keys[slot * 2];
+			long k1 = keys[slot * 2 + 1];
+			if (k0 == msb && k1 == lsb) {
+				return slot;
+			}
+			if (k0 == 0 && k1 == 0) {
+				return ~slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Store the key in the free slot
+	 * 
+	 * @return the slot of the key, it moves if the table is resized
+	 */
+	final int insert(int freeSlot, long msb, long lsb) {
+		keys[freeSlot * 2] = msb;
+		keys[freeSlot * 2 + 1] = lsb;
+		if (++size > maxFill) {
+			rehash(tableSize(size + 1, loadFactor));
+			return find(msb, lsb);
+		}
+		return freeSlot;
+	}
+
+	/**
+	 * Remove the key of the slot, shifting back the following keys of the probe
+	 * sequence
+	 */
+	final void removeSlot(int slot) {
+		size--;
+		final long[] keys = this.keys;
+		int last;
+		for (;;) {
+			slot = ((last = slot) + 1) & mask;
+			long k0;
+			long k1;
+			for (;;) {
+				k0 = keys[slot * 2];
+				k1 = keys[slot * 2 + 1];
+				if (k0 == 0 && k1 == 0) {
+					keys[last * 2] = 0;
+					keys[last * 2 + 1] = 0;
+					clearValue(last);
+					return;
+				}
+				int home = hash(k0, k1) & mask;
+				if (last <= slot ? last >= home || home > slot : last >= home && home > slot) {
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+			keys[last * 2] = k0;
+			keys[last * 2 + 1] = k1;
+			moveValue(slot, last);
+		}
+	}
+
+	/**
+	 * Reinsert all keys into a table of the new capacity
+	 */
+	final void rehash(int capacity) {
+		final long[] oldKeys = keys;
+		final long[] newKeys = new long[capacity * 2];
+		final int newMask = capacity - 1;
+		beginRehash(capacity);
+		for (int i = 0; i < oldKeys.length; i += 2) {
+			long msb = oldKeys[i];
+			long lsb = oldKeys[i + 1];
+			if (msb != 0 || lsb != 0) {
+				int slot = hash(msb, lsb) & newMask;
+				while (newKeys[slot * 2] != 0 || newKeys[slot * 2 + 1] != 0) {
+					slot = (slot + 1) & newMask;
+				}
+				newKeys[slot * 2] = msb;
+				newKeys[slot * 2 + 1] = lsb;
+				rehashValue(i / 2, slot);
+			}
+		}
+		endRehash();
+		keys = newKeys;
+		mask = newMask;
+		maxFill = maxFill(capacity, loadFactor);
+	}
+
+	/**
+	 * Allocate the value array of the new capacity, keeping the old one until
+	 * {@link #endRehash()}
+	 */
+	abstract void beginRehash(int capacity);
+
+	/**
+	 * Move a value from the old value array to the new one
+	 */
+	abstract void rehashValue(int oldSlot, int newSlot);
+
+	/**
+	 * Release the old value array
+	 */
+	abstract void endRehash();
+
+	/**
+	 * Move a value between two slots of the current value array
+	 */
+	abstract void moveValue(int from, int to);
+
+	/**
+	 * Clear the value of a slot
+	 */
+	abstract void clearValue(int slot);
+
+	/**
+	 * Clear all values
+	 */
+	abstract void clearValues();
+
+	/**
+	 * Iterate the UUIDs as objects, one UUID is created per element
+	 */
+	final Iterator<UUID> newKeyIterator() {
+		return new Iterator<UUID>() {
+
+			@Override
+			public boolean hasNext() {
+				if (nil) {
+					return true;
+				}
+				while (next < keys.length && keys[next] == 0 && keys[next + 1] == 0) {
+					next += 2;
+				}
+				return next < keys.length;
+			}
+
+			@Override
+			public UUID next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				if (nil) {
+					nil = false;
+					return new UUID(0, 0);
+				}
+				UUID uuid = new UUID(keys[next], keys[next + 1]);
+				next += 2;
+				return uuid;
+			}
+
+			private final long[] keys = AbstractUUIDHashTable.this.keys;
+			private boolean nil = containsNil;
+			private int next = 0;
+		};
+	}
+
+	/**
+	 * Mix the 128 bits, murmur3 fmix64 of the folded halves
+	 */
+	static int hash(long msb, long lsb) {
+		long h = msb ^ (lsb * 0x9E3779B97F4A7C15L);
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return (int) h;
+	}
+
+	/**
+	 * The power of two number of slots holding the expected size under the load
+	 * factor
+	 */
+	static int tableSize(int expectedSize, float loadFactor) {
+		long needed = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / (double) loadFactor) + 1);
+		if (needed > MAX_CAPACITY) {
+			throw new IllegalStateException("UUID hash table too large: " + expectedSize);
+		}
+		return (int) Long.highestOneBit(needed - 1) << 1;
+	}
+
+	private static int maxFill(int capacity, float loadFactor) {
+		return Math.min(capacity - 1, (int) Math.ceil(capacity * loadFactor));
+	}
+
+	/**
+	 * Default load factor
+	 */
+	static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	/**
+	 * The smallest and the largest number of slots
+	 */
+	private static final int MIN_CAPACITY = 4;
+	private static final int MAX_CAPACITY = 1 << 29;
+
+	final float loadFactor;
+
+	/**
+	 * The keys, msb at {@code 2 * slot} and lsb at {@code 2 * slot + 1}
+	 */
+	long[] keys;
+	int mask;
+	int maxFill;
+
+	/**
+	 * The number of keys in the table, the nil UUID is not counted
+	 */
+	int size;
+	boolean containsNil;
+}
@@ -0,0 +1,212 @@
+package com.github.doraeven.commons.collection;
+
+import java.util.UUID;
+
+import com.github.doraeven.commons.utils.UUIDBitsConsumer;
+
+/**
+ * Concurrent UUID Hash Set
+ * 
+ * <p>
+ * A thread safe set of UUIDs split into a power of two number of
+ * {@link UUIDHashSet} stripes, each guarded by its own lock. The stripe is
+ * chosen by the high bits of the hash, the slot inside the stripe by the low
+ * bits, so threads working on different stripes never contend.
+ * </p>
+ * 
+ * <p>
+ * {@link #size()} and {@link #forEachKey(UUIDBitsConsumer)} lock one stripe at
+ * a time and are not atomic snapshots of the whole set.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+public class ConcurrentUUIDHashSet {
+
+	/**
+	 * Create an empty set with four stripes per available processor, rounded up
+	 * to a power of two
+	 */
+	public ConcurrentUUIDHashSet() {
+		this(16, Runtime.getRuntime().availableProcessors() * 4);
+	}
+
+	/**
+	 * Create an empty set
+	 * 
+	 * @param expectedSize the expected number of UUIDs
+	 * @param stripes      the number of stripes, rounded up to a power of two
+	 */
+	public ConcurrentUUIDHashSet(int expectedSize, int stripes) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+		}
+		if (stripes < 1 || stripes > MAX_STRIPES) {
+			throw new IllegalArgumentException("stripes must be between 1 and " + MAX_STRIPES + ": " + stripes);
+		}
+		int count = Integer.highestOneBit(stripes - 1) << 1;
+		if (stripes == 1) {
+			count = 1;
+		}
+		this.stripes = new UUIDHashSet[count];
+		this.shift = 32 - Integer.numberOfTrailingZeros(count);
+		int stripeSize = (expectedSize + count - 1) / count;
+		for (int i = 0; i < count; i++) {
+			this.stripes[i] = new UUIDHashSet(stripeSize);
+		}
+	}
+
+	/**
+	 * Add the UUID
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if the UUID was not present
+	 */
+	public boolean add(long msb, long lsb) {
+		UUIDHashSet stripe = stripe(msb, lsb);
+		synchronized (stripe) {
+			return stripe.add(msb, lsb);
+		}
+	}
+
+	/**
+	 * Add the UUID
+	 * 
+	 * @param uuid the UUID
+	 * @return true if the UUID was not present
+	 */
+	public boolean add(UUID uuid) {
+		return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Returns true if the UUID is present
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if the UUID is present
+	 */
+	public boolean contains(long msb, long lsb) {
+		UUIDHashSet stripe = stripe(msb, lsb);
+		synchronized (stripe) {
+			return stripe.contains(msb, lsb);
+		}
+	}
+
+	/**
+	 * Returns true if the UUID is present
+	 * 
+	 * @param uuid the UUID
+	 * @return true if the UUID is present
+	 */
+	public boolean contains(UUID uuid) {
+		return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Remove the UUID
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if the UUID was present
+	 */
+	public boolean remove(long msb, long lsb) {
+		UUIDHashSet stripe = stripe(msb, lsb);
+		synchronized (stripe) {
+			return stripe.remove(msb, lsb);
+		}
+	}
+
+	/**
+	 * Remove the UUID
+	 * 
+	 * @param uuid the UUID
+	 * @return true if the UUID was present
+	 */
+	public boolean remove(UUID uuid) {
+		return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Returns the number of UUIDs
+	 * 
+	 * @return the number of UUIDs
+	 */
+	public int size() {
+		int size = 0;
+		for (UUIDHashSet stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns true if there is no UUID
+	 * 
+	 * @return true if there is no UUID
+	 */
+	public boolean isEmpty() {
+		for (UUIDHashSet stripe : stripes) {
+			synchronized (stripe) {
+				if (!stripe.isEmpty()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Remove all UUIDs
+	 */
+	public void clear() {
+		for (UUIDHashSet stripe : stripes) {
+			synchronized (stripe) {
+				stripe.clear();
+			}
+		}
+	}
+
+	/**
+	 * Performs the action for each UUID, holding the lock of one stripe at a time.
+	 * The action must not modify this set.
+	 * 
+	 * @param action the action
+	 */
+	public void forEachKey(UUIDBitsConsumer action) {
+		for (UUIDHashSet stripe : stripes) {
+			synchronized (stripe) {
+				stripe.forEachKey(action);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of stripes
+	 * 
+	 * @return the number of stripes
+	 */
+	public int getStripes() {
+		return stripes.length;
+	}
+
+	private UUIDHashSet stripe(long msb, long lsb) {
+		return shift == 32 ? stripes[0] : stripes[AbstractUUIDHashTable.hash(msb, lsb) >>> shift];
+	}
+
+	/**
+	 * The largest number of stripes
+	 */
+	private static final int MAX_STRIPES = 1 << 16;
+
+	private final UUIDHashSet[] stripes;
+
+	/**
+	 * Shift selecting the stripe from the high bits of the hash
+	 */
+	private final int shift;
+}
@@ -0,0 +1,582 @@
+package com.github.doraeven.commons.collection;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.github.doraeven.commons.utils.UUIDBitsConsumer;
+
+/**
+ * UUID Array
+ * 
+ * <p>
+ * A growable column of UUIDs stored as 16 bytes each, in the big endian layout
+ * of {@link com.github.doraeven.commons.utils.UUIDUtils#toBytes(UUID)}, either
+ * in a {@code long[]} on the heap, in off-heap memory or in a memory-mapped file.
+ * The same layout is used on disk, so a saved array is mapped back without
+ * copying.
+ * </p>
+ * 
+ * <p>
+ * Sorting, searching and the set operations use the unsigned 128-bit order of
+ * the UUID bits, which is the order of the encoded bytes. It differs from
+ * {@link UUID#compareTo(UUID)}, which compares the halves as signed longs.
+ * </p>
+ * 
+ * <p>
+ * Not thread safe. Off-heap and mapped arrays must be closed to release their
+ * memory.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+public class UUIDArray implements AutoCloseable {
+
+	/**
+	 * Create an empty array on the heap
+	 */
+	public UUIDArray() {
+		this(16);
+	}
+
+	/**
+	 * Create an empty array on the heap
+	 * 
+	 * @param capacity the initial number of UUIDs
+	 */
+	public UUIDArray(int capacity) {
+		if (capacity < 0 || capacity > MAX_HEAP_CAPACITY) {
+			throw new IllegalArgumentException("capacity must be between 0 and " + MAX_HEAP_CAPACITY + ": " + capacity);
+		}
+		this.segment = MemorySegment.ofArray(new long[capacity * 2]);
+		this.arena = null;
+		this.readOnly = false;
+	}
+
+	private UUIDArray(MemorySegment segment, Arena arena, long size, boolean readOnly) {
+		this.segment = segment;
+		this.arena = arena;
+		this.size = size;
+		this.readOnly = readOnly;
+	}
+
+	/**
+	 * Create an empty array in off-heap memory
+	 * 
+	 * @param capacity the initial number of UUIDs
+	 * @return the array, to be closed
+	 */
+	public static UUIDArray offHeap(long capacity) {
+		if (capacity < 0 || capacity > MAX_OFF_HEAP_CAPACITY) {
+			throw new IllegalArgumentException("capacity must be between 0 and " + MAX_OFF_HEAP_CAPACITY + ": " + capacity);
+		}
+		Arena arena = Arena.ofShared();
+		return new UUIDArray(arena.allocate(Math.max(capacity, 1) * UUID_BYTES, Long.BYTES), arena, 0, false);
+	}
+
+	/**
+	 * Map a file written by {@link #save(Path)} read only. The array reads the file
+	 * directly, nothing is copied to the heap.
+	 * 
+	 * @param path the file
+	 * @return the array, to be closed
+	 * @throws IOException if the file can not be mapped
+	 */
+	public static UUIDArray map(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long bytes = channel.size();
+			if (bytes % UUID_BYTES != 0) {
+				throw new IOException("File length is not a multiple of " + UUID_BYTES + ": " + path);
+			}
+			Arena arena = Arena.ofShared();
+			try {
+				MemorySegment segment = channel.map(MapMode.READ_ONLY, 0, bytes, arena);
+				return new UUIDArray(segment, arena, bytes / UUID_BYTES, true);
+			} catch (IOException | RuntimeException e) {
+				arena.close();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Write the UUIDs to the file through a memory mapping, replacing its content.
+	 * The file is the concatenation of the 16 byte big endian encodings.
+	 * 
+	 * @param path the file
+	 * @throws IOException if the file can not be written
+	 */
+	public void save(Path path) throws IOException {
+		long bytes = size * UUID_BYTES;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			if (bytes == 0) {
+				return;
+			}
+			try (Arena mapping = Arena.ofConfined()) {
+				MemorySegment file = channel.map(MapMode.READ_WRITE, 0, bytes, mapping);
+				file.copyFrom(segment.asSlice(0, bytes));
+				file.force();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of UUIDs
+	 * 
+	 * @return the number of UUIDs
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if there is no UUID
+	 * 
+	 * @return true if there is no UUID
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of UUIDs held without growing
+	 * 
+	 * @return the capacity
+	 */
+	public long capacity() {
+		return segment.byteSize() / UUID_BYTES;
+	}
+
+	/**
+	 * Returns true if the array is in off-heap memory or mapped
+	 * 
+	 * @return true if the array is not on the heap
+	 */
+	public boolean isOffHeap() {
+		return arena != null;
+	}
+
+	/**
+	 * Returns true if the array is mapped read only
+	 * 
+	 * @return true if the array is read only
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	/**
+	 * Returns the UUIDs as a read only segment of {@code size() * 16} bytes, valid
+	 * until the array grows or is closed
+	 * 
+	 * @return the segment
+	 */
+	public MemorySegment asSegment() {
+		return segment.asSlice(0, size * UUID_BYTES).asReadOnly();
+	}
+
+	/**
+	 * Append the UUID
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 */
+	public void append(long msb, long lsb) {
+		ensureCapacity(size + 1);
+		long offset = size * UUID_BYTES;
+		segment.set(LONG_LAYOUT, offset, msb);
+		segment.set(LONG_LAYOUT, offset + 8, lsb);
+		size++;
+	}
+
+	/**
+	 * Append the UUID
+	 * 
+	 * @param uuid the UUID
+	 */
+	public void append(UUID uuid) {
+		append(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Append UUIDs encoded by
+	 * {@link com.github.doraeven.commons.utils.UUIDUtils#toBytes(UUID, byte[], int)}
+	 * 
+	 * @param src    the encoded UUIDs
+	 * @param offset the index of the first byte
+	 * @param count  the number of UUIDs
+	 */
+	public void append(byte[] src, int offset, int count) {
+		Objects.checkFromIndexSize(offset, (long) count * UUID_BYTES, src.length);
+		ensureCapacity(size + count);
+		MemorySegment.copy(MemorySegment.ofArray(src), offset, segment, size * UUID_BYTES, (long) count * UUID_BYTES);
+		size += count;
+	}
+
+	/**
+	 * Append all UUIDs of the other array
+	 * 
+	 * @param other the other array
+	 */
+	public void append(UUIDArray other) {
+		long count = other.size;
+		ensureCapacity(size + count);
+		// read the segment after growing, the other array may be this one
+		MemorySegment.copy(other.segment, 0, segment, size * UUID_BYTES, count * UUID_BYTES);
+		size += count;
+	}
+
+	/**
+	 * Returns the most significant bits of the UUID at the index
+	 * 
+	 * @param index the index
+	 * @return the most significant bits
+	 */
+	public long getMostSignificantBits(long index) {
+		Objects.checkIndex(index, size);
+		return segment.get(LONG_LAYOUT, index * UUID_BYTES);
+	}
+
+	/**
+	 * Returns the least significant bits of the UUID at the index
+	 * 
+	 * @param index the index
+	 * @return the least significant bits
+	 */
+	public long getLeastSignificantBits(long index) {
+		Objects.checkIndex(index, size);
+		return segment.get(LONG_LAYOUT, index * UUID_BYTES + 8);
+	}
+
+	/**
+	 * Returns the UUID at the index
+	 * 
+	 * @param index the index
+	 * @return the UUID
+	 */
+	public UUID get(long index) {
+		Objects.checkIndex(index, size);
+		long offset = index * UUID_BYTES;
+		return new UUID(segment.get(LONG_LAYOUT, offset), segment.get(LONG_LAYOUT, offset + 8));
+	}
+
+	/**
+	 * Replace the UUID at the index
+	 * 
+	 * @param index the index
+	 * @param msb   the most significant bits of the UUID
+	 * @param lsb   the least significant bits of the UUID
+	 */
+	public void set(long index, long msb, long lsb) {
+		checkWritable();
+		Objects.checkIndex(index, size);
+		long offset = index * UUID_BYTES;
+		segment.set(LONG_LAYOUT, offset, msb);
+		segment.set(LONG_LAYOUT, offset + 8, lsb);
+	}
+
+	/**
+	 * Performs the action for each UUID in index order, without creating UUID
+	 * objects
+	 * 
+	 * @param action the action
+	 */
+	public void forEach(UUIDBitsConsumer action) {
+		final MemorySegment segment = this.segment;
+		final long end = size * UUID_BYTES;
+		for (long offset = 0; offset < end; offset += UUID_BYTES) {
+			action.accept(segment.get(LONG_LAYOUT, offset), segment.get(LONG_LAYOUT, offset + 8));
+		}
+	}
+
+	/**
+	 * Remove all UUIDs, the capacity is kept
+	 */
+	public void clear() {
+		checkWritable();
+		size = 0;
+	}
+
+	/**
+	 * Grow the array so it holds the number of UUIDs without growing again
+	 * 
+	 * @param capacity the number of UUIDs
+	 */
+	public void ensureCapacity(long capacity) {
+		checkWritable();
+		long current = capacity();
+		if (capacity <= current) {
+			return;
+		}
+		long max = arena == null ? MAX_HEAP_CAPACITY : MAX_OFF_HEAP_CAPACITY;
+		if (capacity > max) {
+			throw new IllegalStateException("UUID array too large: " + capacity);
+		}
+		long newCapacity = Math.min(max, Math.max(capacity, current + (current >> 1) + 16));
+		if (arena == null) {
+			MemorySegment grown = MemorySegment.ofArray(new long[(int) newCapacity * 2]);
+			MemorySegment.copy(segment, 0, grown, 0, size * UUID_BYTES);
+			segment = grown;
+		} else {
+			Arena grownArena = Arena.ofShared();
+			MemorySegment grown = grownArena.allocate(newCapacity * UUID_BYTES, Long.BYTES);
+			MemorySegment.copy(segment, 0, grown, 0, size * UUID_BYTES);
+			arena.close();
+			arena = grownArena;
+			segment = grown;
+		}
+	}
+
+	/**
+	 * Sort the UUIDs by their unsigned 128-bit value with a least significant
+	 * digit radix sort, one pass per byte. Bytes shared by all UUIDs, such as the
+	 * version nibble or the timestamp prefix of time ordered UUIDs, are skipped.
+	 */
+	public void sort() {
+		checkWritable();
+		final long n = size;
+		if (n < 2) {
+			return;
+		}
+		final long bytes = n * UUID_BYTES;
+		final long[][] counts = new long[UUID_BYTES][256];
+		for (long offset = 0; offset < bytes; offset += UUID_BYTES) {
+			long msb = segment.get(LONG_LAYOUT, offset);
+			long lsb = segment.get(LONG_LAYOUT, offset + 8);
+			for (int b = 0; b < 8; b++) {
+				counts[b][(int) (lsb >>> (b * 8)) & 0xFF]++;
+				counts[b + 8][(int) (msb >>> (b * 8)) & 0xFF]++;
+			}
+		}
+
+		Arena scratchArena = arena == null ? null : Arena.ofConfined();
+		try {
+			MemorySegment src = segment.asSlice(0, bytes);
+			MemorySegment dst = scratchArena == null ? MemorySegment.ofArray(new long[(int) n * 2])
+					: scratchArena.allocate(bytes, Long.BYTES);
+			final long firstMsb = src.get(LONG_LAYOUT, 0);
+			final long firstLsb = src.get(LONG_LAYOUT, 8);
+			final long[] offsets = new long[256];
+			boolean swapped = false;
+			for (int digit = 0; digit < UUID_BYTES; digit++) {
+				final long[] count = counts[digit];
+				final boolean low = digit < 8;
+				final int shift = (digit & 7) * 8;
+				if (count[(int) ((low ? firstLsb : firstMsb) >>> shift) & 0xFF] == n) {
+					// every UUID has the same byte here
+					continue;
+				}
+				long sum = 0;
+				for (int i = 0; i < 256; i++) {
+					offsets[i] = sum;
+					sum += count[i] * UUID_BYTES;
+				}
+				for (long offset = 0; offset < bytes; offset += UUID_BYTES) {
+					long msb = src.get(LONG_LAYOUT, offset);
+					long lsb = src.get(LONG_LAYOUT, offset + 8);
+					int bucket = (int) ((low ? lsb : msb) >>> shift) & 0xFF;
+					long target = offsets[bucket];
+					offsets[bucket] = target + UUID_BYTES;
+					dst.set(LONG_LAYOUT, target, msb);
+					dst.set(LONG_LAYOUT, target + 8, lsb);
+				}
+				MemorySegment swap = src;
+				src = dst;
+				dst = swap;
+				swapped = !swapped;
+			}
+			if (swapped) {
+				MemorySegment.copy(src, 0, segment, 0, bytes);
+			}
+		} finally {
+			if (scratchArena != null) {
+				scratchArena.close();
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the UUIDs are in ascending unsigned 128-bit order
+	 * 
+	 * @return true if sorted
+	 */
+	public boolean isSorted() {
+		for (long i = 1; i < size; i++) {
+			if (compare(i - 1, segment, i) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Remove duplicates from the sorted array, keeping the order
+	 * 
+	 * @return the number of UUIDs removed
+	 */
+	public long distinct() {
+		checkWritable();
+		if (size < 2) {
+			return 0;
+		}
+		long kept = 1;
+		for (long i = 1; i < size; i++) {
+			if (compare(kept - 1, segment, i) != 0) {
+				if (kept != i) {
+					MemorySegment.copy(segment, i * UUID_BYTES, segment, kept * UUID_BYTES, UUID_BYTES);
+				}
+				kept++;
+			}
+		}
+		long removed = size - kept;
+		size = kept;
+		return removed;
+	}
+
+	/**
+	 * Search the sorted array for the UUID
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return the index of the UUID, or {@code -(insertion point) - 1} if absent
+	 */
+	public long binarySearch(long msb, long lsb) {
+		long low = 0;
+		long high = size - 1;
+		while (low <= high) {
+			long mid = (low + high) >>> 1;
+			long offset = mid * UUID_BYTES;
+			int cmp = Long.compareUnsigned(segment.get(LONG_LAYOUT, offset), msb);
+			if (cmp == 0) {
+				cmp = Long.compareUnsigned(segment.get(LONG_LAYOUT, offset + 8), lsb);
+			}
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Search the sorted array for the UUID
+	 * 
+	 * @param uuid the UUID
+	 * @return the index of the UUID, or {@code -(insertion point) - 1} if absent
+	 */
+	public long binarySearch(UUID uuid) {
+		return binarySearch(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Returns the distinct UUIDs present in both sorted arrays, sorted. The result
+	 * is off-heap if this array is not on the heap.
+	 * 
+	 * @param other the other sorted array
+	 * @return the intersection
+	 */
+	public UUIDArray intersect(UUIDArray other) {
+		return merge(other, true);
+	}
+
+	/**
+	 * Returns the distinct UUIDs of this sorted array absent from the other sorted
+	 * array, sorted. The result is off-heap if this array is not on the heap.
+	 * 
+	 * @param other the other sorted array
+	 * @return the difference
+	 */
+	public UUIDArray difference(UUIDArray other) {
+		return merge(other, false);
+	}
+
+	private UUIDArray merge(UUIDArray other, boolean intersect) {
+		UUIDArray result = arena == null ? new UUIDArray((int) Math.min(size, 16)) : offHeap(Math.min(size, 16));
+		long i = 0;
+		long j = 0;
+		while (i < size) {
+			int cmp = j < other.size ? compare(i, other.segment, j) : -1;
+			if (cmp > 0) {
+				j++;
+				continue;
+			}
+			if ((cmp == 0) == intersect) {
+				long offset = i * UUID_BYTES;
+				long msb = segment.get(LONG_LAYOUT, offset);
+				long lsb = segment.get(LONG_LAYOUT, offset + 8);
+				if (result.size == 0 || result.compare(result.size - 1, segment, i) != 0) {
+					result.append(msb, lsb);
+				}
+			}
+			i++;
+		}
+		return result;
+	}
+
+	/**
+	 * Compare the UUID at index i of this array with the UUID at index j of the
+	 * segment, unsigned
+	 */
+	private int compare(long i, MemorySegment other, long j) {
+		int cmp = Long.compareUnsigned(segment.get(LONG_LAYOUT, i * UUID_BYTES), other.get(LONG_LAYOUT, j * UUID_BYTES));
+		if (cmp != 0) {
+			return cmp;
+		}
+		return Long.compareUnsigned(segment.get(LONG_LAYOUT, i * UUID_BYTES + 8),
+				other.get(LONG_LAYOUT, j * UUID_BYTES + 8));
+	}
+
+	private void checkWritable() {
+		if (readOnly) {
+			throw new UnsupportedOperationException("UUID array is read only");
+		}
+	}
+
+	/**
+	 * Release the off-heap memory or the mapping, a heap array is left as is
+	 */
+	@Override
+	public void close() {
+		if (arena != null) {
+			arena.close();
+			arena = null;
+			segment = MemorySegment.ofArray(new long[0]);
+			size = 0;
+		}
+	}
+
+	/**
+	 * Bytes per UUID
+	 */
+	public static final int UUID_BYTES = 16;
+
+	/**
+	 * The largest number of UUIDs on the heap and off the heap
+	 */
+	private static final int MAX_HEAP_CAPACITY = (Integer.MAX_VALUE - 8) / 2;
+	private static final long MAX_OFF_HEAP_CAPACITY = Long.MAX_VALUE / UUID_BYTES;
+
+	/**
+	 * Big endian long, the layout of {@code UUIDUtils.toBytes}
+	 */
+	private static final ValueLayout.OfLong LONG_LAYOUT = ValueLayout.JAVA_LONG_UNALIGNED
+			.withOrder(ByteOrder.BIG_ENDIAN);
+
+	private MemorySegment segment;
+	private Arena arena;
+	private long size;
+	private final boolean readOnly;
+}
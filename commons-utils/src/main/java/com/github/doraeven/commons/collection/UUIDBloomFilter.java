@@ -0,0 +1,263 @@
+package com.github.doraeven.commons.collection;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Blocked UUID Bloom Filter
+ * 
+ * <p>
+ * A Bloom filter keyed directly on the most/least significant bits of a UUID.
+ * All the bits of a UUID fall into one 512 bit block (one cache line), so a
+ * lookup touches a single cache line whatever the number of hash functions.
+ * Blocking costs a slightly higher false positive rate than a classic filter of
+ * the same size.
+ * </p>
+ * 
+ * <ul>
+ * <li>Lock-free: bits are set with atomic or, concurrent adds and lookups never
+ * block.</li>
+ * <li>No false negatives, UUIDs can not be removed.</li>
+ * <li>{@link #size()} counts the adds that set a bit, a false positive or a
+ * UUID added twice is not counted.</li>
+ * <li>{@link #save(Path)} and {@link #load(Path)} go through a memory
+ * mapping.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public class UUIDBloomFilter extends AbstractUUIDFilter {
+
+	/**
+	 * Create an empty filter
+	 * 
+	 * @param expectedInsertions the expected number of UUIDs
+	 * @param falsePositiveRate  the false positive rate at the expected number of
+	 *                           UUIDs, between 0 and 1
+	 */
+	public UUIDBloomFilter(long expectedInsertions, double falsePositiveRate) {
+		this(blocks(expectedInsertions, falsePositiveRate), expectedInsertions);
+	}
+
+	private UUIDBloomFilter(long blocks, long expectedInsertions) {
+		this(new long[(int) blocks * BLOCK_WORDS],
+				hashFunctions(blocks * BLOCK_BITS / (double) Math.max(expectedInsertions, 1)), 0);
+	}
+
+	private UUIDBloomFilter(long[] words, int hashFunctions, long count) {
+		super(words);
+		this.blocks = words.length / BLOCK_WORDS;
+		this.hashFunctions = hashFunctions;
+		this.count.add(count);
+	}
+
+	/**
+	 * Read a filter written by {@link #save(Path)}
+	 * 
+	 * @param path the file
+	 * @return the filter
+	 * @throws IOException if the file can not be read or is not a Bloom filter
+	 */
+	public static UUIDBloomFilter load(Path path) throws IOException {
+		Image image = load(path, TYPE);
+		if (image.words.length % BLOCK_WORDS != 0 || image.parameter < 1 || image.parameter > MAX_HASH_FUNCTIONS
+				|| image.count < 0) {
+			throw new IOException("Corrupted UUID Bloom filter file: " + path);
+		}
+		return new UUIDBloomFilter(image.words, image.parameter, image.count);
+	}
+
+	/**
+	 * Add the UUID
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if a bit was set, i.e. the UUID was certainly not present
+	 */
+	public boolean add(long msb, long lsb) {
+		final long[] words = this.words;
+		long h = hash(msb, lsb);
+		int base = block(h) * BLOCK_WORDS;
+		long g = mix(h);
+		int bit = (int) g;
+		int step = (int) (g >>> 32) | 1;
+		boolean added = false;
+		for (int i = 0; i < hashFunctions; i++, bit += step) {
+			int index = base + ((bit & (BLOCK_BITS - 1)) >>> 6);
+			long mask = 1L << bit;
+			// skip the atomic write when the bit is already there, the common case of
+			// a seen UUID
+			if (((long) WORDS.getOpaque(words, index) & mask) == 0) {
+				WORDS.getAndBitwiseOr(words, index, mask);
+				added = true;
+			}
+		}
+		if (added) {
+			count.increment();
+		}
+		return added;
+	}
+
+	/**
+	 * Add the UUID
+	 * 
+	 * @param uuid the UUID
+	 * @return true if a bit was set, i.e. the UUID was certainly not present
+	 */
+	public boolean add(UUID uuid) {
+		return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Returns true if the UUID may have been added, false if it certainly was not
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if the UUID may be present
+	 */
+	public boolean mightContain(long msb, long lsb) {
+		final long[] words = this.words;
+		long h = hash(msb, lsb);
+		int base = block(h) * BLOCK_WORDS;
+		long g = mix(h);
+		int bit = (int) g;
+		int step = (int) (g >>> 32) | 1;
+		for (int i = 0; i < hashFunctions; i++, bit += step) {
+			int index = base + ((bit & (BLOCK_BITS - 1)) >>> 6);
+			if (((long) WORDS.getOpaque(words, index) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the UUID may have been added, false if it certainly was not
+	 * 
+	 * @param uuid the UUID
+	 * @return true if the UUID may be present
+	 */
+	public boolean mightContain(UUID uuid) {
+		return mightContain(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Returns the number of UUIDs added, the adds that set a bit
+	 * 
+	 * @return the number of UUIDs
+	 */
+	public long size() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the number of bits
+	 * 
+	 * @return the number of bits
+	 */
+	public long getBitSize() {
+		return (long) words.length * Long.SIZE;
+	}
+
+	/**
+	 * Returns the number of bits set per UUID
+	 * 
+	 * @return the number of hash functions
+	 */
+	public int getHashFunctions() {
+		return hashFunctions;
+	}
+
+	/**
+	 * Returns the fraction of bits set, the false positive rate grows with it
+	 * 
+	 * @return the fill ratio between 0 and 1
+	 */
+	public double getFillRatio() {
+		long set = 0;
+		for (int i = 0; i < words.length; i++) {
+			set += Long.bitCount((long) WORDS.getOpaque(words, i));
+		}
+		return set / (double) getBitSize();
+	}
+
+	/**
+	 * Remove all UUIDs, not atomic with respect to concurrent adds
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		count.reset();
+	}
+
+	@Override
+	int type() {
+		return TYPE;
+	}
+
+	@Override
+	int parameter() {
+		return hashFunctions;
+	}
+
+	@Override
+	long count() {
+		return count.sum();
+	}
+
+	/**
+	 * The block of the hash, multiply-shift of the high 32 bits
+	 */
+	private int block(long h) {
+		return (int) (((h >>> 32) * blocks) >>> 32);
+	}
+
+	/**
+	 * The number of blocks of a classic filter with the false positive rate,
+	 * {@code -n ln(p) / ln(2)^2} bits
+	 */
+	private static long blocks(long expectedInsertions, double falsePositiveRate) {
+		if (expectedInsertions < 0) {
+			throw new IllegalArgumentException("expectedInsertions must not be negative: " + expectedInsertions);
+		}
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+			throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1: " + falsePositiveRate);
+		}
+		double bits = -Math.max(expectedInsertions, 1) * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+		double blocks = Math.max(1, Math.ceil(bits / BLOCK_BITS));
+		if (blocks > MAX_WORDS / BLOCK_WORDS) {
+			throw new IllegalArgumentException("UUID Bloom filter too large: " + expectedInsertions);
+		}
+		return (long) blocks;
+	}
+
+	/**
+	 * The optimal number of hash functions, {@code bits per UUID * ln(2)}
+	 */
+	private static int hashFunctions(double bitsPerInsertion) {
+		return (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS, Math.round(bitsPerInsertion * Math.log(2))));
+	}
+
+	/**
+	 * The file type
+	 */
+	private static final int TYPE = 1;
+
+	/**
+	 * Bits and words per block
+	 */
+	private static final int BLOCK_BITS = 512;
+	private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE;
+
+	/**
+	 * The largest number of bits set per UUID
+	 */
+	private static final int MAX_HASH_FUNCTIONS = 16;
+
+	private final int blocks;
+	private final int hashFunctions;
+	private final LongAdder count = new LongAdder();
+}
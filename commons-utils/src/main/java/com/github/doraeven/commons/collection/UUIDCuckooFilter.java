@@ -0,0 +1,425 @@
+package com.github.doraeven.commons.collection;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * UUID Cuckoo Filter
+ * 
+ * <p>
+ * A cuckoo filter keyed directly on the most/least significant bits of a UUID.
+ * Each UUID is reduced to a fingerprint stored in one of two candidate buckets;
+ * unlike a Bloom filter, UUIDs can be removed. A bucket is one {@code long}
+ * packing its fingerprints, so every bucket update is a single compare and
+ * set.
+ * </p>
+ * 
+ * <ul>
+ * <li>Lock-free: adds, removes and lookups never block. When both buckets are
+ * full, fingerprints are relocated along a cuckoo path, each one copied to its
+ * new bucket before it leaves the old one, so lookups never miss a UUID being
+ * moved.</li>
+ * <li>The fingerprint size follows the false positive rate: 8 bits (8 per
+ * bucket, rate below 6.25%), 16 bits (4 per bucket, below 0.0123%) or 32 bits (2
+ * per bucket, below 0.000001%).</li>
+ * <li>Only remove UUIDs that were added: removing another UUID with the same
+ * fingerprint and bucket removes that one instead.</li>
+ * <li>{@link #save(Path)} and {@link #load(Path)} go through a memory
+ * mapping.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public class UUIDCuckooFilter extends AbstractUUIDFilter {
+
+	/**
+	 * Create an empty filter
+	 * 
+	 * @param expectedInsertions the expected number of UUIDs
+	 * @param falsePositiveRate  the highest false positive rate, between 0 and 1
+	 */
+	public UUIDCuckooFilter(long expectedInsertions, double falsePositiveRate) {
+		this(fingerprintBits(falsePositiveRate), expectedInsertions);
+	}
+
+	private UUIDCuckooFilter(int fingerprintBits, long expectedInsertions) {
+		this(new long[buckets(expectedInsertions, fingerprintBits)], fingerprintBits, 0);
+	}
+
+	private UUIDCuckooFilter(long[] buckets, int fingerprintBits, long count) {
+		super(buckets);
+		this.fingerprintBits = fingerprintBits;
+		this.entries = Long.SIZE / fingerprintBits;
+		this.fingerprintMask = -1L >>> (Long.SIZE - fingerprintBits);
+		this.mask = buckets.length - 1;
+		this.count.add(count);
+	}
+
+	/**
+	 * Read a filter written by {@link #save(Path)}
+	 * 
+	 * @param path the file
+	 * @return the filter
+	 * @throws IOException if the file can not be read or is not a cuckoo filter
+	 */
+	public static UUIDCuckooFilter load(Path path) throws IOException {
+		Image image = load(path, TYPE);
+		int bits = image.parameter;
+		if (Integer.bitCount(image.words.length) != 1 || (bits != 8 && bits != 16 && bits != 32)
+				|| image.count < 0) {
+			throw new IOException("Corrupted UUID cuckoo filter file: " + path);
+		}
+		return new UUIDCuckooFilter(image.words, bits, image.count);
+	}
+
+	/**
+	 * Add the UUID, a UUID added twice is stored twice
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return false if the filter is full
+	 */
+	public boolean add(long msb, long lsb) {
+		long h = hash(msb, lsb);
+		long fingerprint = fingerprint(h);
+		int first = (int) (h >>> 32) & mask;
+		int second = alternate(first, fingerprint);
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			if (insert(first, fingerprint) || insert(second, fingerprint)) {
+				count.increment();
+				return true;
+			}
+			if (!relocate(ThreadLocalRandom.current().nextBoolean() ? first : second)) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Add the UUID, a UUID added twice is stored twice
+	 * 
+	 * @param uuid the UUID
+	 * @return false if the filter is full
+	 */
+	public boolean add(UUID uuid) {
+		return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Returns true if the UUID may have been added, false if it certainly was not
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if the UUID may be present
+	 */
+	public boolean mightContain(long msb, long lsb) {
+		long h = hash(msb, lsb);
+		long fingerprint = fingerprint(h);
+		int first = (int) (h >>> 32) & mask;
+		int second = alternate(first, fingerprint);
+		long value = bucket(first);
+		for (;;) {
+			if (lane(value, fingerprint) >= 0 || lane(bucket(second), fingerprint) >= 0) {
+				return true;
+			}
+			// a fingerprint moved from the second bucket to the first after the first
+			// was read changes the first bucket
+			long again = bucket(first);
+			if (again == value) {
+				return false;
+			}
+			value = again;
+		}
+	}
+
+	/**
+	 * Returns true if the UUID may have been added, false if it certainly was not
+	 * 
+	 * @param uuid the UUID
+	 * @return true if the UUID may be present
+	 */
+	public boolean mightContain(UUID uuid) {
+		return mightContain(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Remove the UUID once
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if a matching fingerprint was removed
+	 */
+	public boolean remove(long msb, long lsb) {
+		long h = hash(msb, lsb);
+		long fingerprint = fingerprint(h);
+		int first = (int) (h >>> 32) & mask;
+		if (delete(first, fingerprint) || delete(alternate(first, fingerprint), fingerprint)) {
+			count.decrement();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Remove the UUID once
+	 * 
+	 * @param uuid the UUID
+	 * @return true if a matching fingerprint was removed
+	 */
+	public boolean remove(UUID uuid) {
+		return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Returns the number of UUIDs
+	 * 
+	 * @return the number of UUIDs
+	 */
+	public long size() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the number of fingerprints the filter holds
+	 * 
+	 * @return the capacity
+	 */
+	public long capacity() {
+		return (long) words.length * entries;
+	}
+
+	/**
+	 * Returns the number of bits per fingerprint
+	 * 
+	 * @return 8, 16 or 32
+	 */
+	public int getFingerprintBits() {
+		return fingerprintBits;
+	}
+
+	/**
+	 * Remove all UUIDs, not atomic with respect to concurrent adds
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		count.reset();
+	}
+
+	@Override
+	int type() {
+		return TYPE;
+	}
+
+	@Override
+	int parameter() {
+		return fingerprintBits;
+	}
+
+	@Override
+	long count() {
+		return count.sum();
+	}
+
+	/**
+	 * Free a slot of the bucket by moving fingerprints along a random cuckoo path
+	 * ending in a bucket with a free slot. Returns false if no such path was
+	 * found, true when the caller should try again.
+	 */
+	private boolean relocate(int bucket) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		// the slot and the fingerprint of each step, the buckets are recomputed
+		// backwards from the free one with alternate
+		long[] path = PATHS.get();
+		for (int depth = 0; depth < MAX_KICKS; depth++) {
+			int lane = random.nextInt(entries);
+			long fingerprint = (bucket(bucket) >>> (lane * fingerprintBits)) & fingerprintMask;
+			if (fingerprint == 0) {
+				// freed by another thread
+				return true;
+			}
+			int next = alternate(bucket, fingerprint);
+			path[depth] = (long) lane << 32 | fingerprint;
+			if (lane(bucket(next), 0) >= 0) {
+				// move backwards from the free slot, each move freeing the slot of the
+				// previous one
+				int to = next;
+				for (int i = depth; i >= 0; i--) {
+					long step = path[i];
+					long moved = step & 0xFFFFFFFFL;
+					int from = alternate(to, moved);
+					if (!insert(to, moved)) {
+						return true;
+					}
+					if (!clear(from, (int) (step >>> 32), moved)) {
+						// moved or removed meanwhile, drop the copy
+						delete(to, moved);
+						return true;
+					}
+					to = from;
+				}
+				return true;
+			}
+			bucket = next;
+		}
+		return false;
+	}
+
+	/**
+	 * Store the fingerprint in a free slot of the bucket, false if full
+	 */
+	private boolean insert(int bucket, long fingerprint) {
+		for (;;) {
+			long value = bucket(bucket);
+			int lane = lane(value, 0);
+			if (lane < 0) {
+				return false;
+			}
+			long updated = value | (fingerprint << (lane * fingerprintBits));
+			if (WORDS.compareAndSet(words, bucket, value, updated)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Remove one occurrence of the fingerprint from the bucket
+	 */
+	private boolean delete(int bucket, long fingerprint) {
+		for (;;) {
+			long value = bucket(bucket);
+			int lane = lane(value, fingerprint);
+			if (lane < 0) {
+				return false;
+			}
+			long updated = value & ~(fingerprintMask << (lane * fingerprintBits));
+			if (WORDS.compareAndSet(words, bucket, value, updated)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Remove the fingerprint from the slot, false if the slot holds something else
+	 */
+	private boolean clear(int bucket, int lane, long fingerprint) {
+		int shift = lane * fingerprintBits;
+		for (;;) {
+			long value = bucket(bucket);
+			if (((value >>> shift) & fingerprintMask) != fingerprint) {
+				return false;
+			}
+			if (WORDS.compareAndSet(words, bucket, value, value & ~(fingerprintMask << shift))) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * The first slot of the bucket value holding the fingerprint, 0 for a free
+	 * slot, or -1
+	 */
+	private int lane(long value, long fingerprint) {
+		for (int lane = 0; lane < entries; lane++) {
+			if (((value >>> (lane * fingerprintBits)) & fingerprintMask) == fingerprint) {
+				return lane;
+			}
+		}
+		return -1;
+	}
+
+	private long bucket(int bucket) {
+		return (long) WORDS.getVolatile(words, bucket);
+	}
+
+	/**
+	 * The low bits of the hash, never 0 which marks a free slot
+	 */
+	private long fingerprint(long h) {
+		long fingerprint = h & fingerprintMask;
+		return fingerprint == 0 ? 1 : fingerprint;
+	}
+
+	/**
+	 * The other bucket of the fingerprint, {@code alternate(alternate(b, f), f)}
+	 * is {@code b}
+	 */
+	private int alternate(int bucket, long fingerprint) {
+		return (bucket ^ (int) ((fingerprint * 0xC6A4A7935BD1E995L) >>> 32)) & mask;
+	}
+
+	/**
+	 * The smallest fingerprint whose rate {@code 2 * entries / 2^bits} is below
+	 * the false positive rate
+	 */
+	private static int fingerprintBits(double falsePositiveRate) {
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+			throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1: " + falsePositiveRate);
+		}
+		for (int bits = 8; bits < Long.SIZE; bits <<= 1) {
+			if (2.0 * (Long.SIZE / bits) / Math.pow(2, bits) <= falsePositiveRate) {
+				return bits;
+			}
+		}
+		throw new IllegalArgumentException("falsePositiveRate too low, the lowest is 2^-30: " + falsePositiveRate);
+	}
+
+	/**
+	 * The power of two number of buckets holding the expected number of UUIDs
+	 * under the load factor
+	 */
+	private static int buckets(long expectedInsertions, int fingerprintBits) {
+		if (expectedInsertions < 0) {
+			throw new IllegalArgumentException("expectedInsertions must not be negative: " + expectedInsertions);
+		}
+		int entries = Long.SIZE / fingerprintBits;
+		double loadFactor = entries == 2 ? TWO_WAY_LOAD_FACTOR : LOAD_FACTOR;
+		long needed = Math.max(1, (long) Math.ceil(expectedInsertions / (entries * loadFactor)));
+		if (needed > MAX_BUCKETS) {
+			throw new IllegalArgumentException("UUID cuckoo filter too large: " + expectedInsertions);
+		}
+		return needed == 1 ? 1 : (int) Long.highestOneBit(needed - 1) << 1;
+	}
+
+	/**
+	 * The file type
+	 */
+	private static final int TYPE = 2;
+
+	/**
+	 * The reachable load of buckets of 4 or 8 fingerprints and of 2 fingerprints
+	 */
+	private static final double LOAD_FACTOR = 0.94;
+	private static final double TWO_WAY_LOAD_FACTOR = 0.84;
+
+	/**
+	 * The longest cuckoo path and the number of paths tried per add
+	 */
+	private static final int MAX_KICKS = 500;
+	private static final int MAX_ATTEMPTS = 16;
+
+	/**
+	 * The cuckoo path of the thread, reused by every relocation
+	 */
+	private static final ThreadLocal<long[]> PATHS = ThreadLocal.withInitial(() -> new long[MAX_KICKS]);
+
+	/**
+	 * The largest number of buckets
+	 */
+	private static final int MAX_BUCKETS = 1 << 30;
+
+	private final int fingerprintBits;
+
+	/**
+	 * The number of fingerprints per bucket
+	 */
+	private final int entries;
+	private final long fingerprintMask;
+	private final int mask;
+	private final LongAdder count = new LongAdder();
+}
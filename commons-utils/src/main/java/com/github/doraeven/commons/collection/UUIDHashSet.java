@@ -0,0 +1,188 @@
+package com.github.doraeven.commons.collection;
+
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * UUID Hash Set
+ * 
+ * <p>
+ * A set of UUIDs keeping the most and least significant bits inline in a
+ * {@code long[]}, about 16 bytes per slot instead of a UUID object and a node
+ * per entry. Adding and looking up by bits creates no object.
+ * </p>
+ * 
+ * <p>
+ * Not thread safe, see {@link ConcurrentUUIDHashSet}.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+public class UUIDHashSet extends AbstractUUIDHashTable implements Iterable<UUID> {
+
+	/**
+	 * Create an empty set
+	 */
+	public UUIDHashSet() {
+		this(16, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Create an empty set holding the expected number of UUIDs without resizing
+	 * 
+	 * @param expectedSize the expected number of UUIDs
+	 */
+	public UUIDHashSet(int expectedSize) {
+		this(expectedSize, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Create an empty set
+	 * 
+	 * @param expectedSize the expected number of UUIDs
+	 * @param loadFactor   the load factor, between 0 and 1 exclusive
+	 */
+	public UUIDHashSet(int expectedSize, float loadFactor) {
+		super(expectedSize, loadFactor);
+	}
+
+	/**
+	 * Add the UUID
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if the UUID was not present
+	 */
+	public boolean add(long msb, long lsb) {
+		if (msb == 0 && lsb == 0) {
+			if (containsNil) {
+				return false;
+			}
+			return containsNil = true;
+		}
+		int slot = find(msb, lsb);
+		if (slot >= 0) {
+			return false;
+		}
+		insert(~slot, msb, lsb);
+		return true;
+	}
+
+	/**
+	 * Add the UUID
+	 * 
+	 * @param uuid the UUID
+	 * @return true if the UUID was not present
+	 */
+	public boolean add(UUID uuid) {
+		return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Returns true if the UUID is present
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if the UUID is present
+	 */
+	public boolean contains(long msb, long lsb) {
+		return containsKey(msb, lsb);
+	}
+
+	/**
+	 * Returns true if the UUID is present
+	 * 
+	 * @param uuid the UUID
+	 * @return true if the UUID is present
+	 */
+	public boolean contains(UUID uuid) {
+		return containsKey(uuid);
+	}
+
+	/**
+	 * Remove the UUID
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return true if the UUID was present
+	 */
+	public boolean remove(long msb, long lsb) {
+		if (msb == 0 && lsb == 0) {
+			boolean removed = containsNil;
+			containsNil = false;
+			return removed;
+		}
+		int slot = find(msb, lsb);
+		if (slot < 0) {
+			return false;
+		}
+		removeSlot(slot);
+		return true;
+	}
+
+	/**
+	 * Remove the UUID
+	 * 
+	 * @param uuid the UUID
+	 * @return true if the UUID was present
+	 */
+	public boolean remove(UUID uuid) {
+		return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Copy the UUIDs as most/least significant bits pairs, in table order
+	 * 
+	 * @param dst    the destination
+	 * @param offset the index of the first long
+	 * @return the number of longs written, twice the size
+	 */
+	public int toArray(long[] dst, int offset) {
+		int length = size() * 2;
+		if (offset < 0 || offset > dst.length - length) {
+			throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length
+					+ ") out of bounds for length " + dst.length);
+		}
+		int[] position = { offset };
+		forEachKey((msb, lsb) -> {
+			dst[position[0]++] = msb;
+			dst[position[0]++] = lsb;
+		});
+		return length;
+	}
+
+	/**
+	 * Iterate the UUIDs, one UUID object is created per element. Prefer
+	 * {@link #forEachKey(com.github.doraeven.commons.utils.UUIDBitsConsumer)} on hot
+	 * paths.
+	 */
+	@Override
+	public Iterator<UUID> iterator() {
+		return newKeyIterator();
+	}
+
+	@Override
+	void beginRehash(int capacity) {
+	}
+
+	@Override
+	void rehashValue(int oldSlot, int newSlot) {
+	}
+
+	@Override
+	void endRehash() {
+	}
+
+	@Override
+	void moveValue(int from, int to) {
+	}
+
+	@Override
+	void clearValue(int slot) {
+	}
+
+	@Override
+	void clearValues() {
+	}
+}
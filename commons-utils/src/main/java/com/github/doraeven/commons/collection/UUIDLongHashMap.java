@@ -0,0 +1,285 @@
+package com.github.doraeven.commons.collection;
+
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * UUID to long Hash Map
+ * 
+ * <p>
+ * A map from UUIDs to primitive longs, keeping the key bits inline in a
+ * {@code long[]} and the values in a parallel {@code long[]}, so neither
+ * inserts nor lookups create objects.
+ * </p>
+ * 
+ * <p>
+ * Not thread safe.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+public class UUIDLongHashMap extends AbstractUUIDHashTable {
+
+	/**
+	 * Create an empty map returning 0 for absent keys
+	 */
+	public UUIDLongHashMap() {
+		this(16, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Create an empty map holding the expected number of keys without resizing
+	 * 
+	 * @param expectedSize the expected number of keys
+	 */
+	public UUIDLongHashMap(int expectedSize) {
+		this(expectedSize, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Create an empty map
+	 * 
+	 * @param expectedSize the expected number of keys
+	 * @param loadFactor   the load factor, between 0 and 1 exclusive
+	 */
+	public UUIDLongHashMap(int expectedSize, float loadFactor) {
+		super(expectedSize, loadFactor);
+		this.values = new long[mask + 1];
+	}
+
+	/**
+	 * Returns the value returned for absent keys
+	 * 
+	 * @return the default value
+	 */
+	public long getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * Set the value returned for absent keys
+	 * 
+	 * @param defaultValue the default value
+	 */
+	public void setDefaultValue(long defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+
+	/**
+	 * Returns the value of the key, or the default value if absent
+	 * 
+	 * @param msb the most significant bits of the key
+	 * @param lsb the least significant bits of the key
+	 * @return the value
+	 */
+	public long get(long msb, long lsb) {
+		if (msb == 0 && lsb == 0) {
+			return containsNil ? nilValue : defaultValue;
+		}
+		int slot = find(msb, lsb);
+		return slot >= 0 ? values[slot] : defaultValue;
+	}
+
+	/**
+	 * Returns the value of the key, or the default value if absent
+	 * 
+	 * @param key the key
+	 * @return the value
+	 */
+	public long get(UUID key) {
+		return get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+	}
+
+	/**
+	 * Associate the value with the key
+	 * 
+	 * @param msb   the most significant bits of the key
+	 * @param lsb   the least significant bits of the key
+	 * @param value the value
+	 * @return the previous value, or the default value if absent
+	 */
+	public long put(long msb, long lsb, long value) {
+		if (msb == 0 && lsb == 0) {
+			long previous = containsNil ? nilValue : defaultValue;
+			containsNil = true;
+			nilValue = value;
+			return previous;
+		}
+		int slot = find(msb, lsb);
+		if (slot >= 0) {
+			long previous = values[slot];
+			values[slot] = value;
+			return previous;
+		}
+		values[~slot] = value;
+		insert(~slot, msb, lsb);
+		return defaultValue;
+	}
+
+	/**
+	 * Associate the value with the key
+	 * 
+	 * @param key   the key
+	 * @param value the value
+	 * @return the previous value, or the default value if absent
+	 */
+	public long put(UUID key, long value) {
+		return put(key.getMostSignificantBits(), key.getLeastSignificantBits(), value);
+	}
+
+	/**
+	 * Add the increment to the value of the key, an absent key starts from the
+	 * default value
+	 * 
+	 * @param msb       the most significant bits of the key
+	 * @param lsb       the least significant bits of the key
+	 * @param increment the increment
+	 * @return the new value
+	 */
+	public long addTo(long msb, long lsb, long increment) {
+		if (msb == 0 && lsb == 0) {
+			nilValue = (containsNil ? nilValue : defaultValue) + increment;
+			containsNil = true;
+			return nilValue;
+		}
+		int slot = find(msb, lsb);
+		if (slot >= 0) {
+			return values[slot] += increment;
+		}
+		long value = defaultValue + increment;
+		values[~slot] = value;
+		insert(~slot, msb, lsb);
+		return value;
+	}
+
+	/**
+	 * Add the increment to the value of the key, an absent key starts from the
+	 * default value
+	 * 
+	 * @param key       the key
+	 * @param increment the increment
+	 * @return the new value
+	 */
+	public long addTo(UUID key, long increment) {
+		return addTo(key.getMostSignificantBits(), key.getLeastSignificantBits(), increment);
+	}
+
+	/**
+	 * Remove the key
+	 * 
+	 * @param msb the most significant bits of the key
+	 * @param lsb the least significant bits of the key
+	 * @return the removed value, or the default value if absent
+	 */
+	public long remove(long msb, long lsb) {
+		if (msb == 0 && lsb == 0) {
+			long previous = containsNil ? nilValue : defaultValue;
+			containsNil = false;
+			return previous;
+		}
+		int slot = find(msb, lsb);
+		if (slot < 0) {
+			return defaultValue;
+		}
+		long previous = values[slot];
+		removeSlot(slot);
+		return previous;
+	}
+
+	/**
+	 * Remove the key
+	 * 
+	 * @param key the key
+	 * @return the removed value, or the default value if absent
+	 */
+	public long remove(UUID key) {
+		return remove(key.getMostSignificantBits(), key.getLeastSignificantBits());
+	}
+
+	/**
+	 * Performs the action for each entry, in table order, without creating objects
+	 * 
+	 * @param action the action
+	 */
+	public void forEach(EntryConsumer action) {
+		if (containsNil) {
+			action.accept(0, 0, nilValue);
+		}
+		final long[] keys = this.keys;
+		final long[] values = this.values;
+		for (int i = 0; i < values.length; i++) {
+			long msb = keys[i * 2];
+			long lsb = keys[i * 2 + 1];
+			if (msb != 0 || lsb != 0) {
+				action.accept(msb, lsb, values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Iterate the keys, one UUID object is created per element
+	 * 
+	 * @return the key iterator
+	 */
+	public Iterator<UUID> keyIterator() {
+		return newKeyIterator();
+	}
+
+	@Override
+	void beginRehash(int capacity) {
+		oldValues = values;
+		values = new long[capacity];
+	}
+
+	@Override
+	void rehashValue(int oldSlot, int newSlot) {
+		values[newSlot] = oldValues[oldSlot];
+	}
+
+	@Override
+	void endRehash() {
+		oldValues = null;
+	}
+
+	@Override
+	void moveValue(int from, int to) {
+		values[to] = values[from];
+	}
+
+	@Override
+	void clearValue(int slot) {
+		values[slot] = 0;
+	}
+
+	@Override
+	void clearValues() {
+	}
+
+	/**
+	 * Entry Consumer
+	 * 
+	 * @author motu
+	 *
+	 */
+	@FunctionalInterface
+	public static interface EntryConsumer {
+
+		/**
+		 * Performs this operation on the entry
+		 * 
+		 * @param msb   the most significant bits of the key
+		 * @param lsb   the least significant bits of the key
+		 * @param value the value
+		 */
+		void accept(long msb, long lsb, long value);
+	}
+
+	/**
+	 * The values, parallel to the key slots
+	 */
+	private long[] values;
+	private long[] oldValues;
+	private long nilValue;
+	private long defaultValue;
+}
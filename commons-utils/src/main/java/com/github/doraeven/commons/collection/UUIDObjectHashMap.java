@@ -0,0 +1,260 @@
+package com.github.doraeven.commons.collection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * UUID to Object Hash Map
+ * 
+ * <p>
+ * A map from UUIDs to objects, keeping the key bits inline in a {@code long[]}
+ * and the values in a parallel {@code Object[]}, so no UUID object or node is
+ * created per entry. Null values are not allowed, null means absent.
+ * </p>
+ * 
+ * <p>
+ * Not thread safe.
+ * </p>
+ * 
+ * @author motu
+ *
+ * @param <V> the type of values
+ */
+public class UUIDObjectHashMap<V> extends AbstractUUIDHashTable {
+
+	/**
+	 * Create an empty map
+	 */
+	public UUIDObjectHashMap() {
+		this(16, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Create an empty map holding the expected number of keys without resizing
+	 * 
+	 * @param expectedSize the expected number of keys
+	 */
+	public UUIDObjectHashMap(int expectedSize) {
+		this(expectedSize, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Create an empty map
+	 * 
+	 * @param expectedSize the expected number of keys
+	 * @param loadFactor   the load factor, between 0 and 1 exclusive
+	 */
+	public UUIDObjectHashMap(int expectedSize, float loadFactor) {
+		super(expectedSize, loadFactor);
+		this.values = new Object[mask + 1];
+	}
+
+	/**
+	 * Returns the value of the key, or null if absent
+	 * 
+	 * @param msb the most significant bits of the key
+	 * @param lsb the least significant bits of the key
+	 * @return the value
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long msb, long lsb) {
+		if (msb == 0 && lsb == 0) {
+			return nilValue;
+		}
+		int slot = find(msb, lsb);
+		return slot >= 0 ? (V) values[slot] : null;
+	}
+
+	/**
+	 * Returns the value of the key, or null if absent
+	 * 
+	 * @param key the key
+	 * @return the value
+	 */
+	public V get(UUID key) {
+		return get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+	}
+
+	/**
+	 * Associate the value with the key
+	 * 
+	 * @param msb   the most significant bits of the key
+	 * @param lsb   the least significant bits of the key
+	 * @param value the value, not null
+	 * @return the previous value, or null if absent
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long msb, long lsb, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("value must not be null");
+		}
+		if (msb == 0 && lsb == 0) {
+			V previous = nilValue;
+			containsNil = true;
+			nilValue = value;
+			return previous;
+		}
+		int slot = find(msb, lsb);
+		if (slot >= 0) {
+			V previous = (V) values[slot];
+			values[slot] = value;
+			return previous;
+		}
+		values[~slot] = value;
+		insert(~slot, msb, lsb);
+		return null;
+	}
+
+	/**
+	 * Associate the value with the key
+	 * 
+	 * @param key   the key
+	 * @param value the value, not null
+	 * @return the previous value, or null if absent
+	 */
+	public V put(UUID key, V value) {
+		return put(key.getMostSignificantBits(), key.getLeastSignificantBits(), value);
+	}
+
+	/**
+	 * Associate the value with the key if absent
+	 * 
+	 * @param msb   the most significant bits of the key
+	 * @param lsb   the least significant bits of the key
+	 * @param value the value, not null
+	 * @return the current value, or null if the value was associated
+	 */
+	public V putIfAbsent(long msb, long lsb, V value) {
+		V current = get(msb, lsb);
+		if (current != null) {
+			return current;
+		}
+		put(msb, lsb, value);
+		return null;
+	}
+
+	/**
+	 * Remove the key
+	 * 
+	 * @param msb the most significant bits of the key
+	 * @param lsb the least significant bits of the key
+	 * @return the removed value, or null if absent
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long msb, long lsb) {
+		if (msb == 0 && lsb == 0) {
+			V previous = nilValue;
+			containsNil = false;
+			nilValue = null;
+			return previous;
+		}
+		int slot = find(msb, lsb);
+		if (slot < 0) {
+			return null;
+		}
+		V previous = (V) values[slot];
+		removeSlot(slot);
+		return previous;
+	}
+
+	/**
+	 * Remove the key
+	 * 
+	 * @param key the key
+	 * @return the removed value, or null if absent
+	 */
+	public V remove(UUID key) {
+		return remove(key.getMostSignificantBits(), key.getLeastSignificantBits());
+	}
+
+	/**
+	 * Performs the action for each entry, in table order, without creating UUID
+	 * objects
+	 * 
+	 * @param action the action
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(EntryConsumer<? super V> action) {
+		if (containsNil) {
+			action.accept(0, 0, nilValue);
+		}
+		final long[] keys = this.keys;
+		final Object[] values = this.values;
+		for (int i = 0; i < values.length; i++) {
+			long msb = keys[i * 2];
+			long lsb = keys[i * 2 + 1];
+			if (msb != 0 || lsb != 0) {
+				action.accept(msb, lsb, (V) values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Iterate the keys, one UUID object is created per element
+	 * 
+	 * @return the key iterator
+	 */
+	public Iterator<UUID> keyIterator() {
+		return newKeyIterator();
+	}
+
+	@Override
+	void beginRehash(int capacity) {
+		oldValues = values;
+		values = new Object[capacity];
+	}
+
+	@Override
+	void rehashValue(int oldSlot, int newSlot) {
+		values[newSlot] = oldValues[oldSlot];
+	}
+
+	@Override
+	void endRehash() {
+		oldValues = null;
+	}
+
+	@Override
+	void moveValue(int from, int to) {
+		values[to] = values[from];
+	}
+
+	@Override
+	void clearValue(int slot) {
+		values[slot] = null;
+	}
+
+	@Override
+	void clearValues() {
+		Arrays.fill(values, null);
+		nilValue = null;
+	}
+
+	/**
+	 * Entry Consumer
+	 * 
+	 * @author motu
+	 *
+	 * @param <V> the type of values
+	 */
+	@FunctionalInterface
+	public static interface EntryConsumer<V> {
+
+		/**
+		 * Performs this operation on the entry
+		 * 
+		 * @param msb   the most significant bits of the key
+		 * @param lsb   the least significant bits of the key
+		 * @param value the value
+		 */
+		void accept(long msb, long lsb, V value);
+	}
+
+	/**
+	 * The values, parallel to the key slots
+	 */
+	private Object[] values;
+	private Object[] oldValues;
+	private V nilValue;
+}
@@ -0,0 +1,532 @@
+package com.github.doraeven.commons.format;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Data Size
+ * 
+ * <p>
+ * An immutable number of bytes, built on the units of {@link DataUnit} and
+ * formatted with {@link FileSizeFormat}. A size in the long range is a long,
+ * the arithmetic is long arithmetic with overflow tests; a {@link BigInteger}
+ * is created only for a size beyond the long range.
+ * </p>
+ * 
+ * <ul>
+ * <li>{@code of} and {@code plus}, {@code minus}, {@code multipliedBy},
+ * {@code dividedBy}, {@code negated} are exact, beyond the long range
+ * included.</li>
+ * <li>The {@code Checked} operations throw an {@link ArithmeticException} if
+ * the result is beyond the long range, as {@link Math#addExact(long, long)}
+ * does.</li>
+ * <li>The {@code Saturated} operations return {@link Long#MIN_VALUE} or
+ * {@link Long#MAX_VALUE} bytes instead, as
+ * {@link java.util.concurrent.TimeUnit#toNanos(long)} does.</li>
+ * <li>Sizes can be negative, a difference of sizes for example.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public final class DataSize implements Comparable<DataSize>, Serializable {
+
+	private DataSize(long bytes, BigInteger bigBytes) {
+		this.bytes = bytes;
+		this.bigBytes = bigBytes;
+	}
+
+	/**
+	 * Obtain a size of bytes
+	 * 
+	 * @param bytes the number of bytes
+	 * @return the size
+	 */
+	public static DataSize ofBytes(long bytes) {
+		return bytes == 0 ? ZERO : new DataSize(bytes, null);
+	}
+
+	/**
+	 * Obtain a size of bytes, beyond the long range included
+	 * 
+	 * @param bytes the number of bytes
+	 * @return the size
+	 */
+	public static DataSize ofBytes(BigInteger bytes) {
+		Objects.requireNonNull(bytes, "bytes");
+		return bytes.bitLength() < Long.SIZE ? ofBytes(bytes.longValue()) : new DataSize(0, bytes);
+	}
+
+	/**
+	 * Obtain a size of an amount of a unit
+	 * 
+	 * @param amount the amount of the unit
+	 * @param unit   the unit
+	 * @return the size, exact
+	 */
+	public static DataSize of(long amount, DataUnit unit) {
+		int shift = unit.getShift();
+		if (shift >= 0 && shift < Long.SIZE - 1) {
+			long bytes = amount << shift;
+			if (bytes >> shift == amount) {
+				return ofBytes(bytes);
+			}
+		} else if (unit.isLongRange()) {
+			return multiply(amount, unit.getBytes());
+		}
+		return ofBytes(BigInteger.valueOf(amount).multiply(unit.getBigBytes()));
+	}
+
+	/**
+	 * Obtain a size of an amount of a unit, beyond the long range included
+	 * 
+	 * @param amount the amount of the unit
+	 * @param unit   the unit
+	 * @return the size, exact
+	 */
+	public static DataSize of(BigInteger amount, DataUnit unit) {
+		return ofBytes(amount.multiply(unit.getBigBytes()));
+	}
+
+	/**
+	 * Obtain a size of a decimal amount of a unit, such as 1.5 GiB
+	 * 
+	 * @param amount the amount of the unit
+	 * @param unit   the unit
+	 * @return the size, exact
+	 * @throws ArithmeticException if the size is not a whole number of bytes
+	 */
+	public static DataSize of(BigDecimal amount, DataUnit unit) {
+		return ofBytes(amount.multiply(new BigDecimal(unit.getBigBytes())).toBigIntegerExact());
+	}
+
+	/**
+	 * Parse a human-readable size with {@link FileSizeParser#LENIENT}, fractions
+	 * of a byte are rounded down
+	 * 
+	 * @param text the human-readable size, such as {@code "1.5 GiB"}
+	 * @return the size
+	 * @throws ParseException if the text is not a size
+	 */
+	public static DataSize parse(CharSequence text) throws ParseException {
+		return ofBytes(FileSizeParser.LENIENT.parseBigInteger(text));
+	}
+
+	/**
+	 * Returns true if the number of bytes fits in a long
+	 * 
+	 * @return true if in the long range
+	 */
+	public boolean isLongRange() {
+		return bigBytes == null;
+	}
+
+	/**
+	 * Returns the number of bytes
+	 * 
+	 * @return the number of bytes
+	 * @throws ArithmeticException if the size is beyond the long range
+	 */
+	public long toBytes() {
+		if (bigBytes != null) {
+			throw new ArithmeticException("long overflow");
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of bytes, saturated at {@link Long#MIN_VALUE} and
+	 * {@link Long#MAX_VALUE}
+	 * 
+	 * @return the number of bytes
+	 */
+	public long toBytesSaturated() {
+		if (bigBytes != null) {
+			return bigBytes.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of bytes
+	 * 
+	 * @return the number of bytes
+	 */
+	public BigInteger toBigInteger() {
+		return bigBytes != null ? bigBytes : BigInteger.valueOf(bytes);
+	}
+
+	/**
+	 * Returns the number of whole units, truncated toward zero
+	 * 
+	 * @param unit the unit
+	 * @return the number of units
+	 * @throws ArithmeticException if the number of units is beyond the long range
+	 */
+	public long to(DataUnit unit) {
+		if (bigBytes != null) {
+			return bigBytes.divide(unit.getBigBytes()).longValueExact();
+		}
+		if (!unit.isLongRange()) {
+			return 0;
+		}
+		int shift = unit.getShift();
+		return shift >= 0 && bytes >= 0 ? bytes >>> shift : bytes / unit.getBytes();
+	}
+
+	/**
+	 * Returns the exact number of units, such as 1.5 for 1536 bytes in KiB
+	 * 
+	 * @param unit the unit
+	 * @return the number of units
+	 */
+	public BigDecimal toBigDecimal(DataUnit unit) {
+		// 2^n and 10^n divisors, the quotient has a finite decimal expansion
+		return new BigDecimal(toBigInteger()).divide(new BigDecimal(unit.getBigBytes()));
+	}
+
+	/**
+	 * Returns the sign of the size
+	 * 
+	 * @return -1, 0 or 1
+	 */
+	public int signum() {
+		return bigBytes != null ? bigBytes.signum() : Long.signum(bytes);
+	}
+
+	/**
+	 * Returns true if the size is zero
+	 * 
+	 * @return true for zero bytes
+	 */
+	public boolean isZero() {
+		return bigBytes == null && bytes == 0;
+	}
+
+	/**
+	 * Returns true if the size is negative
+	 * 
+	 * @return true below zero bytes
+	 */
+	public boolean isNegative() {
+		return signum() < 0;
+	}
+
+	/**
+	 * Returns this size plus the other
+	 * 
+	 * @param other the size to add
+	 * @return the sum, exact
+	 */
+	public DataSize plus(DataSize other) {
+		if (bigBytes == null && other.bigBytes == null) {
+			long sum = bytes + other.bytes;
+			if (((bytes ^ sum) & (other.bytes ^ sum)) >= 0) {
+				return ofBytes(sum);
+			}
+		}
+		return ofBytes(toBigInteger().add(other.toBigInteger()));
+	}
+
+	/**
+	 * Returns this size plus the other
+	 * 
+	 * @param other the size to add
+	 * @return the sum
+	 * @throws ArithmeticException if the sum is beyond the long range
+	 */
+	public DataSize plusChecked(DataSize other) {
+		if (bigBytes == null && other.bigBytes == null) {
+			return ofBytes(Math.addExact(bytes, other.bytes));
+		}
+		return checked(plus(other));
+	}
+
+	/**
+	 * Returns this size plus the other, saturated at the bounds of the long range
+	 * 
+	 * @param other the size to add
+	 * @return the sum
+	 */
+	public DataSize plusSaturated(DataSize other) {
+		if (bigBytes == null && other.bigBytes == null) {
+			long sum = bytes + other.bytes;
+			if (((bytes ^ sum) & (other.bytes ^ sum)) >= 0) {
+				return ofBytes(sum);
+			}
+			return other.bytes > 0 ? LONG_MAX : LONG_MIN;
+		}
+		return saturated(plus(other));
+	}
+
+	/**
+	 * Returns this size minus the other
+	 * 
+	 * @param other the size to subtract
+	 * @return the difference, exact
+	 */
+	public DataSize minus(DataSize other) {
+		if (bigBytes == null && other.bigBytes == null) {
+			long difference = bytes - other.bytes;
+			if (((bytes ^ other.bytes) & (bytes ^ difference)) >= 0) {
+				return ofBytes(difference);
+			}
+		}
+		return ofBytes(toBigInteger().subtract(other.toBigInteger()));
+	}
+
+	/**
+	 * Returns this size minus the other
+	 * 
+	 * @param other the size to subtract
+	 * @return the difference
+	 * @throws ArithmeticException if the difference is beyond the long range
+	 */
+	public DataSize minusChecked(DataSize other) {
+		if (bigBytes == null && other.bigBytes == null) {
+			return ofBytes(Math.subtractExact(bytes, other.bytes));
+		}
+		return checked(minus(other));
+	}
+
+	/**
+	 * Returns this size minus the other, saturated at the bounds of the long range
+	 * 
+	 * @param other the size to subtract
+	 * @return the difference
+	 */
+	public DataSize minusSaturated(DataSize other) {
+		if (bigBytes == null && other.bigBytes == null) {
+			long difference = bytes - other.bytes;
+			if (((bytes ^ other.bytes) & (bytes ^ difference)) >= 0) {
+				return ofBytes(difference);
+			}
+			return other.bytes < 0 ? LONG_MAX : LONG_MIN;
+		}
+		return saturated(minus(other));
+	}
+
+	/**
+	 * Returns this size multiplied by the factor
+	 * 
+	 * @param factor the factor
+	 * @return the product, exact
+	 */
+	public DataSize multipliedBy(long factor) {
+		if (bigBytes == null) {
+			return multiply(bytes, factor);
+		}
+		return ofBytes(bigBytes.multiply(BigInteger.valueOf(factor)));
+	}
+
+	/**
+	 * Returns this size multiplied by the factor
+	 * 
+	 * @param factor the factor
+	 * @return the product
+	 * @throws ArithmeticException if the product is beyond the long range
+	 */
+	public DataSize multipliedByChecked(long factor) {
+		if (bigBytes == null) {
+			return ofBytes(Math.multiplyExact(bytes, factor));
+		}
+		return checked(multipliedBy(factor));
+	}
+
+	/**
+	 * Returns this size multiplied by the factor, saturated at the bounds of the
+	 * long range
+	 * 
+	 * @param factor the factor
+	 * @return the product
+	 */
+	public DataSize multipliedBySaturated(long factor) {
+		if (bigBytes == null) {
+			long product = bytes * factor;
+			if (Math.multiplyHigh(bytes, factor) == product >> (Long.SIZE - 1)) {
+				return ofBytes(product);
+			}
+			return (bytes ^ factor) < 0 ? LONG_MIN : LONG_MAX;
+		}
+		return saturated(multipliedBy(factor));
+	}
+
+	/**
+	 * Returns this size divided by the divisor, truncated toward zero
+	 * 
+	 * @param divisor the divisor
+	 * @return the quotient
+	 * @throws ArithmeticException if the divisor is zero
+	 */
+	public DataSize dividedBy(long divisor) {
+		if (bigBytes == null) {
+			if (bytes == Long.MIN_VALUE && divisor == -1) {
+				return negated();
+			}
+			return ofBytes(bytes / divisor);
+		}
+		if (divisor == 0) {
+			throw new ArithmeticException("/ by zero");
+		}
+		return ofBytes(bigBytes.divide(BigInteger.valueOf(divisor)));
+	}
+
+	/**
+	 * Returns this size negated
+	 * 
+	 * @return the negated size, exact
+	 */
+	public DataSize negated() {
+		if (bigBytes == null) {
+			return bytes == Long.MIN_VALUE ? new DataSize(0, BigInteger.valueOf(bytes).negate()) : ofBytes(-bytes);
+		}
+		return ofBytes(bigBytes.negate());
+	}
+
+	/**
+	 * Returns the absolute size
+	 * 
+	 * @return this size if not negative, the negated size otherwise
+	 */
+	public DataSize abs() {
+		return isNegative() ? negated() : this;
+	}
+
+	/**
+	 * Format the size in binary units with 2 decimal places, as
+	 * {@link FileSizeFormat#humanReadableByteCount(long)}
+	 * 
+	 * @return a human-readable display value
+	 */
+	public String format() {
+		return formatTo(new StringBuilder()).toString();
+	}
+
+	/**
+	 * Format the size
+	 * 
+	 * @param useSiUnits use SI units or binary units
+	 * @param places     the number of decimal places to display
+	 * @param locale     the locale, see
+	 *                   {@link FileSizeFormat#humanReadableByteCount(BigInteger, boolean, int, Locale)}
+	 * @return a human-readable display value
+	 */
+	public String format(boolean useSiUnits, int places, Locale locale) {
+		if (bigBytes == null) {
+			return FileSizeFormat.humanReadableByteCount(bytes, useSiUnits, places, locale);
+		}
+		return FileSizeFormat.humanReadableByteCount(bigBytes, useSiUnits, places, locale);
+	}
+
+	/**
+	 * Append the size in binary units with 2 decimal places, nothing is created in
+	 * the long range
+	 * 
+	 * @param dst the destination
+	 * @return {@code dst}
+	 */
+	public StringBuilder formatTo(StringBuilder dst) {
+		return formatTo(false, FileSizeFormat.DEFAULT_PLACES, dst);
+	}
+
+	/**
+	 * Append the size, nothing is created in the long range up to
+	 * {@link FileSizeFormatter#MAX_PLACES} decimal places
+	 * 
+	 * @param useSiUnits use SI units or binary units
+	 * @param places     the number of decimal places to display
+	 * @param dst        the destination
+	 * @return {@code dst}
+	 */
+	public StringBuilder formatTo(boolean useSiUnits, int places, StringBuilder dst) {
+		if (bigBytes == null) {
+			return FileSizeFormat.formatTo(bytes, useSiUnits, places, dst);
+		}
+		return dst.append(FileSizeFormat.humanReadableByteCount(bigBytes, useSiUnits, places, Locale.ROOT));
+	}
+
+	@Override
+	public int compareTo(DataSize other) {
+		if (bigBytes == null) {
+			return other.bigBytes == null ? Long.compare(bytes, other.bytes) : -other.bigBytes.signum();
+		}
+		return other.bigBytes == null ? bigBytes.signum() : bigBytes.compareTo(other.bigBytes);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DataSize other)) {
+			return false;
+		}
+		return bytes == other.bytes && Objects.equals(bigBytes, other.bigBytes);
+	}
+
+	@Override
+	public int hashCode() {
+		return bigBytes != null ? bigBytes.hashCode() : Long.hashCode(bytes);
+	}
+
+	/**
+	 * The size in binary units with 2 decimal places, rounded down, see
+	 * {@link #toBytes()} for the exact size
+	 */
+	@Override
+	public String toString() {
+		return format();
+	}
+
+	/**
+	 * The product of two longs, a {@link BigInteger} only if it overflows
+	 */
+	private static DataSize multiply(long x, long y) {
+		long product = x * y;
+		if (Math.multiplyHigh(x, y) == product >> (Long.SIZE - 1)) {
+			return ofBytes(product);
+		}
+		return ofBytes(BigInteger.valueOf(x).multiply(BigInteger.valueOf(y)));
+	}
+
+	private static DataSize checked(DataSize size) {
+		if (size.bigBytes != null) {
+			throw new ArithmeticException("long overflow");
+		}
+		return size;
+	}
+
+	private static DataSize saturated(DataSize size) {
+		if (size.bigBytes != null) {
+			return size.bigBytes.signum() > 0 ? LONG_MAX : LONG_MIN;
+		}
+		return size;
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Zero bytes
+	 */
+	public static final DataSize ZERO = new DataSize(0, null);
+
+	/**
+	 * The bounds of the saturated operations
+	 */
+	private static final DataSize LONG_MAX = new DataSize(Long.MAX_VALUE, null);
+	private static final DataSize LONG_MIN = new DataSize(Long.MIN_VALUE, null);
+
+	/**
+	 * The number of bytes in the long range, 0 beyond
+	 */
+	private final long bytes;
+
+	/**
+	 * The number of bytes beyond the long range, null in the long range
+	 */
+	private final BigInteger bigBytes;
+}
@@ -0,0 +1,109 @@
+package com.github.doraeven.commons.format;
+
+import java.math.BigInteger;
+
+/**
+ * Data Unit
+ * 
+ * <p>
+ * The units of {@link FileSizeFormat.SI_UNITS} and
+ * {@link FileSizeFormat.BINARY_UNITS} as one enum, each carrying its number of
+ * bytes: a long multiplier up to EB/EiB, a {@link BigInteger} for all, and a
+ * shift for bytes and the binary units.
+ * </p>
+ * 
+ * <ul>
+ * <li>The constant names are the labels of {@link FileSizeFormat}.</li>
+ * <li>{@link #toBytes(long)} saturates like
+ * {@link java.util.concurrent.TimeUnit#toNanos(long)}, see {@link DataSize}
+ * for exact sizes.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public enum DataUnit {
+
+	B(BigInteger.ONE, 0),
+
+	kB(FileSizeFormat.ONE_KB_BI, -1), MB(FileSizeFormat.ONE_MB_BI, -1), GB(FileSizeFormat.ONE_GB_BI, -1),
+	TB(FileSizeFormat.ONE_TB_BI, -1), PB(FileSizeFormat.ONE_PB_BI, -1), EB(FileSizeFormat.ONE_EB_BI, -1),
+	ZB(FileSizeFormat.ONE_ZB_BI, -1), YB(FileSizeFormat.ONE_YB_BI, -1),
+
+	KiB(FileSizeFormat.ONE_KiB_BI, 10), MiB(FileSizeFormat.ONE_MiB_BI, 20), GiB(FileSizeFormat.ONE_GiB_BI, 30),
+	TiB(FileSizeFormat.ONE_TiB_BI, 40), PiB(FileSizeFormat.ONE_PiB_BI, 50), EiB(FileSizeFormat.ONE_EiB_BI, 60),
+	ZiB(FileSizeFormat.ONE_ZiB_BI, 70), YiB(FileSizeFormat.ONE_YiB_BI, 80);
+
+	private DataUnit(BigInteger bigBytes, int shift) {
+		this.bigBytes = bigBytes;
+		this.bytes = bigBytes.bitLength() < Long.SIZE ? bigBytes.longValue() : 0;
+		this.shift = shift;
+	}
+
+	/**
+	 * Returns the number of bytes of one unit
+	 * 
+	 * @return the number of bytes
+	 * @throws ArithmeticException for ZB, ZiB, YB and YiB, beyond the long range
+	 */
+	public long getBytes() {
+		if (bytes == 0) {
+			throw new ArithmeticException("1 " + name() + " is beyond the long range");
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of bytes of one unit
+	 * 
+	 * @return the number of bytes
+	 */
+	public BigInteger getBigBytes() {
+		return bigBytes;
+	}
+
+	/**
+	 * Returns the number of bytes of one unit as a power of two
+	 * 
+	 * @return the shift, 0 for bytes, -1 for the SI units
+	 */
+	public int getShift() {
+		return shift;
+	}
+
+	/**
+	 * Returns true if the number of bytes of one unit fits in a long
+	 * 
+	 * @return false for ZB, ZiB, YB and YiB
+	 */
+	public boolean isLongRange() {
+		return bytes != 0;
+	}
+
+	/**
+	 * Convert an amount of this unit to bytes, saturated at
+	 * {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE}
+	 * 
+	 * @param amount the amount of this unit
+	 * @return the number of bytes
+	 */
+	public long toBytes(long amount) {
+		if (amount == 0) {
+			return 0;
+		}
+		if (bytes != 0) {
+			long low = amount * bytes;
+			if (Math.multiplyHigh(amount, bytes) == low >> (Long.SIZE - 1)) {
+				return low;
+			}
+		}
+		return amount > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+	}
+
+	/**
+	 * The number of bytes, 0 beyond the long range
+	 */
+	private final long bytes;
+	private final BigInteger bigBytes;
+	private final int shift;
+}
@@ -1,8 +1,11 @@
 package com.github.doraeven.commons.format;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
 import java.util.Locale;
 import java.util.Objects;
 
@@ -17,6 +20,9 @@ import java.util.Objects;
  * <li>Supports the SI or IEC units. SI (1 k = 1,000), Binary (1 Ki =
  * 1,024).</li>
  * <li>Supports I18n</li>
+ * <li>{@code formatTo} writes a long size into a {@link StringBuilder}, an
+ * {@link Appendable}, a {@link CharBuffer} or a byte array without creating any
+ * object, see {@link FileSizeFormatter} for other formats.</li>
  * </ul>
  * 
  * @see <a href=
@@ -246,6 +252,10 @@ public class FileSizeFormat {
 	public static String humanReadableByteCount(final BigInteger size, final boolean useSiUnits, final int places,
 			final Locale locale) {
 		Objects.requireNonNull(size, "size");
+		if (size.bitLength() < Long.SIZE && isFormatterPlaces(places)) {
+			// in the long range, integer arithmetic only
+			return humanReadableByteCount(size.longValue(), useSiUnits, places, locale);
+		}
 
 		BigDecimal sizeDividend = new BigDecimal(size);
 		RoundingMode roundingMode = RoundingMode.DOWN;
@@ -367,7 +377,7 @@ public class FileSizeFormat {
 	 *         MiB, KiB or B)
 	 */
 	public static String humanReadableByteCount(final long size) {
-		return humanReadableByteCount(BigInteger.valueOf(size));
+		return humanReadableByteCount(size, false);
 	}
 
 	/**
@@ -391,7 +401,7 @@ public class FileSizeFormat {
 	 *         MiB, KiB or B)
 	 */
 	public static String humanReadableByteCount(final long size, final int places) {
-		return humanReadableByteCount(BigInteger.valueOf(size), places);
+		return humanReadableByteCount(size, false, places);
 	}
 
 	/**
@@ -416,7 +426,7 @@ public class FileSizeFormat {
 	 *         MiB, KiB or B)
 	 */
 	public static String humanReadableByteCount(final long size, final Locale locale) {
-		return humanReadableByteCount(BigInteger.valueOf(size), locale);
+		return humanReadableByteCount(size, false, locale);
 	}
 
 	/**
@@ -443,7 +453,7 @@ public class FileSizeFormat {
 	 *         MiB, KiB or B)
 	 */
 	public static String humanReadableByteCount(final long size, final int places, final Locale locale) {
-		return humanReadableByteCount(BigInteger.valueOf(size), places, locale);
+		return humanReadableByteCount(size, false, places, locale);
 	}
 
 	/**
@@ -468,7 +478,7 @@ public class FileSizeFormat {
 	 *         MiB, KiB or B)
 	 */
 	public static String humanReadableByteCount(final long size, final boolean useSiUnits) {
-		return humanReadableByteCount(BigInteger.valueOf(size), useSiUnits);
+		return humanReadableByteCount(size, useSiUnits, DEFAULT_PLACES);
 	}
 
 	/**
@@ -495,7 +505,7 @@ public class FileSizeFormat {
 	 *         MiB, KiB or B)
 	 */
 	public static String humanReadableByteCount(final long size, final boolean useSiUnits, final int places) {
-		return humanReadableByteCount(BigInteger.valueOf(size), useSiUnits, places);
+		return humanReadableByteCount(size, useSiUnits, places, Locale.getDefault());
 	}
 
 	/**
@@ -523,7 +533,7 @@ public class FileSizeFormat {
 	 *         MiB, KiB or B)
 	 */
 	public static String humanReadableByteCount(final long size, final boolean useSiUnits, final Locale locale) {
-		return humanReadableByteCount(BigInteger.valueOf(size), useSiUnits, locale);
+		return humanReadableByteCount(size, useSiUnits, DEFAULT_PLACES, locale);
 	}
 
 	/**
@@ -554,7 +564,183 @@ public class FileSizeFormat {
 	 */
 	public static String humanReadableByteCount(final long size, final boolean useSiUnits, final int places,
 			final Locale locale) {
-		return humanReadableByteCount(BigInteger.valueOf(size), useSiUnits, places, locale);
+		if (!isFormatterPlaces(places)) {
+			return humanReadableByteCount(BigInteger.valueOf(size), useSiUnits, places, locale);
+		}
+		// the number is not localized, %s of a BigDecimal
+		return formatter(useSiUnits, places).format(size);
+	}
+
+	/**
+	 * Append the human-readable size in binary units with 2 decimal places, the
+	 * same text as {@link #humanReadableByteCount(long)} without creating any
+	 * object
+	 * 
+	 * @param size the number of bytes
+	 * @param dst  the destination
+	 * @return {@code dst}
+	 */
+	public static StringBuilder formatTo(final long size, final StringBuilder dst) {
+		return formatTo(size, false, DEFAULT_PLACES, dst);
+	}
+
+	/**
+	 * Append the human-readable size, the same text as
+	 * {@link #humanReadableByteCount(long, boolean, int)} without creating any
+	 * object
+	 * 
+	 * @param size       the number of bytes
+	 * @param useSiUnits use SI units or binary units
+	 * @param places     the number of decimal places to display; beyond
+	 *                   {@link FileSizeFormatter#MAX_PLACES} the text of
+	 *                   {@code humanReadableByteCount} is copied
+	 * @param dst        the destination
+	 * @return {@code dst}
+	 */
+	public static StringBuilder formatTo(final long size, final boolean useSiUnits, final int places,
+			final StringBuilder dst) {
+		if (!isFormatterPlaces(places)) {
+			return dst.append(humanReadableByteCount(size, useSiUnits, places, Locale.ROOT));
+		}
+		return formatter(useSiUnits, places).formatTo(size, dst);
+	}
+
+	/**
+	 * Append the human-readable size in binary units with 2 decimal places, the
+	 * same text as {@link #humanReadableByteCount(long)} without creating any
+	 * object
+	 * 
+	 * @param <A>  the type of the destination
+	 * @param size the number of bytes
+	 * @param dst  the destination
+	 * @return {@code dst}
+	 * @throws IOException if the destination fails
+	 */
+	public static <A extends Appendable> A formatTo(final long size, final A dst) throws IOException {
+		return formatTo(size, false, DEFAULT_PLACES, dst);
+	}
+
+	/**
+	 * Append the human-readable size, the same text as
+	 * {@link #humanReadableByteCount(long, boolean, int)} without creating any
+	 * object
+	 * 
+	 * @param <A>        the type of the destination
+	 * @param size       the number of bytes
+	 * @param useSiUnits use SI units or binary units
+	 * @param places     the number of decimal places to display; beyond
+	 *                   {@link FileSizeFormatter#MAX_PLACES} the text of
+	 *                   {@code humanReadableByteCount} is copied
+	 * @param dst        the destination
+	 * @return {@code dst}
+	 * @throws IOException if the destination fails
+	 */
+	public static <A extends Appendable> A formatTo(final long size, final boolean useSiUnits, final int places,
+			final A dst) throws IOException {
+		if (!isFormatterPlaces(places)) {
+			dst.append(humanReadableByteCount(size, useSiUnits, places, Locale.ROOT));
+			return dst;
+		}
+		return formatter(useSiUnits, places).formatTo(size, dst);
+	}
+
+	/**
+	 * Put the human-readable size in binary units with 2 decimal places at the
+	 * position of the buffer, the same text as
+	 * {@link #humanReadableByteCount(long)} without creating any object
+	 * 
+	 * @param size the number of bytes
+	 * @param dst  the destination buffer
+	 * @return {@code dst}
+	 * @throws BufferOverflowException if the buffer is too small, the position
+	 *                                 is unchanged
+	 */
+	public static CharBuffer formatTo(final long size, final CharBuffer dst) {
+		return formatTo(size, false, DEFAULT_PLACES, dst);
+	}
+
+	/**
+	 * Put the human-readable size at the position of the buffer, the same text
+	 * as {@link #humanReadableByteCount(long, boolean, int)} without creating any
+	 * object
+	 * 
+	 * @param size       the number of bytes
+	 * @param useSiUnits use SI units or binary units
+	 * @param places     the number of decimal places to display; beyond
+	 *                   {@link FileSizeFormatter#MAX_PLACES} the text of
+	 *                   {@code humanReadableByteCount} is copied
+	 * @param dst        the destination buffer
+	 * @return {@code dst}
+	 * @throws BufferOverflowException if the buffer is too small, the position
+	 *                                 is unchanged
+	 */
+	public static CharBuffer formatTo(final long size, final boolean useSiUnits, final int places,
+			final CharBuffer dst) {
+		if (!isFormatterPlaces(places)) {
+			// put checks the remaining space first
+			return dst.put(humanReadableByteCount(size, useSiUnits, places, Locale.ROOT));
+		}
+		return formatter(useSiUnits, places).formatTo(size, dst);
+	}
+
+	/**
+	 * Write the human-readable size in binary units with 2 decimal places into
+	 * the byte array as ASCII, the same text as
+	 * {@link #humanReadableByteCount(long)} without creating any object
+	 * 
+	 * @param size   the number of bytes
+	 * @param dst    the destination array
+	 * @param offset the index of the first byte in {@code dst}
+	 * @return the index after the last byte written
+	 * @throws IndexOutOfBoundsException if the array is too small, nothing is
+	 *                                   written
+	 */
+	public static int formatTo(final long size, final byte[] dst, final int offset) {
+		return formatTo(size, false, DEFAULT_PLACES, dst, offset);
+	}
+
+	/**
+	 * Write the human-readable size into the byte array as ASCII, the same text
+	 * as {@link #humanReadableByteCount(long, boolean, int)} without creating any
+	 * object
+	 * 
+	 * @param size       the number of bytes
+	 * @param useSiUnits use SI units or binary units
+	 * @param places     the number of decimal places to display; beyond
+	 *                   {@link FileSizeFormatter#MAX_PLACES} the text of
+	 *                   {@code humanReadableByteCount} is copied
+	 * @param dst        the destination array
+	 * @param offset     the index of the first byte in {@code dst}
+	 * @return the index after the last byte written
+	 * @throws IndexOutOfBoundsException if the array is too small, nothing is
+	 *                                   written
+	 */
+	public static int formatTo(final long size, final boolean useSiUnits, final int places, final byte[] dst,
+			final int offset) {
+		if (!isFormatterPlaces(places)) {
+			String text = humanReadableByteCount(size, useSiUnits, places, Locale.ROOT);
+			Objects.checkFromIndexSize(offset, text.length(), dst.length);
+			for (int i = 0; i < text.length(); i++) {
+				dst[offset + i] = (byte) text.charAt(i);
+			}
+			return offset + text.length();
+		}
+		return formatter(useSiUnits, places).formatTo(size, dst, offset);
+	}
+
+	/**
+	 * Whether a shared formatter handles the places, the BigDecimal path does the
+	 * others
+	 */
+	private static boolean isFormatterPlaces(final int places) {
+		return places >= 0 && places <= FileSizeFormatter.MAX_PLACES;
+	}
+
+	/**
+	 * The shared formatter of the unit system and the places, not localized
+	 */
+	private static FileSizeFormatter formatter(final boolean useSiUnits, final int places) {
+		return useSiUnits ? Formatters.SI[places] : Formatters.BINARY[places];
 	}
 
 	/**
@@ -914,4 +1100,22 @@ public class FileSizeFormat {
 	 * The number of bytes in a yobibyte.
 	 */
 	public static final BigInteger ONE_YiB_BI = ONE_KiB_BI.multiply(ONE_ZiB_BI);
+
+	/**
+	 * The formatters by places, created on first use: FileSizeFormatter reads the
+	 * constants of this class
+	 */
+	private static final class Formatters {
+
+		private static FileSizeFormatter[] formatters(boolean useSiUnits) {
+			FileSizeFormatter[] formatters = new FileSizeFormatter[FileSizeFormatter.MAX_PLACES + 1];
+			for (int places = 0; places < formatters.length; places++) {
+				formatters[places] = new FileSizeFormatter(useSiUnits, places, Locale.ROOT);
+			}
+			return formatters;
+		}
+
+		static final FileSizeFormatter[] SI = formatters(true);
+		static final FileSizeFormatter[] BINARY = formatters(false);
+	}
 }
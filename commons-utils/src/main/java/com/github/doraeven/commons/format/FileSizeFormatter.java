@@ -0,0 +1,682 @@
+package com.github.doraeven.commons.format;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.text.DecimalFormatSymbols;
+import java.text.FieldPosition;
+import java.text.Format;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * File Size Formatter
+ * 
+ * <p>
+ * A reusable {@link FileSizeFormat}: the unit system, the decimal places, the
+ * locale, the rounding mode and the separator between the number and the unit
+ * are fixed once, the decimal separator, the digits and the unit labels of the
+ * locale are resolved in the constructor. Formatting a size in the long range
+ * is integer arithmetic and one {@code char[]} write.
+ * </p>
+ * 
+ * <ul>
+ * <li>Immutable and thread-safe, one instance can be shared.</li>
+ * <li>As {@link FileSizeFormat}: sizes below 1 kB/KiB and negative sizes are
+ * displayed in bytes, a whole number of units has no decimal places.</li>
+ * <li>The {@code formatTo} methods write a long size straight into a
+ * {@link StringBuilder}, an {@link Appendable}, a {@link CharBuffer} or an
+ * array without creating any object.</li>
+ * <li>A {@link Format}, formats {@link Number} objects, {@link BigInteger}
+ * beyond the long range included, parses with {@link FileSizeParser}.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public class FileSizeFormatter extends Format {
+
+	/**
+	 * Create a formatter of binary units, 2 decimal places, the default locale,
+	 * rounding down, the defaults of {@link FileSizeFormat}
+	 */
+	public FileSizeFormatter() {
+		this(false, FileSizeFormat.DEFAULT_PLACES, Locale.getDefault());
+	}
+
+	/**
+	 * Create a formatter rounding down, separating the number and the unit with a
+	 * space
+	 * 
+	 * @param useSiUnits use SI units (1 kB = 1,000) or binary units (1 KiB =
+	 *                   1,024)
+	 * @param places     the number of decimal places to display, at most
+	 *                   {@link #MAX_PLACES}; not applicable for bytes
+	 * @param locale     the locale of the decimal separator and the digits, no
+	 *                   localization if null
+	 */
+	public FileSizeFormatter(boolean useSiUnits, int places, Locale locale) {
+		this(useSiUnits, places, locale, RoundingMode.DOWN, " ");
+	}
+
+	/**
+	 * Create a formatter
+	 * 
+	 * @param useSiUnits    use SI units (1 kB = 1,000) or binary units (1 KiB =
+	 *                      1,024)
+	 * @param places        the number of decimal places to display, at most
+	 *                      {@link #MAX_PLACES}; not applicable for bytes
+	 * @param locale        the locale of the decimal separator and the digits, no
+	 *                      localization if null
+	 * @param roundingMode  the rounding of the last decimal place
+	 * @param unitSeparator the text between the number and the unit
+	 */
+	public FileSizeFormatter(boolean useSiUnits, int places, Locale locale, RoundingMode roundingMode,
+			String unitSeparator) {
+		Objects.requireNonNull(roundingMode, "roundingMode");
+		Objects.requireNonNull(unitSeparator, "unitSeparator");
+		if (places < 0 || places > MAX_PLACES) {
+			throw new IllegalArgumentException("places must be between 0 and " + MAX_PLACES + ": " + places);
+		}
+		this.useSiUnits = useSiUnits;
+		this.places = places;
+		this.locale = locale;
+		this.roundingMode = roundingMode;
+		this.unitSeparator = unitSeparator;
+
+		DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale == null ? Locale.ROOT : locale);
+		this.decimalSeparator = symbols.getDecimalSeparator();
+		this.minusSign = symbols.getMinusSign();
+		this.digits = new char[10];
+		for (int i = 0; i < 10; i++) {
+			digits[i] = (char) (symbols.getZeroDigit() + i);
+		}
+		Enum<?>[] units = useSiUnits ? FileSizeFormat.SI_UNITS.values() : FileSizeFormat.BINARY_UNITS.values();
+		this.unitLabels = new char[units.length][];
+		for (int i = 0; i < units.length; i++) {
+			unitLabels[i] = (unitSeparator + units[i].name()).toCharArray();
+		}
+		// a negative size in bytes, or 4 digits of a rounded whole number
+		this.maxLength = Math.max(MAX_LONG_LENGTH, 5 + places) + unitSeparator.length() + 3;
+		this.ascii = digits[0] == '0' && decimalSeparator < 0x80 && minusSign < 0x80
+				&& unitSeparator.chars().allMatch(c -> c < 0x80);
+	}
+
+	/**
+	 * Format the size
+	 * 
+	 * @param size the number of bytes
+	 * @return a human-readable display value
+	 * @throws ArithmeticException if the rounding mode is
+	 *                             {@link RoundingMode#UNNECESSARY} and rounding
+	 *                             is necessary
+	 */
+	public String format(long size) {
+		char[] chars = new char[maxLength];
+		return new String(chars, 0, write(size, chars, 0, CHARS));
+	}
+
+	/**
+	 * Format the size
+	 * 
+	 * @param size the number of bytes
+	 * @return a human-readable display value
+	 * @throws ArithmeticException if the rounding mode is
+	 *                             {@link RoundingMode#UNNECESSARY} and rounding
+	 *                             is necessary
+	 */
+	public String format(BigInteger size) {
+		Objects.requireNonNull(size, "size");
+		if (size.bitLength() < Long.SIZE) {
+			return format(size.longValue());
+		}
+		BigInteger[] units = useSiUnits ? SI_BIG_UNIT_SIZES : BINARY_BIG_UNIT_SIZES;
+		int exponent = units.length - 1;
+		while (exponent > 0 && size.compareTo(units[exponent]) < 0) {
+			exponent--;
+		}
+		String number;
+		if (exponent == 0) {
+			number = size.toString();
+		} else {
+			BigDecimal value = new BigDecimal(size);
+			BigDecimal unit = new BigDecimal(units[exponent]);
+			number = (value.remainder(unit).signum() == 0 ? value.divide(unit)
+					: value.divide(unit, places, roundingMode)).toPlainString();
+		}
+		char[] label = unitLabels[exponent];
+		char[] chars = new char[number.length() + label.length];
+		for (int i = 0; i < number.length(); i++) {
+			char c = number.charAt(i);
+			chars[i] = c == '.' ? decimalSeparator : c == '-' ? minusSign : digits[c - '0'];
+		}
+		System.arraycopy(label, 0, chars, number.length(), label.length);
+		return new String(chars);
+	}
+
+	/**
+	 * Returns the number of chars of the formatted size
+	 * 
+	 * @param size the number of bytes
+	 * @return the length of {@link #format(long)}
+	 * @throws ArithmeticException if the rounding mode is
+	 *                             {@link RoundingMode#UNNECESSARY} and rounding
+	 *                             is necessary
+	 */
+	public int length(long size) {
+		return write(size, null, 0, null);
+	}
+
+	/**
+	 * Write the formatted size into the char array
+	 * 
+	 * @param size   the number of bytes
+	 * @param dst    the destination array
+	 * @param offset the index of the first char in {@code dst}
+	 * @return the index after the last char written
+	 * @throws IndexOutOfBoundsException if the array is too small, nothing is
+	 *                                   written
+	 * @throws ArithmeticException       if the rounding mode is
+	 *                                   {@link RoundingMode#UNNECESSARY} and
+	 *                                   rounding is necessary
+	 */
+	public int formatTo(long size, char[] dst, int offset) {
+		return write(size, dst, offset, CHARS);
+	}
+
+	/**
+	 * Write the formatted size into the byte array as ASCII
+	 * 
+	 * @param size   the number of bytes
+	 * @param dst    the destination array
+	 * @param offset the index of the first byte in {@code dst}
+	 * @return the index after the last byte written
+	 * @throws IllegalStateException     if the symbols of the locale or the unit
+	 *                                   separator are not ASCII
+	 * @throws IndexOutOfBoundsException if the array is too small, nothing is
+	 *                                   written
+	 * @throws ArithmeticException       if the rounding mode is
+	 *                                   {@link RoundingMode#UNNECESSARY} and
+	 *                                   rounding is necessary
+	 */
+	public int formatTo(long size, byte[] dst, int offset) {
+		if (!ascii) {
+			throw new IllegalStateException("File size symbols are not ASCII");
+		}
+		return write(size, dst, offset, BYTES);
+	}
+
+	/**
+	 * Append the formatted size
+	 * 
+	 * @param size the number of bytes
+	 * @param dst  the destination
+	 * @return {@code dst}
+	 * @throws ArithmeticException if the rounding mode is
+	 *                             {@link RoundingMode#UNNECESSARY} and rounding
+	 *                             is necessary
+	 */
+	public StringBuilder formatTo(long size, StringBuilder dst) {
+		write(size, dst, 0, STRING_BUILDER);
+		return dst;
+	}
+
+	/**
+	 * Put the formatted size at the position of the buffer
+	 * 
+	 * @param size the number of bytes
+	 * @param dst  the destination buffer
+	 * @return {@code dst}
+	 * @throws BufferOverflowException if the buffer is too small, the position
+	 *                                 is unchanged
+	 * @throws ArithmeticException     if the rounding mode is
+	 *                                 {@link RoundingMode#UNNECESSARY} and
+	 *                                 rounding is necessary
+	 */
+	public CharBuffer formatTo(long size, CharBuffer dst) {
+		write(size, dst, 0, CHAR_BUFFER);
+		return dst;
+	}
+
+	/**
+	 * Append the formatted size, one char at a time
+	 * 
+	 * @param <A>  the type of the destination
+	 * @param size the number of bytes
+	 * @param dst  the destination
+	 * @return {@code dst}
+	 * @throws IOException         if the destination fails
+	 * @throws ArithmeticException if the rounding mode is
+	 *                             {@link RoundingMode#UNNECESSARY} and rounding
+	 *                             is necessary
+	 */
+	public <A extends Appendable> A formatTo(long size, A dst) throws IOException {
+		try {
+			write(size, dst, 0, APPENDABLE);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return dst;
+	}
+
+	/**
+	 * Format a {@link Number}, {@link BigInteger} as is, any other number by its
+	 * {@link Number#longValue()}
+	 * 
+	 * @param obj        the number of bytes
+	 * @param toAppendTo where the text is appended
+	 * @param pos        not used
+	 * @return {@code toAppendTo}
+	 * @throws IllegalArgumentException if {@code obj} is not a {@link Number}
+	 */
+	@Override
+	public StringBuffer format(Object obj, StringBuffer toAppendTo, FieldPosition pos) {
+		if (obj instanceof BigInteger size) {
+			return toAppendTo.append(format(size));
+		}
+		if (obj instanceof Number size) {
+			write(size.longValue(), toAppendTo, 0, STRING_BUFFER);
+			return toAppendTo;
+		}
+		throw new IllegalArgumentException("Cannot format as a file size: " + obj);
+	}
+
+	/**
+	 * Parse the rest of the text with {@link FileSizeParser#LENIENT}: the decimal
+	 * separator {@code .} or {@code ,}, ASCII digits, whitespace as the unit
+	 * separator. The decimal places of a formatted size are rounded, parsing gives
+	 * the size back up to the rounding.
+	 * 
+	 * @param source the text
+	 * @param pos    the position, its index is moved to the end of the text, or
+	 *               its error index is set
+	 * @return a {@link Long}, a {@link BigInteger} beyond the long range, null if
+	 *         the text is not a size
+	 */
+	@Override
+	public Object parseObject(String source, ParsePosition pos) {
+		try {
+			BigInteger size = FileSizeParser.LENIENT.parseBigInteger(source, pos.getIndex(), source.length());
+			pos.setIndex(source.length());
+			return size.bitLength() < Long.SIZE ? (Object) size.longValue() : size;
+		} catch (ParseException e) {
+			pos.setErrorIndex(e.getErrorOffset());
+			return null;
+		}
+	}
+
+	/**
+	 * Returns true for SI units, false for binary units
+	 * 
+	 * @return true for SI units
+	 */
+	public boolean isUseSiUnits() {
+		return useSiUnits;
+	}
+
+	/**
+	 * Returns the number of decimal places
+	 * 
+	 * @return the number of decimal places
+	 */
+	public int getPlaces() {
+		return places;
+	}
+
+	/**
+	 * Returns the locale
+	 * 
+	 * @return the locale, null if no localization
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Returns the rounding mode
+	 * 
+	 * @return the rounding mode
+	 */
+	public RoundingMode getRoundingMode() {
+		return roundingMode;
+	}
+
+	/**
+	 * Returns the text between the number and the unit
+	 * 
+	 * @return the unit separator
+	 */
+	public String getUnitSeparator() {
+		return unitSeparator;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof FileSizeFormatter other)) {
+			return false;
+		}
+		return useSiUnits == other.useSiUnits && places == other.places && Objects.equals(locale, other.locale)
+				&& roundingMode == other.roundingMode && unitSeparator.equals(other.unitSeparator);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(useSiUnits, places, locale, roundingMode, unitSeparator);
+	}
+
+	/**
+	 * Format the size through the sink, the only formatting routine: the unit,
+	 * the whole number and the rounded decimal places are computed once, the
+	 * length is checked against the destination, then the chars are written.
+	 * Returns the index after the last char, or only the length without a sink.
+	 */
+	private <D> int write(long size, D dst, int offset, Sink<D> sink) {
+		int exponent = exponent(size);
+		long whole = size;
+		long fraction = -1;
+		if (exponent > 0) {
+			whole = whole(size, exponent);
+			fraction = fraction(size, exponent, whole);
+			if (fraction == POW10[places]) {
+				whole++;
+				fraction = 0;
+			}
+		}
+		// Long.MIN_VALUE stays negative, its digits are read unsigned
+		long magnitude = Math.abs(whole);
+		int wholeDigits = digitCount(magnitude);
+		boolean decimals = fraction >= 0 && places > 0;
+		char[] label = unitLabels[exponent];
+		int length = (whole < 0 ? 1 : 0) + wholeDigits + (decimals ? 1 + places : 0) + label.length;
+		if (sink == null) {
+			return length;
+		}
+		sink.check(dst, offset, length);
+		if (whole < 0) {
+			sink.put(dst, offset++, minusSign);
+		}
+		offset = putDigits(magnitude, wholeDigits, dst, offset, sink);
+		if (decimals) {
+			sink.put(dst, offset++, decimalSeparator);
+			offset = putDigits(fraction, places, dst, offset, sink);
+		}
+		for (char c : label) {
+			sink.put(dst, offset++, c);
+		}
+		return offset;
+	}
+
+	/**
+	 * The index of the largest unit not above the size, 0 (bytes) for negative
+	 * sizes
+	 */
+	private int exponent(long size) {
+		if (!useSiUnits) {
+			return size < FileSizeFormat.ONE_KiB ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(size)) / 10;
+		}
+		int exponent = SI_UNIT_SIZES.length - 1;
+		while (exponent > 0 && size < SI_UNIT_SIZES[exponent]) {
+			exponent--;
+		}
+		return exponent;
+	}
+
+	/**
+	 * The whole number of units
+	 */
+	private long whole(long size, int exponent) {
+		return useSiUnits ? size / SI_UNIT_SIZES[exponent] : size >>> (exponent * 10);
+	}
+
+	/**
+	 * The decimal places of the rest of the size as a number of {@code places}
+	 * digits, rounded: {@code 10^places} if the rounding carries into the whole
+	 * number, -1 if the size is a whole number of units
+	 */
+	private long fraction(long size, int exponent, long whole) {
+		long unit = useSiUnits ? SI_UNIT_SIZES[exponent] : 1L << (exponent * 10);
+		long remainder = size - whole * unit;
+		if (remainder == 0) {
+			return -1;
+		}
+		// one digit at a time, remainder * 10 < 10 * 2^60 or 10^19 fits in an
+		// unsigned long
+		long fraction = 0;
+		for (int i = 0; i < places; i++) {
+			remainder *= 10;
+			long digit = useSiUnits ? Long.divideUnsigned(remainder, unit) : remainder >>> (exponent * 10);
+			remainder -= digit * unit;
+			fraction = fraction * 10 + digit;
+		}
+		return roundUp(remainder, unit, places == 0 ? whole : fraction) ? fraction + 1 : fraction;
+	}
+
+	/**
+	 * Whether the last decimal place goes up for the remainder of the division by
+	 * the unit, the size being positive
+	 */
+	private boolean roundUp(long remainder, long unit, long last) {
+		if (remainder == 0) {
+			return false;
+		}
+		// compare remainder with unit / 2 without rounding the half
+		long rest = unit - remainder;
+		switch (roundingMode) {
+		case UP:
+		case CEILING:
+			return true;
+		case DOWN:
+		case FLOOR:
+			return false;
+		case HALF_UP:
+			return remainder >= rest;
+		case HALF_DOWN:
+			return remainder > rest;
+		case HALF_EVEN:
+			return remainder > rest || (remainder == rest && (last & 1) == 1);
+		default:
+			throw new ArithmeticException("Rounding necessary");
+		}
+	}
+
+	/**
+	 * The number of decimal digits of a non-negative long, or of
+	 * {@link Long#MIN_VALUE} read as 2^63
+	 */
+	private static int digitCount(long value) {
+		int count = 1;
+		while (count < POW10.length && Long.compareUnsigned(value, POW10[count]) >= 0) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Write the last {@code count} digits of the unsigned value, most significant
+	 * first
+	 */
+	private <D> int putDigits(long value, int count, D dst, int offset, Sink<D> sink) {
+		for (int i = count - 1; i >= 0; i--) {
+			long digit = Long.divideUnsigned(value, POW10[i]);
+			value -= digit * POW10[i];
+			sink.put(dst, offset++, digits[(int) digit]);
+		}
+		return offset;
+	}
+
+	/**
+	 * A destination of {@link #write(long, Object, int, Sink)}, the index is the
+	 * one of an array, the others append
+	 */
+	private static interface Sink<D> {
+
+		/**
+		 * Throw if the chars do not fit, before anything is written
+		 */
+		void check(D dst, int offset, int length);
+
+		void put(D dst, int index, char c);
+	}
+
+	private static final Sink<char[]> CHARS = new Sink<>() {
+
+		@Override
+		public void check(char[] dst, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, dst.length);
+		}
+
+		@Override
+		public void put(char[] dst, int index, char c) {
+			dst[index] = c;
+		}
+	};
+
+	/**
+	 * ASCII only, checked by the caller
+	 */
+	private static final Sink<byte[]> BYTES = new Sink<>() {
+
+		@Override
+		public void check(byte[] dst, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, dst.length);
+		}
+
+		@Override
+		public void put(byte[] dst, int index, char c) {
+			dst[index] = (byte) c;
+		}
+	};
+
+	private static final Sink<CharBuffer> CHAR_BUFFER = new Sink<>() {
+
+		@Override
+		public void check(CharBuffer dst, int offset, int length) {
+			if (length > dst.remaining()) {
+				throw new BufferOverflowException();
+			}
+		}
+
+		@Override
+		public void put(CharBuffer dst, int index, char c) {
+			dst.put(c);
+		}
+	};
+
+	private static final Sink<StringBuilder> STRING_BUILDER = new Sink<>() {
+
+		@Override
+		public void check(StringBuilder dst, int offset, int length) {
+		}
+
+		@Override
+		public void put(StringBuilder dst, int index, char c) {
+			dst.append(c);
+		}
+	};
+
+	private static final Sink<StringBuffer> STRING_BUFFER = new Sink<>() {
+
+		@Override
+		public void check(StringBuffer dst, int offset, int length) {
+		}
+
+		@Override
+		public void put(StringBuffer dst, int index, char c) {
+			dst.append(c);
+		}
+	};
+
+	/**
+	 * The IOException of the destination goes through as an
+	 * UncheckedIOException, unwrapped by the caller
+	 */
+	private static final Sink<Appendable> APPENDABLE = new Sink<>() {
+
+		@Override
+		public void check(Appendable dst, int offset, int length) {
+		}
+
+		@Override
+		public void put(Appendable dst, int index, char c) {
+			try {
+				dst.append(c);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	};
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The largest number of decimal places, the decimal places of a size are
+	 * computed in a long
+	 */
+	public static final int MAX_PLACES = 18;
+
+	/**
+	 * The length of {@link Long#MIN_VALUE} in decimal
+	 */
+	private static final int MAX_LONG_LENGTH = 20;
+
+	/**
+	 * The number of bytes of the SI units in the long range, by exponent
+	 */
+	private static final long[] SI_UNIT_SIZES = { FileSizeFormat.ONE_B, FileSizeFormat.ONE_KB, FileSizeFormat.ONE_MB,
+			FileSizeFormat.ONE_GB, FileSizeFormat.ONE_TB, FileSizeFormat.ONE_PB, FileSizeFormat.ONE_EB };
+
+	/**
+	 * The number of bytes of the units beyond the long range, by exponent
+	 */
+	private static final BigInteger[] SI_BIG_UNIT_SIZES = { BigInteger.ONE, FileSizeFormat.ONE_KB_BI,
+			FileSizeFormat.ONE_MB_BI, FileSizeFormat.ONE_GB_BI, FileSizeFormat.ONE_TB_BI, FileSizeFormat.ONE_PB_BI,
+			FileSizeFormat.ONE_EB_BI, FileSizeFormat.ONE_ZB_BI, FileSizeFormat.ONE_YB_BI };
+	private static final BigInteger[] BINARY_BIG_UNIT_SIZES = { BigInteger.ONE, FileSizeFormat.ONE_KiB_BI,
+			FileSizeFormat.ONE_MiB_BI, FileSizeFormat.ONE_GiB_BI, FileSizeFormat.ONE_TiB_BI, FileSizeFormat.ONE_PiB_BI,
+			FileSizeFormat.ONE_EiB_BI, FileSizeFormat.ONE_ZiB_BI, FileSizeFormat.ONE_YiB_BI };
+
+	/**
+	 * 10^0 to 10^18
+	 */
+	private static final long[] POW10 = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+			100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+			10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L,
+			100_000_000_000_000_000L, 1_000_000_000_000_000_000L };
+
+	private final boolean useSiUnits;
+	private final int places;
+	private final Locale locale;
+	private final RoundingMode roundingMode;
+	private final String unitSeparator;
+
+	/**
+	 * The symbols of the locale
+	 */
+	private final char decimalSeparator;
+	private final char minusSign;
+	private final char[] digits;
+
+	/**
+	 * The unit separator and the unit labels, by exponent
+	 */
+	private final char[][] unitLabels;
+
+	/**
+	 * The upper bound of the length of a formatted long size
+	 */
+	private final int maxLength;
+
+	/**
+	 * Whether the output can be written as ASCII bytes
+	 */
+	private final boolean ascii;
+}
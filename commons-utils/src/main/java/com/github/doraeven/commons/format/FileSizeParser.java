@@ -0,0 +1,388 @@
+package com.github.doraeven.commons.format;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.ParseException;
+import java.util.Objects;
+
+/**
+ * File Size Parser
+ * 
+ * <p>
+ * The inverse of {@link FileSizeFormat}: reads a human-readable size such as
+ * {@code "1.5 GiB"}, {@code "512MB"} or {@code "20 kB"} back to a number of
+ * bytes, with the labels of {@link FileSizeFormat.SI_UNITS} and
+ * {@link FileSizeFormat.BINARY_UNITS}. The text is scanned in place, from a
+ * {@link CharSequence} or an ASCII byte range, without regex or substrings.
+ * </p>
+ * 
+ * <ul>
+ * <li>{@link #STRICT}: a number, at most one space and a unit label exactly as
+ * formatted ({@code kB}, {@code KiB}, {@code MB}, ...). The size must be a
+ * whole number of bytes.</li>
+ * <li>{@link #LENIENT}: surrounding whitespace, any whitespace before the unit,
+ * a leading {@code +}, {@code ,} as the decimal separator, unit prefixes and
+ * {@code i} in any case ({@code kb} is rejected, a lowercase {@code b} is a
+ * bit), no unit for bytes. Fractions of a byte are rounded down.</li>
+ * <li>Errors are {@link ParseException}s, the error offset is the index of the
+ * offending char in the text or the array.</li>
+ * <li>{@code parseLong} fails beyond {@link Long#MAX_VALUE} bytes,
+ * {@code parseBigInteger} goes on with {@link BigDecimal}.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public final class FileSizeParser {
+
+	private FileSizeParser(boolean lenient) {
+		this.lenient = lenient;
+	}
+
+	/**
+	 * Parse the whole text
+	 * 
+	 * @param text the human-readable size
+	 * @return the number of bytes
+	 * @throws ParseException if the text is not a size or the size is beyond
+	 *                        {@link Long#MAX_VALUE}
+	 */
+	public long parseLong(CharSequence text) throws ParseException {
+		return parseLong(text, 0, text.length());
+	}
+
+	/**
+	 * Parse a range of the text
+	 * 
+	 * @param text  the human-readable size
+	 * @param start the index of the first char
+	 * @param end   the index after the last char
+	 * @return the number of bytes
+	 * @throws ParseException if the range is not a size or the size is beyond
+	 *                        {@link Long#MAX_VALUE}
+	 */
+	public long parseLong(CharSequence text, int start, int end) throws ParseException {
+		Objects.checkFromToIndex(start, end, text.length());
+		return parse(text, null, start, end, false);
+	}
+
+	/**
+	 * Parse a range of ASCII bytes
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first byte
+	 * @param length the number of bytes
+	 * @return the number of bytes
+	 * @throws ParseException if the range is not a size or the size is beyond
+	 *                        {@link Long#MAX_VALUE}
+	 */
+	public long parseLong(byte[] src, int offset, int length) throws ParseException {
+		Objects.checkFromIndexSize(offset, length, src.length);
+		return parse(null, src, offset, offset + length, false);
+	}
+
+	/**
+	 * Parse the whole text, sizes in ZB/ZiB and YB/YiB included
+	 * 
+	 * @param text the human-readable size
+	 * @return the number of bytes
+	 * @throws ParseException if the text is not a size
+	 */
+	public BigInteger parseBigInteger(CharSequence text) throws ParseException {
+		return parseBigInteger(text, 0, text.length());
+	}
+
+	/**
+	 * Parse a range of the text, sizes in ZB/ZiB and YB/YiB included
+	 * 
+	 * @param text  the human-readable size
+	 * @param start the index of the first char
+	 * @param end   the index after the last char
+	 * @return the number of bytes
+	 * @throws ParseException if the range is not a size
+	 */
+	public BigInteger parseBigInteger(CharSequence text, int start, int end) throws ParseException {
+		Objects.checkFromToIndex(start, end, text.length());
+		long size = parse(text, null, start, end, true);
+		return size == OUT_OF_RANGE ? parseBig(text, null, start, end) : BigInteger.valueOf(size);
+	}
+
+	/**
+	 * Parse a range of ASCII bytes, sizes in ZB/ZiB and YB/YiB included
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first byte
+	 * @param length the number of bytes
+	 * @return the number of bytes
+	 * @throws ParseException if the range is not a size
+	 */
+	public BigInteger parseBigInteger(byte[] src, int offset, int length) throws ParseException {
+		Objects.checkFromIndexSize(offset, length, src.length);
+		long size = parse(null, src, offset, offset + length, true);
+		return size == OUT_OF_RANGE ? parseBig(null, src, offset, offset + length) : BigInteger.valueOf(size);
+	}
+
+	/**
+	 * Returns true for the lenient parser
+	 * 
+	 * @return true if lenient
+	 */
+	public boolean isLenient() {
+		return lenient;
+	}
+
+	/**
+	 * Parse the chars of the text, or the bytes of the array if the text is null
+	 * 
+	 * @param big return {@link #OUT_OF_RANGE} beyond the long range instead of
+	 *            failing
+	 */
+	private long parse(CharSequence text, byte[] bytes, int start, int end, boolean big) throws ParseException {
+		if (lenient) {
+			start = skipWhitespace(text, bytes, start, end);
+			while (end > start && Character.isWhitespace(charAt(text, bytes, end - 1))) {
+				end--;
+			}
+		}
+		int i = start;
+		if (lenient && i < end && charAt(text, bytes, i) == '+') {
+			i++;
+		}
+		int integerStart = i;
+		i = skipDigits(text, bytes, i, end);
+		int integerEnd = i;
+		if (integerEnd == integerStart) {
+			throw error("Digit expected", i);
+		}
+		int fractionStart = i;
+		if (i < end && isDecimalSeparator(charAt(text, bytes, i))) {
+			fractionStart = i + 1;
+			i = skipDigits(text, bytes, fractionStart, end);
+			if (i == fractionStart) {
+				throw error("Digit expected", i);
+			}
+		}
+		int fractionEnd = i;
+		if (lenient) {
+			i = skipWhitespace(text, bytes, i, end);
+		} else if (i < end && charAt(text, bytes, i) == ' ') {
+			i++;
+		}
+		int unit = unit(text, bytes, i, end);
+		int exponent = unit >>> 1;
+		boolean binary = (unit & 1) == 1;
+
+		// the whole number of units
+		long whole = 0;
+		for (int j = integerStart; j < integerEnd; j++) {
+			int digit = charAt(text, bytes, j) - '0';
+			if (whole > (Long.MAX_VALUE - digit) / 10) {
+				return outOfRange(integerStart, big);
+			}
+			whole = whole * 10 + digit;
+		}
+		if (exponent >= SI_UNIT_SIZES.length) {
+			// ZB/ZiB and YB/YiB, only zero fits
+			if (whole != 0 || !isZero(text, bytes, fractionStart, fractionEnd)) {
+				return outOfRange(integerStart, big);
+			}
+			return 0;
+		}
+		long unitSize = binary ? 1L << (exponent * 10) : SI_UNIT_SIZES[exponent];
+		if (whole > Long.MAX_VALUE / unitSize) {
+			return outOfRange(integerStart, big);
+		}
+
+		// the decimal places of a unit, from the last digit: floor((d * unit + r) /
+		// 10) < unit, d * unit + r < 10 * 2^60 or 10^19 fits in an unsigned long
+		long fraction = 0;
+		boolean exact = true;
+		for (int j = fractionEnd - 1; j >= fractionStart; j--) {
+			long sum = (charAt(text, bytes, j) - '0') * unitSize + fraction;
+			fraction = Long.divideUnsigned(sum, 10);
+			exact &= Long.remainderUnsigned(sum, 10) == 0;
+		}
+		if (!exact && !lenient) {
+			throw error("Not a whole number of bytes", fractionStart);
+		}
+		long size = whole * unitSize + fraction;
+		if (size < 0) {
+			return outOfRange(integerStart, big);
+		}
+		return size;
+	}
+
+	/**
+	 * Parse a size beyond the long range, the text is known to be valid
+	 */
+	private BigInteger parseBig(CharSequence text, byte[] bytes, int start, int end) throws ParseException {
+		if (lenient) {
+			start = skipWhitespace(text, bytes, start, end);
+			while (end > start && Character.isWhitespace(charAt(text, bytes, end - 1))) {
+				end--;
+			}
+		}
+		int i = start;
+		if (lenient && charAt(text, bytes, i) == '+') {
+			i++;
+		}
+		// the error offset of parse(), only a size with decimal places can be
+		// fractional
+		int fractionStart = i;
+		char[] number = new char[end - i];
+		int length = 0;
+		for (; i < end; i++) {
+			char c = charAt(text, bytes, i);
+			if (c >= '0' && c <= '9') {
+				number[length++] = c;
+			} else if (isDecimalSeparator(c)) {
+				number[length++] = '.';
+				fractionStart = i + 1;
+			} else {
+				break;
+			}
+		}
+		if (lenient) {
+			i = skipWhitespace(text, bytes, i, end);
+		} else if (i < end && charAt(text, bytes, i) == ' ') {
+			i++;
+		}
+		int unit = unit(text, bytes, i, end);
+		BigInteger[] units = (unit & 1) == 1 ? BINARY_BIG_UNIT_SIZES : SI_BIG_UNIT_SIZES;
+		BigDecimal size = new BigDecimal(number, 0, length).multiply(new BigDecimal(units[unit >>> 1]));
+		if (!lenient && size.signum() != 0 && size.stripTrailingZeros().scale() > 0) {
+			throw error("Not a whole number of bytes", fractionStart);
+		}
+		return size.setScale(0, RoundingMode.DOWN).toBigIntegerExact();
+	}
+
+	/**
+	 * The unit label of the range, the exponent times 2 plus 1 for a binary unit
+	 */
+	private int unit(CharSequence text, byte[] bytes, int start, int end) throws ParseException {
+		int length = end - start;
+		if (length == 0) {
+			if (lenient) {
+				return 0;
+			}
+			throw error("Unit expected", start);
+		}
+		if (length > 3) {
+			throw error("Unknown unit", start);
+		}
+		char last = charAt(text, bytes, end - 1);
+		if (last != 'B') {
+			throw error(last == 'b' ? "Unknown unit, b is a bit" : "Unknown unit", end - 1);
+		}
+		if (length == 1) {
+			return 0;
+		}
+		char prefix = charAt(text, bytes, start);
+		int exponent = PREFIXES.indexOf(Character.toUpperCase(prefix)) + 1;
+		if (exponent == 0) {
+			throw error("Unknown unit", start);
+		}
+		if (length == 2) {
+			// kB, MB, GB, ...
+			if (!lenient && prefix != (exponent == 1 ? 'k' : PREFIXES.charAt(exponent - 1))) {
+				throw error("Unknown unit", start);
+			}
+			return exponent << 1;
+		}
+		// KiB, MiB, GiB, ...
+		char i = charAt(text, bytes, start + 1);
+		if (lenient ? Character.toLowerCase(i) != 'i' : i != 'i' || prefix != PREFIXES.charAt(exponent - 1)) {
+			throw error("Unknown unit", lenient || i != 'i' ? start + 1 : start);
+		}
+		return exponent << 1 | 1;
+	}
+
+	private long outOfRange(int offset, boolean big) throws ParseException {
+		if (big) {
+			return OUT_OF_RANGE;
+		}
+		throw error("File size out of long range", offset);
+	}
+
+	private boolean isDecimalSeparator(char c) {
+		return c == '.' || (lenient && c == ',');
+	}
+
+	private static ParseException error(String message, int offset) {
+		return new ParseException(message + " at index " + offset, offset);
+	}
+
+	private static boolean isZero(CharSequence text, byte[] bytes, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (charAt(text, bytes, i) != '0') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int skipDigits(CharSequence text, byte[] bytes, int i, int end) {
+		while (i < end) {
+			char c = charAt(text, bytes, i);
+			if (c < '0' || c > '9') {
+				break;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private static int skipWhitespace(CharSequence text, byte[] bytes, int i, int end) {
+		while (i < end && Character.isWhitespace(charAt(text, bytes, i))) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * The char of the text, or the byte of the array as ISO-8859-1
+	 */
+	private static char charAt(CharSequence text, byte[] bytes, int i) {
+		return text != null ? text.charAt(i) : (char) (bytes[i] & 0xFF);
+	}
+
+	/**
+	 * Number, one space and unit exactly as formatted, whole number of bytes
+	 */
+	public static final FileSizeParser STRICT = new FileSizeParser(false);
+
+	/**
+	 * Whitespace, {@code +}, {@code ,}, prefixes in any case, no unit for bytes,
+	 * fractions of a byte rounded down
+	 */
+	public static final FileSizeParser LENIENT = new FileSizeParser(true);
+
+	/**
+	 * The unit prefixes by exponent minus one, the SI kilo is {@code k}
+	 */
+	private static final String PREFIXES = "KMGTPEZY";
+
+	/**
+	 * Not a size, parse beyond the long range
+	 */
+	private static final long OUT_OF_RANGE = -1;
+
+	/**
+	 * The number of bytes of the SI units in the long range, by exponent
+	 */
+	private static final long[] SI_UNIT_SIZES = { FileSizeFormat.ONE_B, FileSizeFormat.ONE_KB, FileSizeFormat.ONE_MB,
+			FileSizeFormat.ONE_GB, FileSizeFormat.ONE_TB, FileSizeFormat.ONE_PB, FileSizeFormat.ONE_EB };
+
+	/**
+	 * The number of bytes of the units, by exponent
+	 */
+	private static final BigInteger[] SI_BIG_UNIT_SIZES = { BigInteger.ONE, FileSizeFormat.ONE_KB_BI,
+			FileSizeFormat.ONE_MB_BI, FileSizeFormat.ONE_GB_BI, FileSizeFormat.ONE_TB_BI, FileSizeFormat.ONE_PB_BI,
+			FileSizeFormat.ONE_EB_BI, FileSizeFormat.ONE_ZB_BI, FileSizeFormat.ONE_YB_BI };
+	private static final BigInteger[] BINARY_BIG_UNIT_SIZES = { BigInteger.ONE, FileSizeFormat.ONE_KiB_BI,
+			FileSizeFormat.ONE_MiB_BI, FileSizeFormat.ONE_GiB_BI, FileSizeFormat.ONE_TiB_BI, FileSizeFormat.ONE_PiB_BI,
+			FileSizeFormat.ONE_EiB_BI, FileSizeFormat.ONE_ZiB_BI, FileSizeFormat.ONE_YiB_BI };
+
+	private final boolean lenient;
+}
@@ -0,0 +1,361 @@
+package com.github.doraeven.commons.io;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Base64 Channels
+ * 
+ * <p>
+ * Streaming Base64 encoding and decoding over NIO channels and buffers, in
+ * fixed-size chunks, so the memory used does not depend on the payload size.
+ * The standard alphabet is padded with '=', the URL-safe alphabet is not
+ * padded, same as
+ * {@link com.github.doraeven.commons.utils.UUIDUtils#toBase64(byte[])} and
+ * {@link com.github.doraeven.commons.utils.UUIDUtils#toBase64URLSafe(byte[])}.
+ * </p>
+ * 
+ * <ul>
+ * <li>Decoding accepts padded and unpadded input and skips CR and LF, any other
+ * byte outside the alphabet is rejected with its position.</li>
+ * <li>Heap buffers are encoded directly on their arrays, direct buffers go
+ * through a chunk sized copy.</li>
+ * <li>{@link #encodeParallel(ByteBuffer, ByteBuffer, boolean)} splits a large
+ * in-memory buffer into independent chunks encoded on the common fork join
+ * pool.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public class Base64Channels {
+
+	/**
+	 * Encode everything readable from the source channel into the destination
+	 * channel. Both channels should be blocking.
+	 * 
+	 * @param src     the binary source
+	 * @param dst     the Base64 destination
+	 * @param urlSafe true for the unpadded URL-safe alphabet
+	 * @return the number of bytes written
+	 * @throws IOException if reading or writing fails
+	 */
+	public static long encode(ReadableByteChannel src, WritableByteChannel dst, boolean urlSafe) throws IOException {
+		final byte[] table = urlSafe ? URL_SAFE_ENCODE_TABLE : STANDARD_ENCODE_TABLE;
+		final byte[] in = new byte[CHUNK_BYTES];
+		final byte[] out = new byte[CHUNK_BYTES / 3 * 4];
+		final ByteBuffer inBuffer = ByteBuffer.wrap(in);
+		final ByteBuffer outBuffer = ByteBuffer.wrap(out);
+		long written = 0;
+		while (src.read(inBuffer) >= 0) {
+			int length = inBuffer.position();
+			int whole = length - length % 3;
+			if (whole == 0) {
+				continue;
+			}
+			int count = encode(in, 0, whole, out, 0, table, false);
+			written += writeFully(dst, outBuffer.clear().limit(count));
+			// keep the incomplete group for the next read
+			System.arraycopy(in, whole, in, 0, length - whole);
+			inBuffer.position(length - whole);
+		}
+		int count = encode(in, 0, inBuffer.position(), out, 0, table, !urlSafe);
+		written += writeFully(dst, outBuffer.clear().limit(count));
+		return written;
+	}
+
+	/**
+	 * Decode everything readable from the source channel into the destination
+	 * channel. Both channels should be blocking.
+	 * 
+	 * @param src     the Base64 source
+	 * @param dst     the binary destination
+	 * @param urlSafe true for the URL-safe alphabet
+	 * @return the number of bytes written
+	 * @throws IOException              if reading or writing fails
+	 * @throws IllegalArgumentException if the input is not valid Base64
+	 */
+	public static long decode(ReadableByteChannel src, WritableByteChannel dst, boolean urlSafe) throws IOException {
+		final Decoder decoder = new Decoder(urlSafe);
+		final byte[] in = new byte[CHUNK_BYTES];
+		final byte[] out = new byte[CHUNK_BYTES / 4 * 3 + 3];
+		final ByteBuffer inBuffer = ByteBuffer.wrap(in);
+		final ByteBuffer outBuffer = ByteBuffer.wrap(out);
+		long written = 0;
+		while (src.read(inBuffer.clear()) >= 0) {
+			int count = decoder.decode(in, 0, inBuffer.position(), out, 0);
+			written += writeFully(dst, outBuffer.clear().limit(count));
+		}
+		int count = decoder.finish(out, 0);
+		written += writeFully(dst, outBuffer.clear().limit(count));
+		return written;
+	}
+
+	/**
+	 * Encode the remaining bytes of the source buffer into the destination buffer.
+	 * The positions of both buffers are advanced.
+	 * 
+	 * @param src     the binary source, heap or direct
+	 * @param dst     the Base64 destination, heap or direct
+	 * @param urlSafe true for the unpadded URL-safe alphabet
+	 * @throws BufferOverflowException if the destination is smaller than
+	 *                                 {@link #encodedLength(long, boolean)}
+	 */
+	public static void encode(ByteBuffer src, ByteBuffer dst, boolean urlSafe) {
+		long length = encodedLength(src.remaining(), urlSafe);
+		if (dst.remaining() < length) {
+			throw new BufferOverflowException();
+		}
+		final byte[] table = urlSafe ? URL_SAFE_ENCODE_TABLE : STANDARD_ENCODE_TABLE;
+		if (src.hasArray() && dst.hasArray()) {
+			int count = encode(src.array(), src.arrayOffset() + src.position(), src.remaining(), dst.array(),
+					dst.arrayOffset() + dst.position(), table, !urlSafe);
+			src.position(src.limit());
+			dst.position(dst.position() + count);
+			return;
+		}
+		final byte[] in = new byte[Math.min(CHUNK_BYTES, src.remaining())];
+		final byte[] out = new byte[in.length / 3 * 4 + 4];
+		while (src.hasRemaining()) {
+			int chunk = Math.min(in.length, src.remaining());
+			src.get(in, 0, chunk);
+			dst.put(out, 0, encode(in, 0, chunk, out, 0, table, !urlSafe));
+		}
+	}
+
+	/**
+	 * Decode the remaining bytes of the source buffer into the destination buffer.
+	 * The positions of both buffers are advanced.
+	 * 
+	 * @param src     the Base64 source, heap or direct
+	 * @param dst     the binary destination, heap or direct
+	 * @param urlSafe true for the URL-safe alphabet
+	 * @throws BufferOverflowException  if the destination is too small
+	 * @throws IllegalArgumentException if the input is not valid Base64
+	 */
+	public static void decode(ByteBuffer src, ByteBuffer dst, boolean urlSafe) {
+		final Decoder decoder = new Decoder(urlSafe);
+		final byte[] in = new byte[Math.min(CHUNK_BYTES, src.remaining())];
+		final byte[] out = new byte[in.length / 4 * 3 + 3];
+		while (src.hasRemaining()) {
+			int chunk = Math.min(in.length, src.remaining());
+			src.get(in, 0, chunk);
+			dst.put(out, 0, decoder.decode(in, 0, chunk, out, 0));
+		}
+		dst.put(out, 0, decoder.finish(out, 0));
+	}
+
+	/**
+	 * Encode the remaining bytes of a large source buffer into the destination
+	 * buffer in parallel, the output is the same as
+	 * {@link #encode(ByteBuffer, ByteBuffer, boolean)}. The positions of both
+	 * buffers are advanced.
+	 * 
+	 * @param src     the binary source, heap or direct
+	 * @param dst     the Base64 destination, heap or direct
+	 * @param urlSafe true for the unpadded URL-safe alphabet
+	 * @throws BufferOverflowException if the destination is smaller than
+	 *                                 {@link #encodedLength(long, boolean)}
+	 */
+	public static void encodeParallel(ByteBuffer src, ByteBuffer dst, boolean urlSafe) {
+		final int length = src.remaining();
+		if (length < 2 * PARALLEL_CHUNK_BYTES) {
+			encode(src, dst, urlSafe);
+			return;
+		}
+		final long encodedLength = encodedLength(length, urlSafe);
+		if (dst.remaining() < encodedLength) {
+			throw new BufferOverflowException();
+		}
+		final int srcStart = src.position();
+		final int dstStart = dst.position();
+		final int tasks = (length + PARALLEL_CHUNK_BYTES - 1) / PARALLEL_CHUNK_BYTES;
+		IntStream.range(0, tasks).parallel().forEach(task -> {
+			// every chunk but the last is a multiple of 3 bytes, so it encodes without padding
+			int offset = task * PARALLEL_CHUNK_BYTES;
+			int chunk = Math.min(PARALLEL_CHUNK_BYTES, length - offset);
+			int dstOffset = offset / 3 * 4;
+			ByteBuffer in = src.slice(srcStart + offset, chunk);
+			ByteBuffer out = dst.slice(dstStart + dstOffset, (int) encodedLength - dstOffset);
+			encode(in, out, urlSafe);
+		});
+		src.position(srcStart + length);
+		dst.position(dstStart + (int) encodedLength);
+	}
+
+	/**
+	 * Returns the length of the Base64 encoding
+	 * 
+	 * @param length  the number of bytes to encode
+	 * @param urlSafe true for the unpadded URL-safe alphabet
+	 * @return the number of Base64 chars
+	 */
+	public static long encodedLength(long length, boolean urlSafe) {
+		return urlSafe ? (length * 4 + 2) / 3 : (length + 2) / 3 * 4;
+	}
+
+	/**
+	 * Encode bytes, the length is a multiple of 3 except for the last chunk
+	 * 
+	 * @return the number of chars written
+	 */
+	private static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset, byte[] table,
+			boolean pad) {
+		int s = offset;
+		int d = dstOffset;
+		final int end = offset + length - length % 3;
+		while (s < end) {
+			int bits = (src[s] & 0xFF) << 16 | (src[s + 1] & 0xFF) << 8 | (src[s + 2] & 0xFF);
+			dst[d] = table[bits >>> 18];
+			dst[d + 1] = table[bits >>> 12 & 0x3F];
+			dst[d + 2] = table[bits >>> 6 & 0x3F];
+			dst[d + 3] = table[bits & 0x3F];
+			s += 3;
+			d += 4;
+		}
+		int rest = length % 3;
+		if (rest == 1) {
+			int bits = src[s] & 0xFF;
+			dst[d++] = table[bits >>> 2];
+			dst[d++] = table[bits << 4 & 0x3F];
+			if (pad) {
+				dst[d++] = '=';
+				dst[d++] = '=';
+			}
+		} else if (rest == 2) {
+			int bits = (src[s] & 0xFF) << 8 | (src[s + 1] & 0xFF);
+			dst[d++] = table[bits >>> 10];
+			dst[d++] = table[bits >>> 4 & 0x3F];
+			dst[d++] = table[bits << 2 & 0x3F];
+			if (pad) {
+				dst[d++] = '=';
+			}
+		}
+		return d - dstOffset;
+	}
+
+	private static long writeFully(WritableByteChannel dst, ByteBuffer buffer) throws IOException {
+		int count = buffer.remaining();
+		while (buffer.hasRemaining()) {
+			dst.write(buffer);
+		}
+		return count;
+	}
+
+	/**
+	 * Incremental decoder, the state is kept between chunks
+	 */
+	private static final class Decoder {
+
+		private Decoder(boolean urlSafe) {
+			this.table = urlSafe ? URL_SAFE_DECODE_TABLE : STANDARD_DECODE_TABLE;
+		}
+
+		/**
+		 * Decode a chunk, at most {@code length / 4 * 3 + 3} bytes are written
+		 * 
+		 * @return the number of bytes written
+		 */
+		private int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+			final byte[] table = this.table;
+			int bits = this.bits;
+			int count = this.count;
+			int d = dstOffset;
+			for (int i = offset, end = offset + length; i < end; i++, position++) {
+				int c = src[i] & 0xFF;
+				if (c == '\r' || c == '\n') {
+					continue;
+				}
+				if (c == '=') {
+					padding++;
+					continue;
+				}
+				int value = table[c];
+				if (value < 0 || padding > 0) {
+					throw new IllegalArgumentException(
+							"Invalid Base64 char '" + (char) c + "' at position " + position);
+				}
+				bits = bits << 6 | value;
+				if (++count == 4) {
+					dst[d] = (byte) (bits >> 16);
+					dst[d + 1] = (byte) (bits >> 8);
+					dst[d + 2] = (byte) bits;
+					d += 3;
+					bits = 0;
+					count = 0;
+				}
+			}
+			this.bits = bits;
+			this.count = count;
+			return d - dstOffset;
+		}
+
+		/**
+		 * Decode the last incomplete group
+		 * 
+		 * @return the number of bytes written, at most 2
+		 */
+		private int finish(byte[] dst, int dstOffset) {
+			switch (count) {
+			case 0:
+				if (padding == 0) {
+					return 0;
+				}
+				break;
+			case 2:
+				if ((padding == 0 || padding == 2) && (bits & 0xF) == 0) {
+					dst[dstOffset] = (byte) (bits >> 4);
+					return 1;
+				}
+				break;
+			case 3:
+				if (padding <= 1 && (bits & 0x3) == 0) {
+					dst[dstOffset] = (byte) (bits >> 10);
+					dst[dstOffset + 1] = (byte) (bits >> 2);
+					return 2;
+				}
+				break;
+			default:
+				break;
+			}
+			throw new IllegalArgumentException("Invalid Base64 ending at position " + position);
+		}
+
+		private final byte[] table;
+		private int bits;
+		private int count;
+		private int padding;
+		private long position;
+	}
+
+	/**
+	 * The number of bytes read or encoded at once, a multiple of 3 and of 4
+	 */
+	private static final int CHUNK_BYTES = 48 * 1024;
+
+	/**
+	 * The number of source bytes encoded by one parallel task, a multiple of 3
+	 */
+	private static final int PARALLEL_CHUNK_BYTES = 3 * 1024 * 1024;
+
+	private static final byte[] STANDARD_ENCODE_TABLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+			.getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] URL_SAFE_ENCODE_TABLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+			.getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] STANDARD_DECODE_TABLE = new byte[256];
+	private static final byte[] URL_SAFE_DECODE_TABLE = new byte[256];
+	static {
+		Arrays.fill(STANDARD_DECODE_TABLE, (byte) -1);
+		Arrays.fill(URL_SAFE_DECODE_TABLE, (byte) -1);
+		for (int i = 0; i < 64; i++) {
+			STANDARD_DECODE_TABLE[STANDARD_ENCODE_TABLE[i]] = (byte) i;
+			URL_SAFE_DECODE_TABLE[URL_SAFE_ENCODE_TABLE[i]] = (byte) i;
+		}
+	}
+}
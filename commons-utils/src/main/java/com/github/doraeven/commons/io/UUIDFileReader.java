@@ -0,0 +1,435 @@
+package com.github.doraeven.commons.io;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32C;
+
+import com.github.doraeven.commons.utils.UUIDBitsConsumer;
+
+/**
+ * UUID File Reader
+ * 
+ * <p>
+ * Reads a batch file written by {@link UUIDFileWriter}. The whole file is
+ * mapped read only and UUIDs are decoded straight from the mapping, nothing is
+ * copied to the heap.
+ * </p>
+ * 
+ * <ul>
+ * <li>{@link #iterator()} walks the UUIDs as raw bits, without creating
+ * {@link UUID} objects.</li>
+ * <li>{@link #spliterator()} splits by index range for fork join processing,
+ * {@link #forEachParallel(UUIDBitsConsumer)} runs it on the common pool.</li>
+ * <li>Thread safe for reading, the reader must not be used after
+ * {@link #close()}.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public class UUIDFileReader implements AutoCloseable {
+
+	private UUIDFileReader(MemorySegment uuids, Arena arena, long count) {
+		this.uuids = uuids;
+		this.arena = arena;
+		this.count = count;
+	}
+
+	/**
+	 * Map the file and verify its header and checksum
+	 * 
+	 * @param path the file
+	 * @return the reader, to be closed
+	 * @throws IOException if the file can not be mapped, is not a UUID file or is
+	 *                     corrupted
+	 */
+	public static UUIDFileReader open(Path path) throws IOException {
+		return open(path, true);
+	}
+
+	/**
+	 * Map the file and verify its header
+	 * 
+	 * @param path   the file
+	 * @param verify true to verify the checksum, a full pass over the file
+	 * @return the reader, to be closed
+	 * @throws IOException if the file can not be mapped, is not a UUID file or is
+	 *                     corrupted
+	 */
+	public static UUIDFileReader open(Path path, boolean verify) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long bytes = channel.size();
+			if (bytes < UUIDFileWriter.HEADER_BYTES) {
+				throw new IOException("Not a UUID file: " + path);
+			}
+			Arena arena = Arena.ofShared();
+			try {
+				MemorySegment file = channel.map(MapMode.READ_ONLY, 0, bytes, arena);
+				if (file.get(INT_LAYOUT, 0) != UUIDFileWriter.MAGIC) {
+					throw new IOException("Not a UUID file: " + path);
+				}
+				short version = file.get(SHORT_LAYOUT, 4);
+				if (version != UUIDFileWriter.VERSION) {
+					throw new IOException("Unsupported UUID file version " + version + ": " + path);
+				}
+				long count = file.get(UUIDFileWriter.LONG_LAYOUT, 8);
+				if (count < 0 || count != (bytes - UUIDFileWriter.HEADER_BYTES) / UUIDFileWriter.UUID_BYTES
+						|| (bytes - UUIDFileWriter.HEADER_BYTES) % UUIDFileWriter.UUID_BYTES != 0) {
+					throw new IOException("Corrupted UUID file, count " + count + " and length " + bytes + ": " + path);
+				}
+				MemorySegment uuids = file.asSlice(UUIDFileWriter.HEADER_BYTES);
+				if (verify) {
+					int expected = file.get(INT_LAYOUT, 16);
+					int actual = checksum(uuids);
+					if (actual != expected) {
+						throw new IOException("Corrupted UUID file, checksum " + Integer.toHexString(actual)
+								+ " instead of " + Integer.toHexString(expected) + ": " + path);
+					}
+				}
+				return new UUIDFileReader(uuids, arena, count);
+			} catch (IOException | RuntimeException e) {
+				arena.close();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of UUIDs
+	 * 
+	 * @return the number of UUIDs
+	 */
+	public long size() {
+		return count;
+	}
+
+	/**
+	 * Returns the most significant bits of the UUID at the index
+	 * 
+	 * @param index the index
+	 * @return the most significant bits
+	 */
+	public long getMostSignificantBits(long index) {
+		Objects.checkIndex(index, count);
+		return uuids.get(UUIDFileWriter.LONG_LAYOUT, index * UUIDFileWriter.UUID_BYTES);
+	}
+
+	/**
+	 * Returns the least significant bits of the UUID at the index
+	 * 
+	 * @param index the index
+	 * @return the least significant bits
+	 */
+	public long getLeastSignificantBits(long index) {
+		Objects.checkIndex(index, count);
+		return uuids.get(UUIDFileWriter.LONG_LAYOUT, index * UUIDFileWriter.UUID_BYTES + 8);
+	}
+
+	/**
+	 * Returns the UUID at the index
+	 * 
+	 * @param index the index
+	 * @return the UUID
+	 */
+	public UUID get(long index) {
+		return new UUID(getMostSignificantBits(index), getLeastSignificantBits(index));
+	}
+
+	/**
+	 * Copy UUIDs as most/least significant bits pairs
+	 * 
+	 * @param index  the index of the first UUID
+	 * @param dst    the destination array
+	 * @param offset the index of the first most significant bits in {@code dst}
+	 * @param count  the number of UUIDs
+	 */
+	public void read(long index, long[] dst, int offset, int count) {
+		Objects.checkFromIndexSize(index, count, this.count);
+		Objects.checkFromIndexSize(offset, count * 2, dst.length);
+		MemorySegment.copy(uuids, UUIDFileWriter.LONG_LAYOUT, index * UUIDFileWriter.UUID_BYTES, dst, offset,
+				count * 2);
+	}
+
+	/**
+	 * Returns the UUID bytes of the mapping, 16 big-endian bytes per UUID
+	 * 
+	 * @return the read only segment, valid until the reader is closed
+	 */
+	public MemorySegment asSegment() {
+		return uuids;
+	}
+
+	/**
+	 * Returns an iterator over the UUIDs as raw bits
+	 * 
+	 * @return the iterator
+	 */
+	public UUIDIterator iterator() {
+		return new UUIDIterator() {
+
+			@Override
+			public boolean hasNext() {
+				return next < count;
+			}
+
+			@Override
+			public void next(long[] dst, int offset) {
+				if (next >= count) {
+					throw new NoSuchElementException();
+				}
+				Objects.checkFromIndexSize(offset, 2, dst.length);
+				long position = next++ * UUIDFileWriter.UUID_BYTES;
+				dst[offset] = uuids.get(UUIDFileWriter.LONG_LAYOUT, position);
+				dst[offset + 1] = uuids.get(UUIDFileWriter.LONG_LAYOUT, position + 8);
+			}
+
+			@Override
+			public UUID next() {
+				if (next >= count) {
+					throw new NoSuchElementException();
+				}
+				long position = next++ * UUIDFileWriter.UUID_BYTES;
+				return new UUID(uuids.get(UUIDFileWriter.LONG_LAYOUT, position),
+						uuids.get(UUIDFileWriter.LONG_LAYOUT, position + 8));
+			}
+
+			@Override
+			public void forEachRemaining(UUIDBitsConsumer action) {
+				for (; next < count; next++) {
+					long position = next * UUIDFileWriter.UUID_BYTES;
+					action.accept(uuids.get(UUIDFileWriter.LONG_LAYOUT, position),
+							uuids.get(UUIDFileWriter.LONG_LAYOUT, position + 8));
+				}
+			}
+
+			private long next = 0;
+		};
+	}
+
+	/**
+	 * Returns a spliterator over all UUIDs, split by index range
+	 * 
+	 * @return the spliterator
+	 */
+	public UUIDSpliterator spliterator() {
+		return new UUIDSpliterator(uuids, 0, count);
+	}
+
+	/**
+	 * Returns a stream of the UUIDs
+	 * 
+	 * @param parallel true for a parallel stream
+	 * @return the stream
+	 */
+	public Stream<UUID> stream(boolean parallel) {
+		return StreamSupport.stream(spliterator(), parallel);
+	}
+
+	/**
+	 * Performs the action for each UUID
+	 * 
+	 * @param action the action
+	 */
+	public void forEach(UUIDBitsConsumer action) {
+		spliterator().forEachRemaining(action);
+	}
+
+	/**
+	 * Performs the action for each UUID on the common fork join pool, in no
+	 * particular order
+	 * 
+	 * @param action the action, called from several threads
+	 */
+	public void forEachParallel(UUIDBitsConsumer action) {
+		Objects.requireNonNull(action, "action");
+		ForkJoinPool.commonPool().invoke(new ForEachTask(spliterator(), action));
+	}
+
+	/**
+	 * Unmap the file
+	 */
+	@Override
+	public void close() {
+		arena.close();
+	}
+
+	private static int checksum(MemorySegment uuids) {
+		CRC32C checksum = new CRC32C();
+		UUIDFileWriter.update(checksum, uuids);
+		return (int) checksum.getValue();
+	}
+
+	/**
+	 * Iterator over UUIDs as raw bits
+	 */
+	public static interface UUIDIterator {
+
+		/**
+		 * Returns true if there are more UUIDs
+		 * 
+		 * @return true if there are more UUIDs
+		 */
+		boolean hasNext();
+
+		/**
+		 * Copy the next UUID as a most/least significant bits pair
+		 * 
+		 * @param dst    the destination array
+		 * @param offset the index of the most significant bits in {@code dst}
+		 * @throws NoSuchElementException if there are no more UUIDs
+		 */
+		void next(long[] dst, int offset);
+
+		/**
+		 * Returns the next UUID
+		 * 
+		 * @return the next UUID
+		 * @throws NoSuchElementException if there are no more UUIDs
+		 */
+		UUID next();
+
+		/**
+		 * Performs the action for each remaining UUID
+		 * 
+		 * @param action the action
+		 */
+		void forEachRemaining(UUIDBitsConsumer action);
+	}
+
+	/**
+	 * Spliterator over a range of UUIDs, {@link UUID} objects are only created by
+	 * {@link #tryAdvance(Consumer)}
+	 */
+	public static final class UUIDSpliterator
+			implements Spliterator.OfPrimitive<UUID, UUIDBitsConsumer, UUIDSpliterator> {
+
+		private UUIDSpliterator(MemorySegment uuids, long index, long end) {
+			this.uuids = uuids;
+			this.index = index;
+			this.end = end;
+		}
+
+		@Override
+		public boolean tryAdvance(UUIDBitsConsumer action) {
+			if (index >= end) {
+				return false;
+			}
+			long position = index++ * UUIDFileWriter.UUID_BYTES;
+			action.accept(uuids.get(UUIDFileWriter.LONG_LAYOUT, position),
+					uuids.get(UUIDFileWriter.LONG_LAYOUT, position + 8));
+			return true;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super UUID> action) {
+			return tryAdvance((msb, lsb) -> action.accept(new UUID(msb, lsb)));
+		}
+
+		@Override
+		public void forEachRemaining(UUIDBitsConsumer action) {
+			final MemorySegment uuids = this.uuids;
+			for (long i = index, end = this.end; i < end; i++) {
+				long position = i * UUIDFileWriter.UUID_BYTES;
+				action.accept(uuids.get(UUIDFileWriter.LONG_LAYOUT, position),
+						uuids.get(UUIDFileWriter.LONG_LAYOUT, position + 8));
+			}
+			index = end;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super UUID> action) {
+			forEachRemaining((UUIDBitsConsumer) (msb, lsb) -> action.accept(new UUID(msb, lsb)));
+		}
+
+		@Override
+		public UUIDSpliterator trySplit() {
+			long mid = (index + end) >>> 1;
+			if (mid <= index) {
+				return null;
+			}
+			UUIDSpliterator prefix = new UUIDSpliterator(uuids, index, mid);
+			index = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return end - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+		}
+
+		private final MemorySegment uuids;
+		private long index;
+		private final long end;
+	}
+
+	/**
+	 * Splits the range down to {@link #PARALLEL_THRESHOLD} UUIDs per task
+	 */
+	private static final class ForEachTask extends RecursiveAction {
+
+		private ForEachTask(UUIDSpliterator spliterator, UUIDBitsConsumer action) {
+			this.spliterator = spliterator;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			UUIDSpliterator prefix;
+			ForEachTask forked = null;
+			while (spliterator.estimateSize() > PARALLEL_THRESHOLD && (prefix = spliterator.trySplit()) != null) {
+				ForEachTask task = new ForEachTask(prefix, action);
+				task.next = forked;
+				forked = task;
+				task.fork();
+			}
+			spliterator.forEachRemaining(action);
+			for (; forked != null; forked = forked.next) {
+				forked.join();
+			}
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Tasks are never serialized, the spliterator and the action are not
+		 * serializable
+		 */
+		private final transient UUIDSpliterator spliterator;
+		private final transient UUIDBitsConsumer action;
+		private transient ForEachTask next;
+	}
+
+	/**
+	 * The smallest number of UUIDs split into parallel tasks
+	 */
+	private static final long PARALLEL_THRESHOLD = 1 << 14;
+
+	private static final ValueLayout.OfInt INT_LAYOUT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+	private static final ValueLayout.OfShort SHORT_LAYOUT = ValueLayout.JAVA_SHORT_UNALIGNED
+			.withOrder(ByteOrder.BIG_ENDIAN);
+
+	private final MemorySegment uuids;
+	private final Arena arena;
+	private final long count;
+}
@@ -0,0 +1,247 @@
+package com.github.doraeven.commons.io;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * UUID File Writer
+ * 
+ * <p>
+ * Writes UUIDs to a binary batch file read back by {@link UUIDFileReader}: a
+ * 32 byte header followed by 16 bytes per UUID, big-endian, the layout of
+ * {@link com.github.doraeven.commons.utils.UUIDUtils#toBytes(UUID)}. The
+ * header holds the number of UUIDs and the CRC32C of the UUID bytes.
+ * </p>
+ * 
+ * <ul>
+ * <li>UUIDs are written through memory-mapped windows of the file, 16 MiB at a
+ * time, each window is unmapped as soon as it is full.</li>
+ * <li>The header is written by {@link #close()}, an unclosed file is rejected
+ * by the reader.</li>
+ * <li>Not thread safe.</li>
+ * </ul>
+ * 
+ * <pre>
+ * offset  size  field
+ * 0       4     magic "UUID"
+ * 4       2     version, 1
+ * 6       2     reserved, 0
+ * 8       8     number of UUIDs
+ * 16      4     CRC32C of the UUID bytes
+ * 20      12    reserved, 0
+ * 32      16*n  UUIDs
+ * </pre>
+ * 
+ * @author motu
+ *
+ */
+public class UUIDFileWriter implements AutoCloseable {
+
+	private UUIDFileWriter(FileChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Create the file, replacing its content
+	 * 
+	 * @param path the file
+	 * @return the writer, to be closed
+	 * @throws IOException if the file can not be created
+	 */
+	public static UUIDFileWriter create(Path path) throws IOException {
+		return new UUIDFileWriter(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+	}
+
+	/**
+	 * Write the UUID
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @throws IOException if the file can not be mapped
+	 */
+	public void write(long msb, long lsb) throws IOException {
+		if (position == WINDOW_BYTES || window == null) {
+			nextWindow();
+		}
+		window.set(LONG_LAYOUT, position, msb);
+		window.set(LONG_LAYOUT, position + 8, lsb);
+		position += UUID_BYTES;
+		count++;
+	}
+
+	/**
+	 * Write the UUID
+	 * 
+	 * @param uuid the UUID
+	 * @throws IOException if the file can not be mapped
+	 */
+	public void write(UUID uuid) throws IOException {
+		write(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Write UUIDs stored as most/least significant bits pairs
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first most significant bits in {@code src}
+	 * @param count  the number of UUIDs
+	 * @throws IOException if the file can not be mapped
+	 */
+	public void write(long[] src, int offset, int count) throws IOException {
+		Objects.checkFromIndexSize(offset, count * 2, src.length);
+		while (count > 0) {
+			if (position == WINDOW_BYTES || window == null) {
+				nextWindow();
+			}
+			int n = (int) Math.min(count, (WINDOW_BYTES - position) / UUID_BYTES);
+			MemorySegment.copy(src, offset, window, LONG_LAYOUT, position, n * 2);
+			position += (long) n * UUID_BYTES;
+			this.count += n;
+			offset += n * 2;
+			count -= n;
+		}
+	}
+
+	/**
+	 * Write UUIDs stored as 16 byte big-endian encodings
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first byte in {@code src}
+	 * @param count  the number of UUIDs
+	 * @throws IOException if the file can not be mapped
+	 */
+	public void write(byte[] src, int offset, int count) throws IOException {
+		Objects.checkFromIndexSize(offset, count * UUID_BYTES, src.length);
+		while (count > 0) {
+			if (position == WINDOW_BYTES || window == null) {
+				nextWindow();
+			}
+			int n = (int) Math.min(count, (WINDOW_BYTES - position) / UUID_BYTES);
+			MemorySegment.copy(src, offset, window, ValueLayout.JAVA_BYTE, position, n * UUID_BYTES);
+			position += (long) n * UUID_BYTES;
+			this.count += n;
+			offset += n * UUID_BYTES;
+			count -= n;
+		}
+	}
+
+	/**
+	 * Returns the number of UUIDs written
+	 * 
+	 * @return the number of UUIDs
+	 */
+	public long size() {
+		return count;
+	}
+
+	/**
+	 * Unmap the last window, cut the file to its length, write the header and
+	 * force everything to the storage
+	 * 
+	 * @throws IOException if the file can not be written
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!channel.isOpen()) {
+			return;
+		}
+		try {
+			closeWindow();
+			channel.truncate(HEADER_BYTES + count * UUID_BYTES);
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putInt(MAGIC);
+			header.putShort(VERSION);
+			header.putShort((short) 0);
+			header.putLong(count);
+			header.putInt((int) checksum.getValue());
+			header.rewind();
+			while (header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+			channel.force(true);
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void nextWindow() throws IOException {
+		if (!channel.isOpen()) {
+			throw new IllegalStateException("Writer is closed");
+		}
+		closeWindow();
+		arena = Arena.ofShared();
+		window = channel.map(MapMode.READ_WRITE, HEADER_BYTES + count * UUID_BYTES, WINDOW_BYTES, arena);
+		position = 0;
+	}
+
+	/**
+	 * Add the written part of the window to the checksum and unmap it
+	 */
+	private void closeWindow() {
+		if (window != null) {
+			update(checksum, window.asSlice(0, position));
+			arena.close();
+			arena = null;
+			window = null;
+		}
+	}
+
+	/**
+	 * Add the bytes to the checksum through a heap buffer, the checksum can not
+	 * read buffers of shared mappings directly
+	 */
+	static void update(CRC32C checksum, MemorySegment bytes) {
+		byte[] buffer = new byte[(int) Math.min(bytes.byteSize(), CHECKSUM_BUFFER_BYTES)];
+		for (long offset = 0; offset < bytes.byteSize(); offset += buffer.length) {
+			int n = (int) Math.min(buffer.length, bytes.byteSize() - offset);
+			MemorySegment.copy(bytes, ValueLayout.JAVA_BYTE, offset, buffer, 0, n);
+			checksum.update(buffer, 0, n);
+		}
+	}
+
+	/**
+	 * File header fields
+	 */
+	static final int MAGIC = 0x55554944;
+	static final short VERSION = 1;
+	static final int HEADER_BYTES = 32;
+	static final int UUID_BYTES = 16;
+
+	/**
+	 * Big endian long, the layout of {@code UUIDUtils.toBytes}
+	 */
+	static final ValueLayout.OfLong LONG_LAYOUT = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+	/**
+	 * Bytes mapped at once, a multiple of 16
+	 */
+	private static final long WINDOW_BYTES = 16L << 20;
+
+	/**
+	 * Bytes copied at once to update the checksum
+	 */
+	private static final int CHECKSUM_BUFFER_BYTES = 64 << 10;
+
+	private final FileChannel channel;
+	private final CRC32C checksum = new CRC32C();
+
+	/**
+	 * The mapped window and the write position inside it
+	 */
+	private Arena arena;
+	private MemorySegment window;
+	private long position;
+	private long count;
+}
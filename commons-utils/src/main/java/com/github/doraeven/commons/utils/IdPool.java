@@ -0,0 +1,417 @@
+package com.github.doraeven.commons.utils;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * ID Pool
+ * 
+ * <p>
+ * Keeps pre-generated UUIDs or 64-bit IDs in a bounded lock-free ring buffer,
+ * so callers pop a ready value instead of waiting for entropy. When the pool
+ * drops below its low-water mark, a background virtual thread refills it in
+ * batches. When the pool is empty, the value is generated directly by the
+ * calling thread.
+ * </p>
+ * 
+ * <ul>
+ * <li>Lock-free: the ring buffer is a multi-producer multi-consumer queue with
+ * one sequence number per slot, values are stored inline in a
+ * {@code long[]}.</li>
+ * <li>Metrics: {@link #getHits()} counts values served from the pool,
+ * {@link #getMisses()} values generated directly.</li>
+ * <li>Pooled IDs are generated ahead of time, a pool of time-ordered IDs hands
+ * out IDs older than the call.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public class IdPool implements AutoCloseable {
+
+	private IdPool(int capacity, int lowWaterMark, int width, Source source) {
+		if (capacity < 2 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("capacity must be between 2 and " + MAX_CAPACITY + ": " + capacity);
+		}
+		if (lowWaterMark < 0 || lowWaterMark > capacity) {
+			throw new IllegalArgumentException("lowWaterMark must be between 0 and " + capacity + ": " + lowWaterMark);
+		}
+		int slots = Integer.highestOneBit(capacity - 1) << 1;
+		this.capacity = capacity;
+		this.lowWaterMark = lowWaterMark;
+		this.width = width;
+		this.source = source;
+		this.mask = slots - 1;
+		this.values = new long[slots * width];
+		this.sequences = new AtomicLongArray(slots);
+		for (int i = 0; i < slots; i++) {
+			sequences.set(i, i);
+		}
+		fill();
+	}
+
+	/**
+	 * Create a pool of random UUIDs (version 4) from the shared
+	 * {@link UUIDGenerator#secureRandom()}, refilled below a quarter of the
+	 * capacity. The pool is filled before this method returns.
+	 * 
+	 * @param capacity the number of pooled UUIDs
+	 * @return the pool
+	 */
+	public static IdPool ofUUIDs(int capacity) {
+		return ofUUIDs(capacity, capacity / 4, UUIDGenerator.secureRandom());
+	}
+
+	/**
+	 * Create a pool of random UUIDs (version 4). The pool is filled before this
+	 * method returns.
+	 * 
+	 * @param capacity     the number of pooled UUIDs
+	 * @param lowWaterMark the size below which the pool is refilled
+	 * @param generator    the random source
+	 * @return the pool
+	 */
+	public static IdPool ofUUIDs(int capacity, int lowWaterMark, UUIDGenerator generator) {
+		Objects.requireNonNull(generator, "generator");
+		return new IdPool(capacity, lowWaterMark, 2, new Source() {
+
+			@Override
+			public void generate(long[] dst, int offset, int count) {
+				UUIDUtils.randomUUIDs(generator, dst, offset, count);
+			}
+
+			@Override
+			public UUID generateUUID() {
+				return generator.randomUUID();
+			}
+		});
+	}
+
+	/**
+	 * Create a pool of 64-bit IDs, i.e. {@code SnowflakeIdGenerator::nextId}. The
+	 * pool is filled before this method returns.
+	 * 
+	 * @param capacity     the number of pooled IDs
+	 * @param lowWaterMark the size below which the pool is refilled
+	 * @param supplier     the ID source, called from the refill thread and from
+	 *                     callers on a miss
+	 * @return the pool
+	 */
+	public static IdPool ofLongs(int capacity, int lowWaterMark, LongSupplier supplier) {
+		Objects.requireNonNull(supplier, "supplier");
+		return new IdPool(capacity, lowWaterMark, 1, new Source() {
+
+			@Override
+			public void generate(long[] dst, int offset, int count) {
+				for (int i = 0; i < count; i++) {
+					dst[offset + i] = supplier.getAsLong();
+				}
+			}
+
+			@Override
+			public long generateLong() {
+				return supplier.getAsLong();
+			}
+		});
+	}
+
+	/**
+	 * Pop a UUID, or generate one if the pool is empty
+	 * 
+	 * @return a UUID
+	 * @throws IllegalStateException if this is a pool of 64-bit IDs
+	 */
+	public UUID nextUUID() {
+		if (width != 2) {
+			throw new IllegalStateException("Not a UUID pool");
+		}
+		long position = claim();
+		if (position < 0) {
+			miss();
+			return source.generateUUID();
+		}
+		int index = ((int) position & mask) * 2;
+		UUID uuid = new UUID(values[index], values[index + 1]);
+		release(position);
+		return uuid;
+	}
+
+	/**
+	 * Pop a UUID as raw bits, or generate one if the pool is empty
+	 * 
+	 * @param dst    the destination array
+	 * @param offset the index of the most significant bits in {@code dst}
+	 * @throws IllegalStateException if this is a pool of 64-bit IDs
+	 */
+	public void nextUUID(long[] dst, int offset) {
+		if (width != 2) {
+			throw new IllegalStateException("Not a UUID pool");
+		}
+		Objects.checkFromIndexSize(offset, 2, dst.length);
+		next(dst, offset);
+	}
+
+	/**
+	 * Pop a 64-bit ID, or generate one if the pool is empty
+	 * 
+	 * @return a 64-bit ID
+	 * @throws IllegalStateException if this is a pool of UUIDs
+	 */
+	public long nextLong() {
+		if (width != 1) {
+			throw new IllegalStateException("Not a 64-bit ID pool");
+		}
+		long position = claim();
+		if (position < 0) {
+			miss();
+			return source.generateLong();
+		}
+		long id = values[(int) position & mask];
+		release(position);
+		return id;
+	}
+
+	private void next(long[] dst, int offset) {
+		long position = claim();
+		if (position < 0) {
+			miss();
+			source.generate(dst, offset, 1);
+			return;
+		}
+		System.arraycopy(values, ((int) position & mask) * width, dst, offset, width);
+		release(position);
+	}
+
+	/**
+	 * Count a miss, the caller generates the value directly
+	 */
+	private void miss() {
+		misses.increment();
+		scheduleRefill();
+	}
+
+	/**
+	 * Returns the approximate number of pooled values
+	 * 
+	 * @return the number of pooled values
+	 */
+	public int size() {
+		long size = tail.get() - head.get();
+		return (int) Math.max(0, Math.min(size, capacity));
+	}
+
+	/**
+	 * Returns the number of pooled values when full
+	 * 
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the size below which the pool is refilled
+	 * 
+	 * @return the low-water mark
+	 */
+	public int getLowWaterMark() {
+		return lowWaterMark;
+	}
+
+	/**
+	 * Returns the number of values served from the pool
+	 * 
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of values generated directly because the pool was empty
+	 * 
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of background refills started
+	 * 
+	 * @return the number of refills
+	 */
+	public long getRefills() {
+		return refills.sum();
+	}
+
+	/**
+	 * Stop refilling, the remaining pooled values are still served and then every
+	 * value is generated directly
+	 */
+	@Override
+	public void close() {
+		closed = true;
+	}
+
+	private void scheduleRefill() {
+		if (!closed && refilling.compareAndSet(false, true)) {
+			refills.increment();
+			Thread.ofVirtual().name("id-pool-refill").start(this::refill);
+		}
+	}
+
+	private void refill() {
+		try {
+			fill();
+		} finally {
+			refilling.set(false);
+		}
+		// callers may have dropped below the mark while the flag was still set
+		if (!closed && size() < lowWaterMark) {
+			scheduleRefill();
+		}
+	}
+
+	/**
+	 * Generate values in batches until the pool is full
+	 */
+	private void fill() {
+		long[] batch = new long[REFILL_BATCH * width];
+		while (!closed) {
+			int count = Math.min(capacity - size(), REFILL_BATCH);
+			if (count <= 0) {
+				return;
+			}
+			source.generate(batch, 0, count);
+			for (int i = 0; i < count; i++) {
+				if (!offer(batch, i * width)) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Enqueue one value, false if full
+	 */
+	private boolean offer(long[] src, int offset) {
+		long position = tail.get();
+		for (;;) {
+			if (position - head.get() >= capacity) {
+				return false;
+			}
+			int slot = (int) position & mask;
+			long diff = sequences.get(slot) - position;
+			if (diff == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					System.arraycopy(src, offset, values, slot * width, width);
+					sequences.set(slot, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (diff < 0) {
+				return false;
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Dequeue one value: the position of its slot, to read and then
+	 * {@link #release(long)}, or -1 if empty
+	 */
+	private long claim() {
+		long position = head.get();
+		for (;;) {
+			int slot = (int) position & mask;
+			long diff = sequences.get(slot) - (position + 1);
+			if (diff == 0) {
+				if (head.compareAndSet(position, position + 1)) {
+					return position;
+				}
+				position = head.get();
+			} else if (diff < 0) {
+				return -1;
+			} else {
+				position = head.get();
+			}
+		}
+	}
+
+	/**
+	 * Hand the slot of a claimed position, read, back to the writers
+	 */
+	private void release(long position) {
+		sequences.set((int) position & mask, position + mask + 1);
+		hits.increment();
+		if (size() < lowWaterMark) {
+			scheduleRefill();
+		}
+	}
+
+	/**
+	 * Generates values into an array, {@code width} longs per value, and single
+	 * values for a miss without an array
+	 */
+	private static interface Source {
+
+		void generate(long[] dst, int offset, int count);
+
+		/**
+		 * One UUID of a UUID pool
+		 */
+		default UUID generateUUID() {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * One ID of a 64-bit ID pool
+		 */
+		default long generateLong() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * The largest capacity
+	 */
+	private static final int MAX_CAPACITY = 1 << 24;
+
+	/**
+	 * The number of values generated at once by a refill
+	 */
+	private static final int REFILL_BATCH = 256;
+
+	private final int capacity;
+	private final int lowWaterMark;
+
+	/**
+	 * The number of longs per value, 2 for UUIDs and 1 for 64-bit IDs
+	 */
+	private final int width;
+	private final Source source;
+
+	/**
+	 * The ring buffer, the sequence of a slot tells whether it is ready to be
+	 * written or read for a given position
+	 */
+	private final int mask;
+	private final long[] values;
+	private final AtomicLongArray sequences;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+
+	private final AtomicBoolean refilling = new AtomicBoolean();
+	private volatile boolean closed;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder refills = new LongAdder();
+}
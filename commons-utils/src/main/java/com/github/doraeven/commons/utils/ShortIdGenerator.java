@@ -0,0 +1,251 @@
+package com.github.doraeven.commons.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Short ID Generator
+ * 
+ * <p>
+ * Generates short random IDs over a custom alphabet, NanoID style. Each symbol
+ * takes the fewest random bits covering the alphabet (bit-mask sampling) and
+ * values outside of the alphabet are rejected, so every symbol is equally
+ * likely. Random longs are drawn from a {@link UUIDGenerator} in blocks and
+ * split into symbols, the leftover bits are kept for the next ID.
+ * </p>
+ * 
+ * <ul>
+ * <li>Thread-safe without locking: each thread owns its entropy block.</li>
+ * <li>Output straight into a {@code char[]}, an ASCII {@code byte[]} or a
+ * {@link StringBuilder}.</li>
+ * <li>The default is 21 symbols of {@link #URL_SAFE_ALPHABET}, about 126 random
+ * bits.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public class ShortIdGenerator {
+
+	/**
+	 * Create a generator of 21 symbols of {@link #URL_SAFE_ALPHABET} from
+	 * {@link UUIDGenerator#threadLocalSecureRandom()}
+	 */
+	public ShortIdGenerator() {
+		this(URL_SAFE_ALPHABET, DEFAULT_LENGTH);
+	}
+
+	/**
+	 * Create a generator from {@link UUIDGenerator#threadLocalSecureRandom()}
+	 * 
+	 * @param alphabet the symbols, 2 to 256 distinct chars
+	 * @param length   the number of symbols per ID
+	 */
+	public ShortIdGenerator(String alphabet, int length) {
+		this(alphabet, length, UUIDGenerator.threadLocalSecureRandom());
+	}
+
+	/**
+	 * Create a generator
+	 * 
+	 * @param alphabet  the symbols, 2 to 256 distinct chars
+	 * @param length    the number of symbols per ID
+	 * @param generator the random source
+	 */
+	public ShortIdGenerator(String alphabet, int length, UUIDGenerator generator) {
+		Objects.requireNonNull(alphabet, "alphabet");
+		Objects.requireNonNull(generator, "generator");
+		if (alphabet.length() < 2 || alphabet.length() > 256) {
+			throw new IllegalArgumentException("alphabet must have 2 to 256 chars: " + alphabet.length());
+		}
+		if (alphabet.chars().distinct().count() != alphabet.length()) {
+			throw new IllegalArgumentException("alphabet chars must be distinct: " + alphabet);
+		}
+		if (length < 1) {
+			throw new IllegalArgumentException("length must be positive: " + length);
+		}
+		this.chars = alphabet.toCharArray();
+		this.ascii = alphabet.chars().allMatch(c -> c < 0x80);
+		this.bytes = ascii ? alphabet.getBytes(StandardCharsets.US_ASCII) : null;
+		this.length = length;
+		this.bits = 32 - Integer.numberOfLeadingZeros(chars.length - 1);
+		this.mask = (1 << bits) - 1;
+		this.generator = generator;
+	}
+
+	/**
+	 * Get a random ID
+	 * 
+	 * @return random ID
+	 */
+	public String next() {
+		if (ascii) {
+			byte[] id = new byte[length];
+			next(id, 0);
+			return new String(id, StandardCharsets.ISO_8859_1);
+		}
+		char[] id = new char[length];
+		next(id, 0);
+		return new String(id);
+	}
+
+	/**
+	 * Write a random ID into the char array
+	 * 
+	 * @param dst    the destination array
+	 * @param offset the index of the first symbol in {@code dst}
+	 */
+	public void next(char[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, length, dst.length);
+		final char[] chars = this.chars;
+		final Entropy entropy = entropies.get();
+		for (int i = offset, end = offset + length; i < end; i++) {
+			dst[i] = chars[nextSymbol(entropy)];
+		}
+	}
+
+	/**
+	 * Write a random ID into the byte array as ASCII
+	 * 
+	 * @param dst    the destination array
+	 * @param offset the index of the first symbol in {@code dst}
+	 * @throws IllegalStateException if the alphabet is not ASCII
+	 */
+	public void next(byte[] dst, int offset) {
+		if (!ascii) {
+			throw new IllegalStateException("Alphabet is not ASCII");
+		}
+		Objects.checkFromIndexSize(offset, length, dst.length);
+		final byte[] bytes = this.bytes;
+		final Entropy entropy = entropies.get();
+		for (int i = offset, end = offset + length; i < end; i++) {
+			dst[i] = bytes[nextSymbol(entropy)];
+		}
+	}
+
+	/**
+	 * Append a random ID to the string builder
+	 * 
+	 * @param sb the string builder
+	 * @return the string builder
+	 */
+	public StringBuilder append(StringBuilder sb) {
+		final char[] chars = this.chars;
+		final Entropy entropy = entropies.get();
+		sb.ensureCapacity(sb.length() + length);
+		for (int i = 0; i < length; i++) {
+			sb.append(chars[nextSymbol(entropy)]);
+		}
+		return sb;
+	}
+
+	/**
+	 * Returns the number of symbols per ID
+	 * 
+	 * @return the ID length
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns the alphabet
+	 * 
+	 * @return the alphabet
+	 */
+	public String getAlphabet() {
+		return new String(chars);
+	}
+
+	/**
+	 * Returns the random bits of an ID, {@code length * log2(alphabet size)}
+	 * 
+	 * @return the entropy in bits
+	 */
+	public double getEntropyBits() {
+		return length * (Math.log(chars.length) / Math.log(2));
+	}
+
+	/**
+	 * Draw the next symbol index, rejecting masked values beyond the alphabet
+	 */
+	private int nextSymbol(Entropy entropy) {
+		final int bits = this.bits;
+		final int mask = this.mask;
+		final int size = chars.length;
+		for (;;) {
+			if (entropy.available < bits) {
+				entropy.refill(generator);
+			}
+			int value = (int) entropy.current & mask;
+			entropy.current >>>= bits;
+			entropy.available -= bits;
+			if (value < size) {
+				return value;
+			}
+		}
+	}
+
+	/**
+	 * The random bits of one thread
+	 */
+	private static final class Entropy {
+
+		/**
+		 * Load the next long of the block, drawing a new block when exhausted
+		 */
+		private void refill(UUIDGenerator generator) {
+			if (index == block.length) {
+				generator.nextLongs(block, 0, block.length);
+				index = 0;
+			}
+			current = block[index++];
+			available = Long.SIZE;
+		}
+
+		private final long[] block = new long[ENTROPY_BLOCK_LONGS];
+		private int index = ENTROPY_BLOCK_LONGS;
+		private long current;
+		private int available;
+	}
+
+	/**
+	 * URL-safe alphabet of NanoID, 64 symbols
+	 */
+	public static final String URL_SAFE_ALPHABET = "useandom-26T198340PX75pxJACKVERYMINDBUSHWOLF_GQZbfghjklqvwyzrict";
+
+	/**
+	 * Digits and ASCII letters, 62 symbols
+	 */
+	public static final String ALPHANUMERIC_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+	/**
+	 * Digits and letters without lookalikes such as 0/O/o, 1/I/l, 2/Z, 5/S/s and
+	 * u/v, 49 symbols, for codes read or typed by people
+	 */
+	public static final String NO_LOOKALIKES_ALPHABET = "346789ABCDEFGHJKLMNPQRTUVWXYabcdefghijkmnpqrtwxyz";
+
+	/**
+	 * Default number of symbols
+	 */
+	public static final int DEFAULT_LENGTH = 21;
+
+	/**
+	 * The number of longs drawn from the generator at once
+	 */
+	private static final int ENTROPY_BLOCK_LONGS = 16;
+
+	private final char[] chars;
+	private final byte[] bytes;
+	private final boolean ascii;
+	private final int length;
+
+	/**
+	 * The number of random bits per symbol and their mask
+	 */
+	private final int bits;
+	private final int mask;
+
+	private final UUIDGenerator generator;
+	private final ThreadLocal<Entropy> entropies = ThreadLocal.withInitial(Entropy::new);
+}
@@ -0,0 +1,455 @@
+package com.github.doraeven.commons.utils;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake ID Generator
+ * 
+ * <p>
+ * Generates 64-bit, roughly time-ordered IDs: a sign bit (always 0), the
+ * milliseconds since a custom epoch, the worker ID and a per-millisecond
+ * sequence. The default layout is 41 timestamp bits (about 69 years), 10
+ * worker ID bits and 12 sequence bits.
+ * </p>
+ * 
+ * <ul>
+ * <li>Lock-free: the last timestamp and sequence are one {@link AtomicLong},
+ * advanced by CAS.</li>
+ * <li>Clock regression: {@link ClockBackwards#WAIT} waits for the clock to
+ * catch up, {@link ClockBackwards#BORROW} keeps counting on a logical clock
+ * that runs ahead of the wall clock.</li>
+ * <li>Bulk reservation: {@link #nextIds(int)} hands out a block of IDs with a
+ * single CAS.</li>
+ * <li>No coordinator: the worker ID comes from the constructor or from
+ * {@link #fromProperties(Properties)}.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public class SnowflakeIdGenerator {
+
+	/**
+	 * Create a generator with the default epoch and layout
+	 * 
+	 * @param workerId the worker ID, 0 to 1023
+	 */
+	public SnowflakeIdGenerator(long workerId) {
+		this(DEFAULT_EPOCH, DEFAULT_WORKER_ID_BITS, DEFAULT_SEQUENCE_BITS, workerId, ClockBackwards.WAIT);
+	}
+
+	/**
+	 * Create a generator
+	 * 
+	 * @param epoch          the custom epoch, in Unix epoch milliseconds
+	 * @param workerIdBits   the number of worker ID bits
+	 * @param sequenceBits   the number of sequence bits
+	 * @param workerId       the worker ID
+	 * @param clockBackwards what to do when the clock moves backwards
+	 */
+	public SnowflakeIdGenerator(long epoch, int workerIdBits, int sequenceBits, long workerId,
+			ClockBackwards clockBackwards) {
+		this(epoch, workerIdBits, sequenceBits, workerId, clockBackwards, System::currentTimeMillis);
+	}
+
+	/**
+	 * Create a generator with a custom clock
+	 * 
+	 * @param epoch          the custom epoch, in Unix epoch milliseconds
+	 * @param workerIdBits   the number of worker ID bits
+	 * @param sequenceBits   the number of sequence bits
+	 * @param workerId       the worker ID
+	 * @param clockBackwards what to do when the clock moves backwards
+	 * @param clock          the clock, in Unix epoch milliseconds
+	 */
+	public SnowflakeIdGenerator(long epoch, int workerIdBits, int sequenceBits, long workerId,
+			ClockBackwards clockBackwards, LongSupplier clock) {
+		if (workerIdBits < 0 || sequenceBits < 1 || workerIdBits + sequenceBits > MAX_NODE_BITS) {
+			throw new IllegalArgumentException("Invalid worker ID bits " + workerIdBits + " or sequence bits "
+					+ sequenceBits + ", at most " + MAX_NODE_BITS + " bits in total");
+		}
+		if (workerId < 0 || workerId >= 1L << workerIdBits) {
+			throw new IllegalArgumentException(
+					"Worker ID must be between 0 and " + ((1L << workerIdBits) - 1) + ": " + workerId);
+		}
+		if (epoch < 0 || epoch > clock.getAsLong()) {
+			throw new IllegalArgumentException("Epoch must not be in the future: " + epoch);
+		}
+		this.epoch = epoch;
+		this.workerIdBits = workerIdBits;
+		this.sequenceBits = sequenceBits;
+		this.workerId = workerId;
+		this.clockBackwards = Objects.requireNonNull(clockBackwards, "clockBackwards");
+		this.clock = Objects.requireNonNull(clock, "clock");
+		this.sequenceMask = (1L << sequenceBits) - 1;
+		this.maxState = (1L << (63 - workerIdBits)) - 1;
+	}
+
+	/**
+	 * Create a generator from the configuration
+	 * 
+	 * <ul>
+	 * <li>{@value #PROPERTY_WORKER_ID}: required</li>
+	 * <li>{@value #PROPERTY_EPOCH}: optional, Unix epoch milliseconds</li>
+	 * <li>{@value #PROPERTY_WORKER_ID_BITS}: optional, default
+	 * {@value #DEFAULT_WORKER_ID_BITS}</li>
+	 * <li>{@value #PROPERTY_SEQUENCE_BITS}: optional, default
+	 * {@value #DEFAULT_SEQUENCE_BITS}</li>
+	 * <li>{@value #PROPERTY_CLOCK_BACKWARDS}: optional, WAIT or BORROW, default
+	 * WAIT</li>
+	 * </ul>
+	 * 
+	 * @param properties the configuration
+	 * @return a generator
+	 * @throws IllegalArgumentException if the worker ID is missing or a value is
+	 *                                  invalid
+	 */
+	public static SnowflakeIdGenerator fromProperties(Properties properties) {
+		String workerId = properties.getProperty(PROPERTY_WORKER_ID);
+		if (workerId == null || workerId.isBlank()) {
+			throw new IllegalArgumentException("Missing property " + PROPERTY_WORKER_ID);
+		}
+		long epoch = Long.parseLong(properties.getProperty(PROPERTY_EPOCH, String.valueOf(DEFAULT_EPOCH)).trim());
+		int workerIdBits = Integer.parseInt(
+				properties.getProperty(PROPERTY_WORKER_ID_BITS, String.valueOf(DEFAULT_WORKER_ID_BITS)).trim());
+		int sequenceBits = Integer.parseInt(
+				properties.getProperty(PROPERTY_SEQUENCE_BITS, String.valueOf(DEFAULT_SEQUENCE_BITS)).trim());
+		ClockBackwards clockBackwards = ClockBackwards
+				.valueOf(properties.getProperty(PROPERTY_CLOCK_BACKWARDS, ClockBackwards.WAIT.name()).trim());
+		return new SnowflakeIdGenerator(epoch, workerIdBits, sequenceBits, Long.parseLong(workerId.trim()),
+				clockBackwards);
+	}
+
+	/**
+	 * Create a generator from the system properties
+	 * 
+	 * @return a generator
+	 * @see #fromProperties(Properties)
+	 */
+	public static SnowflakeIdGenerator fromSystemProperties() {
+		return fromProperties(System.getProperties());
+	}
+
+	/**
+	 * Get the next ID
+	 * 
+	 * @return the next ID, greater than every ID issued before by this generator
+	 * @throws IllegalStateException if the clock moved backwards more than
+	 *                               {@value #MAX_WAIT_MILLIS} ms in WAIT mode, or
+	 *                               the timestamp bits are exhausted
+	 */
+	public long nextId() {
+		return toId(reserve(1));
+	}
+
+	/**
+	 * Reserve a block of consecutive IDs with a single CAS
+	 * 
+	 * <p>
+	 * When the block does not fit into the current millisecond it continues on the
+	 * following ones, ahead of the clock; in WAIT mode the next reservation then
+	 * waits for the clock to catch up. In WAIT mode a block always ends less than
+	 * {@value #MAX_WAIT_MILLIS} ms ahead of the clock: the reservation waits for
+	 * the clock before the CAS when needed, a block spanning more milliseconds
+	 * than that is refused.
+	 * </p>
+	 * 
+	 * @param count the number of IDs, at least 1
+	 * @return the reserved IDs
+	 * @throws IllegalArgumentException if the count is not positive, or in WAIT
+	 *                                  mode spans more than
+	 *                                  {@value #MAX_WAIT_MILLIS} ms of sequence
+	 * @throws IllegalStateException    if the clock moved backwards more than
+	 *                                  {@value #MAX_WAIT_MILLIS} ms in WAIT
+	 *                                  mode, or the timestamp bits are exhausted
+	 */
+	public IdBlock nextIds(int count) {
+		if (count < 1) {
+			throw new IllegalArgumentException("count must be positive: " + count);
+		}
+		if (clockBackwards == ClockBackwards.WAIT && count > MAX_WAIT_MILLIS << sequenceBits) {
+			throw new IllegalArgumentException("count spans more than " + MAX_WAIT_MILLIS
+					+ " ms of sequence in WAIT mode: " + count);
+		}
+		return new IdBlock(reserve(count), count);
+	}
+
+	/**
+	 * Get the Unix epoch milliseconds of the ID
+	 * 
+	 * @param id the ID
+	 * @return the timestamp
+	 */
+	public long getTimestamp(long id) {
+		return (id >>> (workerIdBits + sequenceBits)) + epoch;
+	}
+
+	/**
+	 * Get the worker ID of the ID
+	 * 
+	 * @param id the ID
+	 * @return the worker ID
+	 */
+	public long getWorkerId(long id) {
+		return (id >>> sequenceBits) & ((1L << workerIdBits) - 1);
+	}
+
+	/**
+	 * Get the sequence of the ID
+	 * 
+	 * @param id the ID
+	 * @return the sequence
+	 */
+	public long getSequence(long id) {
+		return id & sequenceMask;
+	}
+
+	/**
+	 * Get the epoch
+	 * 
+	 * @return the custom epoch, in Unix epoch milliseconds
+	 */
+	public long getEpoch() {
+		return epoch;
+	}
+
+	/**
+	 * Get the worker ID
+	 * 
+	 * @return the worker ID of this generator
+	 */
+	public long getWorkerId() {
+		return workerId;
+	}
+
+	/**
+	 * Get the number of worker ID bits
+	 * 
+	 * @return the number of worker ID bits
+	 */
+	public int getWorkerIdBits() {
+		return workerIdBits;
+	}
+
+	/**
+	 * Get the number of sequence bits
+	 * 
+	 * @return the number of sequence bits
+	 */
+	public int getSequenceBits() {
+		return sequenceBits;
+	}
+
+	/**
+	 * Get the clock regression strategy
+	 * 
+	 * @return the clock regression strategy
+	 */
+	public ClockBackwards getClockBackwards() {
+		return clockBackwards;
+	}
+
+	/**
+	 * Reserve count states, the state is {@code timestamp << sequenceBits |
+	 * sequence}, so a sequence overflow carries into the next millisecond
+	 * 
+	 * @return the first reserved state
+	 */
+	private long reserve(int count) {
+		long now = clock.getAsLong() - epoch;
+		for (;;) {
+			long prev = state.get();
+			long prevTimestamp = prev >>> sequenceBits;
+			long first;
+			if (now > prevTimestamp) {
+				first = now << sequenceBits;
+			} else if (clockBackwards == ClockBackwards.WAIT
+					&& (now < prevTimestamp || (prev & sequenceMask) == sequenceMask)) {
+				now = waitUntil(now, (prev & sequenceMask) == sequenceMask ? prevTimestamp + 1 : prevTimestamp);
+				continue;
+			} else {
+				first = prev + 1;
+			}
+			long last = first + count - 1;
+			if (last > maxState || last < first) {
+				throw new IllegalStateException("Timestamp bits exhausted, epoch " + epoch);
+			}
+			if (clockBackwards == ClockBackwards.WAIT && (last >>> sequenceBits) - now >= MAX_WAIT_MILLIS) {
+				// keep the lead below MAX_WAIT_MILLIS, or the next reservation would take
+				// it for a clock regression
+				now = park(now, (last >>> sequenceBits) - MAX_WAIT_MILLIS + 1);
+				continue;
+			}
+			if (state.compareAndSet(prev, last)) {
+				return first;
+			}
+		}
+	}
+
+	/**
+	 * Wait until the clock reaches the target
+	 * 
+	 * @return the clock, relative to the epoch
+	 */
+	private long waitUntil(long now, long target) {
+		if (target - now > MAX_WAIT_MILLIS) {
+			throw new IllegalStateException("Clock moved backwards by " + (target - now) + " ms");
+		}
+		return park(now, target);
+	}
+
+	/**
+	 * Park until the clock reaches the target, without bound
+	 * 
+	 * @return the clock, relative to the epoch
+	 */
+	private long park(long now, long target) {
+		while (now < target) {
+			LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+			now = clock.getAsLong() - epoch;
+		}
+		return now;
+	}
+
+	private long toId(long state) {
+		return (state >>> sequenceBits) << (workerIdBits + sequenceBits) | workerId << sequenceBits
+				| (state & sequenceMask);
+	}
+
+	/**
+	 * A block of reserved IDs, in increasing order
+	 */
+	public final class IdBlock {
+
+		private IdBlock(long firstState, int size) {
+			this.firstState = firstState;
+			this.size = size;
+		}
+
+		/**
+		 * Get the number of IDs
+		 * 
+		 * @return the number of IDs in the block
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Get the ID at the index
+		 * 
+		 * @param index the index, 0 to size - 1
+		 * @return the ID
+		 */
+		public long get(int index) {
+			Objects.checkIndex(index, size);
+			return toId(firstState + index);
+		}
+
+		/**
+		 * Copy all IDs into the long array
+		 * 
+		 * @param dst    the destination array
+		 * @param offset the index of the first ID in {@code dst}
+		 */
+		public void fill(long[] dst, int offset) {
+			Objects.checkFromIndexSize(offset, size, dst.length);
+			for (int i = 0; i < size; i++) {
+				dst[offset + i] = toId(firstState + i);
+			}
+		}
+
+		/**
+		 * Iterate the IDs
+		 * 
+		 * @return an iterator over the IDs
+		 */
+		public PrimitiveIterator.OfLong iterator() {
+			return new PrimitiveIterator.OfLong() {
+
+				@Override
+				public boolean hasNext() {
+					return index < size;
+				}
+
+				@Override
+				public long nextLong() {
+					if (index >= size) {
+						throw new NoSuchElementException();
+					}
+					return toId(firstState + index++);
+				}
+
+				private int index = 0;
+			};
+		}
+
+		private final long firstState;
+		private final int size;
+	}
+
+	/**
+	 * What to do when the clock moves backwards
+	 */
+	public static enum ClockBackwards {
+		/** Wait for the clock to catch up, at most {@link SnowflakeIdGenerator#MAX_WAIT_MILLIS} **/
+		WAIT,
+		/** Continue from the last issued ID on a logical clock, never block **/
+		BORROW
+	};
+
+	/**
+	 * Default epoch, 2024-01-01T00:00:00Z
+	 */
+	public static final long DEFAULT_EPOCH = 1704067200000L;
+
+	/**
+	 * Default number of worker ID bits, 1024 workers
+	 */
+	public static final int DEFAULT_WORKER_ID_BITS = 10;
+
+	/**
+	 * Default number of sequence bits, 4096 IDs per millisecond and worker
+	 */
+	public static final int DEFAULT_SEQUENCE_BITS = 12;
+
+	/**
+	 * The longest clock regression WAIT mode waits for, in milliseconds
+	 */
+	public static final long MAX_WAIT_MILLIS = 5000;
+
+	/**
+	 * Property names of {@link #fromProperties(Properties)}
+	 */
+	public static final String PROPERTY_WORKER_ID = "snowflake.worker-id";
+	public static final String PROPERTY_EPOCH = "snowflake.epoch";
+	public static final String PROPERTY_WORKER_ID_BITS = "snowflake.worker-id-bits";
+	public static final String PROPERTY_SEQUENCE_BITS = "snowflake.sequence-bits";
+	public static final String PROPERTY_CLOCK_BACKWARDS = "snowflake.clock-backwards";
+
+	/**
+	 * At most 22 worker ID and sequence bits, leaving at least 41 timestamp bits
+	 */
+	private static final int MAX_NODE_BITS = 22;
+
+	private final long epoch;
+	private final int workerIdBits;
+	private final int sequenceBits;
+	private final long workerId;
+	private final ClockBackwards clockBackwards;
+	private final LongSupplier clock;
+	private final long sequenceMask;
+	private final long maxState;
+
+	/**
+	 * The last issued timestamp and sequence
+	 */
+	private final AtomicLong state = new AtomicLong();
+}
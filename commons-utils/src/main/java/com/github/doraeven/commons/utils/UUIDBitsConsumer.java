@@ -0,0 +1,25 @@
+package com.github.doraeven.commons.utils;
+
+/**
+ * UUID Bits Consumer
+ * 
+ * <p>
+ * Accepts a UUID as its most and least significant bits, so bulk UUID
+ * structures can be iterated without creating UUID objects.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+@FunctionalInterface
+public interface UUIDBitsConsumer {
+
+	/**
+	 * Performs this operation on the UUID
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 */
+	void accept(long msb, long lsb);
+
+}
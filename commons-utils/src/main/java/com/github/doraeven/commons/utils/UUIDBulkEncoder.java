@@ -0,0 +1,188 @@
+package com.github.doraeven.commons.utils;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * UUID Bulk Encoder
+ * 
+ * <p>
+ * Encodes arrays of UUIDs stored as most/least significant bits pairs, the
+ * layout of {@link UUIDUtils#randomUUIDs(long[], int, int)}, to canonical hex
+ * or Base64URLSafe ASCII text, back to back without separators. The output of
+ * each UUID is the same as {@link UUIDUtils#toCanonical(long, long, byte[], int)}
+ * and {@link UUIDUtils#toBase64URLSafe(long, long, byte[], int)}.
+ * </p>
+ * 
+ * <ul>
+ * <li>When the {@code jdk.incubator.vector} module is present
+ * ({@code --add-modules jdk.incubator.vector}) on a little-endian platform with
+ * 128 bit vectors, one UUID is encoded per iteration with SIMD byte
+ * shuffles.</li>
+ * <li>Otherwise the scalar SWAR encoders of {@link UUIDUtils} are used, the
+ * output is the same.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+public class UUIDBulkEncoder {
+
+	/**
+	 * Encode the UUIDs to canonical hex strings, 36 bytes each
+	 * 
+	 * @param uuids     the source array
+	 * @param offset    the index of the first most significant bits in
+	 *                  {@code uuids}
+	 * @param count     the number of UUIDs
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first byte in {@code dst}
+	 * @return the index after the last byte written
+	 */
+	public static int toCanonical(long[] uuids, int offset, int count, byte[] dst, int dstOffset) {
+		Objects.checkFromIndexSize(offset, count * 2L, uuids.length);
+		Objects.checkFromIndexSize(dstOffset, count * (long) CANONICAL_LENGTH, dst.length);
+		int encoded = KERNEL == null ? 0 : KERNEL.toCanonical(uuids, offset, count, dst, dstOffset);
+		for (int i = encoded; i < count; i++) {
+			UUIDUtils.toCanonical(uuids[offset + 2 * i], uuids[offset + 2 * i + 1], dst,
+					dstOffset + i * CANONICAL_LENGTH);
+		}
+		return dstOffset + count * CANONICAL_LENGTH;
+	}
+
+	/**
+	 * Encode the UUIDs to canonical hex strings, 36 bytes each, at the position
+	 * of the buffer
+	 * 
+	 * @param uuids  the source array
+	 * @param offset the index of the first most significant bits in {@code uuids}
+	 * @param count  the number of UUIDs
+	 * @param dst    the destination buffer
+	 * @throws BufferOverflowException if the buffer is too small
+	 */
+	public static void toCanonical(long[] uuids, int offset, int count, ByteBuffer dst) {
+		encode(uuids, offset, count, dst, CANONICAL_LENGTH, false);
+	}
+
+	/**
+	 * Encode the UUIDs to Base64URLSafe, 22 bytes each without padding
+	 * 
+	 * @param uuids     the source array
+	 * @param offset    the index of the first most significant bits in
+	 *                  {@code uuids}
+	 * @param count     the number of UUIDs
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first byte in {@code dst}
+	 * @return the index after the last byte written
+	 */
+	public static int toBase64URLSafe(long[] uuids, int offset, int count, byte[] dst, int dstOffset) {
+		Objects.checkFromIndexSize(offset, count * 2L, uuids.length);
+		Objects.checkFromIndexSize(dstOffset, count * (long) BASE64_URL_SAFE_LENGTH, dst.length);
+		int encoded = KERNEL == null ? 0 : KERNEL.toBase64URLSafe(uuids, offset, count, dst, dstOffset);
+		for (int i = encoded; i < count; i++) {
+			UUIDUtils.toBase64URLSafe(uuids[offset + 2 * i], uuids[offset + 2 * i + 1], dst,
+					dstOffset + i * BASE64_URL_SAFE_LENGTH);
+		}
+		return dstOffset + count * BASE64_URL_SAFE_LENGTH;
+	}
+
+	/**
+	 * Encode the UUIDs to Base64URLSafe, 22 bytes each without padding, at the
+	 * position of the buffer
+	 * 
+	 * @param uuids  the source array
+	 * @param offset the index of the first most significant bits in {@code uuids}
+	 * @param count  the number of UUIDs
+	 * @param dst    the destination buffer
+	 * @throws BufferOverflowException if the buffer is too small
+	 */
+	public static void toBase64URLSafe(long[] uuids, int offset, int count, ByteBuffer dst) {
+		encode(uuids, offset, count, dst, BASE64_URL_SAFE_LENGTH, true);
+	}
+
+	/**
+	 * Returns true if the SIMD encoders are used
+	 * 
+	 * @return true if the Vector API is available
+	 */
+	public static boolean isVectorized() {
+		return KERNEL != null;
+	}
+
+	/**
+	 * Encode on the array of a heap buffer, through a chunk sized copy otherwise
+	 */
+	private static void encode(long[] uuids, int offset, int count, ByteBuffer dst, int length, boolean base64) {
+		Objects.checkFromIndexSize(offset, count * 2L, uuids.length);
+		if (dst.remaining() < count * (long) length) {
+			throw new BufferOverflowException();
+		}
+		if (dst.hasArray()) {
+			int start = dst.arrayOffset() + dst.position();
+			int end = base64 ? toBase64URLSafe(uuids, offset, count, dst.array(), start)
+					: toCanonical(uuids, offset, count, dst.array(), start);
+			dst.position(dst.position() + end - start);
+			return;
+		}
+		byte[] chunk = new byte[Math.min(count, CHUNK_UUIDS) * length];
+		for (int i = 0; i < count; i += CHUNK_UUIDS) {
+			int n = Math.min(CHUNK_UUIDS, count - i);
+			int end = base64 ? toBase64URLSafe(uuids, offset + 2 * i, n, chunk, 0)
+					: toCanonical(uuids, offset + 2 * i, n, chunk, 0);
+			dst.put(chunk, 0, end);
+		}
+	}
+
+	/**
+	 * Load the SIMD encoders if the Vector API is available, the class is only
+	 * touched by reflection so this class links without the module
+	 */
+	private static Kernel loadKernel() {
+		if (ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN
+				|| ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+			return null;
+		}
+		try {
+			return (Kernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Encodes a prefix of the UUIDs, the caller encodes the rest
+	 */
+	static interface Kernel {
+
+		/**
+		 * Returns the number of UUIDs encoded
+		 */
+		int toCanonical(long[] uuids, int offset, int count, byte[] dst, int dstOffset);
+
+		/**
+		 * Returns the number of UUIDs encoded
+		 */
+		int toBase64URLSafe(long[] uuids, int offset, int count, byte[] dst, int dstOffset);
+	}
+
+	/**
+	 * The length of a canonical UUID string and of a Base64URLSafe UUID
+	 */
+	static final int CANONICAL_LENGTH = 36;
+	static final int BASE64_URL_SAFE_LENGTH = 22;
+
+	/**
+	 * UUIDs encoded at once into a direct buffer
+	 */
+	private static final int CHUNK_UUIDS = 1024;
+
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+	private static final String VECTOR_KERNEL = "com.github.doraeven.commons.utils.UUIDVectorKernel";
+
+	/**
+	 * The SIMD encoders, null if unavailable
+	 */
+	private static final Kernel KERNEL = loadKernel();
+}
@@ -0,0 +1,397 @@
+package com.github.doraeven.commons.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * UUID Generator
+ * 
+ * <p>
+ * The entropy strategy behind the random UUIDs of {@link UUIDUtils}. Pass a
+ * configured instance to the {@code UUIDUtils} methods that accept one, or
+ * extend this class to plug in another random source.
+ * </p>
+ * 
+ * <ul>
+ * <li>{@link #secureRandom()}: the shared JDK {@link SecureRandom}, same as
+ * {@link UUID#randomUUID()}</li>
+ * <li>{@link #threadLocalSecureRandom()}: a buffered ChaCha20 DRBG per thread,
+ * reseeded from {@link SecureRandom}, so threads never contend</li>
+ * <li>{@link #splittableRandom()}: a non-cryptographic
+ * {@link SplittableRandom} per thread, for tests and simulations only</li>
+ * </ul>
+ * 
+ * <p>
+ * All instances are thread-safe.
+ * </p>
+ * 
+ * @author motu
+ *
+ */
+public abstract class UUIDGenerator {
+
+	/**
+	 * Returns the next pseudorandom 64 bits
+	 * 
+	 * @return random long
+	 */
+	public abstract long nextLong();
+
+	/**
+	 * Fill a range of the byte array with random bytes
+	 * 
+	 * @param bytes  the byte array
+	 * @param offset the start index
+	 * @param length the number of random bytes
+	 */
+	public abstract void nextBytes(byte[] bytes, int offset, int length);
+
+	/**
+	 * Fill a range of the long array with random longs
+	 * 
+	 * @param longs  the long array
+	 * @param offset the start index
+	 * @param length the number of random longs
+	 */
+	public void nextLongs(long[] longs, int offset, int length) {
+		Objects.checkFromIndexSize(offset, length, longs.length);
+		for (int i = offset, end = offset + length; i < end; i++) {
+			longs[i] = nextLong();
+		}
+	}
+
+	/**
+	 * Get a random UUID (version 4)
+	 * 
+	 * @return random UUID
+	 */
+	public UUID randomUUID() {
+		long msb = nextLong();
+		long lsb = nextLong();
+		return new UUID((msb & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L,
+				(lsb & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+	}
+
+	/**
+	 * Get a random UUID (version 4) string
+	 * 
+	 * @return random UUID string
+	 */
+	public String getRandomUUID() {
+		UUID uuid = randomUUID();
+		return uuid.toString();
+	}
+
+	/**
+	 * The shared JDK SecureRandom generator
+	 * 
+	 * <p>
+	 * Same entropy as {@link UUID#randomUUID()}; every thread draws from one
+	 * {@link SecureRandom} instance.
+	 * </p>
+	 * 
+	 * @return the SecureRandom generator
+	 */
+	public static UUIDGenerator secureRandom() {
+		return SecureRandomGenerator.INSTANCE;
+	}
+
+	/**
+	 * The per-thread ChaCha20 DRBG generator
+	 * 
+	 * <p>
+	 * Each thread owns a ChaCha20 keystream generator that refills 1 KiB at a
+	 * time, erases its key after every refill and reseeds from
+	 * {@link SecureRandom} every 1 MiB. No lock is taken outside of reseeding.
+	 * </p>
+	 * 
+	 * @return the thread-local ChaCha20 generator
+	 */
+	public static UUIDGenerator threadLocalSecureRandom() {
+		return ChaCha20Generator.INSTANCE;
+	}
+
+	/**
+	 * The per-thread SplittableRandom generator
+	 * 
+	 * <p>
+	 * <b>Not cryptographically secure</b>, the UUIDs are predictable. Use it only
+	 * for tests and simulations.
+	 * </p>
+	 * 
+	 * @return a SplittableRandom generator with a random seed
+	 */
+	public static UUIDGenerator splittableRandom() {
+		return new SplittableRandomGenerator(new SplittableRandom());
+	}
+
+	/**
+	 * The per-thread SplittableRandom generator
+	 * 
+	 * <p>
+	 * <b>Not cryptographically secure</b>, the UUIDs are predictable. Use it only
+	 * for tests and simulations. A single thread sees a reproducible sequence for
+	 * the same seed.
+	 * </p>
+	 * 
+	 * @param seed the initial seed
+	 * @return a SplittableRandom generator
+	 */
+	public static UUIDGenerator splittableRandom(long seed) {
+		return new SplittableRandomGenerator(new SplittableRandom(seed));
+	}
+
+	/**
+	 * Shared SecureRandom
+	 */
+	private static final class SecureRandomGenerator extends UUIDGenerator {
+
+		@Override
+		public long nextLong() {
+			return numberGenerator.nextLong();
+		}
+
+		@Override
+		public void nextBytes(byte[] bytes, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, bytes.length);
+			if (offset == 0 && length == bytes.length) {
+				numberGenerator.nextBytes(bytes);
+			} else {
+				byte[] randomBytes = new byte[length];
+				numberGenerator.nextBytes(randomBytes);
+				System.arraycopy(randomBytes, 0, bytes, offset, length);
+			}
+		}
+
+		@Override
+		public void nextLongs(long[] longs, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, longs.length);
+			byte[] randomBytes = new byte[Math.min(length, 512) * Long.BYTES];
+			int end = offset + length;
+			while (offset < end) {
+				int n = Math.min(end - offset, randomBytes.length / Long.BYTES);
+				numberGenerator.nextBytes(randomBytes);
+				for (int i = 0; i < n; i++) {
+					longs[offset++] = (long) LONG_BYTES.get(randomBytes, i * Long.BYTES);
+				}
+			}
+		}
+
+		@Override
+		public UUID randomUUID() {
+			return UUID.randomUUID();
+		}
+
+		private final SecureRandom numberGenerator = new SecureRandom();
+
+		static final SecureRandomGenerator INSTANCE = new SecureRandomGenerator();
+	}
+
+	/**
+	 * Thread-local ChaCha20 DRBG
+	 */
+	private static final class ChaCha20Generator extends UUIDGenerator {
+
+		@Override
+		public long nextLong() {
+			return generators.get().nextLong();
+		}
+
+		@Override
+		public void nextBytes(byte[] bytes, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, bytes.length);
+			generators.get().nextBytes(bytes, offset, length);
+		}
+
+		@Override
+		public void nextLongs(long[] longs, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, longs.length);
+			ChaCha20 chacha20 = generators.get();
+			for (int i = offset, end = offset + length; i < end; i++) {
+				longs[i] = chacha20.nextLong();
+			}
+		}
+
+		private final ThreadLocal<ChaCha20> generators = ThreadLocal.withInitial(ChaCha20::new);
+
+		static final ChaCha20Generator INSTANCE = new ChaCha20Generator();
+	}
+
+	/**
+	 * ChaCha20 keystream generator (RFC 8439) with fast key erasure, one instance
+	 * per thread
+	 */
+	private static final class ChaCha20 {
+
+		long nextLong() {
+			if (position > buffer.length - 2) {
+				refill();
+			}
+			long value = ((long) buffer[position] << 32) | (buffer[position + 1] & 0xFFFFFFFFL);
+			position += 2;
+			return value;
+		}
+
+		void nextBytes(byte[] bytes, int offset, int length) {
+			int end = offset + length;
+			while (offset < end) {
+				if (position == buffer.length) {
+					refill();
+				}
+				int word = buffer[position++];
+				for (int n = Math.min(4, end - offset); n > 0; n--) {
+					bytes[offset++] = (byte) word;
+					word >>>= 8;
+				}
+			}
+		}
+
+		/**
+		 * Generate the next buffer of keystream. The first 8 words become the key of
+		 * the next refill and are never handed out.
+		 */
+		private void refill() {
+			if (reseedCountdown <= 0) {
+				reseed();
+			}
+			for (int counter = 0, offset = 0; offset < buffer.length; counter++, offset += 16) {
+				block(counter, offset);
+			}
+			System.arraycopy(buffer, 0, key, 0, 8);
+			position = 8;
+			reseedCountdown -= CHACHA20_BUFFER_BYTES;
+		}
+
+		private void reseed() {
+			byte[] seed = new byte[32];
+			SecureRandomGenerator.INSTANCE.numberGenerator.nextBytes(seed);
+			for (int i = 0; i < 8; i++) {
+				key[i] ^= (seed[4 * i] & 0xFF) | (seed[4 * i + 1] & 0xFF) << 8 | (seed[4 * i + 2] & 0xFF) << 16
+						| (seed[4 * i + 3] & 0xFF) << 24;
+			}
+			reseedCountdown = CHACHA20_RESEED_BYTES;
+		}
+
+		/**
+		 * The ChaCha20 block function with a zero nonce, the key changes on every
+		 * refill so the counter never repeats under the same key
+		 */
+		private void block(int counter, int offset) {
+			final int[] k = key;
+			int x0 = 0x61707865, x1 = 0x3320646e, x2 = 0x79622d32, x3 = 0x6b206574;
+			int x4 = k[0], x5 = k[1], x6 = k[2], x7 = k[3];
+			int x8 = k[4], x9 = k[5], x10 = k[6], x11 = k[7];
+			int x12 = counter, x13 = 0, x14 = 0, x15 = 0;
+			for (int i = 0; i < 10; i++) {
+				// column rounds
+				x0 += x4; x12 = Integer.rotateLeft(x12 ^ x0, 16); x8 += x12; x4 = Integer.rotateLeft(x4 ^ x8, 12);
+				x0 += x4; x12 = Integer.rotateLeft(x12 ^ x0, 8); x8 += x12; x4 = Integer.rotateLeft(x4 ^ x8, 7);
+				x1 += x5; x13 = Integer.rotateLeft(x13 ^ x1, 16); x9 += x13; x5 = Integer.rotateLeft(x5 ^ x9, 12);
+				x1 += x5; x13 = Integer.rotateLeft(x13 ^ x1, 8); x9 += x13; x5 = Integer.rotateLeft(x5 ^ x9, 7);
+				x2 += x6; x14 = Integer.rotateLeft(x14 ^ x2, 16); x10 += x14; x6 = Integer.rotateLeft(x6 ^ x10, 12);
+				x2 += x6; x14 = Integer.rotateLeft(x14 ^ x2, 8); x10 += x14; x6 = Integer.rotateLeft(x6 ^ x10, 7);
+				x3 += x7; x15 = Integer.rotateLeft(x15 ^ x3, 16); x11 += x15; x7 = Integer.rotateLeft(x7 ^ x11, 12);
+				x3 += x7; x15 = Integer.rotateLeft(x15 ^ x3, 8); x11 += x15; x7 = Integer.rotateLeft(x7 ^ x11, 7);
+				// diagonal rounds
+				x0 += x5; x15 = Integer.rotateLeft(x15 ^ x0, 16); x10 += x15; x5 = Integer.rotateLeft(x5 ^ x10, 12);
+				x0 += x5; x15 = Integer.rotateLeft(x15 ^ x0, 8); x10 += x15; x5 = Integer.rotateLeft(x5 ^ x10, 7);
+				x1 += x6; x12 = Integer.rotateLeft(x12 ^ x1, 16); x11 += x12; x6 = Integer.rotateLeft(x6 ^ x11, 12);
+				x1 += x6; x12 = Integer.rotateLeft(x12 ^ x1, 8); x11 += x12; x6 = Integer.rotateLeft(x6 ^ x11, 7);
+				x2 += x7; x13 = Integer.rotateLeft(x13 ^ x2, 16); x8 += x13; x7 = Integer.rotateLeft(x7 ^ x8, 12);
+				x2 += x7; x13 = Integer.rotateLeft(x13 ^ x2, 8); x8 += x13; x7 = Integer.rotateLeft(x7 ^ x8, 7);
+				x3 += x4; x14 = Integer.rotateLeft(x14 ^ x3, 16); x9 += x14; x4 = Integer.rotateLeft(x4 ^ x9, 12);
+				x3 += x4; x14 = Integer.rotateLeft(x14 ^ x3, 8); x9 += x14; x4 = Integer.rotateLeft(x4 ^ x9, 7);
+			}
+			final int[] out = buffer;
+			out[offset] = x0 + 0x61707865;
+			out[offset + 1] = x1 + 0x3320646e;
+			out[offset + 2] = x2 + 0x79622d32;
+			out[offset + 3] = x3 + 0x6b206574;
+			out[offset + 4] = x4 + k[0];
+			out[offset + 5] = x5 + k[1];
+			out[offset + 6] = x6 + k[2];
+			out[offset + 7] = x7 + k[3];
+			out[offset + 8] = x8 + k[4];
+			out[offset + 9] = x9 + k[5];
+			out[offset + 10] = x10 + k[6];
+			out[offset + 11] = x11 + k[7];
+			out[offset + 12] = x12 + counter;
+			out[offset + 13] = x13;
+			out[offset + 14] = x14;
+			out[offset + 15] = x15;
+		}
+
+		private final int[] key = new int[8];
+		private final int[] buffer = new int[CHACHA20_BUFFER_BYTES / 4];
+		private int position = buffer.length;
+		private long reseedCountdown = 0;
+	}
+
+	/**
+	 * Thread-local SplittableRandom, every thread gets a split of the root
+	 */
+	private static final class SplittableRandomGenerator extends UUIDGenerator {
+
+		SplittableRandomGenerator(SplittableRandom root) {
+			this.root = root;
+		}
+
+		@Override
+		public long nextLong() {
+			return generators.get().nextLong();
+		}
+
+		@Override
+		public void nextBytes(byte[] bytes, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, bytes.length);
+			SplittableRandom random = generators.get();
+			int end = offset + length;
+			while (offset < end) {
+				long word = random.nextLong();
+				for (int n = Math.min(8, end - offset); n > 0; n--) {
+					bytes[offset++] = (byte) word;
+					word >>>= 8;
+				}
+			}
+		}
+
+		@Override
+		public void nextLongs(long[] longs, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, longs.length);
+			SplittableRandom random = generators.get();
+			for (int i = offset, end = offset + length; i < end; i++) {
+				longs[i] = random.nextLong();
+			}
+		}
+
+		private SplittableRandom split() {
+			synchronized (root) {
+				return root.split();
+			}
+		}
+
+		private final SplittableRandom root;
+		private final ThreadLocal<SplittableRandom> generators = ThreadLocal.withInitial(this::split);
+	}
+
+	/**
+	 * View a byte array as native order longs
+	 */
+	private static final VarHandle LONG_BYTES = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.nativeOrder());
+
+	/**
+	 * The ChaCha20 keystream generated per refill, in bytes
+	 */
+	private static final int CHACHA20_BUFFER_BYTES = 1024;
+
+	/**
+	 * The ChaCha20 keystream generated between two reseeds, in bytes
+	 */
+	private static final long CHACHA20_RESEED_BYTES = 1024 * 1024;
+}
@@ -1,7 +1,25 @@
 package com.github.doraeven.commons.utils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.codec.binary.Base64;
 
@@ -26,30 +44,1500 @@ public class UUIDUtils {
 		return uuid.toString();
 	}
 
+	/**
+	 * Get a random UUID from the generator
+	 * 
+	 * @param generator the random source, i.e.
+	 *                  {@link UUIDGenerator#threadLocalSecureRandom()}
+	 * @return random UUID
+	 */
+	public static UUID randomUUID(UUIDGenerator generator) {
+		return generator.randomUUID();
+	}
+
+	/**
+	 * Get a random UUID string from the generator
+	 * 
+	 * @param generator the random source, i.e.
+	 *                  {@link UUIDGenerator#threadLocalSecureRandom()}
+	 * @return random UUID string
+	 */
+	public static String getRandomUUID(UUIDGenerator generator) {
+		UUID uuid = randomUUID(generator);
+		return uuid.toString();
+	}
+
+	/**
+	 * Fill the long array with random UUIDs
+	 * 
+	 * <p>
+	 * Each UUID takes two longs, the most significant bits followed by the least
+	 * significant bits, no UUID object is created.
+	 * </p>
+	 * 
+	 * @param dst    the destination array
+	 * @param offset the index of the first most significant bits in {@code dst}
+	 * @param count  the number of UUIDs
+	 */
+	public static void randomUUIDs(long[] dst, int offset, int count) {
+		randomUUIDs(UUIDGenerator.secureRandom(), dst, offset, count);
+	}
+
+	/**
+	 * Fill the long array with random UUIDs from the generator
+	 * 
+	 * @param generator the random source, i.e.
+	 *                  {@link UUIDGenerator#threadLocalSecureRandom()}
+	 * @param dst       the destination array
+	 * @param offset    the index of the first most significant bits in
+	 *                  {@code dst}
+	 * @param count     the number of UUIDs
+	 * @see #randomUUIDs(long[], int, int)
+	 */
+	public static void randomUUIDs(UUIDGenerator generator, long[] dst, int offset, int count) {
+		int length = Math.multiplyExact(count, 2);
+		Objects.checkFromIndexSize(offset, length, dst.length);
+		generator.nextLongs(dst, offset, length);
+		for (int i = offset, end = offset + length; i < end; i += 2) {
+			dst[i] = (dst[i] & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+			dst[i + 1] = (dst[i + 1] & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		}
+	}
+
+	/**
+	 * Fill the byte array with random UUIDs
+	 * 
+	 * <p>
+	 * Each UUID takes 16 bytes, same as {@link #toBytes(UUID)}.
+	 * </p>
+	 * 
+	 * @param dst    the destination array
+	 * @param offset the index of the first UUID byte in {@code dst}
+	 * @param count  the number of UUIDs
+	 */
+	public static void randomUUIDs(byte[] dst, int offset, int count) {
+		randomUUIDs(UUIDGenerator.secureRandom(), dst, offset, count);
+	}
+
+	/**
+	 * Fill the byte array with random UUIDs from the generator
+	 * 
+	 * @param generator the random source, i.e.
+	 *                  {@link UUIDGenerator#threadLocalSecureRandom()}
+	 * @param dst       the destination array
+	 * @param offset    the index of the first UUID byte in {@code dst}
+	 * @param count     the number of UUIDs
+	 * @see #randomUUIDs(byte[], int, int)
+	 */
+	public static void randomUUIDs(UUIDGenerator generator, byte[] dst, int offset, int count) {
+		int length = Math.multiplyExact(count, 16);
+		Objects.checkFromIndexSize(offset, length, dst.length);
+		generator.nextBytes(dst, offset, length);
+		for (int i = offset, end = offset + length; i < end; i += 16) {
+			dst[i + 6] = (byte) ((dst[i + 6] & 0x0F) | 0x40);
+			dst[i + 8] = (byte) ((dst[i + 8] & 0x3F) | 0x80);
+		}
+	}
+
+	/**
+	 * Put random UUIDs into the buffer
+	 * 
+	 * <p>
+	 * Each UUID takes 16 bytes, same as {@link #toBytes(UUID)}, starting at the
+	 * buffer position. The position is advanced by {@code count * 16}.
+	 * </p>
+	 * 
+	 * @param dst   the destination buffer, heap or direct
+	 * @param count the number of UUIDs
+	 */
+	public static void randomUUIDs(ByteBuffer dst, int count) {
+		randomUUIDs(UUIDGenerator.secureRandom(), dst, count);
+	}
+
+	/**
+	 * Put random UUIDs from the generator into the buffer
+	 * 
+	 * @param generator the random source, i.e.
+	 *                  {@link UUIDGenerator#threadLocalSecureRandom()}
+	 * @param dst       the destination buffer, heap or direct
+	 * @param count     the number of UUIDs
+	 * @see #randomUUIDs(ByteBuffer, int)
+	 */
+	public static void randomUUIDs(UUIDGenerator generator, ByteBuffer dst, int count) {
+		int length = Math.multiplyExact(count, 16);
+		if (dst.remaining() < length) {
+			throw new BufferOverflowException();
+		}
+		if (dst.hasArray()) {
+			randomUUIDs(generator, dst.array(), dst.arrayOffset() + dst.position(), count);
+			dst.position(dst.position() + length);
+			return;
+		}
+		byte[] chunk = new byte[Math.min(length, BULK_CHUNK_BYTES)];
+		while (length > 0) {
+			int n = Math.min(length, chunk.length);
+			randomUUIDs(generator, chunk, 0, n / 16);
+			dst.put(chunk, 0, n);
+			length -= n;
+		}
+	}
+
+	/**
+	 * Get a time-ordered UUID (version 7)
+	 * 
+	 * <p>
+	 * The UUID carries a 48-bit Unix epoch millisecond timestamp, a 12-bit
+	 * sub-millisecond counter and 62 random bits, so UUIDs generated in the same
+	 * JVM are strictly increasing. If the clock moves backwards, or more than 4096
+	 * UUIDs are requested within one millisecond, the timestamp keeps advancing
+	 * from the last issued value instead of repeating it.
+	 * </p>
+	 * 
+	 * @return time-ordered UUID
+	 */
+	public static UUID randomUUIDv7() {
+		return randomUUIDv7(UUIDGenerator.secureRandom());
+	}
+
+	/**
+	 * Get a time-ordered UUID (version 7), the random bits come from the generator
+	 * 
+	 * @param generator the random source, i.e.
+	 *                  {@link UUIDGenerator#threadLocalSecureRandom()}
+	 * @return time-ordered UUID
+	 * @see #randomUUIDv7()
+	 */
+	public static UUID randomUUIDv7(UUIDGenerator generator) {
+		return new UUID(nextUUIDv7MostSigBits(), nextUUIDv7LeastSigBits(generator));
+	}
+
+	/**
+	 * Get a time-ordered UUID (version 7) string
+	 * 
+	 * @return time-ordered UUID string
+	 * @see #randomUUIDv7()
+	 */
+	public static String getRandomUUIDv7() {
+		UUID uuid = randomUUIDv7();
+		return uuid.toString();
+	}
+
+	/**
+	 * Get a time-ordered UUID (version 7) as raw bits, without creating a UUID
+	 * 
+	 * <p>
+	 * The most significant bits are written to {@code dst[offset]} and the least
+	 * significant bits to {@code dst[offset + 1]}.
+	 * </p>
+	 * 
+	 * @param dst    the destination array
+	 * @param offset the index of the most significant bits in {@code dst}
+	 * @see #randomUUIDv7()
+	 */
+	public static void randomUUIDv7(long[] dst, int offset) {
+		randomUUIDv7(UUIDGenerator.secureRandom(), dst, offset);
+	}
+
+	/**
+	 * Get a time-ordered UUID (version 7) as raw bits, the random bits come from
+	 * the generator
+	 * 
+	 * @param generator the random source, i.e.
+	 *                  {@link UUIDGenerator#threadLocalSecureRandom()}
+	 * @param dst       the destination array
+	 * @param offset    the index of the most significant bits in {@code dst}
+	 * @see #randomUUIDv7(long[], int)
+	 */
+	public static void randomUUIDv7(UUIDGenerator generator, long[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, 2, dst.length);
+		dst[offset] = nextUUIDv7MostSigBits();
+		dst[offset + 1] = nextUUIDv7LeastSigBits(generator);
+	}
+
+	/**
+	 * Get a random ULID
+	 * 
+	 * <p>
+	 * A ULID is a 48-bit Unix epoch millisecond timestamp followed by 80 random
+	 * bits. It is returned as a UUID holding the 128 bits, its text form is
+	 * {@link #toULIDString(UUID)}. ULIDs do not carry the UUID version and variant
+	 * bits.
+	 * </p>
+	 * 
+	 * @return random ULID
+	 * @see <a href=
+	 *      "https://github.com/ulid/spec">https://github.com/ulid/spec</a>
+	 */
+	public static UUID randomULID() {
+		return randomULID(UUIDGenerator.secureRandom());
+	}
+
+	/**
+	 * Get a random ULID, the random bits come from the generator
+	 * 
+	 * @param generator the random source, i.e.
+	 *                  {@link UUIDGenerator#threadLocalSecureRandom()}
+	 * @return random ULID
+	 * @see #randomULID()
+	 */
+	public static UUID randomULID(UUIDGenerator generator) {
+		long time = System.currentTimeMillis();
+		return new UUID(time << 16 | (generator.nextLong() & 0xFFFFL), generator.nextLong());
+	}
+
+	/**
+	 * Get a random ULID string, 26 chars Crockford Base32
+	 * 
+	 * @return random ULID string
+	 * @see #randomULID()
+	 */
+	public static String getRandomULID() {
+		UUID ulid = randomULID();
+		return toULIDString(ulid);
+	}
+
+	/**
+	 * Get a monotonic ULID
+	 * 
+	 * <p>
+	 * Within the same millisecond the previous ULID is incremented by one instead
+	 * of drawing new random bits, so ULIDs generated in the same JVM are strictly
+	 * increasing, in binary and in text. If the clock moves backwards, or the 80
+	 * random bits overflow, the timestamp keeps advancing from the last issued
+	 * value.
+	 * </p>
+	 * 
+	 * @return monotonic ULID
+	 * @see #randomULID()
+	 */
+	public static UUID monotonicULID() {
+		return monotonicULID(UUIDGenerator.secureRandom());
+	}
+
+	/**
+	 * Get a monotonic ULID, the random bits come from the generator
+	 * 
+	 * @param generator the random source, i.e.
+	 *                  {@link UUIDGenerator#threadLocalSecureRandom()}
+	 * @return monotonic ULID
+	 * @see #monotonicULID()
+	 */
+	public static UUID monotonicULID(UUIDGenerator generator) {
+		long time = System.currentTimeMillis();
+		UUID fresh = new UUID(time << 16 | (generator.nextLong() & 0xFFFFL), generator.nextLong());
+		UUID prev;
+		UUID next;
+		do {
+			prev = ULID_STATE.get();
+			if (time > prev.getMostSignificantBits() >>> 16) {
+				next = fresh;
+			} else {
+				// 128-bit increment, a random overflow carries into the timestamp
+				long lsb = prev.getLeastSignificantBits() + 1;
+				long msb = prev.getMostSignificantBits() + (lsb == 0 ? 1 : 0);
+				next = new UUID(msb, lsb);
+			}
+		} while (!ULID_STATE.compareAndSet(prev, next));
+		return next;
+	}
+
+	/**
+	 * Get a monotonic ULID string, 26 chars Crockford Base32
+	 * 
+	 * @return monotonic ULID string
+	 * @see #monotonicULID()
+	 */
+	public static String getMonotonicULID() {
+		UUID ulid = monotonicULID();
+		return toULIDString(ulid);
+	}
+
+	/**
+	 * Get a name-based UUID (version 5), the SHA-1 hash of the namespace and the
+	 * UTF-8 encoded name
+	 * 
+	 * <p>
+	 * The name is encoded chunk by chunk into a per-thread buffer and hashed with a
+	 * per-thread digest, so no intermediate byte array is created.
+	 * </p>
+	 * 
+	 * @param namespace the namespace, i.e. {@link #NAMESPACE_DNS}
+	 * @param name      the name
+	 * @return name-based UUID
+	 */
+	public static UUID nameUUIDv5(UUID namespace, CharSequence name) {
+		return nameUUID(5, namespace, name);
+	}
+
+	/**
+	 * Get a name-based UUID (version 5) of a byte array range
+	 * 
+	 * @param namespace the namespace, i.e. {@link #NAMESPACE_DNS}
+	 * @param name      the name bytes
+	 * @param offset    the index of the first byte
+	 * @param length    the number of bytes
+	 * @return name-based UUID
+	 * @see #nameUUIDv5(UUID, CharSequence)
+	 */
+	public static UUID nameUUIDv5(UUID namespace, byte[] name, int offset, int length) {
+		return nameUUID(5, namespace, name, offset, length);
+	}
+
+	/**
+	 * Get a name-based UUID (version 5) of the remaining bytes of the buffer, the
+	 * buffer position is moved to its limit
+	 * 
+	 * @param namespace the namespace, i.e. {@link #NAMESPACE_DNS}
+	 * @param name      the name bytes
+	 * @return name-based UUID
+	 * @see #nameUUIDv5(UUID, CharSequence)
+	 */
+	public static UUID nameUUIDv5(UUID namespace, ByteBuffer name) {
+		return nameUUID(5, namespace, name);
+	}
+
+	/**
+	 * Get name-based UUIDs (version 5) of a batch of names as raw bits, without
+	 * creating UUIDs
+	 * 
+	 * <p>
+	 * The bits of the i-th name are written to {@code dst[offset + 2 * i]} and
+	 * {@code dst[offset + 2 * i + 1]}.
+	 * </p>
+	 * 
+	 * @param namespace the namespace, i.e. {@link #NAMESPACE_DNS}
+	 * @param names     the names
+	 * @param dst       the destination array
+	 * @param offset    the index of the first most significant bits in {@code dst}
+	 * @see #nameUUIDv5(UUID, CharSequence)
+	 */
+	public static void nameUUIDv5(UUID namespace, List<? extends CharSequence> names, long[] dst, int offset) {
+		nameUUIDs(5, namespace, names, dst, offset);
+	}
+
+	/**
+	 * Get a name-based UUID (version 3), the MD5 hash of the namespace and the
+	 * UTF-8 encoded name. Prefer {@link #nameUUIDv5(UUID, CharSequence)} unless
+	 * version 3 is required for compatibility.
+	 * 
+	 * @param namespace the namespace, i.e. {@link #NAMESPACE_DNS}
+	 * @param name      the name
+	 * @return name-based UUID
+	 */
+	public static UUID nameUUIDv3(UUID namespace, CharSequence name) {
+		return nameUUID(3, namespace, name);
+	}
+
+	/**
+	 * Get a name-based UUID (version 3) of a byte array range
+	 * 
+	 * @param namespace the namespace, i.e. {@link #NAMESPACE_DNS}
+	 * @param name      the name bytes
+	 * @param offset    the index of the first byte
+	 * @param length    the number of bytes
+	 * @return name-based UUID
+	 * @see #nameUUIDv3(UUID, CharSequence)
+	 */
+	public static UUID nameUUIDv3(UUID namespace, byte[] name, int offset, int length) {
+		return nameUUID(3, namespace, name, offset, length);
+	}
+
+	/**
+	 * Get a name-based UUID (version 3) of the remaining bytes of the buffer, the
+	 * buffer position is moved to its limit
+	 * 
+	 * @param namespace the namespace, i.e. {@link #NAMESPACE_DNS}
+	 * @param name      the name bytes
+	 * @return name-based UUID
+	 * @see #nameUUIDv3(UUID, CharSequence)
+	 */
+	public static UUID nameUUIDv3(UUID namespace, ByteBuffer name) {
+		return nameUUID(3, namespace, name);
+	}
+
+	/**
+	 * Get name-based UUIDs (version 3) of a batch of names as raw bits, without
+	 * creating UUIDs
+	 * 
+	 * @param namespace the namespace, i.e. {@link #NAMESPACE_DNS}
+	 * @param names     the names
+	 * @param dst       the destination array
+	 * @param offset    the index of the first most significant bits in {@code dst}
+	 * @see #nameUUIDv5(UUID, List, long[], int)
+	 */
+	public static void nameUUIDv3(UUID namespace, List<? extends CharSequence> names, long[] dst, int offset) {
+		nameUUIDs(3, namespace, names, dst, offset);
+	}
+
 	/**
 	 * Convert the UUID to byte array
 	 * 
 	 * @param uuid the UUID
-	 * @return a uuid byte array
+	 * @return a uuid byte array
+	 */
+	public static byte[] toBytes(UUID uuid) {
+		byte[] bytes = new byte[16];
+		toBytes(uuid, bytes, 0);
+		return bytes;
+	}
+
+	/**
+	 * Write the UUID into the byte array, big-endian, same as
+	 * {@link #toBytes(UUID)}
+	 * 
+	 * @param uuid   the UUID
+	 * @param dst    the destination array
+	 * @param offset the index of the first UUID byte in {@code dst}
+	 */
+	public static void toBytes(UUID uuid, byte[] dst, int offset) {
+		toBytes(uuid, dst, offset, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Write the UUID into the byte array
+	 * 
+	 * <p>
+	 * The most significant bits are written first, each long in the given byte
+	 * order.
+	 * </p>
+	 * 
+	 * @param uuid   the UUID
+	 * @param dst    the destination array
+	 * @param offset the index of the first UUID byte in {@code dst}
+	 * @param order  the byte order of each long
+	 */
+	public static void toBytes(UUID uuid, byte[] dst, int offset, ByteOrder order) {
+		Objects.checkFromIndexSize(offset, 16, dst.length);
+		VarHandle longBytes = order == ByteOrder.BIG_ENDIAN ? LONG_BYTES_BE : LONG_BYTES_LE;
+		longBytes.set(dst, offset, uuid.getMostSignificantBits());
+		longBytes.set(dst, offset + 8, uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Put the UUID into the buffer, big-endian, same as {@link #toBytes(UUID)}
+	 * 
+	 * <p>
+	 * The bytes are written at the buffer position regardless of the buffer byte
+	 * order, and the position is advanced by 16.
+	 * </p>
+	 * 
+	 * @param uuid the UUID
+	 * @param dst  the destination buffer, heap or direct
+	 */
+	public static void toBytes(UUID uuid, ByteBuffer dst) {
+		toBytes(uuid, dst, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Put the UUID into the buffer
+	 * 
+	 * <p>
+	 * The most significant bits are written first, each long in the given byte
+	 * order, at the buffer position. The buffer byte order is left unchanged and
+	 * the position is advanced by 16.
+	 * </p>
+	 * 
+	 * @param uuid  the UUID
+	 * @param dst   the destination buffer, heap or direct
+	 * @param order the byte order of each long
+	 */
+	public static void toBytes(UUID uuid, ByteBuffer dst, ByteOrder order) {
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		if (dst.order() != order) {
+			msb = Long.reverseBytes(msb);
+			lsb = Long.reverseBytes(lsb);
+		}
+		if (dst.remaining() < 16) {
+			throw new BufferOverflowException();
+		}
+		dst.putLong(msb);
+		dst.putLong(lsb);
+	}
+
+	/**
+	 * Write the UUID into the memory segment, big-endian, same as
+	 * {@link #toBytes(UUID)}
+	 * 
+	 * @param uuid   the UUID
+	 * @param dst    the destination segment, heap or native
+	 * @param offset the byte offset of the UUID in {@code dst}
+	 */
+	public static void toBytes(UUID uuid, MemorySegment dst, long offset) {
+		toBytes(uuid, dst, offset, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Write the UUID into the memory segment
+	 * 
+	 * <p>
+	 * The most significant bits are written first, each long in the given byte
+	 * order. No alignment is required.
+	 * </p>
+	 * 
+	 * @param uuid   the UUID
+	 * @param dst    the destination segment, heap or native
+	 * @param offset the byte offset of the UUID in {@code dst}
+	 * @param order  the byte order of each long
+	 */
+	public static void toBytes(UUID uuid, MemorySegment dst, long offset, ByteOrder order) {
+		Objects.checkFromIndexSize(offset, 16, dst.byteSize());
+		ValueLayout.OfLong layout = order == ByteOrder.BIG_ENDIAN ? LONG_LAYOUT_BE : LONG_LAYOUT_LE;
+		dst.set(layout, offset, uuid.getMostSignificantBits());
+		dst.set(layout, offset + 8, uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Convert the uuid byte array to UUID
+	 * 
+	 * @param bytes the uuid byte array
+	 * @return a UUID
+	 */
+	public static UUID fromBytes(byte[] bytes) {
+		return fromBytes(bytes, 0);
+	}
+
+	/**
+	 * Read a UUID from the byte array, big-endian, same as
+	 * {@link #fromBytes(byte[])}
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first UUID byte in {@code src}
+	 * @return a UUID
+	 */
+	public static UUID fromBytes(byte[] src, int offset) {
+		return fromBytes(src, offset, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Read a UUID from the byte array
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first UUID byte in {@code src}
+	 * @param order  the byte order of each long
+	 * @return a UUID
+	 * @see #toBytes(UUID, byte[], int, ByteOrder)
+	 */
+	public static UUID fromBytes(byte[] src, int offset, ByteOrder order) {
+		Objects.checkFromIndexSize(offset, 16, src.length);
+		VarHandle longBytes = order == ByteOrder.BIG_ENDIAN ? LONG_BYTES_BE : LONG_BYTES_LE;
+		long high = (long) longBytes.get(src, offset);
+		long low = (long) longBytes.get(src, offset + 8);
+		return new UUID(high, low);
+	}
+
+	/**
+	 * Get a UUID from the buffer, big-endian, same as {@link #fromBytes(byte[])}
+	 * 
+	 * <p>
+	 * The bytes are read at the buffer position regardless of the buffer byte
+	 * order, and the position is advanced by 16.
+	 * </p>
+	 * 
+	 * @param src the source buffer, heap or direct
+	 * @return a UUID
+	 */
+	public static UUID fromBytes(ByteBuffer src) {
+		return fromBytes(src, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Get a UUID from the buffer
+	 * 
+	 * <p>
+	 * The buffer byte order is left unchanged and the position is advanced by 16.
+	 * </p>
+	 * 
+	 * @param src   the source buffer, heap or direct
+	 * @param order the byte order of each long
+	 * @return a UUID
+	 * @see #toBytes(UUID, ByteBuffer, ByteOrder)
+	 */
+	public static UUID fromBytes(ByteBuffer src, ByteOrder order) {
+		if (src.remaining() < 16) {
+			throw new BufferUnderflowException();
+		}
+		long high = src.getLong();
+		long low = src.getLong();
+		if (src.order() != order) {
+			high = Long.reverseBytes(high);
+			low = Long.reverseBytes(low);
+		}
+		return new UUID(high, low);
+	}
+
+	/**
+	 * Read a UUID from the memory segment, big-endian, same as
+	 * {@link #fromBytes(byte[])}
+	 * 
+	 * @param src    the source segment, heap or native
+	 * @param offset the byte offset of the UUID in {@code src}
+	 * @return a UUID
+	 */
+	public static UUID fromBytes(MemorySegment src, long offset) {
+		return fromBytes(src, offset, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Read a UUID from the memory segment
+	 * 
+	 * @param src    the source segment, heap or native
+	 * @param offset the byte offset of the UUID in {@code src}
+	 * @param order  the byte order of each long
+	 * @return a UUID
+	 * @see #toBytes(UUID, MemorySegment, long, ByteOrder)
+	 */
+	public static UUID fromBytes(MemorySegment src, long offset, ByteOrder order) {
+		ValueLayout.OfLong layout = order == ByteOrder.BIG_ENDIAN ? LONG_LAYOUT_BE : LONG_LAYOUT_LE;
+		long high = src.get(layout, offset);
+		long low = src.get(layout, offset + 8);
+		return new UUID(high, low);
+	}
+
+	/**
+	 * Convert a time-based UUID (version 1) to a reordered time-based UUID
+	 * (version 6)
+	 * 
+	 * <p>
+	 * The 60-bit timestamp is moved to the most significant bits, high field
+	 * first, so version 6 UUIDs sort by time. The clock sequence and node are
+	 * kept, the conversion is reversible by {@link #toUUIDv1(UUID)}.
+	 * </p>
+	 * 
+	 * @param uuid the version 1 UUID
+	 * @return the version 6 UUID
+	 * @throws IllegalArgumentException if the UUID is not version 1 of the RFC
+	 *                                  variant, as skipped by
+	 *                                  {@link #toUUIDv6(long[], int, int)}
+	 */
+	public static UUID toUUIDv6(UUID uuid) {
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		checkVersion(msb, lsb, 1);
+		return new UUID(v1ToV6MostSigBits(msb) ^ 0x7000L, lsb);
+	}
+
+	/**
+	 * Convert a reordered time-based UUID (version 6) back to a time-based UUID
+	 * (version 1)
+	 * 
+	 * @param uuid the version 6 UUID
+	 * @return the version 1 UUID
+	 * @throws IllegalArgumentException if the UUID is not version 6 of the RFC
+	 *                                  variant, as skipped by
+	 *                                  {@link #toUUIDv1(long[], int, int)}
+	 * @see #toUUIDv6(UUID)
+	 */
+	public static UUID toUUIDv1(UUID uuid) {
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		checkVersion(msb, lsb, 6);
+		return new UUID(v6ToV1MostSigBits(msb) ^ 0x7000L, lsb);
+	}
+
+	/**
+	 * Convert the most significant bits of a version 1 UUID to those of the
+	 * version 6 UUID, the least significant bits are the same
+	 * 
+	 * @param msb the most significant bits of a version 1 UUID
+	 * @return the most significant bits of the version 6 UUID
+	 * @throws IllegalArgumentException if the version is not 1
+	 * @see #toUUIDv6(UUID)
+	 */
+	public static long toUUIDv6MostSigBits(long msb) {
+		checkVersion(msb, 1);
+		return v1ToV6MostSigBits(msb) ^ 0x7000L;
+	}
+
+	/**
+	 * Convert the most significant bits of a version 6 UUID to those of the
+	 * version 1 UUID, the least significant bits are the same
+	 * 
+	 * @param msb the most significant bits of a version 6 UUID
+	 * @return the most significant bits of the version 1 UUID
+	 * @throws IllegalArgumentException if the version is not 6
+	 * @see #toUUIDv1(UUID)
+	 */
+	public static long toUUIDv1MostSigBits(long msb) {
+		checkVersion(msb, 6);
+		return v6ToV1MostSigBits(msb) ^ 0x7000L;
+	}
+
+	/**
+	 * Convert the version 1 UUIDs of an array of most/least significant bits pairs
+	 * to version 6 in place, other UUIDs are left as is
+	 * 
+	 * @param uuids  the pairs, most significant bits first
+	 * @param offset the index of the first most significant bits
+	 * @param count  the number of UUIDs
+	 * @return the number of converted UUIDs
+	 * @see #toUUIDv6(UUID)
+	 */
+	public static int toUUIDv6(long[] uuids, int offset, int count) {
+		Objects.checkFromIndexSize(offset, count * 2L, uuids.length);
+		int converted = 0;
+		for (int i = offset, end = offset + count * 2; i < end; i += 2) {
+			long msb = uuids[i];
+			if (isRfcVersion(msb, uuids[i + 1], 1)) {
+				uuids[i] = v1ToV6MostSigBits(msb) ^ 0x7000L;
+				converted++;
+			}
+		}
+		return converted;
+	}
+
+	/**
+	 * Convert the version 6 UUIDs of an array of most/least significant bits pairs
+	 * to version 1 in place, other UUIDs are left as is
+	 * 
+	 * @param uuids  the pairs, most significant bits first
+	 * @param offset the index of the first most significant bits
+	 * @param count  the number of UUIDs
+	 * @return the number of converted UUIDs
+	 * @see #toUUIDv1(UUID)
+	 */
+	public static int toUUIDv1(long[] uuids, int offset, int count) {
+		Objects.checkFromIndexSize(offset, count * 2L, uuids.length);
+		int converted = 0;
+		for (int i = offset, end = offset + count * 2; i < end; i += 2) {
+			long msb = uuids[i];
+			if (isRfcVersion(msb, uuids[i + 1], 6)) {
+				uuids[i] = v6ToV1MostSigBits(msb) ^ 0x7000L;
+				converted++;
+			}
+		}
+		return converted;
+	}
+
+	/**
+	 * Convert the version 1 UUIDs of an array of 16 bytes big-endian UUIDs, as
+	 * written by {@link #toBytes(UUID, byte[], int)}, to version 6 in place, other
+	 * UUIDs are left as is
+	 * 
+	 * @param uuids  the encoded UUIDs
+	 * @param offset the index of the first UUID byte
+	 * @param count  the number of UUIDs
+	 * @return the number of converted UUIDs
+	 * @see #toUUIDv6(UUID)
+	 */
+	public static int toUUIDv6(byte[] uuids, int offset, int count) {
+		Objects.checkFromIndexSize(offset, count * 16L, uuids.length);
+		int converted = 0;
+		for (int i = offset, end = offset + count * 16; i < end; i += 16) {
+			long msb = (long) LONG_BYTES_BE.get(uuids, i);
+			if (isRfcVersion(msb, (long) LONG_BYTES_BE.get(uuids, i + 8), 1)) {
+				LONG_BYTES_BE.set(uuids, i, v1ToV6MostSigBits(msb) ^ 0x7000L);
+				converted++;
+			}
+		}
+		return converted;
+	}
+
+	/**
+	 * Convert the version 6 UUIDs of an array of 16 bytes big-endian UUIDs to
+	 * version 1 in place, other UUIDs are left as is
+	 * 
+	 * @param uuids  the encoded UUIDs
+	 * @param offset the index of the first UUID byte
+	 * @param count  the number of UUIDs
+	 * @return the number of converted UUIDs
+	 * @see #toUUIDv1(UUID)
+	 */
+	public static int toUUIDv1(byte[] uuids, int offset, int count) {
+		Objects.checkFromIndexSize(offset, count * 16L, uuids.length);
+		int converted = 0;
+		for (int i = offset, end = offset + count * 16; i < end; i += 16) {
+			long msb = (long) LONG_BYTES_BE.get(uuids, i);
+			if (isRfcVersion(msb, (long) LONG_BYTES_BE.get(uuids, i + 8), 6)) {
+				LONG_BYTES_BE.set(uuids, i, v6ToV1MostSigBits(msb) ^ 0x7000L);
+				converted++;
+			}
+		}
+		return converted;
+	}
+
+	/**
+	 * Get the 60-bit timestamp of a version 1 or version 6 UUID, the count of 100
+	 * nanoseconds since 1582-10-15 00:00 UTC, same as {@link UUID#timestamp()}
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @return the timestamp
+	 * @throws IllegalArgumentException if the version is not 1 or 6
+	 */
+	public static long getTimestamp(long msb) {
+		switch ((int) (msb >>> 12) & 0xF) {
+		case 1:
+			return (msb & 0x0FFFL) << 48 | (msb >>> 16 & 0xFFFFL) << 32 | msb >>> 32;
+		case 6:
+			return (msb >>> 16) << 12 | (msb & 0x0FFFL);
+		default:
+			throw new IllegalArgumentException("Not a version 1 or 6 UUID: " + Long.toHexString(msb));
+		}
+	}
+
+	/**
+	 * Get the 60-bit timestamp of a version 1 or version 6 UUID
+	 * 
+	 * @param uuid the UUID
+	 * @return the timestamp
+	 * @see #getTimestamp(long)
+	 */
+	public static long getTimestamp(UUID uuid) {
+		return getTimestamp(uuid.getMostSignificantBits());
+	}
+
+	/**
+	 * Get the 60-bit timestamp of a 16 bytes big-endian version 1 or version 6 UUID
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first UUID byte
+	 * @return the timestamp
+	 * @see #getTimestamp(long)
+	 */
+	public static long getTimestamp(byte[] src, int offset) {
+		Objects.checkFromIndexSize(offset, 16, src.length);
+		return getTimestamp((long) LONG_BYTES_BE.get(src, offset));
+	}
+
+	/**
+	 * Get the Unix epoch milliseconds of a version 1, version 6 or version 7 UUID
+	 * 
+	 * @param msb the most significant bits of the UUID
+	 * @return the Unix epoch milliseconds, rounded down
+	 * @throws IllegalArgumentException if the version is not 1, 6 or 7
+	 */
+	public static long getUnixMillis(long msb) {
+		if ((msb & 0xF000L) == 0x7000L) {
+			return msb >>> 16;
+		}
+		return Math.floorDiv(getTimestamp(msb) - GREGORIAN_UNIX_OFFSET, 10_000L);
+	}
+
+	/**
+	 * Get the Unix epoch milliseconds of a version 1, version 6 or version 7 UUID
+	 * 
+	 * @param uuid the UUID
+	 * @return the Unix epoch milliseconds, rounded down
+	 * @see #getUnixMillis(long)
+	 */
+	public static long getUnixMillis(UUID uuid) {
+		return getUnixMillis(uuid.getMostSignificantBits());
+	}
+
+	/**
+	 * Get the Unix epoch milliseconds of a 16 bytes big-endian version 1, version
+	 * 6 or version 7 UUID
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first UUID byte
+	 * @return the Unix epoch milliseconds, rounded down
+	 * @see #getUnixMillis(long)
+	 */
+	public static long getUnixMillis(byte[] src, int offset) {
+		Objects.checkFromIndexSize(offset, 16, src.length);
+		return getUnixMillis((long) LONG_BYTES_BE.get(src, offset));
+	}
+
+	/**
+	 * Get the Unix epoch milliseconds of an array of most/least significant bits
+	 * pairs of version 1, version 6 or version 7 UUIDs
+	 * 
+	 * @param uuids     the pairs, most significant bits first
+	 * @param offset    the index of the first most significant bits
+	 * @param count     the number of UUIDs
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the first Unix epoch milliseconds in
+	 *                  {@code dst}
+	 * @see #getUnixMillis(long)
+	 */
+	public static void getUnixMillis(long[] uuids, int offset, int count, long[] dst, int dstOffset) {
+		Objects.checkFromIndexSize(offset, count * 2L, uuids.length);
+		Objects.checkFromIndexSize(dstOffset, count, dst.length);
+		for (int i = 0; i < count; i++) {
+			dst[dstOffset + i] = getUnixMillis(uuids[offset + 2 * i]);
+		}
+	}
+
+	/**
+	 * Encode the UUID as a 16 bytes byte-comparable key
+	 * 
+	 * <p>
+	 * Comparing two keys as unsigned bytes, i.e. {@link Arrays#compareUnsigned},
+	 * gives the unsigned 128-bit order of the UUIDs, which is the creation order
+	 * of version 6 and version 7 UUIDs. The timestamp of a version 1 UUID is
+	 * stored low field first, so its key is reordered to the version 6 layout and
+	 * version 1 keys sort by time as well, interleaved with version 6 keys. The
+	 * version nibble is kept, so {@link #fromSortableKey(byte[], int)} restores
+	 * the original UUID.
+	 * </p>
+	 * 
+	 * <p>
+	 * Keys of ULIDs are only ordered by {@link #toBytes(UUID)}, a ULID may look
+	 * like a version 1 UUID by chance and get reordered.
+	 * </p>
+	 * 
+	 * @param uuid the UUID
+	 * @return the key
+	 */
+	public static byte[] toSortableKey(UUID uuid) {
+		byte[] key = new byte[16];
+		toSortableKey(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), key, 0);
+		return key;
+	}
+
+	/**
+	 * Encode the UUID followed by a long as a 24 bytes byte-comparable composite
+	 * key, ordered by UUID then by the signed value of the suffix
+	 * 
+	 * @param uuid   the UUID
+	 * @param suffix the suffix, i.e. a version or a sequence number
+	 * @return the key
+	 * @see #toSortableKey(UUID)
+	 */
+	public static byte[] toSortableKey(UUID uuid, long suffix) {
+		byte[] key = new byte[24];
+		toSortableKey(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), suffix, key, 0);
+		return key;
+	}
+
+	/**
+	 * Write the 16 bytes byte-comparable key of the UUID into the array
+	 * 
+	 * @param msb    the most significant bits of the UUID
+	 * @param lsb    the least significant bits of the UUID
+	 * @param dst    the destination array, i.e. a reused key buffer
+	 * @param offset the index of the first key byte in {@code dst}
+	 * @return the index after the key, to append more key parts
+	 * @see #toSortableKey(UUID)
+	 */
+	public static int toSortableKey(long msb, long lsb, byte[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, 16, dst.length);
+		LONG_BYTES_BE.set(dst, offset, sortableMostSigBits(msb, lsb));
+		LONG_BYTES_BE.set(dst, offset + 8, lsb);
+		return offset + 16;
+	}
+
+	/**
+	 * Write the 24 bytes byte-comparable composite key of the UUID and the suffix
+	 * into the array
+	 * 
+	 * @param msb    the most significant bits of the UUID
+	 * @param lsb    the least significant bits of the UUID
+	 * @param suffix the suffix
+	 * @param dst    the destination array, i.e. a reused key buffer
+	 * @param offset the index of the first key byte in {@code dst}
+	 * @return the index after the key, to append more key parts
+	 * @see #toSortableKey(UUID, long)
+	 */
+	public static int toSortableKey(long msb, long lsb, long suffix, byte[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, 24, dst.length);
+		LONG_BYTES_BE.set(dst, offset, sortableMostSigBits(msb, lsb));
+		LONG_BYTES_BE.set(dst, offset + 8, lsb);
+		LONG_BYTES_BE.set(dst, offset + 16, suffix ^ Long.MIN_VALUE);
+		return offset + 24;
+	}
+
+	/**
+	 * Put the 16 bytes byte-comparable key of the UUID into the buffer, the
+	 * position is advanced by 16
+	 * 
+	 * @param uuid the UUID
+	 * @param dst  the destination buffer, heap or direct
+	 * @see #toSortableKey(UUID)
+	 */
+	public static void toSortableKey(UUID uuid, ByteBuffer dst) {
+		if (dst.remaining() < 16) {
+			throw new BufferOverflowException();
+		}
+		putBigEndian(dst, sortableMostSigBits(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+		putBigEndian(dst, uuid.getLeastSignificantBits());
+	}
+
+	/**
+	 * Put the 24 bytes byte-comparable composite key of the UUID and the suffix
+	 * into the buffer, the position is advanced by 24
+	 * 
+	 * @param uuid   the UUID
+	 * @param suffix the suffix
+	 * @param dst    the destination buffer, heap or direct
+	 * @see #toSortableKey(UUID, long)
+	 */
+	public static void toSortableKey(UUID uuid, long suffix, ByteBuffer dst) {
+		if (dst.remaining() < 24) {
+			throw new BufferOverflowException();
+		}
+		putBigEndian(dst, sortableMostSigBits(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+		putBigEndian(dst, uuid.getLeastSignificantBits());
+		putBigEndian(dst, suffix ^ Long.MIN_VALUE);
+	}
+
+	/**
+	 * Decode the UUID of a byte-comparable key
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first key byte in {@code src}
+	 * @return the UUID
+	 * @see #toSortableKey(UUID)
+	 */
+	public static UUID fromSortableKey(byte[] src, int offset) {
+		Objects.checkFromIndexSize(offset, 16, src.length);
+		long lsb = (long) LONG_BYTES_BE.get(src, offset + 8);
+		return new UUID(unsortableMostSigBits((long) LONG_BYTES_BE.get(src, offset), lsb), lsb);
+	}
+
+	/**
+	 * Decode the UUID of a byte-comparable key as raw bits, without creating a
+	 * UUID
+	 * 
+	 * @param src       the source array
+	 * @param offset    the index of the first key byte in {@code src}
+	 * @param dst       the destination array
+	 * @param dstOffset the index of the most significant bits in {@code dst}
+	 * @see #toSortableKey(long, long, byte[], int)
+	 */
+	public static void fromSortableKey(byte[] src, int offset, long[] dst, int dstOffset) {
+		Objects.checkFromIndexSize(offset, 16, src.length);
+		Objects.checkFromIndexSize(dstOffset, 2, dst.length);
+		long lsb = (long) LONG_BYTES_BE.get(src, offset + 8);
+		dst[dstOffset] = unsortableMostSigBits((long) LONG_BYTES_BE.get(src, offset), lsb);
+		dst[dstOffset + 1] = lsb;
+	}
+
+	/**
+	 * Decode the UUID of a byte-comparable key at the buffer position, the
+	 * position is advanced by 16
+	 * 
+	 * @param src the source buffer, heap or direct
+	 * @return the UUID
+	 * @see #toSortableKey(UUID, ByteBuffer)
+	 */
+	public static UUID fromSortableKey(ByteBuffer src) {
+		if (src.remaining() < 16) {
+			throw new BufferUnderflowException();
+		}
+		long msb = getBigEndian(src);
+		long lsb = getBigEndian(src);
+		return new UUID(unsortableMostSigBits(msb, lsb), lsb);
+	}
+
+	/**
+	 * Decode the suffix of a byte-comparable composite key
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first key byte in {@code src}, not of the
+	 *               suffix
+	 * @return the suffix
+	 * @see #toSortableKey(UUID, long)
+	 */
+	public static long fromSortableKeySuffix(byte[] src, int offset) {
+		Objects.checkFromIndexSize(offset, 24, src.length);
+		return (long) LONG_BYTES_BE.get(src, offset + 16) ^ Long.MIN_VALUE;
+	}
+
+	/**
+	 * Decode the suffix of a byte-comparable composite key at the buffer position,
+	 * after {@link #fromSortableKey(ByteBuffer)}. The position is advanced by 8.
+	 * 
+	 * @param src the source buffer, heap or direct
+	 * @return the suffix
+	 * @see #toSortableKey(UUID, long, ByteBuffer)
+	 */
+	public static long fromSortableKeySuffix(ByteBuffer src) {
+		if (src.remaining() < 8) {
+			throw new BufferUnderflowException();
+		}
+		return getBigEndian(src) ^ Long.MIN_VALUE;
+	}
+
+	/**
+	 * Format the UUID to the canonical 36 chars string
+	 * 
+	 * <p>
+	 * Same as {@link UUID#toString()}, lowercase hex digits in the 8-4-4-4-12
+	 * layout.
+	 * </p>
+	 * 
+	 * @param uuid the UUID
+	 * @return a canonical UUID string
+	 */
+	public static String toCanonicalString(UUID uuid) {
+		byte[] dst = new byte[CANONICAL_LENGTH];
+		toCanonical(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, 0);
+		return new String(dst, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Format the UUID to the canonical form into the byte array
+	 * 
+	 * @param uuid   the UUID
+	 * @param dst    the destination array, 36 ASCII bytes are written
+	 * @param offset the index of the first byte in {@code dst}
+	 * @see #toCanonicalString(UUID)
+	 */
+	public static void toCanonical(UUID uuid, byte[] dst, int offset) {
+		toCanonical(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, offset);
+	}
+
+	/**
+	 * Format the UUID bits to the canonical form into the byte array
+	 * 
+	 * @param msb    the most significant bits of the UUID
+	 * @param lsb    the least significant bits of the UUID
+	 * @param dst    the destination array, 36 ASCII bytes are written
+	 * @param offset the index of the first byte in {@code dst}
+	 * @see #toCanonicalString(UUID)
+	 */
+	public static void toCanonical(long msb, long lsb, byte[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, CANONICAL_LENGTH, dst.length);
+		long msbLow = hexDigits((int) msb);
+		long lsbHigh = hexDigits((int) (lsb >>> 32));
+		LONG_BYTES_BE.set(dst, offset, hexDigits((int) (msb >>> 32)));
+		dst[offset + 8] = '-';
+		INT_BYTES_BE.set(dst, offset + 9, (int) (msbLow >>> 32));
+		dst[offset + 13] = '-';
+		INT_BYTES_BE.set(dst, offset + 14, (int) msbLow);
+		dst[offset + 18] = '-';
+		INT_BYTES_BE.set(dst, offset + 19, (int) (lsbHigh >>> 32));
+		dst[offset + 23] = '-';
+		INT_BYTES_BE.set(dst, offset + 24, (int) lsbHigh);
+		LONG_BYTES_BE.set(dst, offset + 28, hexDigits((int) lsb));
+	}
+
+	/**
+	 * Format the UUID to the canonical form into the char array
+	 * 
+	 * @param uuid   the UUID
+	 * @param dst    the destination array, 36 chars are written
+	 * @param offset the index of the first char in {@code dst}
+	 * @see #toCanonicalString(UUID)
+	 */
+	public static void toCanonical(UUID uuid, char[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, CANONICAL_LENGTH, dst.length);
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		long msbLow = hexDigits((int) msb);
+		long lsbHigh = hexDigits((int) (lsb >>> 32));
+		putHexChars(dst, offset, hexDigits((int) (msb >>> 32)), 8);
+		dst[offset + 8] = '-';
+		putHexChars(dst, offset + 9, msbLow, 4);
+		dst[offset + 13] = '-';
+		putHexChars(dst, offset + 14, msbLow << 32, 4);
+		dst[offset + 18] = '-';
+		putHexChars(dst, offset + 19, lsbHigh, 4);
+		dst[offset + 23] = '-';
+		putHexChars(dst, offset + 24, lsbHigh << 32, 4);
+		putHexChars(dst, offset + 28, hexDigits((int) lsb), 8);
+	}
+
+	/**
+	 * Append the UUID in the canonical form to the StringBuilder
+	 * 
+	 * @param sb   the StringBuilder
+	 * @param uuid the UUID
+	 * @return the StringBuilder
+	 * @see #toCanonicalString(UUID)
 	 */
-	public static byte[] toBytes(UUID uuid) {
-		ByteBuffer bb = ByteBuffer.wrap(new byte[16]);
-		bb.putLong(uuid.getMostSignificantBits());
-		bb.putLong(uuid.getLeastSignificantBits());
-		return bb.array();
+	public static StringBuilder appendCanonical(StringBuilder sb, UUID uuid) {
+		sb.ensureCapacity(sb.length() + CANONICAL_LENGTH);
+		try {
+			return (StringBuilder) appendCanonical((Appendable) sb, uuid);
+		} catch (IOException e) {
+			// StringBuilder never throws IOException
+			throw new UncheckedIOException(e);
+		}
 	}
 
 	/**
-	 * Convert the uuid byte array to UUID
+	 * Append the UUID in the canonical form to the Appendable, char by char
+	 * without an intermediate String
 	 * 
-	 * @param bytes the uuid byte array
+	 * @param appendable the Appendable, i.e. a Writer or a CharBuffer
+	 * @param uuid       the UUID
+	 * @return the Appendable
+	 * @throws IOException if the Appendable throws IOException
+	 * @see #toCanonicalString(UUID)
+	 */
+	public static Appendable appendCanonical(Appendable appendable, UUID uuid) throws IOException {
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		long msbLow = hexDigits((int) msb);
+		long lsbHigh = hexDigits((int) (lsb >>> 32));
+		appendHexChars(appendable, hexDigits((int) (msb >>> 32)), 8).append('-');
+		appendHexChars(appendable, msbLow, 4).append('-');
+		appendHexChars(appendable, msbLow << 32, 4).append('-');
+		appendHexChars(appendable, lsbHigh, 4).append('-');
+		appendHexChars(appendable, lsbHigh << 32, 4);
+		return appendHexChars(appendable, hexDigits((int) lsb), 8);
+	}
+
+	/**
+	 * Parse the canonical 36 chars UUID string
+	 * 
+	 * <p>
+	 * Stricter than {@link UUID#fromString(String)}: exactly 8-4-4-4-12 hex
+	 * digits, upper or lower case, separated by hyphens.
+	 * </p>
+	 * 
+	 * @param uuidString the canonical UUID string
 	 * @return a UUID
+	 * @throws IllegalArgumentException if the input is not a canonical UUID
 	 */
-	public static UUID fromBytes(byte[] bytes) {
-		ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
-		long high = byteBuffer.getLong();
-		long low = byteBuffer.getLong();
-		return new UUID(high, low);
+	public static UUID fromCanonicalString(CharSequence uuidString) {
+		if (uuidString.length() != CANONICAL_LENGTH) {
+			throw new IllegalArgumentException("Canonical UUID length must be 36: " + uuidString.length());
+		}
+		return fromCanonical(uuidString, 0);
+	}
+
+	/**
+	 * Parse the 36 chars canonical UUID starting at the offset of the
+	 * CharSequence, without creating a substring
+	 * 
+	 * @param src    the source chars
+	 * @param offset the index of the first UUID char in {@code src}
+	 * @return a UUID
+	 * @throws IllegalArgumentException if the range is not a canonical UUID
+	 * @see #fromCanonicalString(CharSequence)
+	 */
+	public static UUID fromCanonical(CharSequence src, int offset) {
+		Objects.checkFromIndexSize(offset, CANONICAL_LENGTH, src.length());
+		long msb = 0;
+		long lsb = 0;
+		int invalid = 0;
+		for (int i = 0; i < 16; i++) {
+			int c = src.charAt(offset + CANONICAL_MSB_INDEXES[i]);
+			int value = HEX_DECODE_TABLE[c & 0xFF] | (0x7F - c) >> 31;
+			msb = msb << 4 | (value & 0xF);
+			invalid |= value;
+			c = src.charAt(offset + CANONICAL_LSB_INDEXES[i]);
+			value = HEX_DECODE_TABLE[c & 0xFF] | (0x7F - c) >> 31;
+			lsb = lsb << 4 | (value & 0xF);
+			invalid |= value;
+		}
+		if (invalid < 0 || src.charAt(offset + 8) != '-' || src.charAt(offset + 13) != '-'
+				|| src.charAt(offset + 18) != '-' || src.charAt(offset + 23) != '-') {
+			throw invalidCanonical(src, offset);
+		}
+		return new UUID(msb, lsb);
+	}
+
+	/**
+	 * Parse the 36 ASCII bytes canonical UUID starting at the offset of the byte
+	 * array, i.e. directly out of a request buffer
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first UUID byte in {@code src}
+	 * @return a UUID
+	 * @throws IllegalArgumentException if the range is not a canonical UUID
+	 * @see #fromCanonicalString(CharSequence)
+	 */
+	public static UUID fromCanonical(byte[] src, int offset) {
+		Objects.checkFromIndexSize(offset, CANONICAL_LENGTH, src.length);
+		long msb = 0;
+		long lsb = 0;
+		int invalid = 0;
+		for (int i = 0; i < 16; i++) {
+			int value = HEX_DECODE_TABLE[src[offset + CANONICAL_MSB_INDEXES[i]] & 0xFF];
+			msb = msb << 4 | (value & 0xF);
+			invalid |= value;
+			value = HEX_DECODE_TABLE[src[offset + CANONICAL_LSB_INDEXES[i]] & 0xFF];
+			lsb = lsb << 4 | (value & 0xF);
+			invalid |= value;
+		}
+		if (invalid < 0 || src[offset + 8] != '-' || src[offset + 13] != '-' || src[offset + 18] != '-'
+				|| src[offset + 23] != '-') {
+			throw invalidCanonical(new String(src, offset, CANONICAL_LENGTH, StandardCharsets.ISO_8859_1), 0);
+		}
+		return new UUID(msb, lsb);
+	}
+
+	/**
+	 * Convert 32 bits to 8 lowercase ASCII hex digits packed big-endian into a
+	 * long, SWAR: spread the nibbles to one per byte, then add '0' or 'a' - 10
+	 * per byte
+	 */
+	private static long hexDigits(int value) {
+		long x = value & 0xFFFFFFFFL;
+		x = (x & 0xFFFF0000L) << 16 | (x & 0x0000FFFFL);
+		x = (x & 0x0000FF000000FF00L) << 8 | (x & 0x000000FF000000FFL);
+		x = (x & 0x00F000F000F000F0L) << 4 | (x & 0x000F000F000F000FL);
+		long letters = ((x + 0x0606060606060606L) >>> 4) & 0x0101010101010101L;
+		return x + 0x3030303030303030L + letters * ('a' - '0' - 10);
+	}
+
+	/**
+	 * Put the first count hex digits of the packed long into the char array
+	 */
+	private static void putHexChars(char[] dst, int offset, long digits, int count) {
+		for (int i = 0, shift = 56; i < count; i++, shift -= 8) {
+			dst[offset + i] = (char) ((digits >>> shift) & 0xFF);
+		}
+	}
+
+	/**
+	 * Append the first count hex digits of the packed long to the Appendable
+	 */
+	private static Appendable appendHexChars(Appendable appendable, long digits, int count) throws IOException {
+		for (int i = 0, shift = 56; i < count; i++, shift -= 8) {
+			appendable.append((char) ((digits >>> shift) & 0xFF));
+		}
+		return appendable;
+	}
+
+	/**
+	 * Build the exception for an invalid canonical UUID, pointing at the first
+	 * invalid char
+	 */
+	private static IllegalArgumentException invalidCanonical(CharSequence src, int offset) {
+		for (int i = 0; i < CANONICAL_LENGTH; i++) {
+			char c = src.charAt(offset + i);
+			boolean hyphen = i == 8 || i == 13 || i == 18 || i == 23;
+			if (hyphen ? c != '-' : c >= 128 || HEX_DECODE_TABLE[c] < 0) {
+				return new IllegalArgumentException("Invalid canonical UUID char at index " + i + ": " + c);
+			}
+		}
+		return new IllegalArgumentException("Invalid canonical UUID");
+	}
+
+	/**
+	 * Encode the UUID (or ULID) to the 26 chars Crockford Base32 string
+	 * 
+	 * <p>
+	 * Uppercase Crockford Base32 of the 128 bits, the ULID text form. For ULIDs
+	 * and time-ordered UUIDs the strings sort in time order.
+	 * </p>
+	 * 
+	 * @param uuid the UUID or ULID
+	 * @return a ULID string
+	 * @see <a href=
+	 *      "https://www.crockford.com/base32.html">https://www.crockford.com/base32.html</a>
+	 */
+	public static String toULIDString(UUID uuid) {
+		byte[] dst = new byte[ULID_LENGTH];
+		toULID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, 0);
+		return new String(dst, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Encode the UUID (or ULID) to Crockford Base32 into the byte array
+	 * 
+	 * @param uuid   the UUID or ULID
+	 * @param dst    the destination array, 26 ASCII bytes are written
+	 * @param offset the index of the first byte in {@code dst}
+	 * @see #toULIDString(UUID)
+	 */
+	public static void toULID(UUID uuid, byte[] dst, int offset) {
+		toULID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, offset);
+	}
+
+	/**
+	 * Encode the UUID (or ULID) to Crockford Base32 into the char array
+	 * 
+	 * @param uuid   the UUID or ULID
+	 * @param dst    the destination array, 26 chars are written
+	 * @param offset the index of the first char in {@code dst}
+	 * @see #toULIDString(UUID)
+	 */
+	public static void toULID(UUID uuid, char[] dst, int offset) {
+		toULID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, offset);
+	}
+
+	/**
+	 * Encode the 128 bits to Crockford Base32 into the byte array
+	 * 
+	 * @param msb    the most significant bits
+	 * @param lsb    the least significant bits
+	 * @param dst    the destination array, 26 ASCII bytes are written
+	 * @param offset the index of the first byte in {@code dst}
+	 * @see #toULIDString(UUID)
+	 */
+	public static void toULID(long msb, long lsb, byte[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, ULID_LENGTH, dst.length);
+		final byte[] table = CROCKFORD_BASE32_ENCODE_TABLE;
+		for (int i = offset + ULID_LENGTH - 1; i >= offset; i--) {
+			dst[i] = table[(int) lsb & 0x1F];
+			lsb = lsb >>> 5 | msb << 59;
+			msb >>>= 5;
+		}
+	}
+
+	/**
+	 * Encode the 128 bits to Crockford Base32 into the char array
+	 * 
+	 * @param msb    the most significant bits
+	 * @param lsb    the least significant bits
+	 * @param dst    the destination array, 26 chars are written
+	 * @param offset the index of the first char in {@code dst}
+	 * @see #toULIDString(UUID)
+	 */
+	public static void toULID(long msb, long lsb, char[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, ULID_LENGTH, dst.length);
+		final byte[] table = CROCKFORD_BASE32_ENCODE_TABLE;
+		for (int i = offset + ULID_LENGTH - 1; i >= offset; i--) {
+			dst[i] = (char) table[(int) lsb & 0x1F];
+			lsb = lsb >>> 5 | msb << 59;
+			msb >>>= 5;
+		}
+	}
+
+	/**
+	 * Decode the 26 chars Crockford Base32 string to UUID (or ULID)
+	 * 
+	 * <p>
+	 * Case-insensitive, {@code I} and {@code L} are read as {@code 1} and
+	 * {@code O} as {@code 0}. The first char must be {@code 0} to {@code 7}, any
+	 * larger value overflows 128 bits.
+	 * </p>
+	 * 
+	 * @param ulidString the ULID string
+	 * @return a UUID holding the 128 bits
+	 * @throws IllegalArgumentException if the input is not a ULID
+	 */
+	public static UUID fromULIDString(CharSequence ulidString) {
+		if (ulidString.length() != ULID_LENGTH) {
+			throw new IllegalArgumentException("ULID length must be 26: " + ulidString.length());
+		}
+		long msb = 0;
+		long lsb = 0;
+		for (int i = 0; i < ULID_LENGTH; i++) {
+			int value = decodeCrockfordBase32(ulidString.charAt(i), i);
+			msb = msb << 5 | lsb >>> 59;
+			lsb = lsb << 5 | value;
+		}
+		return new UUID(msb, lsb);
+	}
+
+	/**
+	 * Decode 26 Crockford Base32 bytes of the byte array to UUID (or ULID)
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first ULID byte in {@code src}
+	 * @return a UUID holding the 128 bits
+	 * @throws IllegalArgumentException if the input is not a ULID
+	 * @see #fromULIDString(CharSequence)
+	 */
+	public static UUID fromULID(byte[] src, int offset) {
+		Objects.checkFromIndexSize(offset, ULID_LENGTH, src.length);
+		long msb = 0;
+		long lsb = 0;
+		for (int i = 0; i < ULID_LENGTH; i++) {
+			int value = decodeCrockfordBase32(src[offset + i] & 0xFF, i);
+			msb = msb << 5 | lsb >>> 59;
+			lsb = lsb << 5 | value;
+		}
+		return new UUID(msb, lsb);
+	}
+
+	/**
+	 * Decode one Crockford Base32 char to its 5 bits, the first char carries only
+	 * 3 bits
+	 */
+	private static int decodeCrockfordBase32(int c, int index) {
+		int value = c < 128 ? CROCKFORD_BASE32_DECODE_TABLE[c] : -1;
+		if (value < 0 || (index == 0 && value > 7)) {
+			throw new IllegalArgumentException("Invalid ULID char at index " + index + ": " + (char) c);
+		}
+		return value;
 	}
 
 	/**
@@ -80,8 +1568,85 @@ public class UUIDUtils {
 	 * @return a Base64URLSafe byte array
 	 */
 	public static byte[] toBase64URLSafe(UUID uuid) {
-		byte[] bytes = toBytes(uuid);
-		return toBase64URLSafe(bytes);
+		byte[] dst = new byte[BASE64_URL_SAFE_LENGTH];
+		toBase64URLSafe(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, 0);
+		return dst;
+	}
+
+	/**
+	 * Encode the UUID to Base64URLSafe into the byte array
+	 * 
+	 * <p>
+	 * Writes exactly 22 ASCII bytes, no padding, same as
+	 * {@link #toBase64URLSafe(UUID)}.
+	 * </p>
+	 * 
+	 * @param uuid   the UUID
+	 * @param dst    the destination array
+	 * @param offset the index of the first Base64URLSafe byte in {@code dst}
+	 */
+	public static void toBase64URLSafe(UUID uuid, byte[] dst, int offset) {
+		toBase64URLSafe(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, offset);
+	}
+
+	/**
+	 * Encode the UUID to Base64URLSafe into the char array
+	 * 
+	 * <p>
+	 * Writes exactly 22 chars, no padding, same as
+	 * {@link #toBase64URLSafeString(UUID)}.
+	 * </p>
+	 * 
+	 * @param uuid   the UUID
+	 * @param dst    the destination array
+	 * @param offset the index of the first Base64URLSafe char in {@code dst}
+	 */
+	public static void toBase64URLSafe(UUID uuid, char[] dst, int offset) {
+		toBase64URLSafe(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), dst, offset);
+	}
+
+	/**
+	 * Encode the UUID bits to Base64URLSafe into the byte array
+	 * 
+	 * @param msb    the most significant bits of the UUID
+	 * @param lsb    the least significant bits of the UUID
+	 * @param dst    the destination array
+	 * @param offset the index of the first Base64URLSafe byte in {@code dst}
+	 * @see #toBase64URLSafe(UUID, byte[], int)
+	 */
+	public static void toBase64URLSafe(long msb, long lsb, byte[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, BASE64_URL_SAFE_LENGTH, dst.length);
+		final byte[] table = BASE64_URL_SAFE_ENCODE_TABLE;
+		for (int i = 0, shift = 58; i < 10; i++, shift -= 6) {
+			dst[offset + i] = table[(int) (msb >>> shift) & 0x3F];
+		}
+		dst[offset + 10] = table[(int) ((msb & 0xF) << 2 | lsb >>> 62)];
+		for (int i = 11, shift = 56; i < 21; i++, shift -= 6) {
+			dst[offset + i] = table[(int) (lsb >>> shift) & 0x3F];
+		}
+		dst[offset + 21] = table[(int) (lsb & 0x3) << 4];
+	}
+
+	/**
+	 * Encode the UUID bits to Base64URLSafe into the char array
+	 * 
+	 * @param msb    the most significant bits of the UUID
+	 * @param lsb    the least significant bits of the UUID
+	 * @param dst    the destination array
+	 * @param offset the index of the first Base64URLSafe char in {@code dst}
+	 * @see #toBase64URLSafe(UUID, char[], int)
+	 */
+	public static void toBase64URLSafe(long msb, long lsb, char[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, BASE64_URL_SAFE_LENGTH, dst.length);
+		final byte[] table = BASE64_URL_SAFE_ENCODE_TABLE;
+		for (int i = 0, shift = 58; i < 10; i++, shift -= 6) {
+			dst[offset + i] = (char) table[(int) (msb >>> shift) & 0x3F];
+		}
+		dst[offset + 10] = (char) table[(int) ((msb & 0xF) << 2 | lsb >>> 62)];
+		for (int i = 11, shift = 56; i < 21; i++, shift -= 6) {
+			dst[offset + i] = (char) table[(int) (lsb >>> shift) & 0x3F];
+		}
+		dst[offset + 21] = (char) table[(int) (lsb & 0x3) << 4];
 	}
 
 	/**
@@ -122,8 +1687,8 @@ public class UUIDUtils {
 	 * @return a Base64URLSafe string
 	 */
 	public static String toBase64URLSafeString(UUID uuid) {
-		byte[] bytes = toBytes(uuid);
-		return toBase64URLSafeString(bytes);
+		byte[] dst = toBase64URLSafe(uuid);
+		return new String(dst, StandardCharsets.ISO_8859_1);
 	}
 
 	/**
@@ -156,4 +1721,436 @@ public class UUIDUtils {
 		return Base64.decodeBase64(base64String);
 	}
 
+	/**
+	 * Decode the 22 chars Base64URLSafe string to UUID
+	 * 
+	 * <p>
+	 * The inverse of {@link #toBase64URLSafeString(UUID)}. The input must be
+	 * exactly 22 chars of the URL-safe alphabet without padding, and the unused
+	 * trailing bits must be zero.
+	 * </p>
+	 * 
+	 * @param base64String the Base64URLSafe string
+	 * @return a UUID
+	 * @throws IllegalArgumentException if the input is not an encoded UUID
+	 */
+	public static UUID fromBase64URLSafeString(CharSequence base64String) {
+		if (base64String.length() != BASE64_URL_SAFE_LENGTH) {
+			throw new IllegalArgumentException("Base64URLSafe UUID length must be 22: " + base64String.length());
+		}
+		long msb = 0;
+		long lsb = 0;
+		for (int i = 0; i < 10; i++) {
+			msb = msb << 6 | decodeBase64URLSafe(base64String.charAt(i), i);
+		}
+		int middle = decodeBase64URLSafe(base64String.charAt(10), 10);
+		msb = msb << 4 | middle >>> 2;
+		lsb = middle & 0x3;
+		for (int i = 11; i < 21; i++) {
+			lsb = lsb << 6 | decodeBase64URLSafe(base64String.charAt(i), i);
+		}
+		return new UUID(msb, lsb << 2 | lastBase64URLSafe(decodeBase64URLSafe(base64String.charAt(21), 21)));
+	}
+
+	/**
+	 * Decode 22 Base64URLSafe bytes of the byte array to UUID
+	 * 
+	 * @param src    the source array
+	 * @param offset the index of the first Base64URLSafe byte in {@code src}
+	 * @return a UUID
+	 * @throws IllegalArgumentException if the input is not an encoded UUID
+	 * @see #fromBase64URLSafeString(CharSequence)
+	 */
+	public static UUID fromBase64URLSafe(byte[] src, int offset) {
+		Objects.checkFromIndexSize(offset, BASE64_URL_SAFE_LENGTH, src.length);
+		long msb = 0;
+		long lsb = 0;
+		for (int i = 0; i < 10; i++) {
+			msb = msb << 6 | decodeBase64URLSafe(src[offset + i] & 0xFF, i);
+		}
+		int middle = decodeBase64URLSafe(src[offset + 10] & 0xFF, 10);
+		msb = msb << 4 | middle >>> 2;
+		lsb = middle & 0x3;
+		for (int i = 11; i < 21; i++) {
+			lsb = lsb << 6 | decodeBase64URLSafe(src[offset + i] & 0xFF, i);
+		}
+		return new UUID(msb, lsb << 2 | lastBase64URLSafe(decodeBase64URLSafe(src[offset + 21] & 0xFF, 21)));
+	}
+
+	/**
+	 * Decode one Base64URLSafe char to its 6 bits
+	 */
+	private static int decodeBase64URLSafe(int c, int index) {
+		int value = c < 128 ? BASE64_URL_SAFE_DECODE_TABLE[c] : -1;
+		if (value < 0) {
+			throw new IllegalArgumentException("Invalid Base64URLSafe char at index " + index + ": " + (char) c);
+		}
+		return value;
+	}
+
+	/**
+	 * The last Base64URLSafe char carries 2 bits, the low 4 bits must be zero
+	 */
+	private static int lastBase64URLSafe(int value) {
+		if ((value & 0xF) != 0) {
+			throw new IllegalArgumentException("Invalid Base64URLSafe char at index 21, trailing bits must be zero");
+		}
+		return value >>> 4;
+	}
+
+	/**
+	 * The key most significant bits, a version 1 timestamp is reordered to the
+	 * version 6 layout
+	 */
+	private static long sortableMostSigBits(long msb, long lsb) {
+		return isRfcVersion(msb, lsb, 1) ? v1ToV6MostSigBits(msb) : msb;
+	}
+
+	/**
+	 * Inverse of {@link #sortableMostSigBits(long, long)}, the version nibble and
+	 * the variant are kept by the reordering
+	 */
+	private static long unsortableMostSigBits(long msb, long lsb) {
+		return isRfcVersion(msb, lsb, 1) ? v6ToV1MostSigBits(msb) : msb;
+	}
+
+	private static boolean isRfcVersion(long msb, long lsb, int version) {
+		return (msb >>> 12 & 0xFL) == version && (lsb >>> 62) == 2;
+	}
+
+	private static void checkVersion(long msb, int version) {
+		if ((msb >>> 12 & 0xFL) != version) {
+			throw new IllegalArgumentException("Not a version " + version + " UUID, version: " + (msb >>> 12 & 0xFL));
+		}
+	}
+
+	/**
+	 * The version and the RFC variant, the check of the bulk conversions
+	 */
+	private static void checkVersion(long msb, long lsb, int version) {
+		checkVersion(msb, version);
+		if ((lsb >>> 62) != 2) {
+			throw new IllegalArgumentException("Not an RFC variant UUID, variant bits: " + (lsb >>> 61));
+		}
+	}
+
+	/**
+	 * Move the 60-bit timestamp from the version 1 layout, time_low time_mid
+	 * time_high, to the version 6 layout, time_high time_mid time_low. The version
+	 * nibble is left as is.
+	 */
+	private static long v1ToV6MostSigBits(long msb) {
+		long timestamp = (msb & 0x0FFFL) << 48 | (msb >>> 16 & 0xFFFFL) << 32 | msb >>> 32;
+		return (timestamp >>> 12) << 16 | (msb & 0xF000L) | (timestamp & 0x0FFFL);
+	}
+
+	/**
+	 * Inverse of {@link #v1ToV6MostSigBits(long)}
+	 */
+	private static long v6ToV1MostSigBits(long msb) {
+		long timestamp = (msb >>> 16) << 12 | (msb & 0x0FFFL);
+		return timestamp << 32 | (timestamp >>> 32 & 0xFFFFL) << 16 | (msb & 0xF000L) | timestamp >>> 48;
+	}
+
+	private static void putBigEndian(ByteBuffer dst, long value) {
+		dst.putLong(dst.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+	}
+
+	private static long getBigEndian(ByteBuffer src) {
+		long value = src.getLong();
+		return src.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+	}
+
+	private static UUID nameUUID(int version, UUID namespace, CharSequence name) {
+		NameDigest digest = NAME_DIGESTS.get();
+		digest.begin(version, namespace);
+		digest.update(name);
+		digest.finish();
+		return new UUID(digest.mostSigBits(version), digest.leastSigBits());
+	}
+
+	private static UUID nameUUID(int version, UUID namespace, byte[] name, int offset, int length) {
+		Objects.checkFromIndexSize(offset, length, name.length);
+		NameDigest digest = NAME_DIGESTS.get();
+		digest.begin(version, namespace).update(name, offset, length);
+		digest.finish();
+		return new UUID(digest.mostSigBits(version), digest.leastSigBits());
+	}
+
+	private static UUID nameUUID(int version, UUID namespace, ByteBuffer name) {
+		NameDigest digest = NAME_DIGESTS.get();
+		digest.begin(version, namespace).update(name);
+		digest.finish();
+		return new UUID(digest.mostSigBits(version), digest.leastSigBits());
+	}
+
+	private static void nameUUIDs(int version, UUID namespace, List<? extends CharSequence> names, long[] dst,
+			int offset) {
+		int count = names.size();
+		Objects.checkFromIndexSize(offset, count * 2L, dst.length);
+		NameDigest digest = NAME_DIGESTS.get();
+		for (int i = 0; i < count; i++) {
+			digest.begin(version, namespace);
+			digest.update(names.get(i));
+			digest.finish();
+			dst[offset + 2 * i] = digest.mostSigBits(version);
+			dst[offset + 2 * i + 1] = digest.leastSigBits();
+		}
+	}
+
+	/**
+	 * Per-thread SHA-1 and MD5 digests for name-based UUIDs, with a buffer for the
+	 * UTF-8 encoded name chunks and the hash
+	 */
+	private static final class NameDigest {
+
+		private NameDigest() {
+			try {
+				sha1 = MessageDigest.getInstance("SHA-1");
+				md5 = MessageDigest.getInstance("MD5");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("SHA-1 and MD5 are required by every Java platform", e);
+			}
+		}
+
+		/**
+		 * Reset the digest of the version and hash the namespace
+		 */
+		private MessageDigest begin(int version, UUID namespace) {
+			current = version == 5 ? sha1 : md5;
+			current.reset();
+			LONG_BYTES_BE.set(buffer, 0, namespace.getMostSignificantBits());
+			LONG_BYTES_BE.set(buffer, 8, namespace.getLeastSignificantBits());
+			current.update(buffer, 0, 16);
+			return current;
+		}
+
+		/**
+		 * Hash the name encoded as UTF-8, unpaired surrogates are encoded as '?' like
+		 * {@link String#getBytes(java.nio.charset.Charset)}
+		 */
+		private void update(CharSequence name) {
+			final byte[] buffer = this.buffer;
+			final int limit = buffer.length - 4;
+			final int length = name.length();
+			int position = 0;
+			for (int i = 0; i < length; i++) {
+				if (position > limit) {
+					current.update(buffer, 0, position);
+					position = 0;
+				}
+				char c = name.charAt(i);
+				if (c < 0x80) {
+					buffer[position++] = (byte) c;
+				} else if (c < 0x800) {
+					buffer[position++] = (byte) (0xC0 | c >> 6);
+					buffer[position++] = (byte) (0x80 | c & 0x3F);
+				} else if (!Character.isSurrogate(c)) {
+					buffer[position++] = (byte) (0xE0 | c >> 12);
+					buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+					buffer[position++] = (byte) (0x80 | c & 0x3F);
+				} else if (Character.isHighSurrogate(c) && i + 1 < length
+						&& Character.isLowSurrogate(name.charAt(i + 1))) {
+					int cp = Character.toCodePoint(c, name.charAt(++i));
+					buffer[position++] = (byte) (0xF0 | cp >> 18);
+					buffer[position++] = (byte) (0x80 | cp >> 12 & 0x3F);
+					buffer[position++] = (byte) (0x80 | cp >> 6 & 0x3F);
+					buffer[position++] = (byte) (0x80 | cp & 0x3F);
+				} else {
+					buffer[position++] = '?';
+				}
+			}
+			current.update(buffer, 0, position);
+		}
+
+		/**
+		 * Complete the hash into the first bytes of the buffer
+		 */
+		private void finish() {
+			try {
+				current.digest(buffer, 0, buffer.length);
+			} catch (DigestException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private long mostSigBits(int version) {
+			return ((long) LONG_BYTES_BE.get(buffer, 0) & 0xFFFFFFFFFFFF0FFFL) | ((long) version << 12);
+		}
+
+		private long leastSigBits() {
+			return ((long) LONG_BYTES_BE.get(buffer, 8) & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		}
+
+		private final MessageDigest sha1;
+		private final MessageDigest md5;
+		private MessageDigest current;
+		private final byte[] buffer = new byte[256];
+	}
+
+	/**
+	 * Next version 7 most significant bits, the state holds the last issued
+	 * timestamp and counter as {@code unixMillis << 12 | counter}
+	 */
+	private static long nextUUIDv7MostSigBits() {
+		long now = System.currentTimeMillis() << UUID_V7_COUNTER_BITS;
+		long prev;
+		long next;
+		do {
+			prev = UUID_V7_STATE.get();
+			next = now > prev ? now : prev + 1;
+		} while (!UUID_V7_STATE.compareAndSet(prev, next));
+		return ((next >>> UUID_V7_COUNTER_BITS) << 16) | 0x7000L | (next & UUID_V7_COUNTER_MASK);
+	}
+
+	/**
+	 * Next version 7 least significant bits, 62 random bits and the IETF variant
+	 */
+	private static long nextUUIDv7LeastSigBits(UUIDGenerator generator) {
+		return (generator.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+	}
+
+	/**
+	 * Name space for fully-qualified domain names
+	 */
+	public static final UUID NAMESPACE_DNS = new UUID(0x6ba7b8109dad11d1L, 0x80b400c04fd430c8L);
+
+	/**
+	 * Name space for URLs
+	 */
+	public static final UUID NAMESPACE_URL = new UUID(0x6ba7b8119dad11d1L, 0x80b400c04fd430c8L);
+
+	/**
+	 * Name space for ISO OIDs
+	 */
+	public static final UUID NAMESPACE_OID = new UUID(0x6ba7b8129dad11d1L, 0x80b400c04fd430c8L);
+
+	/**
+	 * Name space for X.500 DNs
+	 */
+	public static final UUID NAMESPACE_X500 = new UUID(0x6ba7b8149dad11d1L, 0x80b400c04fd430c8L);
+
+	/**
+	 * 100 nanoseconds from 1582-10-15, the Gregorian epoch of version 1 and
+	 * version 6 timestamps, to 1970-01-01
+	 */
+	private static final long GREGORIAN_UNIX_OFFSET = 0x01B21DD213814000L;
+
+	/**
+	 * The number of sub-millisecond counter bits in a version 7 UUID
+	 */
+	private static final int UUID_V7_COUNTER_BITS = 12;
+	private static final long UUID_V7_COUNTER_MASK = (1L << UUID_V7_COUNTER_BITS) - 1;
+
+	/**
+	 * View a byte array as big-endian or little-endian longs
+	 */
+	private static final VarHandle LONG_BYTES_BE = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.BIG_ENDIAN);
+	private static final VarHandle LONG_BYTES_LE = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * Unaligned big-endian or little-endian long layouts
+	 */
+	private static final ValueLayout.OfLong LONG_LAYOUT_BE = ValueLayout.JAVA_LONG_UNALIGNED
+			.withOrder(ByteOrder.BIG_ENDIAN);
+	private static final ValueLayout.OfLong LONG_LAYOUT_LE = ValueLayout.JAVA_LONG_UNALIGNED
+			.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * View a byte array as big-endian ints
+	 */
+	private static final VarHandle INT_BYTES_BE = MethodHandles.byteArrayViewVarHandle(int[].class,
+			ByteOrder.BIG_ENDIAN);
+
+	/**
+	 * The length of a canonical UUID string, 8-4-4-4-12 hex digits and hyphens
+	 */
+	private static final int CANONICAL_LENGTH = 36;
+
+	/**
+	 * The indexes of the most and least significant hex digits in a canonical UUID
+	 * string
+	 */
+	private static final int[] CANONICAL_MSB_INDEXES = { 0, 1, 2, 3, 4, 5, 6, 7, 9, 10, 11, 12, 14, 15, 16, 17 };
+	private static final int[] CANONICAL_LSB_INDEXES = { 19, 20, 21, 22, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34,
+			35 };
+
+	/**
+	 * The value of each ASCII hex digit, -1 for any other byte
+	 */
+	private static final byte[] HEX_DECODE_TABLE = new byte[256];
+	static {
+		Arrays.fill(HEX_DECODE_TABLE, (byte) -1);
+		for (int i = 0; i < 10; i++) {
+			HEX_DECODE_TABLE['0' + i] = (byte) i;
+		}
+		for (int i = 0; i < 6; i++) {
+			HEX_DECODE_TABLE['a' + i] = (byte) (10 + i);
+			HEX_DECODE_TABLE['A' + i] = (byte) (10 + i);
+		}
+	}
+
+	/**
+	 * The length of a Base64URLSafe encoded UUID, without padding
+	 */
+	private static final int BASE64_URL_SAFE_LENGTH = 22;
+
+	/**
+	 * The Base64URLSafe alphabet (RFC 4648, table 2) and its inverse
+	 */
+	private static final byte[] BASE64_URL_SAFE_ENCODE_TABLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+			.getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] BASE64_URL_SAFE_DECODE_TABLE = new byte[128];
+	static {
+		Arrays.fill(BASE64_URL_SAFE_DECODE_TABLE, (byte) -1);
+		for (int i = 0; i < BASE64_URL_SAFE_ENCODE_TABLE.length; i++) {
+			BASE64_URL_SAFE_DECODE_TABLE[BASE64_URL_SAFE_ENCODE_TABLE[i]] = (byte) i;
+		}
+	}
+
+	/**
+	 * The length of a ULID string
+	 */
+	private static final int ULID_LENGTH = 26;
+
+	/**
+	 * The Crockford Base32 alphabet and its case-insensitive inverse, with the
+	 * I, L and O aliases
+	 */
+	private static final byte[] CROCKFORD_BASE32_ENCODE_TABLE = "0123456789ABCDEFGHJKMNPQRSTVWXYZ"
+			.getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] CROCKFORD_BASE32_DECODE_TABLE = new byte[128];
+	static {
+		Arrays.fill(CROCKFORD_BASE32_DECODE_TABLE, (byte) -1);
+		for (int i = 0; i < CROCKFORD_BASE32_ENCODE_TABLE.length; i++) {
+			byte c = CROCKFORD_BASE32_ENCODE_TABLE[i];
+			CROCKFORD_BASE32_DECODE_TABLE[c] = (byte) i;
+			CROCKFORD_BASE32_DECODE_TABLE[Character.toLowerCase(c)] = (byte) i;
+		}
+		CROCKFORD_BASE32_DECODE_TABLE['I'] = CROCKFORD_BASE32_DECODE_TABLE['i'] = 1;
+		CROCKFORD_BASE32_DECODE_TABLE['L'] = CROCKFORD_BASE32_DECODE_TABLE['l'] = 1;
+		CROCKFORD_BASE32_DECODE_TABLE['O'] = CROCKFORD_BASE32_DECODE_TABLE['o'] = 0;
+	}
+
+	/**
+	 * The chunk size used when bulk generating into a direct buffer
+	 */
+	private static final int BULK_CHUNK_BYTES = 4096;
+
+	/**
+	 * The last issued version 7 timestamp and counter
+	 */
+	private static final AtomicLong UUID_V7_STATE = new AtomicLong();
+
+	/**
+	 * The last issued monotonic ULID
+	 */
+	private static final AtomicReference<UUID> ULID_STATE = new AtomicReference<>(new UUID(0, 0));
+
+	/**
+	 * The name-based UUID digests of the current thread
+	 */
+	private static final ThreadLocal<NameDigest> NAME_DIGESTS = ThreadLocal.withInitial(NameDigest::new);
 }
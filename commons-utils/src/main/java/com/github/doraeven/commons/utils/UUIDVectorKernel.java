@@ -0,0 +1,218 @@
+package com.github.doraeven.commons.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * UUID Vector Kernel
+ * 
+ * <p>
+ * The SIMD encoders of {@link UUIDBulkEncoder}, one UUID per 128 bit vector.
+ * Only loaded by reflection when the {@code jdk.incubator.vector} module is
+ * present on a little-endian platform: the two longs of a UUID are loaded as
+ * 16 little-endian bytes and the shuffles reorder them to big-endian.
+ * </p>
+ * 
+ * <ul>
+ * <li>Hex: both nibbles of every byte are turned into ASCII digits at once,
+ * then three shuffle and blend steps lay out the 36 chars with the hyphens
+ * blended in. The last 16 byte store runs 12 bytes into the next UUID, so the last UUID
+ * is left to the scalar encoder.</li>
+ * <li>Base64URLSafe: the first 12 bytes are spread to one 24 bit group per int
+ * lane, split into four 6 bit indexes and mapped to the alphabet by range, 16
+ * chars. The last 6 chars come from the low 32 bits of the least significant
+ * bits.</li>
+ * </ul>
+ * 
+ * @author motu
+ *
+ */
+final class UUIDVectorKernel implements UUIDBulkEncoder.Kernel {
+
+	/**
+	 * Check that the vectors are backed by hardware and agree with the scalar
+	 * encoders
+	 * 
+	 * @throws IllegalStateException if the vectors can not be used
+	 */
+	UUIDVectorKernel() {
+		if (ByteVector.SPECIES_PREFERRED.vectorBitSize() < BYTES.vectorBitSize()) {
+			throw new IllegalStateException("No 128 bit vectors");
+		}
+		long[] uuids = { 0x0123456789ABCDEFL, 0xFEDCBA9876543210L, -1L, 0x00FF00FF00FF00FFL, 0, 0 };
+		byte[] canonical = new byte[UUIDBulkEncoder.CANONICAL_LENGTH * 3];
+		byte[] base64 = new byte[UUIDBulkEncoder.BASE64_URL_SAFE_LENGTH * 3];
+		for (int i = 0; i < 3; i++) {
+			UUIDUtils.toCanonical(uuids[2 * i], uuids[2 * i + 1], canonical, i * UUIDBulkEncoder.CANONICAL_LENGTH);
+			UUIDUtils.toBase64URLSafe(uuids[2 * i], uuids[2 * i + 1], base64,
+					i * UUIDBulkEncoder.BASE64_URL_SAFE_LENGTH);
+		}
+		byte[] vectorCanonical = new byte[canonical.length];
+		byte[] vectorBase64 = new byte[base64.length];
+		int encoded = toCanonical(uuids, 0, 3, vectorCanonical, 0);
+		int length = encoded * UUIDBulkEncoder.CANONICAL_LENGTH;
+		if (toBase64URLSafe(uuids, 0, 3, vectorBase64, 0) != 3 || !Arrays.equals(base64, vectorBase64)
+				|| !Arrays.equals(canonical, 0, length, vectorCanonical, 0, length)) {
+			throw new IllegalStateException("Vector encoders disagree with the scalar encoders");
+		}
+	}
+
+	@Override
+	public int toCanonical(long[] uuids, int offset, int count, byte[] dst, int dstOffset) {
+		// the third store of a UUID runs into the next one
+		int n = Math.max(count - 1, 0);
+		final VectorShuffle<Byte>[] shuffles = CANONICAL_SHUFFLES;
+		final VectorMask<Byte>[] masks = CANONICAL_MASKS;
+		for (int i = 0; i < n; i++, offset += 2, dstOffset += UUIDBulkEncoder.CANONICAL_LENGTH) {
+			ByteVector bytes = LongVector.fromArray(LONGS, uuids, offset).reinterpretAsBytes();
+			ByteVector high = hexDigits(bytes.lanewise(VectorOperators.LSHR, 4).and((byte) 0x0F));
+			ByteVector low = hexDigits(bytes.and((byte) 0x0F));
+			for (int chunk = 0; chunk < 3; chunk++) {
+				high.rearrange(shuffles[chunk])
+						.blend(low.rearrange(shuffles[chunk]), masks[2 * chunk])
+						.blend((byte) '-', masks[2 * chunk + 1])
+						.intoArray(dst, dstOffset + 16 * chunk);
+			}
+		}
+		return n;
+	}
+
+	@Override
+	public int toBase64URLSafe(long[] uuids, int offset, int count, byte[] dst, int dstOffset) {
+		final byte[] table = BASE64_URL_SAFE_ENCODE_TABLE;
+		final VectorShuffle<Byte> shuffle = BASE64_SHUFFLE;
+		for (int i = 0; i < count; i++, offset += 2, dstOffset += UUIDBulkEncoder.BASE64_URL_SAFE_LENGTH) {
+			IntVector groups = LongVector.fromArray(LONGS, uuids, offset).reinterpretAsBytes().rearrange(shuffle)
+					.reinterpretAsInts();
+			// little-endian lanes: the first char in the low byte
+			IntVector indexes = groups.lanewise(VectorOperators.LSHR, 18).and(0x3F)
+					.or(groups.lanewise(VectorOperators.LSHR, 4).and(0x3F00))
+					.or(groups.lanewise(VectorOperators.LSHL, 10).and(0x3F0000))
+					.or(groups.lanewise(VectorOperators.LSHL, 24).and(0x3F000000));
+			base64Chars(indexes.reinterpretAsBytes()).intoArray(dst, dstOffset);
+			long lsb = uuids[offset + 1];
+			dst[dstOffset + 16] = table[(int) (lsb >>> 26) & 0x3F];
+			dst[dstOffset + 17] = table[(int) (lsb >>> 20) & 0x3F];
+			dst[dstOffset + 18] = table[(int) (lsb >>> 14) & 0x3F];
+			dst[dstOffset + 19] = table[(int) (lsb >>> 8) & 0x3F];
+			dst[dstOffset + 20] = table[(int) (lsb >>> 2) & 0x3F];
+			dst[dstOffset + 21] = table[(int) (lsb & 0x3) << 4];
+		}
+		return count;
+	}
+
+	/**
+	 * Nibbles to lowercase ASCII hex digits
+	 */
+	private static ByteVector hexDigits(ByteVector nibbles) {
+		return nibbles.add((byte) '0').add((byte) ('a' - '0' - 10), nibbles.compare(VectorOperators.GT, (byte) 9));
+	}
+
+	/**
+	 * 6 bit indexes to the Base64URLSafe alphabet, by range: A-Z, a-z, 0-9, '-'
+	 * and '_'
+	 */
+	private static ByteVector base64Chars(ByteVector indexes) {
+		return indexes.add((byte) 'A')
+				.add((byte) ('a' - 'A' - 26), indexes.compare(VectorOperators.GE, (byte) 26))
+				.add((byte) ('0' - 'a' - 26), indexes.compare(VectorOperators.GE, (byte) 52))
+				.add((byte) ('-' - '0' - 10), indexes.compare(VectorOperators.EQ, (byte) 62))
+				.add((byte) ('_' - '0' - 11), indexes.compare(VectorOperators.EQ, (byte) 63));
+	}
+
+	/**
+	 * The vector lane of big-endian byte {@code k} of a UUID loaded as two
+	 * little-endian longs
+	 */
+	private static int lane(int k) {
+		return (k & ~7) | (7 - (k & 7));
+	}
+
+	/**
+	 * For each 16 byte chunk of the canonical string, the byte lane whose high or
+	 * low nibble digit goes there
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static VectorShuffle<Byte>[] canonicalShuffles() {
+		VectorShuffle<Byte>[] shuffles = new VectorShuffle[3];
+		for (int chunk = 0; chunk < 3; chunk++) {
+			int[] lanes = new int[16];
+			for (int q = 0; q < 16; q++) {
+				int p = chunk * 16 + q;
+				if (p < UUIDBulkEncoder.CANONICAL_LENGTH && !isHyphen(p)) {
+					lanes[q] = lane(digit(p) >>> 1);
+				}
+			}
+			shuffles[chunk] = VectorShuffle.fromArray(BYTES, lanes, 0);
+		}
+		return shuffles;
+	}
+
+	/**
+	 * For each 16 byte chunk of the canonical string, where the low nibble digits
+	 * and where the hyphens are
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static VectorMask<Byte>[] canonicalMasks() {
+		VectorMask<Byte>[] masks = new VectorMask[6];
+		for (int chunk = 0; chunk < 3; chunk++) {
+			boolean[] low = new boolean[16];
+			boolean[] hyphens = new boolean[16];
+			for (int q = 0; q < 16; q++) {
+				int p = chunk * 16 + q;
+				hyphens[q] = isHyphen(p);
+				low[q] = p < UUIDBulkEncoder.CANONICAL_LENGTH && !hyphens[q] && (digit(p) & 1) == 1;
+			}
+			masks[2 * chunk] = VectorMask.fromArray(BYTES, low, 0);
+			masks[2 * chunk + 1] = VectorMask.fromArray(BYTES, hyphens, 0);
+		}
+		return masks;
+	}
+
+	/**
+	 * The hex digit at a position of the canonical string, skipping the hyphens
+	 */
+	private static int digit(int p) {
+		return p - (p > 23 ? 4 : p > 18 ? 3 : p > 13 ? 2 : p > 8 ? 1 : 0);
+	}
+
+	private static boolean isHyphen(int p) {
+		return p == 8 || p == 13 || p == 18 || p == 23;
+	}
+
+	/**
+	 * Int lane {@code j} gets big-endian bytes {@code 3j, 3j + 1, 3j + 2} as a 24
+	 * bit value
+	 */
+	private static VectorShuffle<Byte> base64Shuffle() {
+		int[] indexes = new int[16];
+		for (int j = 0; j < 4; j++) {
+			indexes[4 * j] = lane(3 * j + 2);
+			indexes[4 * j + 1] = lane(3 * j + 1);
+			indexes[4 * j + 2] = lane(3 * j);
+			indexes[4 * j + 3] = lane(3 * j);
+		}
+		return VectorShuffle.fromArray(BYTES, indexes, 0);
+	}
+
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_128;
+	private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_128;
+
+	/**
+	 * Per chunk: the digit shuffle, the low digit and the hyphen masks
+	 */
+	private static final VectorShuffle<Byte>[] CANONICAL_SHUFFLES = canonicalShuffles();
+	private static final VectorMask<Byte>[] CANONICAL_MASKS = canonicalMasks();
+	private static final VectorShuffle<Byte> BASE64_SHUFFLE = base64Shuffle();
+
+	private static final byte[] BASE64_URL_SAFE_ENCODE_TABLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+			.getBytes(StandardCharsets.US_ASCII);
+}
@@ -0,0 +1,70 @@
+package com.github.doraeven.commons.test.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.collection.ConcurrentUUIDHashSet;
+
+public class ConcurrentUUIDHashSetTest {
+
+	@Test
+	public void testConcurrentAdd() throws Exception {
+		ConcurrentUUIDHashSet set = new ConcurrentUUIDHashSet(0, 6);
+		Assertions.assertEquals(8, set.getStripes());
+		int threads = 8;
+		int perThread = 20000;
+		AtomicInteger added = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				// every UUID is added by two threads
+				final long msb = t / 2;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < perThread; i++) {
+						if (set.add(msb, i)) {
+							added.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		Assertions.assertEquals(threads / 2 * perThread, added.get());
+		Assertions.assertEquals(added.get(), set.size());
+		Assertions.assertTrue(set.contains(3, perThread - 1));
+		Assertions.assertFalse(set.contains(4, 0));
+
+		AtomicInteger counted = new AtomicInteger();
+		set.forEachKey((msb, lsb) -> counted.incrementAndGet());
+		Assertions.assertEquals(added.get(), counted.get());
+
+		Assertions.assertTrue(set.remove(0, 0));
+		Assertions.assertFalse(set.contains(0, 0));
+		set.clear();
+		Assertions.assertTrue(set.isEmpty());
+		log.debug("stripes:" + set.getStripes());
+	}
+
+	@Test
+	public void testIllegalArguments() {
+		Assertions.assertEquals(1, new ConcurrentUUIDHashSet(0, 1).getStripes());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentUUIDHashSet(0, 0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentUUIDHashSet(-1, 4));
+	}
+
+	private Log log = LogFactory.getLog(ConcurrentUUIDHashSetTest.class);
+}
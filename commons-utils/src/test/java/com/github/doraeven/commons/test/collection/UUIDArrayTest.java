@@ -0,0 +1,179 @@
+package com.github.doraeven.commons.test.collection;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.collection.UUIDArray;
+import com.github.doraeven.commons.utils.UUIDUtils;
+
+public class UUIDArrayTest {
+
+	@Test
+	public void testAppendGet() {
+		try (UUIDArray heap = new UUIDArray(0); UUIDArray offHeap = UUIDArray.offHeap(0)) {
+			Assertions.assertFalse(heap.isOffHeap());
+			Assertions.assertTrue(offHeap.isOffHeap());
+			UUID[] uuids = new UUID[1000];
+			for (int i = 0; i < uuids.length; i++) {
+				uuids[i] = UUID.randomUUID();
+				heap.append(uuids[i]);
+				offHeap.append(uuids[i].getMostSignificantBits(), uuids[i].getLeastSignificantBits());
+			}
+			Assertions.assertEquals(uuids.length, heap.size());
+			Assertions.assertEquals(uuids.length, offHeap.size());
+			for (int i = 0; i < uuids.length; i++) {
+				Assertions.assertEquals(uuids[i], heap.get(i));
+				Assertions.assertEquals(uuids[i], offHeap.get(i));
+				Assertions.assertEquals(uuids[i].getMostSignificantBits(), offHeap.getMostSignificantBits(i));
+				Assertions.assertEquals(uuids[i].getLeastSignificantBits(), heap.getLeastSignificantBits(i));
+				Assertions.assertEquals(uuids[i], UUIDUtils.fromBytes(heap.asSegment(), i * 16L));
+			}
+			Assertions.assertThrows(IndexOutOfBoundsException.class, () -> heap.get(uuids.length));
+
+			byte[] encoded = new byte[32];
+			UUIDUtils.toBytes(uuids[1], encoded, 0);
+			UUIDUtils.toBytes(uuids[2], encoded, 16);
+			offHeap.append(encoded, 0, 2);
+			offHeap.append(offHeap);
+			Assertions.assertEquals(2 * (uuids.length + 2), offHeap.size());
+			Assertions.assertEquals(uuids[2], offHeap.get(uuids.length + 1));
+			Assertions.assertEquals(uuids[2], offHeap.get(2 * uuids.length + 3));
+
+			heap.set(0, 1, 2);
+			Assertions.assertEquals(new UUID(1, 2), heap.get(0));
+			heap.clear();
+			Assertions.assertTrue(heap.isEmpty());
+		}
+	}
+
+	@Test
+	public void testSort() {
+		SplittableRandom random = new SplittableRandom(11);
+		for (boolean offHeap : new boolean[] { false, true }) {
+			try (UUIDArray array = offHeap ? UUIDArray.offHeap(16) : new UUIDArray()) {
+				List<UUID> expected = new ArrayList<>();
+				for (int i = 0; i < 20000; i++) {
+					UUID uuid = i % 2 == 0 ? new UUID(random.nextLong(), random.nextLong())
+							: UUIDUtils.randomUUIDv7();
+					expected.add(uuid);
+					array.append(uuid);
+				}
+				expected.add(new UUID(-1, -1));
+				array.append(new UUID(-1, -1));
+				expected.add(new UUID(0, 0));
+				array.append(new UUID(0, 0));
+				array.sort();
+				expected.sort(UNSIGNED);
+
+				Assertions.assertTrue(array.isSorted());
+				for (int i = 0; i < expected.size(); i++) {
+					Assertions.assertEquals(expected.get(i), array.get(i));
+				}
+				for (int i = 0; i < expected.size(); i += 97) {
+					Assertions.assertEquals(i, array.binarySearch(expected.get(i)));
+				}
+				Assertions.assertEquals(-2, array.binarySearch(0, 1));
+			}
+		}
+
+		// sorting a single shared prefix only touches the differing bytes
+		UUIDArray array = new UUIDArray();
+		for (int i = 1000; i > 0; i--) {
+			array.append(0x1234, i);
+		}
+		array.sort();
+		Assertions.assertEquals(new UUID(0x1234, 1), array.get(0));
+		Assertions.assertEquals(new UUID(0x1234, 1000), array.get(999));
+		Assertions.assertEquals(-1, array.binarySearch(0x1234, 0));
+		Assertions.assertEquals(-1001, array.binarySearch(0x1234, 1001));
+	}
+
+	@Test
+	public void testSetOperations() {
+		UUIDArray a = new UUIDArray();
+		UUIDArray b = new UUIDArray();
+		for (long i = 0; i < 100; i++) {
+			a.append(0, i);
+			a.append(0, i);
+			if (i % 3 == 0) {
+				b.append(0, i);
+			}
+		}
+		b.append(-1, 0);
+		a.sort();
+		b.sort();
+		Assertions.assertEquals(200, a.size());
+
+		UUIDArray intersection = a.intersect(b);
+		UUIDArray difference = a.difference(b);
+		Assertions.assertEquals(34, intersection.size());
+		Assertions.assertEquals(66, difference.size());
+		Assertions.assertTrue(intersection.isSorted());
+		Assertions.assertTrue(difference.isSorted());
+		Assertions.assertTrue(intersection.binarySearch(0, 99) >= 0);
+		Assertions.assertTrue(difference.binarySearch(0, 99) < 0);
+		Assertions.assertTrue(difference.binarySearch(0, 98) >= 0);
+
+		Assertions.assertEquals(100, a.distinct());
+		Assertions.assertEquals(100, a.size());
+		Assertions.assertEquals(new UUID(0, 42), a.get(42));
+	}
+
+	@Test
+	public void testSaveMap() throws Exception {
+		Path file = Files.createTempFile("uuid-array", ".bin");
+		try {
+			UUIDArray array = new UUIDArray();
+			TreeSet<UUID> expected = new TreeSet<>(UNSIGNED);
+			for (int i = 0; i < 5000; i++) {
+				UUID uuid = UUID.randomUUID();
+				expected.add(uuid);
+				array.append(uuid);
+			}
+			array.sort();
+			array.save(file);
+			Assertions.assertEquals(5000 * 16L, Files.size(file));
+
+			byte[] bytes = Files.readAllBytes(file);
+			Assertions.assertEquals(expected.first(), UUIDUtils.fromBytes(Arrays.copyOf(bytes, 16)));
+
+			try (UUIDArray mapped = UUIDArray.map(file)) {
+				Assertions.assertTrue(mapped.isReadOnly());
+				Assertions.assertEquals(5000, mapped.size());
+				Assertions.assertTrue(mapped.isSorted());
+				for (UUID uuid : expected) {
+					Assertions.assertTrue(mapped.binarySearch(uuid) >= 0);
+				}
+				Assertions.assertThrows(UnsupportedOperationException.class, () -> mapped.append(0, 1));
+				Assertions.assertThrows(UnsupportedOperationException.class, () -> mapped.sort());
+			}
+
+			new UUIDArray().save(file);
+			try (UUIDArray mapped = UUIDArray.map(file)) {
+				Assertions.assertTrue(mapped.isEmpty());
+			}
+			log.debug("file:" + file);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static final Comparator<UUID> UNSIGNED = (x, y) -> {
+		int cmp = Long.compareUnsigned(x.getMostSignificantBits(), y.getMostSignificantBits());
+		return cmp != 0 ? cmp : Long.compareUnsigned(x.getLeastSignificantBits(), y.getLeastSignificantBits());
+	};
+
+	private Log log = LogFactory.getLog(UUIDArrayTest.class);
+}
@@ -0,0 +1,116 @@
+package com.github.doraeven.commons.test.collection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.collection.UUIDBloomFilter;
+
+public class UUIDBloomFilterTest {
+
+	@Test
+	public void testFalsePositiveRate() {
+		int n = 200000;
+		UUIDBloomFilter filter = new UUIDBloomFilter(n, 0.01);
+		log.debug("bits:" + filter.getBitSize() + ", hashFunctions:" + filter.getHashFunctions());
+		Assertions.assertEquals(7, filter.getHashFunctions());
+
+		SplittableRandom random = new SplittableRandom(17);
+		int added = 0;
+		for (int i = 0; i < n; i++) {
+			if (filter.add(random.nextLong(), random.nextLong())) {
+				added++;
+			}
+		}
+		// a new UUID whose bits are all set already is a false positive
+		Assertions.assertTrue(added > n * 0.99, "added " + added);
+		Assertions.assertEquals(added, filter.size());
+		random = new SplittableRandom(17);
+		for (int i = 0; i < n; i++) {
+			long msb = random.nextLong();
+			long lsb = random.nextLong();
+			Assertions.assertTrue(filter.mightContain(msb, lsb));
+			Assertions.assertFalse(filter.add(msb, lsb));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < n; i++) {
+			if (filter.mightContain(random.nextLong(), random.nextLong())) {
+				falsePositives++;
+			}
+		}
+		double rate = falsePositives / (double) n;
+		log.debug("false positive rate:" + rate + ", fill:" + filter.getFillRatio());
+		Assertions.assertTrue(rate < 0.015, "rate " + rate);
+
+		// sequential time-based keys spread as well as random ones
+		UUIDBloomFilter sequential = new UUIDBloomFilter(n, 0.01);
+		for (int i = 0; i < n; i++) {
+			sequential.add(0x1EF0000000006000L + i, 0x8000000000000000L);
+		}
+		falsePositives = 0;
+		for (int i = n; i < 2 * n; i++) {
+			if (sequential.mightContain(0x1EF0000000006000L + i, 0x8000000000000000L)) {
+				falsePositives++;
+			}
+		}
+		Assertions.assertTrue(falsePositives < n * 0.015, "false positives " + falsePositives);
+
+		filter.clear();
+		Assertions.assertEquals(0, filter.getFillRatio());
+		Assertions.assertEquals(0, filter.size());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new UUIDBloomFilter(n, 0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new UUIDBloomFilter(-1, 0.01));
+	}
+
+	@Test
+	public void testConcurrentAdd() {
+		int n = 400000;
+		UUIDBloomFilter filter = new UUIDBloomFilter(n, 0.001);
+		UUID[] uuids = new UUID[n];
+		for (int i = 0; i < n; i++) {
+			uuids[i] = UUID.randomUUID();
+		}
+		IntStream.range(0, n).parallel().forEach(i -> filter.add(uuids[i]));
+		for (UUID uuid : uuids) {
+			Assertions.assertTrue(filter.mightContain(uuid));
+		}
+	}
+
+	@Test
+	public void testSaveLoad() throws Exception {
+		UUIDBloomFilter filter = new UUIDBloomFilter(10000, 0.01);
+		UUID[] uuids = new UUID[10000];
+		for (int i = 0; i < uuids.length; i++) {
+			uuids[i] = UUID.randomUUID();
+			filter.add(uuids[i]);
+		}
+		Path file = Files.createTempFile("bloom", ".bin");
+		try {
+			filter.save(file);
+			Assertions.assertEquals(32 + filter.getSizeInBytes(), Files.size(file));
+			UUIDBloomFilter loaded = UUIDBloomFilter.load(file);
+			Assertions.assertEquals(filter.getBitSize(), loaded.getBitSize());
+			Assertions.assertEquals(filter.getHashFunctions(), loaded.getHashFunctions());
+			Assertions.assertEquals(filter.size(), loaded.size());
+			for (UUID uuid : uuids) {
+				Assertions.assertTrue(loaded.mightContain(uuid));
+			}
+			Assertions.assertEquals(filter.getFillRatio(), loaded.getFillRatio());
+
+			Files.write(file, new byte[64]);
+			Assertions.assertThrows(IOException.class, () -> UUIDBloomFilter.load(file));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private Log log = LogFactory.getLog(UUIDBloomFilterTest.class);
+}
@@ -0,0 +1,123 @@
+package com.github.doraeven.commons.test.collection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.collection.UUIDBloomFilter;
+import com.github.doraeven.commons.collection.UUIDCuckooFilter;
+
+public class UUIDCuckooFilterTest {
+
+	@Test
+	public void testAddRemove() {
+		int n = 100000;
+		UUIDCuckooFilter filter = new UUIDCuckooFilter(n, 0.001);
+		Assertions.assertEquals(16, filter.getFingerprintBits());
+		log.debug("capacity:" + filter.capacity() + ", bytes:" + filter.getSizeInBytes());
+
+		SplittableRandom random = new SplittableRandom(3);
+		for (int i = 0; i < n; i++) {
+			Assertions.assertTrue(filter.add(random.nextLong(), random.nextLong()));
+		}
+		Assertions.assertEquals(n, filter.size());
+
+		random = new SplittableRandom(3);
+		for (int i = 0; i < n; i++) {
+			Assertions.assertTrue(filter.mightContain(random.nextLong(), random.nextLong()));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < n; i++) {
+			if (filter.mightContain(random.nextLong(), random.nextLong())) {
+				falsePositives++;
+			}
+		}
+		log.debug("false positives:" + falsePositives);
+		Assertions.assertTrue(falsePositives < n * 0.001, "false positives " + falsePositives);
+
+		random = new SplittableRandom(3);
+		for (int i = 0; i < n / 2; i++) {
+			Assertions.assertTrue(filter.remove(random.nextLong(), random.nextLong()));
+		}
+		Assertions.assertEquals(n - n / 2, filter.size());
+		for (int i = n / 2; i < n; i++) {
+			Assertions.assertTrue(filter.mightContain(random.nextLong(), random.nextLong()));
+		}
+
+		filter.clear();
+		Assertions.assertEquals(0, filter.size());
+	}
+
+	@Test
+	public void testFingerprintBits() {
+		Assertions.assertEquals(8, new UUIDCuckooFilter(1000, 0.1).getFingerprintBits());
+		Assertions.assertEquals(16, new UUIDCuckooFilter(1000, 0.01).getFingerprintBits());
+		Assertions.assertEquals(32, new UUIDCuckooFilter(1000, 1e-6).getFingerprintBits());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new UUIDCuckooFilter(1000, 1e-12));
+
+		// a small filter fills up
+		UUIDCuckooFilter filter = new UUIDCuckooFilter(100, 1e-6);
+		long added = 0;
+		while (filter.add(UUID.randomUUID())) {
+			added++;
+		}
+		log.debug("capacity:" + filter.capacity() + ", added:" + added);
+		Assertions.assertEquals(added, filter.size());
+		Assertions.assertTrue(added > filter.capacity() / 2);
+	}
+
+	@Test
+	public void testConcurrent() {
+		int n = 200000;
+		UUIDCuckooFilter filter = new UUIDCuckooFilter(n, 0.001);
+		UUID[] uuids = new UUID[n];
+		for (int i = 0; i < n; i++) {
+			uuids[i] = UUID.randomUUID();
+		}
+		IntStream.range(0, n).parallel().forEach(i -> Assertions.assertTrue(filter.add(uuids[i])));
+		Assertions.assertEquals(n, filter.size());
+		// readers never miss a UUID while removals move others around
+		IntStream.range(0, n).parallel().forEach(i -> {
+			if (i % 2 == 0) {
+				Assertions.assertTrue(filter.remove(uuids[i]));
+			} else {
+				Assertions.assertTrue(filter.mightContain(uuids[i]));
+			}
+		});
+		Assertions.assertEquals(n / 2, filter.size());
+	}
+
+	@Test
+	public void testSaveLoad() throws Exception {
+		UUIDCuckooFilter filter = new UUIDCuckooFilter(10000, 0.01);
+		UUID[] uuids = new UUID[10000];
+		for (int i = 0; i < uuids.length; i++) {
+			uuids[i] = UUID.randomUUID();
+			filter.add(uuids[i]);
+		}
+		Path file = Files.createTempFile("cuckoo", ".bin");
+		try {
+			filter.save(file);
+			UUIDCuckooFilter loaded = UUIDCuckooFilter.load(file);
+			Assertions.assertEquals(filter.size(), loaded.size());
+			Assertions.assertEquals(filter.capacity(), loaded.capacity());
+			for (UUID uuid : uuids) {
+				Assertions.assertTrue(loaded.mightContain(uuid));
+			}
+			Assertions.assertTrue(loaded.remove(uuids[0]));
+			Assertions.assertThrows(IOException.class, () -> UUIDBloomFilter.load(file));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private Log log = LogFactory.getLog(UUIDCuckooFilterTest.class);
+}
@@ -0,0 +1,120 @@
+package com.github.doraeven.commons.test.collection;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.collection.UUIDHashSet;
+
+public class UUIDHashSetTest {
+
+	@Test
+	public void testAddContainsRemove() {
+		UUIDHashSet set = new UUIDHashSet();
+		UUID uuid = UUID.randomUUID();
+		Assertions.assertTrue(set.isEmpty());
+		Assertions.assertTrue(set.add(uuid));
+		Assertions.assertFalse(set.add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+		Assertions.assertTrue(set.contains(uuid));
+		Assertions.assertEquals(1, set.size());
+		Assertions.assertFalse(set.contains(UUID.randomUUID()));
+
+		Assertions.assertTrue(set.remove(uuid));
+		Assertions.assertFalse(set.remove(uuid));
+		Assertions.assertFalse(set.contains(uuid));
+		Assertions.assertTrue(set.isEmpty());
+	}
+
+	@Test
+	public void testNilUUID() {
+		UUIDHashSet set = new UUIDHashSet();
+		Assertions.assertFalse(set.contains(0, 0));
+		Assertions.assertTrue(set.add(new UUID(0, 0)));
+		Assertions.assertFalse(set.add(0, 0));
+		Assertions.assertTrue(set.contains(0, 0));
+		Assertions.assertEquals(1, set.size());
+		Iterator<UUID> iterator = set.iterator();
+		Assertions.assertEquals(new UUID(0, 0), iterator.next());
+		Assertions.assertFalse(iterator.hasNext());
+		Assertions.assertTrue(set.remove(0, 0));
+		Assertions.assertTrue(set.isEmpty());
+	}
+
+	@Test
+	public void testAgainstHashSet() {
+		SplittableRandom random = new SplittableRandom(42);
+		UUIDHashSet set = new UUIDHashSet(4);
+		Set<UUID> expected = new HashSet<>();
+		for (int i = 0; i < 200000; i++) {
+			// small key space so adds and removes collide
+			UUID uuid = new UUID(random.nextInt(64), random.nextInt(1024));
+			if (random.nextInt(3) == 0) {
+				Assertions.assertEquals(expected.remove(uuid), set.remove(uuid));
+			} else {
+				Assertions.assertEquals(expected.add(uuid), set.add(uuid));
+			}
+		}
+		Assertions.assertEquals(expected.size(), set.size());
+		for (UUID uuid : expected) {
+			Assertions.assertTrue(set.contains(uuid));
+		}
+
+		Set<UUID> iterated = new HashSet<>();
+		set.forEach(iterated::add);
+		Assertions.assertEquals(expected, iterated);
+
+		Set<UUID> consumed = new HashSet<>();
+		set.forEachKey((msb, lsb) -> consumed.add(new UUID(msb, lsb)));
+		Assertions.assertEquals(expected, consumed);
+
+		long[] pairs = new long[set.size() * 2 + 1];
+		Assertions.assertEquals(set.size() * 2, set.toArray(pairs, 1));
+		for (int i = 1; i < pairs.length; i += 2) {
+			Assertions.assertTrue(expected.contains(new UUID(pairs[i], pairs[i + 1])));
+		}
+		log.debug("size:" + set.size());
+	}
+
+	@Test
+	public void testResize() {
+		UUIDHashSet set = new UUIDHashSet();
+		UUID[] uuids = new UUID[100000];
+		for (int i = 0; i < uuids.length; i++) {
+			uuids[i] = UUID.randomUUID();
+			Assertions.assertTrue(set.add(uuids[i]));
+		}
+		Assertions.assertEquals(uuids.length, set.size());
+		for (int i = 0; i < uuids.length; i += 2) {
+			Assertions.assertTrue(set.remove(uuids[i]));
+		}
+		set.trimToSize();
+		set.ensureCapacity(1000000);
+		for (int i = 0; i < uuids.length; i++) {
+			Assertions.assertEquals(i % 2 == 1, set.contains(uuids[i]));
+		}
+
+		set.clear();
+		Assertions.assertTrue(set.isEmpty());
+		Assertions.assertFalse(set.contains(uuids[1]));
+	}
+
+	@Test
+	public void testIllegalArguments() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new UUIDHashSet(-1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new UUIDHashSet(16, 1f));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> {
+			UUIDHashSet set = new UUIDHashSet();
+			set.add(UUID.randomUUID());
+			set.toArray(new long[2], 1);
+		});
+	}
+
+	private Log log = LogFactory.getLog(UUIDHashSetTest.class);
+}
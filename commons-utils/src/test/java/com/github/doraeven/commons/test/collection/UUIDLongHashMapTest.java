@@ -0,0 +1,79 @@
+package com.github.doraeven.commons.test.collection;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.collection.UUIDLongHashMap;
+
+public class UUIDLongHashMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		UUIDLongHashMap map = new UUIDLongHashMap();
+		map.setDefaultValue(-1);
+		UUID key = UUID.randomUUID();
+		Assertions.assertEquals(-1, map.get(key));
+		Assertions.assertEquals(-1, map.put(key, 7));
+		Assertions.assertEquals(7, map.put(key, 8));
+		Assertions.assertEquals(8, map.get(key));
+		Assertions.assertTrue(map.containsKey(key));
+		Assertions.assertEquals(10, map.addTo(key, 2));
+		Assertions.assertEquals(0, map.addTo(UUID.randomUUID(), 1));
+
+		Assertions.assertEquals(10, map.remove(key));
+		Assertions.assertEquals(-1, map.remove(key));
+		Assertions.assertFalse(map.containsKey(key));
+		Assertions.assertEquals(1, map.size());
+
+		Assertions.assertEquals(-1, map.put(0, 0, 3));
+		Assertions.assertEquals(3, map.get(new UUID(0, 0)));
+		Assertions.assertEquals(5, map.addTo(0, 0, 2));
+		Assertions.assertEquals(2, map.size());
+		Assertions.assertEquals(5, map.remove(0, 0));
+		Assertions.assertEquals(-1, map.get(0, 0));
+	}
+
+	@Test
+	public void testAgainstHashMap() {
+		SplittableRandom random = new SplittableRandom(7);
+		UUIDLongHashMap map = new UUIDLongHashMap(0);
+		Map<UUID, Long> expected = new HashMap<>();
+		for (int i = 0; i < 200000; i++) {
+			long msb = random.nextInt(32);
+			long lsb = random.nextInt(2048);
+			UUID key = new UUID(msb, lsb);
+			switch (random.nextInt(4)) {
+			case 0:
+				Long removed = expected.remove(key);
+				Assertions.assertEquals(removed == null ? 0 : removed, map.remove(msb, lsb));
+				break;
+			case 1:
+				Assertions.assertEquals(expected.merge(key, 3L, Long::sum), map.addTo(msb, lsb, 3));
+				break;
+			default:
+				Long previous = expected.put(key, (long) i);
+				Assertions.assertEquals(previous == null ? 0 : previous, map.put(msb, lsb, i));
+			}
+		}
+		Assertions.assertEquals(expected.size(), map.size());
+		Map<UUID, Long> iterated = new HashMap<>();
+		map.forEach((msb, lsb, value) -> iterated.put(new UUID(msb, lsb), value));
+		Assertions.assertEquals(expected, iterated);
+
+		Set<UUID> keys = new HashSet<>();
+		map.keyIterator().forEachRemaining(keys::add);
+		Assertions.assertEquals(expected.keySet(), keys);
+		log.debug("size:" + map.size());
+	}
+
+	private Log log = LogFactory.getLog(UUIDLongHashMapTest.class);
+}
@@ -0,0 +1,64 @@
+package com.github.doraeven.commons.test.collection;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.collection.UUIDObjectHashMap;
+
+public class UUIDObjectHashMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		UUIDObjectHashMap<String> map = new UUIDObjectHashMap<>();
+		UUID key = UUID.randomUUID();
+		Assertions.assertNull(map.get(key));
+		Assertions.assertNull(map.put(key, "a"));
+		Assertions.assertEquals("a", map.put(key, "b"));
+		Assertions.assertEquals("b", map.putIfAbsent(key.getMostSignificantBits(), key.getLeastSignificantBits(), "c"));
+		Assertions.assertEquals("b", map.get(key));
+		Assertions.assertNull(map.put(new UUID(0, 0), "nil"));
+		Assertions.assertEquals("nil", map.get(0, 0));
+		Assertions.assertEquals(2, map.size());
+
+		Assertions.assertEquals("b", map.remove(key));
+		Assertions.assertNull(map.remove(key));
+		Assertions.assertEquals("nil", map.remove(0, 0));
+		Assertions.assertTrue(map.isEmpty());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(key, null));
+	}
+
+	@Test
+	public void testResize() {
+		UUIDObjectHashMap<Integer> map = new UUIDObjectHashMap<>(1);
+		Map<UUID, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 50000; i++) {
+			UUID key = UUID.randomUUID();
+			expected.put(key, i);
+			map.put(key, i);
+		}
+		int i = 0;
+		for (UUID key : expected.keySet()) {
+			if (i++ % 3 == 0) {
+				Assertions.assertEquals(expected.get(key), map.remove(key));
+			}
+		}
+		expected.keySet().removeIf(key -> !map.containsKey(key));
+		Assertions.assertEquals(expected.size(), map.size());
+
+		Map<UUID, Integer> iterated = new HashMap<>();
+		map.forEach((msb, lsb, value) -> iterated.put(new UUID(msb, lsb), value));
+		Assertions.assertEquals(expected, iterated);
+
+		map.clear();
+		Assertions.assertTrue(map.isEmpty());
+		log.debug("size:" + expected.size());
+	}
+
+	private Log log = LogFactory.getLog(UUIDObjectHashMapTest.class);
+}
@@ -0,0 +1,217 @@
+package com.github.doraeven.commons.test.format;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.format.DataSize;
+import com.github.doraeven.commons.format.DataUnit;
+import com.github.doraeven.commons.format.FileSizeFormat;
+
+public class DataSizeTest {
+
+	@Test
+	public void testOf() throws ParseException {
+		Assertions.assertSame(DataSize.ZERO, DataSize.ofBytes(0));
+		Assertions.assertSame(DataSize.ZERO, DataSize.of(0, DataUnit.YiB));
+		Assertions.assertEquals(1536, DataSize.of(new BigDecimal("1.5"), DataUnit.KiB).toBytes());
+		Assertions.assertEquals(3 * FileSizeFormat.ONE_GiB, DataSize.of(3, DataUnit.GiB).toBytes());
+		Assertions.assertEquals(-3 * FileSizeFormat.ONE_GB, DataSize.of(-3, DataUnit.GB).toBytes());
+		Assertions.assertEquals(Long.MIN_VALUE, DataSize.of(-8, DataUnit.EiB).toBytes());
+		Assertions.assertTrue(DataSize.of(7, DataUnit.EiB).isLongRange());
+		Assertions.assertFalse(DataSize.of(8, DataUnit.EiB).isLongRange());
+		Assertions.assertEquals(FileSizeFormat.ONE_ZiB_BI, DataSize.of(1, DataUnit.ZiB).toBigInteger());
+		Assertions.assertEquals(FileSizeFormat.ONE_YB_BI.multiply(BigInteger.TEN),
+				DataSize.of(BigInteger.TEN, DataUnit.YB).toBigInteger());
+		Assertions.assertEquals(DataSize.of(1, DataUnit.EB), DataSize.ofBytes(FileSizeFormat.ONE_EB_BI));
+		Assertions.assertTrue(DataSize.ofBytes(BigInteger.valueOf(Long.MIN_VALUE)).isLongRange());
+		Assertions.assertThrows(ArithmeticException.class, () -> DataSize.of(new BigDecimal("1.0001"), DataUnit.KiB));
+		Assertions.assertEquals(DataSize.of(3, DataUnit.MiB).dividedBy(2), DataSize.parse("1.5 MiB"));
+		Assertions.assertEquals(DataSize.of(2, DataUnit.ZB), DataSize.parse("2 ZB"));
+		Assertions.assertThrows(ParseException.class, () -> DataSize.parse("2 Zb"));
+
+		SplittableRandom random = new SplittableRandom(25);
+		for (int i = 0; i < 10_000; i++) {
+			long amount = random.nextLong() >> random.nextInt(64);
+			DataUnit unit = DataUnit.values()[random.nextInt(DataUnit.values().length)];
+			BigInteger expected = BigInteger.valueOf(amount).multiply(unit.getBigBytes());
+			DataSize size = DataSize.of(amount, unit);
+			Assertions.assertEquals(expected, size.toBigInteger());
+			Assertions.assertEquals(expected.bitLength() < Long.SIZE, size.isLongRange());
+			Assertions.assertEquals(expected.signum(), size.signum());
+			Assertions.assertEquals(expected.max(BigInteger.valueOf(Long.MIN_VALUE))
+					.min(BigInteger.valueOf(Long.MAX_VALUE)).longValue(), size.toBytesSaturated());
+			Assertions.assertEquals(size.toBytesSaturated(), unit.toBytes(amount));
+			Assertions.assertEquals(amount, size.to(unit));
+			Assertions.assertEquals(new BigDecimal(amount), size.toBigDecimal(unit).stripTrailingZeros()
+					.setScale(0));
+		}
+	}
+
+	@Test
+	public void testTo() {
+		DataSize size = DataSize.ofBytes(FileSizeFormat.ONE_GiB * 3 / 2);
+		Assertions.assertEquals(1, size.to(DataUnit.GiB));
+		Assertions.assertEquals(1536, size.to(DataUnit.MiB));
+		Assertions.assertEquals(1, size.to(DataUnit.GB));
+		Assertions.assertEquals(0, size.to(DataUnit.ZiB));
+		Assertions.assertEquals(new BigDecimal("1.5"), size.toBigDecimal(DataUnit.GiB));
+		Assertions.assertEquals(new BigDecimal("1.610612736"), size.toBigDecimal(DataUnit.GB));
+		Assertions.assertEquals(-1, size.negated().to(DataUnit.GiB));
+		Assertions.assertEquals(-1536, size.negated().to(DataUnit.MiB));
+
+		DataSize big = DataSize.of(5, DataUnit.YiB);
+		Assertions.assertEquals(5, big.to(DataUnit.YiB));
+		Assertions.assertEquals(5 * 1024, big.to(DataUnit.ZiB));
+		Assertions.assertThrows(ArithmeticException.class, () -> big.to(DataUnit.B));
+		Assertions.assertThrows(ArithmeticException.class, () -> big.toBytes());
+		Assertions.assertEquals(Long.MAX_VALUE, big.toBytesSaturated());
+		Assertions.assertEquals(Long.MIN_VALUE, big.negated().toBytesSaturated());
+	}
+
+	@Test
+	public void testArithmetic() {
+		DataSize max = DataSize.ofBytes(Long.MAX_VALUE);
+		DataSize min = DataSize.ofBytes(Long.MIN_VALUE);
+		DataSize one = DataSize.ofBytes(1);
+
+		Assertions.assertEquals(BigInteger.ONE.shiftLeft(63), max.plus(one).toBigInteger());
+		Assertions.assertThrows(ArithmeticException.class, () -> max.plusChecked(one));
+		Assertions.assertEquals(max, max.plusSaturated(one));
+		Assertions.assertEquals(min, min.plusSaturated(one.negated()));
+		Assertions.assertEquals(max, max.plus(one).minusChecked(one));
+
+		Assertions.assertEquals(BigInteger.ONE.shiftLeft(63).negate().subtract(BigInteger.ONE),
+				min.minus(one).toBigInteger());
+		Assertions.assertThrows(ArithmeticException.class, () -> min.minusChecked(one));
+		Assertions.assertEquals(min, min.minusSaturated(one));
+		Assertions.assertEquals(max, max.minusSaturated(min));
+
+		Assertions.assertEquals(BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(3)),
+				max.multipliedBy(3).toBigInteger());
+		Assertions.assertThrows(ArithmeticException.class, () -> max.multipliedByChecked(2));
+		Assertions.assertEquals(min, max.multipliedBySaturated(-2));
+		Assertions.assertEquals(max, min.multipliedBySaturated(-1));
+		Assertions.assertEquals(max, max.multipliedBy(3).dividedBy(3));
+
+		Assertions.assertEquals(BigInteger.ONE.shiftLeft(63), min.negated().toBigInteger());
+		Assertions.assertEquals(BigInteger.ONE.shiftLeft(63), min.dividedBy(-1).toBigInteger());
+		Assertions.assertEquals(min, min.negated().negated());
+		Assertions.assertEquals(min.negated(), min.abs());
+		Assertions.assertThrows(ArithmeticException.class, () -> one.dividedBy(0));
+		Assertions.assertThrows(ArithmeticException.class, () -> max.plus(one).dividedBy(0));
+		Assertions.assertTrue(min.isNegative());
+		Assertions.assertTrue(min.plus(min.negated()).isZero());
+		Assertions.assertSame(DataSize.ZERO, one.minus(one));
+	}
+
+	@Test
+	public void testArithmeticRandom() {
+		SplittableRandom random = new SplittableRandom(2025);
+		BigInteger longMin = BigInteger.valueOf(Long.MIN_VALUE);
+		BigInteger longMax = BigInteger.valueOf(Long.MAX_VALUE);
+		for (int i = 0; i < 20_000; i++) {
+			DataSize x = random(random);
+			DataSize y = random(random);
+			long factor = random.nextLong() >> random.nextInt(64);
+			BigInteger bx = x.toBigInteger();
+			BigInteger by = y.toBigInteger();
+
+			BigInteger sum = bx.add(by);
+			Assertions.assertEquals(sum, x.plus(y).toBigInteger());
+			Assertions.assertEquals(sum.max(longMin).min(longMax), x.plusSaturated(y).toBigInteger());
+			assertChecked(sum, () -> x.plusChecked(y));
+
+			BigInteger difference = bx.subtract(by);
+			Assertions.assertEquals(difference, x.minus(y).toBigInteger());
+			Assertions.assertEquals(difference.max(longMin).min(longMax), x.minusSaturated(y).toBigInteger());
+			assertChecked(difference, () -> x.minusChecked(y));
+
+			BigInteger product = bx.multiply(BigInteger.valueOf(factor));
+			Assertions.assertEquals(product, x.multipliedBy(factor).toBigInteger());
+			Assertions.assertEquals(product.max(longMin).min(longMax),
+					x.multipliedBySaturated(factor).toBigInteger());
+			assertChecked(product, () -> x.multipliedByChecked(factor));
+
+			if (factor != 0) {
+				Assertions.assertEquals(bx.divide(BigInteger.valueOf(factor)), x.dividedBy(factor).toBigInteger());
+			}
+			Assertions.assertEquals(bx.negate(), x.negated().toBigInteger());
+			Assertions.assertEquals(bx.compareTo(by), x.compareTo(y));
+			Assertions.assertEquals(bx.equals(by), x.equals(y));
+			Assertions.assertEquals(x, DataSize.ofBytes(bx));
+			Assertions.assertEquals(x.hashCode(), DataSize.ofBytes(bx).hashCode());
+		}
+	}
+
+	@Test
+	public void testFormat() throws IOException, ClassNotFoundException {
+		Assertions.assertEquals("1.50 MiB", DataSize.of(3, DataUnit.MiB).dividedBy(2).toString());
+		Assertions.assertEquals("1.57 MB",
+				DataSize.of(3, DataUnit.MiB).dividedBy(2).format(true, 2, Locale.ROOT));
+		Assertions.assertEquals("7.99 EiB", DataSize.ofBytes(Long.MAX_VALUE).format());
+		Assertions.assertEquals("8 EiB", DataSize.of(8, DataUnit.EiB).format());
+		Assertions.assertEquals("1 ZiB", DataSize.of(1024, DataUnit.EiB).toString());
+		Assertions.assertEquals("1.180 ZB", DataSize.of(1024, DataUnit.EiB).format(true, 3, Locale.ROOT));
+		Assertions.assertEquals("size=1 KiB",
+				DataSize.of(3, DataUnit.KiB).dividedBy(2).formatTo(false, 0, new StringBuilder("size=")).toString());
+		Assertions.assertEquals("size=-1024 B",
+				DataSize.of(-1, DataUnit.KiB).formatTo(new StringBuilder("size=")).toString());
+		Assertions.assertEquals(DataSize.ofBytes(Long.MAX_VALUE).format(true, 20, Locale.ROOT),
+				DataSize.ofBytes(Long.MAX_VALUE).formatTo(true, 20, new StringBuilder()).toString());
+
+		SplittableRandom random = new SplittableRandom(26);
+		for (int i = 0; i < 1_000; i++) {
+			DataSize size = random(random);
+			Assertions.assertEquals(FileSizeFormat.humanReadableByteCount(size.toBigInteger(), true, 3, Locale.ROOT),
+					size.format(true, 3, Locale.ROOT));
+			Assertions.assertEquals(FileSizeFormat.humanReadableByteCount(size.toBigInteger(), false, 2, Locale.ROOT),
+					size.toString());
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				out.writeObject(size);
+			}
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+				Assertions.assertEquals(size, in.readObject());
+			}
+		}
+	}
+
+	private static void assertChecked(BigInteger expected, Supplier<DataSize> operation) {
+		if (expected.bitLength() < Long.SIZE) {
+			Assertions.assertEquals(expected.longValue(), operation.get().toBytes());
+		} else {
+			Assertions.assertThrows(ArithmeticException.class, () -> operation.get());
+		}
+	}
+
+	/**
+	 * A size around the bounds of the long range, beyond or not
+	 */
+	private static DataSize random(SplittableRandom random) {
+		long bytes = random.nextLong() >> random.nextInt(64);
+		switch (random.nextInt(4)) {
+		case 0:
+			return DataSize.ofBytes(bytes);
+		case 1:
+			return DataSize.of(bytes, DataUnit.KiB);
+		case 2:
+			return DataSize.ofBytes(BigInteger.valueOf(bytes).shiftLeft(random.nextInt(4)));
+		default:
+			return DataSize.ofBytes(random.nextBoolean() ? Long.MAX_VALUE - (bytes & 0xFF)
+					: Long.MIN_VALUE + (bytes & 0xFF));
+		}
+	}
+}
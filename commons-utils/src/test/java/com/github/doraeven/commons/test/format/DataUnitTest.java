@@ -0,0 +1,51 @@
+package com.github.doraeven.commons.test.format;
+
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.format.DataUnit;
+import com.github.doraeven.commons.format.FileSizeFormat;
+
+public class DataUnitTest {
+
+	@Test
+	public void testUnits() {
+		Assertions.assertEquals(1, DataUnit.B.getBytes());
+		Assertions.assertEquals(0, DataUnit.B.getShift());
+		Assertions.assertEquals(FileSizeFormat.ONE_KB, DataUnit.kB.getBytes());
+		Assertions.assertEquals(-1, DataUnit.kB.getShift());
+		Assertions.assertEquals(FileSizeFormat.ONE_EB, DataUnit.EB.getBytes());
+		Assertions.assertEquals(FileSizeFormat.ONE_KiB, DataUnit.KiB.getBytes());
+		Assertions.assertEquals(FileSizeFormat.ONE_EiB, DataUnit.EiB.getBytes());
+		Assertions.assertEquals(FileSizeFormat.ONE_YiB_BI, DataUnit.YiB.getBigBytes());
+		Assertions.assertEquals(FileSizeFormat.ONE_ZB_BI, DataUnit.ZB.getBigBytes());
+		Assertions.assertFalse(DataUnit.ZiB.isLongRange());
+		Assertions.assertThrows(ArithmeticException.class, () -> DataUnit.YB.getBytes());
+
+		// the names are the labels of FileSizeFormat
+		for (FileSizeFormat.SI_UNITS unit : FileSizeFormat.SI_UNITS.values()) {
+			Assertions.assertEquals(BigInteger.TEN.pow(unit.ordinal() * 3),
+					DataUnit.valueOf(unit.name()).getBigBytes());
+		}
+		for (FileSizeFormat.BINARY_UNITS unit : FileSizeFormat.BINARY_UNITS.values()) {
+			DataUnit dataUnit = DataUnit.valueOf(unit.name());
+			Assertions.assertEquals(BigInteger.ONE.shiftLeft(unit.ordinal() * 10), dataUnit.getBigBytes());
+			Assertions.assertEquals(unit.ordinal() * 10, dataUnit.getShift());
+		}
+	}
+
+	@Test
+	public void testToBytes() {
+		Assertions.assertEquals(0, DataUnit.YiB.toBytes(0));
+		Assertions.assertEquals(3 * FileSizeFormat.ONE_GiB, DataUnit.GiB.toBytes(3));
+		Assertions.assertEquals(-3 * FileSizeFormat.ONE_GB, DataUnit.GB.toBytes(-3));
+		Assertions.assertEquals(7 * FileSizeFormat.ONE_EiB, DataUnit.EiB.toBytes(7));
+		Assertions.assertEquals(Long.MIN_VALUE, DataUnit.EiB.toBytes(-8));
+		Assertions.assertEquals(Long.MAX_VALUE, DataUnit.EiB.toBytes(8));
+		Assertions.assertEquals(Long.MAX_VALUE, DataUnit.kB.toBytes(Long.MAX_VALUE / 1000 + 1));
+		Assertions.assertEquals(Long.MIN_VALUE, DataUnit.ZB.toBytes(-1));
+		Assertions.assertEquals(Long.MAX_VALUE, DataUnit.YiB.toBytes(1));
+	}
+}
@@ -1,12 +1,21 @@
 package com.github.doraeven.commons.test.format;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
+import java.util.SplittableRandom;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import com.github.doraeven.commons.format.FileSizeFormat;
+import com.github.doraeven.commons.format.FileSizeFormatter;
 
 public class FileSizeFormatTest {
 
@@ -74,6 +83,88 @@ public class FileSizeFormatTest {
 		Assertions.assertEquals("1.027 kB", FileSizeFormat.humanReadableByteCount(1027, true, 3, Locale.getDefault()));
 	}
 
+	@Test
+	public void testHumanReadableByteCountLong() {
+		Assertions.assertEquals("-5000 B", FileSizeFormat.humanReadableByteCount(-5000, true));
+		Assertions.assertEquals("-9223372036854775808 B", FileSizeFormat.humanReadableByteCount(Long.MIN_VALUE));
+		Assertions.assertEquals("1 KiB", FileSizeFormat.humanReadableByteCount(1025, 0));
+		Assertions.assertEquals("9.22337203685477580700 EB",
+				FileSizeFormat.humanReadableByteCount(Long.MAX_VALUE, true, 20));
+		Assertions.assertEquals("7.99999999999999999913 EiB",
+				FileSizeFormat.humanReadableByteCount(Long.MAX_VALUE, 20));
+		Assertions.assertEquals("1 ZiB", FileSizeFormat.humanReadableByteCount(FileSizeFormat.ONE_ZiB_BI));
+
+		// same as BigDecimal division rounding DOWN
+		SplittableRandom random = new SplittableRandom(7);
+		for (int i = 0; i < 20000; i++) {
+			long size = random.nextLong() >>> random.nextInt(64);
+			int places = random.nextInt(6);
+			for (boolean useSiUnits : new boolean[] { true, false }) {
+				Assertions.assertEquals(expected(size, useSiUnits, places, RoundingMode.DOWN),
+						FileSizeFormat.humanReadableByteCount(size, useSiUnits, places));
+			}
+		}
+	}
+
+	@Test
+	public void testFormatTo() throws IOException {
+		Assertions.assertEquals("size=1.99 KiB", FileSizeFormat.formatTo(2047, new StringBuilder("size=")).toString());
+		Assertions.assertEquals("2.04 kB", FileSizeFormat.formatTo(2047, true, 2, new StringBuilder()).toString());
+		Assertions.assertEquals("1 MiB",
+				FileSizeFormat.formatTo(FileSizeFormat.ONE_MiB, new StringWriter()).toString());
+		Assertions.assertEquals("-5 B", FileSizeFormat.formatTo(-5, CharBuffer.allocate(8)).flip().toString());
+		byte[] bytes = new byte[16];
+		int end = FileSizeFormat.formatTo(Long.MAX_VALUE, true, 3, bytes, 2);
+		Assertions.assertEquals("9.223 EB", new String(bytes, 2, end - 2, StandardCharsets.US_ASCII));
+		// beyond the formatters, the same text as humanReadableByteCount
+		for (int places : new int[] { -1, FileSizeFormatter.MAX_PLACES + 1, 30 }) {
+			String text = FileSizeFormat.humanReadableByteCount(Long.MAX_VALUE / 3, false, places);
+			Assertions.assertEquals(text,
+					FileSizeFormat.formatTo(Long.MAX_VALUE / 3, false, places, new StringBuilder()).toString());
+			Assertions.assertEquals(text,
+					FileSizeFormat.formatTo(Long.MAX_VALUE / 3, false, places, new StringWriter()).toString());
+			Assertions.assertEquals(text, FileSizeFormat
+					.formatTo(Long.MAX_VALUE / 3, false, places, CharBuffer.allocate(64)).flip().toString());
+			byte[] array = new byte[64];
+			end = FileSizeFormat.formatTo(Long.MAX_VALUE / 3, false, places, array, 1);
+			Assertions.assertEquals(text, new String(array, 1, end - 1, StandardCharsets.US_ASCII));
+			Assertions.assertThrows(IndexOutOfBoundsException.class,
+					() -> FileSizeFormat.formatTo(Long.MAX_VALUE / 3, false, places, new byte[4], 0));
+			CharBuffer small = CharBuffer.allocate(4);
+			Assertions.assertThrows(BufferOverflowException.class,
+					() -> FileSizeFormat.formatTo(Long.MAX_VALUE / 3, false, places, small));
+			Assertions.assertEquals(0, small.position());
+		}
+
+		SplittableRandom random = new SplittableRandom(5);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			long size = random.nextLong() >> random.nextInt(64);
+			int places = random.nextInt(FileSizeFormatter.MAX_PLACES + 1);
+			sb.setLength(0);
+			Assertions.assertEquals(FileSizeFormat.humanReadableByteCount(size, false, places),
+					FileSizeFormat.formatTo(size, false, places, sb).toString());
+		}
+	}
+
+	/**
+	 * The formatted size in the long range, with BigDecimal
+	 */
+	public static String expected(long size, boolean useSiUnits, int places, RoundingMode roundingMode) {
+		String[] units = useSiUnits ? new String[] { "B", "kB", "MB", "GB", "TB", "PB", "EB" }
+				: new String[] { "B", "KiB", "MiB", "GiB", "TiB", "PiB", "EiB" };
+		BigDecimal base = BigDecimal.valueOf(useSiUnits ? 1000 : 1024);
+		BigDecimal value = BigDecimal.valueOf(size);
+		int exponent = units.length - 1;
+		while (exponent > 0 && value.compareTo(base.pow(exponent)) < 0) {
+			exponent--;
+		}
+		BigDecimal unit = base.pow(exponent);
+		BigDecimal quotient = value.remainder(unit).signum() == 0 || exponent == 0 ? value.divide(unit)
+				: value.divide(unit, places, roundingMode);
+		return quotient + " " + units[exponent];
+	}
+
 	@Test
 	public void testUnits() {
 		// 1B, 1
@@ -0,0 +1,193 @@
+package com.github.doraeven.commons.test.format;
+
+import java.io.IOException;
+import java.io.PipedWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.format.FileSizeFormat;
+import com.github.doraeven.commons.format.FileSizeFormatter;
+
+public class FileSizeFormatterTest {
+
+	@Test
+	public void testFormat() {
+		FileSizeFormatter binary = new FileSizeFormatter(false, 2, Locale.ROOT);
+		Assertions.assertEquals("0 B", binary.format(0));
+		Assertions.assertEquals("1023 B", binary.format(1023));
+		Assertions.assertEquals("-5000 B", binary.format(-5000));
+		Assertions.assertEquals("-9223372036854775808 B", binary.format(Long.MIN_VALUE));
+		Assertions.assertEquals("1 KiB", binary.format(1024));
+		Assertions.assertEquals("1.99 KiB", binary.format(2047));
+		Assertions.assertEquals("7.99 EiB", binary.format(Long.MAX_VALUE));
+		Assertions.assertEquals("1 ZiB", binary.format(FileSizeFormat.ONE_ZiB_BI));
+		Assertions.assertEquals("1.50 YiB",
+				binary.format(FileSizeFormat.ONE_YiB_BI.add(FileSizeFormat.ONE_YiB_BI.shiftRight(1))));
+
+		FileSizeFormatter si = new FileSizeFormatter(true, 3, Locale.GERMANY, RoundingMode.HALF_UP, " ");
+		Assertions.assertEquals("1,027 kB", si.format(1027));
+		Assertions.assertEquals("2,000 MB", si.format(1_999_999));
+		Assertions.assertEquals("1000,000 MB", si.format(999_999_999));
+		Assertions.assertEquals("9,223 EB", si.format(Long.MAX_VALUE));
+		Assertions.assertEquals("-1 B", si.format(-1));
+
+		FileSizeFormatter arabic = new FileSizeFormatter(true, 1, Locale.forLanguageTag("ar-EG"));
+		Assertions.assertEquals("١٫٥ kB", arabic.format(1500));
+
+		FileSizeFormatter exact = new FileSizeFormatter(false, 1, null, RoundingMode.UNNECESSARY, " ");
+		Assertions.assertEquals("1.5 KiB", exact.format(1536));
+		Assertions.assertThrows(ArithmeticException.class, () -> exact.format(1537));
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new FileSizeFormatter(false, -1, null));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new FileSizeFormatter(false, FileSizeFormatter.MAX_PLACES + 1, null));
+	}
+
+	@Test
+	public void testFormatSameAsFileSizeFormat() {
+		SplittableRandom random = new SplittableRandom(11);
+		for (int places = 0; places < 4; places++) {
+			FileSizeFormatter si = new FileSizeFormatter(true, places, Locale.ROOT);
+			FileSizeFormatter binary = new FileSizeFormatter(false, places, Locale.ROOT);
+			for (int i = 0; i < 10000; i++) {
+				long size = random.nextLong() >> random.nextInt(64);
+				Assertions.assertEquals(FileSizeFormat.humanReadableByteCount(size, true, places), si.format(size));
+				Assertions.assertEquals(FileSizeFormat.humanReadableByteCount(size, false, places),
+						binary.format(size));
+			}
+		}
+	}
+
+	@Test
+	public void testFormatRoundingModes() {
+		SplittableRandom random = new SplittableRandom(13);
+		for (RoundingMode roundingMode : RoundingMode.values()) {
+			if (roundingMode == RoundingMode.UNNECESSARY) {
+				continue;
+			}
+			for (int places = 0; places < 4; places++) {
+				for (boolean useSiUnits : new boolean[] { true, false }) {
+					FileSizeFormatter formatter = new FileSizeFormatter(useSiUnits, places, Locale.ROOT, roundingMode,
+							" ");
+					for (int i = 0; i < 2000; i++) {
+						// odd multiples of half the last place of 1 MB
+						long half = FileSizeFormat.ONE_MB / 2 / BigInteger.TEN.pow(places).longValue();
+						long size = i % 2 == 0 ? random.nextLong(Long.MAX_VALUE >>> random.nextInt(63))
+								: FileSizeFormat.ONE_MB * (1 + i % 7) + half * (2 * random.nextInt(1000) + 1);
+						Assertions.assertEquals(FileSizeFormatTest.expected(size, useSiUnits, places, roundingMode),
+								formatter.format(size), size + " " + roundingMode);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFormatObject() {
+		Format format = new FileSizeFormatter(false, 1, Locale.ROOT);
+		Assertions.assertEquals("1.5 KiB", format.format(1536));
+		Assertions.assertEquals("1.5 KiB", format.format(1536.9));
+		Assertions.assertEquals("1 ZiB", format.format(FileSizeFormat.ONE_ZiB_BI));
+		MessageFormat message = new MessageFormat("Size: {0}", Locale.ROOT);
+		message.setFormatByArgumentIndex(0, format);
+		Assertions.assertEquals("Size: 2 MiB", message.format(new Object[] { FileSizeFormat.ONE_MiB * 2 }));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> format.format("1 KiB"));
+		Assertions.assertEquals(new FileSizeFormatter(false, 1, Locale.ROOT), format);
+		Assertions.assertEquals(new FileSizeFormatter(false, 1, Locale.ROOT).hashCode(), format.hashCode());
+		Assertions.assertNotEquals(new FileSizeFormatter(true, 1, Locale.ROOT), format);
+	}
+
+	@Test
+	public void testParseObject() throws ParseException {
+		FileSizeFormatter format = new FileSizeFormatter(false, 2, Locale.GERMANY);
+		String text = format.format(FileSizeFormat.ONE_MiB * 3 / 2);
+		Assertions.assertEquals("1,50 MiB", text);
+		Assertions.assertEquals(FileSizeFormat.ONE_MiB * 3 / 2, format.parseObject(text));
+		Assertions.assertEquals(FileSizeFormat.ONE_ZiB_BI, format.parseObject("1 ZiB"));
+		ParsePosition pos = new ParsePosition(6);
+		Assertions.assertEquals(2048L, format.parseObject("size: 2 KiB", pos));
+		Assertions.assertEquals(11, pos.getIndex());
+		pos = new ParsePosition(0);
+		Assertions.assertNull(format.parseObject("2 kib", pos));
+		Assertions.assertEquals(4, pos.getErrorIndex());
+		Assertions.assertThrows(ParseException.class, () -> format.parseObject("-1 KiB"));
+	}
+
+	@Test
+	public void testFormatTo() throws IOException {
+		SplittableRandom random = new SplittableRandom(17);
+		FileSizeFormatter formatter = new FileSizeFormatter(true, 2, Locale.ROOT, RoundingMode.HALF_EVEN, "");
+		StringBuilder sb = new StringBuilder("size=");
+		CharBuffer buffer = CharBuffer.allocate(64);
+		byte[] bytes = new byte[64];
+		char[] chars = new char[64];
+		for (int i = 0; i < 10000; i++) {
+			long size = random.nextLong() >> random.nextInt(64);
+			String expected = formatter.format(size);
+			Assertions.assertEquals(expected.length(), formatter.length(size));
+
+			sb.setLength(5);
+			Assertions.assertEquals("size=" + expected, formatter.formatTo(size, sb).toString());
+			Assertions.assertEquals(expected, formatter.formatTo(size, new StringWriter()).toString());
+			formatter.formatTo(size, buffer.clear().position(3));
+			Assertions.assertEquals(expected, buffer.flip().position(3).toString());
+			int end = formatter.formatTo(size, bytes, 7);
+			Assertions.assertEquals(expected, new String(bytes, 7, end - 7, StandardCharsets.US_ASCII));
+			end = formatter.formatTo(size, chars, 1);
+			Assertions.assertEquals(expected, new String(chars, 1, end - 1));
+		}
+
+		// too small, nothing written
+		CharBuffer small = CharBuffer.allocate(5);
+		Assertions.assertThrows(BufferOverflowException.class, () -> formatter.formatTo(1234567, small));
+		Assertions.assertEquals(0, small.position());
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> formatter.formatTo(1234567, new byte[5], 0));
+		// the failure of the destination goes through as is
+		Assertions.assertThrows(IOException.class, () -> formatter.formatTo(1234567, new PipedWriter()));
+
+		FileSizeFormatter arabic = new FileSizeFormatter(true, 1, Locale.forLanguageTag("ar-EG"));
+		Assertions.assertThrows(IllegalStateException.class, () -> arabic.formatTo(1500, bytes, 0));
+		Assertions.assertEquals("١٫٥ kB", arabic.formatTo(1500, new StringBuilder()).toString());
+	}
+
+	@Test
+	public void testFormatToNoAllocation() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		if (!threads.isThreadAllocatedMemorySupported()) {
+			return;
+		}
+		FileSizeFormatter formatter = new FileSizeFormatter(false, 3, Locale.ROOT);
+		StringBuilder sb = new StringBuilder(64);
+		byte[] bytes = new byte[64];
+		long sink = 0;
+		for (int i = 0; i < 20000; i++) {
+			sb.setLength(0);
+			sink += formatter.formatTo(i * 7919L, sb).length() + formatter.formatTo(-i * 104729L, bytes, 0);
+		}
+		long before = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < 20000; i++) {
+			sb.setLength(0);
+			sink += formatter.formatTo(i * 7919L, sb).length() + formatter.formatTo(-i * 104729L, bytes, 0);
+		}
+		long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+		// no garbage per size, only noise of the measurement
+		Assertions.assertTrue(allocated < 20000, allocated + " bytes");
+		Assertions.assertTrue(sink > 0);
+	}
+
+}
@@ -0,0 +1,209 @@
+package com.github.doraeven.commons.test.format;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.format.FileSizeFormat;
+import com.github.doraeven.commons.format.FileSizeParser;
+
+public class FileSizeParserTest {
+
+	@Test
+	public void testStrict() throws ParseException {
+		FileSizeParser parser = FileSizeParser.STRICT;
+		Assertions.assertEquals(0, parser.parseLong("0 B"));
+		Assertions.assertEquals(512, parser.parseLong("512 B"));
+		Assertions.assertEquals(20_000, parser.parseLong("20 kB"));
+		Assertions.assertEquals(512 * FileSizeFormat.ONE_MB, parser.parseLong("512MB"));
+		Assertions.assertEquals(3 * FileSizeFormat.ONE_GiB / 2, parser.parseLong("1.5 GiB"));
+		Assertions.assertEquals(1536, parser.parseLong("1.50 KiB"));
+		Assertions.assertEquals(1001, parser.parseLong("1.001 kB"));
+		Assertions.assertEquals(FileSizeFormat.ONE_TiB, parser.parseLong("1 TiB"));
+		Assertions.assertEquals(FileSizeFormat.ONE_PB, parser.parseLong("1 PB"));
+		Assertions.assertEquals(7 * FileSizeFormat.ONE_EiB, parser.parseLong("7 EiB"));
+		Assertions.assertEquals(Long.MAX_VALUE, parser.parseLong("9223372036854775807 B"));
+		Assertions.assertEquals(Long.MAX_VALUE, parser.parseLong("9.223372036854775807 EB"));
+		Assertions.assertEquals(0, parser.parseLong("0 ZiB"));
+		Assertions.assertEquals(0, parser.parseLong("0.000 YB"));
+		// 2^-10 KiB has 10 decimal places
+		Assertions.assertEquals(1025, parser.parseLong("1.0009765625 KiB"));
+
+		assertError(parser, "", 0);
+		assertError(parser, "512", 3);
+		assertError(parser, " 512 B", 0);
+		assertError(parser, "512 B ", 5);
+		assertError(parser, "512  B", 4);
+		assertError(parser, "+512 B", 0);
+		assertError(parser, "-512 B", 0);
+		assertError(parser, "1. kB", 2);
+		assertError(parser, ".5 kB", 0);
+		assertError(parser, "1,5 kB", 1);
+		assertError(parser, "20 KB", 3);
+		assertError(parser, "20 mB", 3);
+		assertError(parser, "20 kiB", 3);
+		assertError(parser, "20 KIB", 4);
+		assertError(parser, "20 kb", 4);
+		assertError(parser, "20 XB", 3);
+		assertError(parser, "20 bytes", 3);
+		assertError(parser, "1.0001 kB", 2);
+		assertError(parser, "1.0001 KiB", 2);
+	}
+
+	@Test
+	public void testLenient() throws ParseException {
+		FileSizeParser parser = FileSizeParser.LENIENT;
+		Assertions.assertEquals(512, parser.parseLong("512"));
+		Assertions.assertEquals(512, parser.parseLong(" \t+512 \n"));
+		Assertions.assertEquals(20_000, parser.parseLong("20 KB"));
+		Assertions.assertEquals(20_000, parser.parseLong("20kB"));
+		Assertions.assertEquals(512 * FileSizeFormat.ONE_MB, parser.parseLong("512  mB"));
+		Assertions.assertEquals(3 * FileSizeFormat.ONE_GiB / 2, parser.parseLong("1,5 giB"));
+		Assertions.assertEquals(3 * FileSizeFormat.ONE_GiB / 2, parser.parseLong("1.5 GIB"));
+		// fractions of a byte are rounded down
+		Assertions.assertEquals(1000, parser.parseLong("1.0001 kB"));
+		Assertions.assertEquals(1024, parser.parseLong("1.0009765624 KiB"));
+
+		assertError(parser, "", 0);
+		assertError(parser, "   ", 3);
+		assertError(parser, "++1 B", 1);
+		assertError(parser, "-1 B", 0);
+		assertError(parser, "1.5.5 kB", 3);
+		assertError(parser, "20 kb", 4);
+		assertError(parser, "20 Mb", 4);
+		assertError(parser, "20 KiBB", 3);
+		assertError(parser, "20 K", 3);
+		assertError(parser, "20 KxB", 4);
+	}
+
+	@Test
+	public void testRange() throws ParseException {
+		String text = "quota=1.5 GiB;buffer=64 KiB";
+		Assertions.assertEquals(3 * FileSizeFormat.ONE_GiB / 2, FileSizeParser.STRICT.parseLong(text, 6, 13));
+		Assertions.assertEquals(64 * 1024, FileSizeParser.STRICT.parseLong(text, 21, text.length()));
+		ParseException e = Assertions.assertThrows(ParseException.class,
+				() -> FileSizeParser.STRICT.parseLong(text, 6, 14));
+		Assertions.assertEquals(10, e.getErrorOffset());
+
+		byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+		Assertions.assertEquals(3 * FileSizeFormat.ONE_GiB / 2, FileSizeParser.STRICT.parseLong(bytes, 6, 7));
+		Assertions.assertEquals(BigInteger.valueOf(64 * 1024), FileSizeParser.LENIENT.parseBigInteger(bytes, 21, 6));
+		e = Assertions.assertThrows(ParseException.class, () -> FileSizeParser.STRICT.parseLong(bytes, 0, 13));
+		Assertions.assertEquals(0, e.getErrorOffset());
+
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> FileSizeParser.STRICT.parseLong(text, 6, 100));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> FileSizeParser.STRICT.parseLong(bytes, 21, 7));
+	}
+
+	@Test
+	public void testOverflow() throws ParseException {
+		for (FileSizeParser parser : new FileSizeParser[] { FileSizeParser.STRICT, FileSizeParser.LENIENT }) {
+			assertOverflow(parser, "9223372036854775808 B", "9223372036854775808");
+			assertOverflow(parser, "99999999999999999999999 B", "99999999999999999999999");
+			assertOverflow(parser, "8 EiB", "9223372036854775808");
+			assertOverflow(parser, "9.223372036854775808 EB", "9223372036854775808");
+			assertOverflow(parser, "1 ZB", "1000000000000000000000");
+			assertOverflow(parser, "1 ZiB", FileSizeFormat.ONE_ZiB_BI.toString());
+			assertOverflow(parser, "1.5 YiB", FileSizeFormat.ONE_YiB_BI.multiply(BigInteger.valueOf(3)).shiftRight(1)
+					.toString());
+			Assertions.assertEquals(15 * (FileSizeFormat.ONE_EiB / 2), parser.parseLong("7.5 EiB"));
+		}
+		// the offset of a fractional size is the first decimal place, in and beyond
+		// the long range
+		ParseException e = Assertions.assertThrows(ParseException.class,
+				() -> FileSizeParser.STRICT.parseBigInteger("1.0000000000000000000000001 YB"));
+		Assertions.assertEquals(2, e.getErrorOffset());
+		e = Assertions.assertThrows(ParseException.class,
+				() -> FileSizeParser.STRICT.parseBigInteger("12345678901234567890.5 B"));
+		Assertions.assertEquals(21, e.getErrorOffset());
+		e = Assertions.assertThrows(ParseException.class, () -> FileSizeParser.STRICT.parseBigInteger("1.5 B"));
+		Assertions.assertEquals(2, e.getErrorOffset());
+		byte[] big = " 99999999999.0000001 EiB".getBytes(StandardCharsets.US_ASCII);
+		e = Assertions.assertThrows(ParseException.class,
+				() -> FileSizeParser.STRICT.parseBigInteger(big, 1, big.length - 1));
+		Assertions.assertEquals(13, e.getErrorOffset());
+		Assertions.assertEquals(new BigInteger("1000000000000000000000000"),
+				FileSizeParser.LENIENT.parseBigInteger(" 1.0000000000000000000000001 YB "));
+		Assertions.assertEquals(BigInteger.valueOf(expected("7.99 EiB")),
+				FileSizeParser.LENIENT.parseBigInteger("7.99 EiB"));
+	}
+
+	@Test
+	public void testRoundTrip() throws ParseException {
+		SplittableRandom random = new SplittableRandom(24);
+		for (int i = 0; i < 10_000; i++) {
+			long size = random.nextLong() >>> (1 + random.nextInt(63));
+			// 18 decimal places, every SI size is exact
+			String si = FileSizeFormat.humanReadableByteCount(size, true, 18, Locale.ROOT);
+			Assertions.assertEquals(size, FileSizeParser.STRICT.parseLong(si), si);
+			byte[] bytes = si.getBytes(StandardCharsets.US_ASCII);
+			Assertions.assertEquals(size, FileSizeParser.STRICT.parseLong(bytes, 0, bytes.length), si);
+
+			String binary = FileSizeFormat.humanReadableByteCount(size, false, 2, Locale.ROOT);
+			Assertions.assertEquals(expected(binary), FileSizeParser.LENIENT.parseLong(binary), binary);
+			Assertions.assertEquals(BigInteger.valueOf(expected(binary)),
+					FileSizeParser.LENIENT.parseBigInteger(binary), binary);
+		}
+	}
+
+	@Test
+	public void testFractions() throws ParseException {
+		SplittableRandom random = new SplittableRandom(2024);
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 10_000; i++) {
+			text.setLength(0);
+			text.append(random.nextInt(8)).append('.');
+			int places = 1 + random.nextInt(30);
+			for (int j = 0; j < places; j++) {
+				text.append((char) ('0' + random.nextInt(10)));
+			}
+			text.append(' ').append(random.nextBoolean() ? "EiB" : "EB");
+			Assertions.assertEquals(expected(text.toString()), FileSizeParser.LENIENT.parseLong(text), text.toString());
+		}
+	}
+
+	/**
+	 * The size rounded down, with BigDecimal
+	 */
+	private static long expected(String text) {
+		int space = text.indexOf(' ');
+		String unit = text.substring(space + 1);
+		BigInteger unitSize = BigInteger.ONE;
+		for (FileSizeFormat.BINARY_UNITS binary : FileSizeFormat.BINARY_UNITS.values()) {
+			if (binary.name().equals(unit)) {
+				unitSize = BigInteger.ONE.shiftLeft(binary.ordinal() * 10);
+			}
+		}
+		for (FileSizeFormat.SI_UNITS si : FileSizeFormat.SI_UNITS.values()) {
+			if (si.name().equals(unit)) {
+				unitSize = BigInteger.TEN.pow(si.ordinal() * 3);
+			}
+		}
+		return new BigDecimal(text.substring(0, space)).multiply(new BigDecimal(unitSize))
+				.setScale(0, RoundingMode.DOWN).longValueExact();
+	}
+
+	private static void assertError(FileSizeParser parser, String text, int offset) {
+		ParseException e = Assertions.assertThrows(ParseException.class, () -> parser.parseLong(text), text);
+		Assertions.assertEquals(offset, e.getErrorOffset(), text);
+		byte[] bytes = ("#" + text).getBytes(StandardCharsets.US_ASCII);
+		e = Assertions.assertThrows(ParseException.class, () -> parser.parseBigInteger(bytes, 1, bytes.length - 1),
+				text);
+		Assertions.assertEquals(offset + 1, e.getErrorOffset(), text);
+	}
+
+	private static void assertOverflow(FileSizeParser parser, String text, String expected) throws ParseException {
+		ParseException e = Assertions.assertThrows(ParseException.class, () -> parser.parseLong(text), text);
+		Assertions.assertEquals(0, e.getErrorOffset(), text);
+		Assertions.assertEquals(new BigInteger(expected), parser.parseBigInteger(text), text);
+		byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+		Assertions.assertEquals(new BigInteger(expected), parser.parseBigInteger(bytes, 0, bytes.length), text);
+	}
+}
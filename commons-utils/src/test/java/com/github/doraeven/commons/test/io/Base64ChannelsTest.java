@@ -0,0 +1,153 @@
+package com.github.doraeven.commons.test.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.SplittableRandom;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.io.Base64Channels;
+
+public class Base64ChannelsTest {
+
+	@Test
+	public void testChannels() throws Exception {
+		SplittableRandom random = new SplittableRandom(1);
+		int[] lengths = { 0, 1, 2, 3, 4, 5, 100, 49151, 49152, 49153, 200000 };
+		for (int length : lengths) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			for (boolean urlSafe : new boolean[] { false, true }) {
+				Base64.Encoder encoder = urlSafe ? Base64.getUrlEncoder().withoutPadding() : Base64.getEncoder();
+				byte[] expected = encoder.encode(data);
+
+				ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+				long written = Base64Channels.encode(trickle(data, 7), Channels.newChannel(encoded), urlSafe);
+				Assertions.assertEquals(expected.length, written);
+				Assertions.assertArrayEquals(expected, encoded.toByteArray());
+				Assertions.assertEquals(expected.length, Base64Channels.encodedLength(length, urlSafe));
+
+				ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+				written = Base64Channels.decode(trickle(expected, 5), Channels.newChannel(decoded), urlSafe);
+				Assertions.assertEquals(length, written);
+				Assertions.assertArrayEquals(data, decoded.toByteArray());
+			}
+		}
+	}
+
+	@Test
+	public void testDecodeLenient() throws Exception {
+		byte[] data = "any carnal pleasure".getBytes(StandardCharsets.US_ASCII);
+		String mime = Base64.getMimeEncoder(8, "\r\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(data);
+		ByteBuffer dst = ByteBuffer.allocateDirect(64);
+		Base64Channels.decode(ByteBuffer.wrap(mime.getBytes(StandardCharsets.US_ASCII)), dst, false);
+		Assertions.assertEquals(data.length, dst.position());
+
+		// padding is optional
+		ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+		Base64Channels.decode(Channels.newChannel(new ByteArrayInputStream("YW55IGNhcm5hbCBwbGVhc3U".getBytes())),
+				Channels.newChannel(decoded), false);
+		Assertions.assertEquals("any carnal pleasu", decoded.toString(StandardCharsets.US_ASCII));
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> decode("YW55=IGNh", false));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> decode("YW5", true));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> decode("Y", false));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> decode("ab+/", true));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> decode("ab-_", false));
+		Assertions.assertEquals(3, decode("ab-_", true));
+	}
+
+	@Test
+	public void testBuffers() {
+		byte[] data = new byte[100001];
+		new SplittableRandom(2).nextBytes(data);
+		String expected = Base64.getEncoder().encodeToString(data);
+
+		ByteBuffer src = ByteBuffer.allocateDirect(data.length).put(data).flip();
+		ByteBuffer dst = ByteBuffer.allocateDirect(expected.length());
+		Base64Channels.encode(src, dst, false);
+		Assertions.assertFalse(src.hasRemaining());
+		Assertions.assertFalse(dst.hasRemaining());
+		byte[] encoded = new byte[expected.length()];
+		dst.flip().get(encoded);
+		Assertions.assertEquals(expected, new String(encoded, StandardCharsets.US_ASCII));
+
+		ByteBuffer heap = ByteBuffer.allocate(expected.length() + 2).position(1);
+		Base64Channels.encode(ByteBuffer.wrap(data), heap, false);
+		Assertions.assertEquals(expected, new String(heap.array(), 1, expected.length(), StandardCharsets.US_ASCII));
+
+		ByteBuffer decoded = ByteBuffer.allocate(data.length);
+		Base64Channels.decode(dst.flip(), decoded, false);
+		Assertions.assertArrayEquals(data, decoded.array());
+
+		Assertions.assertThrows(BufferOverflowException.class,
+				() -> Base64Channels.encode(ByteBuffer.wrap(data), ByteBuffer.allocate(10), true));
+	}
+
+	@Test
+	public void testEncodeParallel() {
+		byte[] data = new byte[20 * 1024 * 1024 + 1];
+		new SplittableRandom(3).nextBytes(data);
+		for (boolean urlSafe : new boolean[] { false, true }) {
+			Base64.Encoder encoder = urlSafe ? Base64.getUrlEncoder().withoutPadding() : Base64.getEncoder();
+			byte[] expected = encoder.encode(data);
+			ByteBuffer src = ByteBuffer.allocateDirect(data.length).put(data).flip();
+			ByteBuffer dst = ByteBuffer.allocate(expected.length);
+			Base64Channels.encodeParallel(src, dst, urlSafe);
+			Assertions.assertFalse(src.hasRemaining());
+			Assertions.assertEquals(expected.length, dst.position());
+			Assertions.assertArrayEquals(expected, dst.array());
+		}
+		log.debug("encoded:" + data.length);
+	}
+
+	private static int decode(String base64, boolean urlSafe) {
+		ByteBuffer dst = ByteBuffer.allocate(base64.length());
+		Base64Channels.decode(ByteBuffer.wrap(base64.getBytes(StandardCharsets.US_ASCII)), dst, urlSafe);
+		return dst.position();
+	}
+
+	/**
+	 * A channel returning at most the given number of bytes per read
+	 */
+	private static ReadableByteChannel trickle(byte[] data, int max) {
+		ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(data));
+		return new ReadableByteChannel() {
+
+			@Override
+			public int read(ByteBuffer dst) throws IOException {
+				if (!dst.hasRemaining()) {
+					return 0;
+				}
+				ByteBuffer slice = dst.slice(dst.position(), Math.min(max, dst.remaining()));
+				int count = channel.read(slice);
+				if (count > 0) {
+					dst.position(dst.position() + count);
+				}
+				return count;
+			}
+
+			@Override
+			public boolean isOpen() {
+				return channel.isOpen();
+			}
+
+			@Override
+			public void close() throws IOException {
+				channel.close();
+			}
+		};
+	}
+
+	private Log log = LogFactory.getLog(Base64ChannelsTest.class);
+}
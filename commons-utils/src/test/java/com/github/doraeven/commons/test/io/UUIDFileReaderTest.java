@@ -0,0 +1,148 @@
+package com.github.doraeven.commons.test.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.io.UUIDFileReader;
+import com.github.doraeven.commons.io.UUIDFileWriter;
+import com.github.doraeven.commons.utils.UUIDUtils;
+
+public class UUIDFileReaderTest {
+
+	@Test
+	public void testWriteRead() throws Exception {
+		Path file = Files.createTempFile("uuids", ".bin");
+		try {
+			UUID[] uuids = new UUID[3000];
+			for (int i = 0; i < uuids.length; i++) {
+				uuids[i] = UUID.randomUUID();
+			}
+			try (UUIDFileWriter writer = UUIDFileWriter.create(file)) {
+				writer.write(uuids[0]);
+				writer.write(uuids[1].getMostSignificantBits(), uuids[1].getLeastSignificantBits());
+				long[] pairs = new long[2 * 1000];
+				for (int i = 0; i < 1000; i++) {
+					pairs[2 * i] = uuids[2 + i].getMostSignificantBits();
+					pairs[2 * i + 1] = uuids[2 + i].getLeastSignificantBits();
+				}
+				writer.write(pairs, 0, 1000);
+				byte[] bytes = new byte[16 * (uuids.length - 1002)];
+				for (int i = 1002; i < uuids.length; i++) {
+					UUIDUtils.toBytes(uuids[i], bytes, 16 * (i - 1002));
+				}
+				writer.write(bytes, 0, uuids.length - 1002);
+				Assertions.assertEquals(uuids.length, writer.size());
+			}
+			Assertions.assertEquals(32 + 16 * uuids.length, Files.size(file));
+
+			try (UUIDFileReader reader = UUIDFileReader.open(file)) {
+				Assertions.assertEquals(uuids.length, reader.size());
+				for (int i = 0; i < uuids.length; i++) {
+					Assertions.assertEquals(uuids[i], reader.get(i));
+				}
+				Assertions.assertThrows(IndexOutOfBoundsException.class, () -> reader.get(uuids.length));
+				Assertions.assertEquals(uuids[5], UUIDUtils.fromBytes(reader.asSegment(), 5 * 16));
+
+				long[] pairs = new long[4];
+				reader.read(10, pairs, 0, 2);
+				Assertions.assertEquals(uuids[11], new UUID(pairs[2], pairs[3]));
+
+				UUIDFileReader.UUIDIterator iterator = reader.iterator();
+				Assertions.assertEquals(uuids[0], iterator.next());
+				iterator.next(pairs, 2);
+				Assertions.assertEquals(uuids[1], new UUID(pairs[2], pairs[3]));
+				AtomicLong index = new AtomicLong(2);
+				iterator.forEachRemaining((msb, lsb) -> Assertions
+						.assertEquals(uuids[(int) index.getAndIncrement()], new UUID(msb, lsb)));
+				Assertions.assertFalse(iterator.hasNext());
+				Assertions.assertThrows(NoSuchElementException.class, () -> iterator.next());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		Path file = Files.createTempFile("uuids", ".bin");
+		try {
+			// more than one 16 MiB window
+			int n = 1100000;
+			long[] pairs = new long[2 * n];
+			UUIDUtils.randomUUIDs(pairs, 0, n);
+			long expected = 0;
+			for (long bits : pairs) {
+				expected += bits;
+			}
+			try (UUIDFileWriter writer = UUIDFileWriter.create(file)) {
+				writer.write(pairs, 0, n);
+			}
+			try (UUIDFileReader reader = UUIDFileReader.open(file)) {
+				LongAdder sum = new LongAdder();
+				LongAdder count = new LongAdder();
+				reader.forEachParallel((msb, lsb) -> {
+					sum.add(msb + lsb);
+					count.increment();
+				});
+				Assertions.assertEquals(n, count.sum());
+				Assertions.assertEquals(expected, sum.sum());
+
+				Assertions.assertEquals(n, reader.stream(true).distinct().count());
+				Assertions.assertEquals(new UUID(pairs[0], pairs[1]), reader.stream(false).findFirst().get());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testCorrupted() throws Exception {
+		Path file = Files.createTempFile("uuids", ".bin");
+		try {
+			try (UUIDFileWriter writer = UUIDFileWriter.create(file)) {
+				for (int i = 0; i < 100; i++) {
+					writer.write(UUID.randomUUID());
+				}
+			}
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				channel.write(ByteBuffer.wrap(new byte[] { 1 }), 32 + 16 * 50);
+			}
+			IOException e = Assertions.assertThrows(IOException.class, () -> UUIDFileReader.open(file));
+			log.debug(e.getMessage());
+			try (UUIDFileReader reader = UUIDFileReader.open(file, false)) {
+				Assertions.assertEquals(100, reader.size());
+			}
+
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				channel.truncate(32 + 16 * 50 + 3);
+			}
+			Assertions.assertThrows(IOException.class, () -> UUIDFileReader.open(file, false));
+
+			Files.write(file, new byte[0]);
+			try (UUIDFileWriter writer = UUIDFileWriter.create(file)) {
+				Assertions.assertEquals(0, writer.size());
+			}
+			try (UUIDFileReader reader = UUIDFileReader.open(file)) {
+				Assertions.assertEquals(0, reader.size());
+				Assertions.assertFalse(reader.iterator().hasNext());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private Log log = LogFactory.getLog(UUIDFileReaderTest.class);
+}
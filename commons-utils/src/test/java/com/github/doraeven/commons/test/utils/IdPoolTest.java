@@ -0,0 +1,113 @@
+package com.github.doraeven.commons.test.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.utils.IdPool;
+import com.github.doraeven.commons.utils.SnowflakeIdGenerator;
+import com.github.doraeven.commons.utils.UUIDGenerator;
+
+public class IdPoolTest {
+
+	@Test
+	public void testHitsAndMisses() {
+		IdPool pool = IdPool.ofUUIDs(4, 1, UUIDGenerator.threadLocalSecureRandom());
+		Assertions.assertEquals(4, pool.size());
+		// no refill after close, the pooled UUIDs are still served
+		pool.close();
+		for (int i = 0; i < 6; i++) {
+			UUID uuid = pool.nextUUID();
+			Assertions.assertEquals(4, uuid.version());
+			Assertions.assertEquals(2, uuid.variant());
+		}
+		Assertions.assertEquals(4, pool.getHits());
+		Assertions.assertEquals(2, pool.getMisses());
+		Assertions.assertEquals(0, pool.getRefills());
+		Assertions.assertEquals(0, pool.size());
+
+		// a miss of a 64-bit ID pool calls the supplier directly
+		AtomicLong ids = new AtomicLong();
+		IdPool longs = IdPool.ofLongs(2, 0, ids::incrementAndGet);
+		longs.close();
+		for (long id = 1; id <= 4; id++) {
+			Assertions.assertEquals(id, longs.nextLong());
+		}
+		Assertions.assertEquals(2, longs.getHits());
+		Assertions.assertEquals(2, longs.getMisses());
+		Assertions.assertThrows(IllegalStateException.class, () -> longs.nextUUID());
+	}
+
+	@Test
+	public void testRefill() throws Exception {
+		IdPool pool = IdPool.ofUUIDs(1000);
+		Assertions.assertEquals(1000, pool.size());
+		Assertions.assertEquals(250, pool.getLowWaterMark());
+		long[] bits = new long[2];
+		for (int i = 0; i < 800; i++) {
+			pool.nextUUID(bits, 0);
+		}
+		long deadline = System.currentTimeMillis() + 10000;
+		while (pool.size() < 1000 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		Assertions.assertEquals(1000, pool.size());
+		Assertions.assertTrue(pool.getRefills() >= 1);
+		Assertions.assertEquals(800, pool.getHits() + pool.getMisses());
+		log.debug("hits:" + pool.getHits() + " misses:" + pool.getMisses() + " refills:" + pool.getRefills());
+		pool.close();
+	}
+
+	@Test
+	public void testConcurrentUnique() throws Exception {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+		IdPool pool = IdPool.ofLongs(256, 64, generator::nextId);
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 20000; i++) {
+						Assertions.assertTrue(ids.add(pool.nextLong()));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+			pool.close();
+		}
+		Assertions.assertEquals(160000, ids.size());
+		Assertions.assertEquals(160000, pool.getHits() + pool.getMisses());
+		log.debug("hits:" + pool.getHits() + " misses:" + pool.getMisses());
+	}
+
+	@Test
+	public void testIllegalArguments() {
+		AtomicLong counter = new AtomicLong();
+		Assertions.assertThrows(IllegalArgumentException.class, () -> IdPool.ofLongs(1, 0, counter::incrementAndGet));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> IdPool.ofLongs(8, 9, counter::incrementAndGet));
+		IdPool longs = IdPool.ofLongs(3, 0, counter::incrementAndGet);
+		Assertions.assertEquals(3, longs.size());
+		Assertions.assertEquals(1, longs.nextLong());
+		Assertions.assertThrows(IllegalStateException.class, () -> longs.nextUUID());
+		Assertions.assertThrows(IllegalStateException.class, () -> IdPool.ofUUIDs(2).nextLong());
+		longs.close();
+	}
+
+	private Log log = LogFactory.getLog(IdPoolTest.class);
+}
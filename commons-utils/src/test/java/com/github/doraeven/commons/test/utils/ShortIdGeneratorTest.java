@@ -0,0 +1,103 @@
+package com.github.doraeven.commons.test.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.utils.ShortIdGenerator;
+import com.github.doraeven.commons.utils.UUIDGenerator;
+
+public class ShortIdGeneratorTest {
+
+	@Test
+	public void testNext() {
+		ShortIdGenerator generator = new ShortIdGenerator();
+		String id = generator.next();
+		log.debug("next:" + id);
+		Assertions.assertEquals(21, id.length());
+		Assertions.assertTrue(id.matches("[A-Za-z0-9_-]{21}"));
+		Assertions.assertEquals(126, generator.getEntropyBits(), 1e-9);
+
+		char[] chars = new char[23];
+		generator.next(chars, 2);
+		Assertions.assertEquals(0, chars[1]);
+		Assertions.assertTrue(new String(chars, 2, 21).matches("[A-Za-z0-9_-]{21}"));
+
+		byte[] bytes = new byte[22];
+		generator.next(bytes, 1);
+		Assertions.assertTrue(new String(bytes, 1, 21, StandardCharsets.US_ASCII).matches("[A-Za-z0-9_-]{21}"));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> generator.next(bytes, 2));
+
+		StringBuilder sb = generator.append(new StringBuilder("inv-"));
+		Assertions.assertTrue(sb.toString().matches("inv-[A-Za-z0-9_-]{21}"));
+	}
+
+	@Test
+	public void testDistribution() {
+		// 10 symbols take 4 bits, 6 of the 16 masked values are rejected
+		String alphabet = "0123456789";
+		ShortIdGenerator generator = new ShortIdGenerator(alphabet, 100, UUIDGenerator.splittableRandom(42));
+		int[] counts = new int[alphabet.length()];
+		char[] id = new char[100];
+		for (int i = 0; i < 1000; i++) {
+			generator.next(id, 0);
+			for (char c : id) {
+				counts[c - '0']++;
+			}
+		}
+		// 100000 symbols, expected 10000 each
+		for (int count : counts) {
+			Assertions.assertTrue(Math.abs(count - 10000) < 500, "count " + count);
+		}
+	}
+
+	@Test
+	public void testCustomAlphabet() {
+		ShortIdGenerator unicode = new ShortIdGenerator("αβγ", 12);
+		Assertions.assertTrue(unicode.next().matches("[αβγ]{12}"));
+		Assertions.assertThrows(IllegalStateException.class, () -> unicode.next(new byte[12], 0));
+
+		ShortIdGenerator codes = new ShortIdGenerator(ShortIdGenerator.NO_LOOKALIKES_ALPHABET, 8);
+		Assertions.assertTrue(codes.next().matches("[" + ShortIdGenerator.NO_LOOKALIKES_ALPHABET + "]{8}"));
+		Assertions.assertEquals(ShortIdGenerator.NO_LOOKALIKES_ALPHABET, codes.getAlphabet());
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ShortIdGenerator("a", 8));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ShortIdGenerator("abca", 8));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ShortIdGenerator("ab", 0));
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		ShortIdGenerator generator = new ShortIdGenerator(ShortIdGenerator.ALPHANUMERIC_ALPHABET, 16);
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 10000; i++) {
+						Assertions.assertTrue(ids.add(generator.next()));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		Assertions.assertEquals(80000, ids.size());
+	}
+
+	private Log log = LogFactory.getLog(ShortIdGeneratorTest.class);
+}
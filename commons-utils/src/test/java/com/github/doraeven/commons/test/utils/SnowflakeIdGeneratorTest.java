@@ -0,0 +1,241 @@
+package com.github.doraeven.commons.test.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.PrimitiveIterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.utils.SnowflakeIdGenerator;
+import com.github.doraeven.commons.utils.SnowflakeIdGenerator.ClockBackwards;
+import com.github.doraeven.commons.utils.SnowflakeIdGenerator.IdBlock;
+
+public class SnowflakeIdGeneratorTest {
+
+	@Test
+	public void testNextId() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5);
+		long before = System.currentTimeMillis();
+		long id = generator.nextId();
+		long after = System.currentTimeMillis();
+		log.debug("nextId:" + id);
+
+		Assertions.assertTrue(id > 0);
+		Assertions.assertEquals(5, generator.getWorkerId(id));
+		Assertions.assertTrue(generator.getTimestamp(id) >= before);
+		Assertions.assertTrue(generator.getTimestamp(id) <= after);
+
+		long last = id;
+		for (int i = 0; i < 100000; i++) {
+			id = generator.nextId();
+			Assertions.assertTrue(last < id);
+			Assertions.assertEquals(5, generator.getWorkerId(id));
+			last = id;
+		}
+	}
+
+	@Test
+	public void testNextIdConcurrent() throws Exception {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1023);
+		int threads = 8;
+		int count = 20000;
+		Set<Long> all = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Set<Future<?>> futures = new HashSet<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					long last = 0;
+					for (int i = 0; i < count; i++) {
+						long id = generator.nextId();
+						Assertions.assertTrue(last < id);
+						all.add(id);
+						last = id;
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		Assertions.assertEquals(threads * count, all.size());
+	}
+
+	@Test
+	public void testSequenceOverflow() {
+		long epoch = 1000;
+		Deque<Long> times = new ArrayDeque<>();
+		LongSupplier clock = () -> times.size() > 1 ? times.poll() : times.peek();
+
+		// BORROW continues on the next logical millisecond
+		times.add(2000L);
+		SnowflakeIdGenerator borrow = new SnowflakeIdGenerator(epoch, 4, 2, 3, ClockBackwards.BORROW, clock);
+		long[] ids = new long[6];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = borrow.nextId();
+		}
+		Assertions.assertEquals(2000, borrow.getTimestamp(ids[3]));
+		Assertions.assertEquals(3, borrow.getSequence(ids[3]));
+		Assertions.assertEquals(2001, borrow.getTimestamp(ids[4]));
+		Assertions.assertEquals(0, borrow.getSequence(ids[4]));
+
+		// WAIT waits for the clock
+		times.clear();
+		times.add(2000L);
+		SnowflakeIdGenerator wait = new SnowflakeIdGenerator(epoch, 4, 2, 3, ClockBackwards.WAIT, clock);
+		for (int i = 0; i < 4; i++) {
+			wait.nextId();
+		}
+		times.add(2000L);
+		times.add(2002L);
+		long id = wait.nextId();
+		Assertions.assertEquals(2002, wait.getTimestamp(id));
+		Assertions.assertEquals(0, wait.getSequence(id));
+	}
+
+	@Test
+	public void testClockBackwards() {
+		long epoch = 1000;
+		Deque<Long> times = new ArrayDeque<>();
+		LongSupplier clock = () -> times.size() > 1 ? times.poll() : times.peek();
+
+		times.add(5000L);
+		SnowflakeIdGenerator borrow = new SnowflakeIdGenerator(epoch, 10, 12, 1, ClockBackwards.BORROW, clock);
+		long first = borrow.nextId();
+		times.clear();
+		times.add(4000L);
+		long second = borrow.nextId();
+		Assertions.assertTrue(first < second);
+		Assertions.assertEquals(5000, borrow.getTimestamp(second));
+
+		times.clear();
+		times.add(5000L);
+		SnowflakeIdGenerator wait = new SnowflakeIdGenerator(epoch, 10, 12, 1, ClockBackwards.WAIT, clock);
+		first = wait.nextId();
+		times.clear();
+		times.add(4990L);
+		times.add(4995L);
+		times.add(5001L);
+		second = wait.nextId();
+		Assertions.assertEquals(5001, wait.getTimestamp(second));
+		Assertions.assertEquals(0, wait.getSequence(second));
+
+		// too far back
+		times.clear();
+		times.add(5001L - SnowflakeIdGenerator.MAX_WAIT_MILLIS - 1);
+		Assertions.assertThrows(IllegalStateException.class, wait::nextId);
+	}
+
+	@Test
+	public void testNextIds() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+		long before = generator.nextId();
+		IdBlock block = generator.nextIds(10000);
+		long after = generator.nextId();
+		Assertions.assertEquals(10000, block.size());
+
+		long[] ids = new long[10001];
+		block.fill(ids, 1);
+		Assertions.assertTrue(before < ids[1]);
+		PrimitiveIterator.OfLong iterator = block.iterator();
+		for (int i = 0; i < block.size(); i++) {
+			Assertions.assertEquals(ids[i + 1], block.get(i));
+			Assertions.assertEquals(ids[i + 1], iterator.nextLong());
+			Assertions.assertEquals(7, generator.getWorkerId(ids[i + 1]));
+			if (i > 0) {
+				Assertions.assertTrue(ids[i] < ids[i + 1]);
+			}
+		}
+		Assertions.assertFalse(iterator.hasNext());
+		Assertions.assertTrue(ids[10000] < after);
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> block.get(10000));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> generator.nextIds(0));
+	}
+
+	@Test
+	public void testNextIdsAheadOfClock() {
+		long epoch = 1000;
+		Deque<Long> times = new ArrayDeque<>();
+		LongSupplier clock = () -> times.size() > 1 ? times.poll() : times.peek();
+		int max = (int) (SnowflakeIdGenerator.MAX_WAIT_MILLIS << 12);
+
+		// BORROW hands out any block, the IDs run ahead of the clock
+		times.add(5000L);
+		SnowflakeIdGenerator borrow = new SnowflakeIdGenerator(epoch, 10, 12, 1, ClockBackwards.BORROW, clock);
+		IdBlock block = borrow.nextIds(Integer.MAX_VALUE);
+		long id = borrow.nextId();
+		Assertions.assertTrue(block.get(Integer.MAX_VALUE - 1) < id);
+		Assertions.assertEquals(5000 + (Integer.MAX_VALUE >> 12), borrow.getTimestamp(id));
+
+		// WAIT refuses a block of more than MAX_WAIT_MILLIS of sequence
+		SnowflakeIdGenerator wait = new SnowflakeIdGenerator(epoch, 10, 12, 1, ClockBackwards.WAIT, clock);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> wait.nextIds(Integer.MAX_VALUE));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> wait.nextIds(max + 1));
+
+		// the largest block ends less than MAX_WAIT_MILLIS ahead, the next ID waits
+		// for the clock instead of failing on a clock regression
+		block = wait.nextIds(max);
+		Assertions.assertEquals(5000 + SnowflakeIdGenerator.MAX_WAIT_MILLIS - 1,
+				wait.getTimestamp(block.get(max - 1)));
+		times.add(10000L);
+		id = wait.nextId();
+		Assertions.assertEquals(10000, wait.getTimestamp(id));
+		Assertions.assertEquals(0, wait.getSequence(id));
+
+		// a block that would end MAX_WAIT_MILLIS ahead waits for the clock first
+		times.add(10001L);
+		block = wait.nextIds(max);
+		Assertions.assertTrue(times.size() == 1 && times.peek() == 10001L);
+		Assertions.assertEquals(15000, wait.getTimestamp(block.get(max - 1)));
+		times.add(15001L);
+		Assertions.assertTrue(block.get(max - 1) < wait.nextId());
+	}
+
+	@Test
+	public void testFromProperties() {
+		Properties properties = new Properties();
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> SnowflakeIdGenerator.fromProperties(properties));
+
+		properties.setProperty(SnowflakeIdGenerator.PROPERTY_WORKER_ID, "42");
+		SnowflakeIdGenerator generator = SnowflakeIdGenerator.fromProperties(properties);
+		Assertions.assertEquals(42, generator.getWorkerId());
+		Assertions.assertEquals(SnowflakeIdGenerator.DEFAULT_EPOCH, generator.getEpoch());
+		Assertions.assertEquals(ClockBackwards.WAIT, generator.getClockBackwards());
+
+		properties.setProperty(SnowflakeIdGenerator.PROPERTY_WORKER_ID, " 12 ");
+		properties.setProperty(SnowflakeIdGenerator.PROPERTY_WORKER_ID_BITS, "5");
+		properties.setProperty(SnowflakeIdGenerator.PROPERTY_SEQUENCE_BITS, "17");
+		properties.setProperty(SnowflakeIdGenerator.PROPERTY_CLOCK_BACKWARDS, "BORROW");
+		properties.setProperty(SnowflakeIdGenerator.PROPERTY_EPOCH, "1600000000000");
+		generator = SnowflakeIdGenerator.fromProperties(properties);
+		Assertions.assertEquals(12, generator.getWorkerId());
+		Assertions.assertEquals(5, generator.getWorkerIdBits());
+		Assertions.assertEquals(17, generator.getSequenceBits());
+		Assertions.assertEquals(ClockBackwards.BORROW, generator.getClockBackwards());
+		Assertions.assertEquals(1600000000000L, generator.getEpoch());
+
+		// worker ID out of range
+		properties.setProperty(SnowflakeIdGenerator.PROPERTY_WORKER_ID, "32");
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> SnowflakeIdGenerator.fromProperties(properties));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new SnowflakeIdGenerator(0, 12, 12, 0, ClockBackwards.WAIT));
+	}
+
+	private Log log = LogFactory.getLog(SnowflakeIdGeneratorTest.class);
+}
@@ -0,0 +1,93 @@
+package com.github.doraeven.commons.test.utils;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.utils.UUIDBulkEncoder;
+import com.github.doraeven.commons.utils.UUIDUtils;
+
+public class UUIDBulkEncoderTest {
+
+	@Test
+	public void testToCanonical() {
+		log.debug("vectorized:" + UUIDBulkEncoder.isVectorized());
+		for (int count : new int[] { 0, 1, 2, 3, 17, 1000 }) {
+			long[] uuids = uuids(count);
+			byte[] dst = new byte[3 + 36 * count + 5];
+			Assertions.assertEquals(3 + 36 * count, UUIDBulkEncoder.toCanonical(uuids, 2, count, dst, 3));
+			String text = new String(dst, StandardCharsets.ISO_8859_1);
+			for (int i = 0; i < count; i++) {
+				UUID uuid = new UUID(uuids[2 + 2 * i], uuids[3 + 2 * i]);
+				Assertions.assertEquals(uuid.toString(), text.substring(3 + 36 * i, 3 + 36 * (i + 1)));
+			}
+			Assertions.assertEquals(0, dst[dst.length - 5]);
+		}
+		Assertions.assertThrows(IndexOutOfBoundsException.class,
+				() -> UUIDBulkEncoder.toCanonical(new long[4], 0, 2, new byte[71], 0));
+	}
+
+	@Test
+	public void testToBase64URLSafe() {
+		for (int count : new int[] { 0, 1, 2, 17, 1000 }) {
+			long[] uuids = uuids(count);
+			byte[] dst = new byte[22 * count];
+			Assertions.assertEquals(22 * count, UUIDBulkEncoder.toBase64URLSafe(uuids, 2, count, dst, 0));
+			String text = new String(dst, StandardCharsets.ISO_8859_1);
+			for (int i = 0; i < count; i++) {
+				UUID uuid = new UUID(uuids[2 + 2 * i], uuids[3 + 2 * i]);
+				Assertions.assertEquals(UUIDUtils.toBase64URLSafeString(uuid), text.substring(22 * i, 22 * (i + 1)));
+			}
+		}
+	}
+
+	@Test
+	public void testByteBuffer() {
+		int count = 3000;
+		long[] uuids = uuids(count);
+		byte[] expected = new byte[36 * count];
+		UUIDBulkEncoder.toCanonical(uuids, 2, count, expected, 0);
+
+		ByteBuffer heap = ByteBuffer.allocate(36 * count + 1);
+		heap.put((byte) ' ');
+		UUIDBulkEncoder.toCanonical(uuids, 2, count, heap);
+		Assertions.assertFalse(heap.hasRemaining());
+		ByteBuffer direct = ByteBuffer.allocateDirect(36 * count);
+		UUIDBulkEncoder.toCanonical(uuids, 2, count, direct);
+		direct.flip();
+		Assertions.assertEquals(ByteBuffer.wrap(expected), direct);
+		Assertions.assertEquals(ByteBuffer.wrap(expected), heap.position(1));
+
+		expected = new byte[22 * count];
+		UUIDBulkEncoder.toBase64URLSafe(uuids, 2, count, expected, 0);
+		direct = ByteBuffer.allocateDirect(22 * count);
+		UUIDBulkEncoder.toBase64URLSafe(uuids, 2, count, direct);
+		Assertions.assertEquals(ByteBuffer.wrap(expected), direct.flip());
+
+		Assertions.assertThrows(BufferOverflowException.class,
+				() -> UUIDBulkEncoder.toBase64URLSafe(new long[2], 0, 1, ByteBuffer.allocate(21)));
+	}
+
+	/**
+	 * Random UUIDs after two padding longs, with the edge values first
+	 */
+	private static long[] uuids(int count) {
+		long[] uuids = new long[2 + 2 * count];
+		SplittableRandom random = new SplittableRandom(count);
+		for (int i = 2; i < uuids.length; i++) {
+			uuids[i] = random.nextLong();
+		}
+		long[] edges = { 0, 0, -1, -1, 0x0123456789ABCDEFL, 0xFEDCBA9876543210L };
+		System.arraycopy(edges, 0, uuids, 2, Math.min(edges.length, 2 * count));
+		return uuids;
+	}
+
+	private Log log = LogFactory.getLog(UUIDBulkEncoderTest.class);
+}
@@ -0,0 +1,106 @@
+package com.github.doraeven.commons.test.utils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.doraeven.commons.utils.UUIDGenerator;
+
+public class UUIDGeneratorTest {
+
+	@Test
+	public void testSecureRandom() {
+		assertRandomUUIDs(UUIDGenerator.secureRandom());
+		assertNextBytes(UUIDGenerator.secureRandom());
+	}
+
+	@Test
+	public void testThreadLocalSecureRandom() {
+		assertRandomUUIDs(UUIDGenerator.threadLocalSecureRandom());
+		assertNextBytes(UUIDGenerator.threadLocalSecureRandom());
+	}
+
+	@Test
+	public void testSplittableRandom() {
+		assertRandomUUIDs(UUIDGenerator.splittableRandom());
+		assertNextBytes(UUIDGenerator.splittableRandom());
+
+		// same seed, same sequence on a thread
+		UUIDGenerator a = UUIDGenerator.splittableRandom(42);
+		UUIDGenerator b = UUIDGenerator.splittableRandom(42);
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertEquals(a.randomUUID(), b.randomUUID());
+		}
+	}
+
+	@Test
+	public void testThreadLocalSecureRandomConcurrent() throws Exception {
+		UUIDGenerator generator = UUIDGenerator.threadLocalSecureRandom();
+		int threads = 8;
+		int count = 20000;
+		Set<UUID> all = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Set<Future<?>> futures = new HashSet<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < count; i++) {
+						all.add(generator.randomUUID());
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		Assertions.assertEquals(threads * count, all.size());
+	}
+
+	private void assertRandomUUIDs(UUIDGenerator generator) {
+		Set<UUID> uuids = new HashSet<>();
+		for (int i = 0; i < 10000; i++) {
+			UUID uuid = generator.randomUUID();
+			Assertions.assertEquals(4, uuid.version());
+			Assertions.assertEquals(2, uuid.variant());
+			uuids.add(uuid);
+		}
+		Assertions.assertEquals(10000, uuids.size());
+
+		String uuid = generator.getRandomUUID();
+		log.debug("getRandomUUID:" + uuid);
+		Assertions.assertEquals(36, uuid.length());
+	}
+
+	private void assertNextBytes(UUIDGenerator generator) {
+		byte[] bytes = new byte[4096 + 2];
+		generator.nextBytes(bytes, 1, 4096);
+		Assertions.assertEquals(0, bytes[0]);
+		Assertions.assertEquals(0, bytes[bytes.length - 1]);
+
+		// every byte value is expected in 4 KiB of random bytes
+		boolean[] seen = new boolean[256];
+		int distinct = 0;
+		for (int i = 1; i <= 4096; i++) {
+			if (!seen[bytes[i] & 0xFF]) {
+				seen[bytes[i] & 0xFF] = true;
+				distinct++;
+			}
+		}
+		Assertions.assertTrue(distinct > 200);
+
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> generator.nextBytes(bytes, 1, bytes.length));
+	}
+
+	private Log log = LogFactory.getLog(UUIDGeneratorTest.class);
+}
@@ -1,12 +1,31 @@
 package com.github.doraeven.commons.test.utils;
 
+import java.io.StringWriter;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import com.github.doraeven.commons.utils.UUIDGenerator;
 import com.github.doraeven.commons.utils.UUIDUtils;
 
 public class UUIDUtilsTest {
@@ -23,6 +42,272 @@ public class UUIDUtilsTest {
 		log.debug("getRandomUUID:" + uuid);
 	}
 
+	@Test
+	public void randomUUID_generator() {
+		UUID uuid = UUIDUtils.randomUUID(UUIDGenerator.threadLocalSecureRandom());
+		log.debug("randomUUID:" + uuid);
+		Assertions.assertEquals(4, uuid.version());
+		Assertions.assertEquals(2, uuid.variant());
+
+		String uuidString = UUIDUtils.getRandomUUID(UUIDGenerator.splittableRandom());
+		log.debug("getRandomUUID:" + uuidString);
+		Assertions.assertEquals('4', uuidString.charAt(14));
+
+		UUID uuidv7 = UUIDUtils.randomUUIDv7(UUIDGenerator.threadLocalSecureRandom());
+		Assertions.assertEquals(7, uuidv7.version());
+		Assertions.assertEquals(2, uuidv7.variant());
+	}
+
+	@Test
+	public void randomUUIDs_longs() {
+		int count = 1000;
+		long[] dst = new long[count * 2 + 2];
+		UUIDUtils.randomUUIDs(dst, 1, count);
+		Assertions.assertEquals(0, dst[0]);
+		Assertions.assertEquals(0, dst[dst.length - 1]);
+
+		Set<UUID> uuids = new HashSet<>();
+		for (int i = 1; i < count * 2; i += 2) {
+			UUID uuid = new UUID(dst[i], dst[i + 1]);
+			Assertions.assertEquals(4, uuid.version());
+			Assertions.assertEquals(2, uuid.variant());
+			uuids.add(uuid);
+		}
+		Assertions.assertEquals(count, uuids.size());
+
+		UUIDUtils.randomUUIDs(UUIDGenerator.threadLocalSecureRandom(), dst, 0, count);
+		Assertions.assertEquals(4, new UUID(dst[0], dst[1]).version());
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> UUIDUtils.randomUUIDs(dst, 3, count));
+	}
+
+	@Test
+	public void randomUUIDs_bytes() {
+		int count = 1000;
+		byte[] dst = new byte[count * 16 + 2];
+		UUIDUtils.randomUUIDs(UUIDGenerator.threadLocalSecureRandom(), dst, 1, count);
+		Assertions.assertEquals(0, dst[0]);
+		Assertions.assertEquals(0, dst[dst.length - 1]);
+
+		Set<UUID> uuids = new HashSet<>();
+		for (int i = 1; i < count * 16; i += 16) {
+			UUID uuid = UUIDUtils.fromBytes(Arrays.copyOfRange(dst, i, i + 16));
+			Assertions.assertEquals(4, uuid.version());
+			Assertions.assertEquals(2, uuid.variant());
+			uuids.add(uuid);
+		}
+		Assertions.assertEquals(count, uuids.size());
+	}
+
+	@Test
+	public void randomUUIDs_ByteBuffer() {
+		int count = 1000;
+		for (ByteBuffer dst : new ByteBuffer[] { ByteBuffer.allocate(count * 16 + 16),
+				ByteBuffer.allocateDirect(count * 16 + 16) }) {
+			dst.position(16);
+			UUIDUtils.randomUUIDs(dst, count);
+			Assertions.assertEquals(count * 16 + 16, dst.position());
+
+			dst.position(16);
+			Set<UUID> uuids = new HashSet<>();
+			while (dst.hasRemaining()) {
+				UUID uuid = new UUID(dst.getLong(), dst.getLong());
+				Assertions.assertEquals(4, uuid.version());
+				Assertions.assertEquals(2, uuid.variant());
+				uuids.add(uuid);
+			}
+			Assertions.assertEquals(count, uuids.size());
+
+			dst.position(32);
+			Assertions.assertThrows(BufferOverflowException.class, () -> UUIDUtils.randomUUIDs(dst, count));
+		}
+	}
+
+	@Test
+	public void randomUUIDv7() throws Exception {
+		long before = System.currentTimeMillis();
+		UUID uuid = UUIDUtils.randomUUIDv7();
+		long after = System.currentTimeMillis();
+		log.debug("randomUUIDv7:" + uuid);
+
+		Assertions.assertEquals(7, uuid.version());
+		Assertions.assertEquals(2, uuid.variant());
+		long timestamp = uuid.getMostSignificantBits() >>> 16;
+		Assertions.assertTrue(timestamp >= before);
+		Assertions.assertTrue(timestamp <= after + 1);
+
+		// strictly increasing, also within the same millisecond
+		long[] bits = new long[2];
+		long last = uuid.getMostSignificantBits();
+		for (int i = 0; i < 100000; i++) {
+			UUIDUtils.randomUUIDv7(bits, 0);
+			Assertions.assertTrue(Long.compareUnsigned(last, bits[0]) < 0);
+			Assertions.assertEquals(0x7000L, bits[0] & 0xF000L);
+			Assertions.assertEquals(0x8000000000000000L, bits[1] & 0xC000000000000000L);
+			last = bits[0];
+		}
+	}
+
+	@Test
+	public void randomUUIDv7_concurrent() throws Exception {
+		int threads = 8;
+		int count = 20000;
+		Set<UUID> all = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Set<Future<?>> futures = new HashSet<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					UUID last = UUIDUtils.randomUUIDv7();
+					all.add(last);
+					for (int i = 1; i < count; i++) {
+						UUID uuid = UUIDUtils.randomUUIDv7();
+						Assertions.assertTrue(Long.compareUnsigned(last.getMostSignificantBits(),
+								uuid.getMostSignificantBits()) < 0);
+						all.add(uuid);
+						last = uuid;
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		Assertions.assertEquals(threads * count, all.size());
+	}
+
+	@Test
+	public void getRandomUUIDv7() {
+		String uuid = UUIDUtils.getRandomUUIDv7();
+		log.debug("getRandomUUIDv7:" + uuid);
+		Assertions.assertEquals('7', uuid.charAt(14));
+	}
+
+	@Test
+	public void randomULID() {
+		long before = System.currentTimeMillis();
+		UUID ulid = UUIDUtils.randomULID();
+		long after = System.currentTimeMillis();
+		log.debug("randomULID:" + UUIDUtils.toULIDString(ulid));
+		long timestamp = ulid.getMostSignificantBits() >>> 16;
+		Assertions.assertTrue(timestamp >= before && timestamp <= after);
+
+		String ulidString = UUIDUtils.getRandomULID();
+		log.debug("getRandomULID:" + ulidString);
+		Assertions.assertEquals(26, ulidString.length());
+	}
+
+	@Test
+	public void monotonicULID() {
+		UUID last = UUIDUtils.monotonicULID();
+		String lastString = UUIDUtils.toULIDString(last);
+		for (int i = 0; i < 100000; i++) {
+			UUID ulid = UUIDUtils.monotonicULID(UUIDGenerator.threadLocalSecureRandom());
+			Assertions.assertTrue(Long.compareUnsigned(last.getMostSignificantBits(), ulid.getMostSignificantBits()) < 0
+					|| last.getMostSignificantBits() == ulid.getMostSignificantBits() && Long
+							.compareUnsigned(last.getLeastSignificantBits(), ulid.getLeastSignificantBits()) < 0);
+			String ulidString = UUIDUtils.toULIDString(ulid);
+			Assertions.assertTrue(lastString.compareTo(ulidString) < 0);
+			last = ulid;
+			lastString = ulidString;
+		}
+		log.debug("getMonotonicULID:" + UUIDUtils.getMonotonicULID());
+	}
+
+	@Test
+	public void toULID() {
+		// timestamp example of the ULID spec
+		Assertions.assertEquals("01ARYZ6S410000000000000000",
+				UUIDUtils.toULIDString(new UUID(1469918176385L << 16, 0)));
+		Assertions.assertEquals("00000000000000000000000000", UUIDUtils.toULIDString(new UUID(0, 0)));
+		Assertions.assertEquals("7ZZZZZZZZZZZZZZZZZZZZZZZZZ", UUIDUtils.toULIDString(new UUID(-1, -1)));
+
+		for (int i = 0; i < 10000; i++) {
+			UUID uuid = UUIDUtils.randomUUID();
+			String ulidString = UUIDUtils.toULIDString(uuid);
+
+			char[] chars = new char[28];
+			UUIDUtils.toULID(uuid, chars, 1);
+			Assertions.assertEquals(ulidString, new String(chars, 1, 26));
+
+			byte[] bytes = new byte[28];
+			UUIDUtils.toULID(uuid, bytes, 2);
+			Assertions.assertEquals(ulidString, new String(bytes, 2, 26, StandardCharsets.US_ASCII));
+
+			Assertions.assertEquals(uuid, UUIDUtils.fromULIDString(ulidString));
+			Assertions.assertEquals(uuid, UUIDUtils.fromULIDString(ulidString.toLowerCase()));
+			Assertions.assertEquals(uuid, UUIDUtils.fromULID(bytes, 2));
+		}
+	}
+
+	@Test
+	public void fromULIDString_invalid() {
+		Assertions.assertEquals(new UUID(0, 0x21), UUIDUtils.fromULIDString("OoooooooooooooooooooooooIl"));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromULIDString("80000000000000000000000000"));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromULIDString("0000000000000000000000000U"));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromULIDString("000000000000000000000000000"));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromULIDString("0000000000000000000000000-"));
+	}
+
+	@Test
+	public void nameUUIDv5() {
+		UUID uuid = UUIDUtils.nameUUIDv5(UUIDUtils.NAMESPACE_DNS, "www.example.com");
+		log.debug("nameUUIDv5:" + uuid);
+		Assertions.assertEquals(UUID.fromString("2ed6657d-e927-568b-95e1-2665a8aea6a2"), uuid);
+		Assertions.assertEquals(5, uuid.version());
+		Assertions.assertEquals(2, uuid.variant());
+
+		byte[] name = "xxwww.example.com".getBytes(StandardCharsets.UTF_8);
+		Assertions.assertEquals(uuid, UUIDUtils.nameUUIDv5(UUIDUtils.NAMESPACE_DNS, name, 2, name.length - 2));
+		ByteBuffer direct = ByteBuffer.allocateDirect(name.length).put(name).flip().position(2);
+		Assertions.assertEquals(uuid, UUIDUtils.nameUUIDv5(UUIDUtils.NAMESPACE_DNS, direct));
+		Assertions.assertFalse(direct.hasRemaining());
+		Assertions.assertEquals(uuid,
+				UUIDUtils.nameUUIDv5(UUIDUtils.NAMESPACE_DNS, new StringBuilder("www.example.com")));
+		Assertions.assertNotEquals(uuid, UUIDUtils.nameUUIDv5(UUIDUtils.NAMESPACE_URL, "www.example.com"));
+	}
+
+	@Test
+	public void nameUUIDv3() {
+		UUID uuid = UUIDUtils.nameUUIDv3(UUIDUtils.NAMESPACE_DNS, "www.example.com");
+		log.debug("nameUUIDv3:" + uuid);
+		Assertions.assertEquals(UUID.fromString("5df41881-3aed-3515-88a7-2f4a814cf09e"), uuid);
+
+		// the JDK computes version 3 over the concatenated bytes
+		String unicode = "é中😀 \ud800x" + "a".repeat(1000);
+		byte[] nameBytes = unicode.getBytes(StandardCharsets.UTF_8);
+		byte[] all = new byte[16 + nameBytes.length];
+		UUIDUtils.toBytes(UUIDUtils.NAMESPACE_OID, all, 0);
+		System.arraycopy(nameBytes, 0, all, 16, nameBytes.length);
+		Assertions.assertEquals(UUID.nameUUIDFromBytes(all), UUIDUtils.nameUUIDv3(UUIDUtils.NAMESPACE_OID, unicode));
+		Assertions.assertEquals(UUID.nameUUIDFromBytes(all),
+				UUIDUtils.nameUUIDv3(UUIDUtils.NAMESPACE_OID, ByteBuffer.wrap(all, 16, nameBytes.length)));
+		Assertions.assertEquals(UUIDUtils.nameUUIDv5(UUIDUtils.NAMESPACE_OID, unicode),
+				UUIDUtils.nameUUIDv5(UUIDUtils.NAMESPACE_OID, nameBytes, 0, nameBytes.length));
+	}
+
+	@Test
+	public void nameUUIDs_bulk() {
+		List<String> names = Arrays.asList("a", "b", "", "ü");
+		long[] v5 = new long[names.size() * 2 + 1];
+		long[] v3 = new long[names.size() * 2 + 1];
+		UUIDUtils.nameUUIDv5(UUIDUtils.NAMESPACE_URL, names, v5, 1);
+		UUIDUtils.nameUUIDv3(UUIDUtils.NAMESPACE_URL, names, v3, 1);
+		for (int i = 0; i < names.size(); i++) {
+			Assertions.assertEquals(UUIDUtils.nameUUIDv5(UUIDUtils.NAMESPACE_URL, names.get(i)),
+					new UUID(v5[1 + 2 * i], v5[2 + 2 * i]));
+			Assertions.assertEquals(UUIDUtils.nameUUIDv3(UUIDUtils.NAMESPACE_URL, names.get(i)),
+					new UUID(v3[1 + 2 * i], v3[2 + 2 * i]));
+		}
+		Assertions.assertThrows(IndexOutOfBoundsException.class,
+				() -> UUIDUtils.nameUUIDv5(UUIDUtils.NAMESPACE_URL, names, new long[8], 1));
+	}
+
 	@Test
 	public void toBytes() {
 		UUID uuid = UUIDUtils.randomUUID();
@@ -54,6 +339,267 @@ public class UUIDUtilsTest {
 		log.debug("uuid decode:" + uuid_decode);
 	}
 
+	@Test
+	public void toBytes_offset() {
+		UUID uuid = UUIDUtils.randomUUID();
+		byte[] expected = UUIDUtils.toBytes(uuid);
+
+		byte[] dst = new byte[20];
+		UUIDUtils.toBytes(uuid, dst, 3);
+		Assertions.assertArrayEquals(expected, Arrays.copyOfRange(dst, 3, 19));
+		Assertions.assertEquals(uuid, UUIDUtils.fromBytes(dst, 3));
+
+		UUIDUtils.toBytes(uuid, dst, 4, ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < 8; i++) {
+			Assertions.assertEquals(expected[7 - i], dst[4 + i]);
+			Assertions.assertEquals(expected[15 - i], dst[12 + i]);
+		}
+		Assertions.assertEquals(uuid, UUIDUtils.fromBytes(dst, 4, ByteOrder.LITTLE_ENDIAN));
+
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> UUIDUtils.toBytes(uuid, dst, 5));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> UUIDUtils.fromBytes(dst, -1));
+	}
+
+	@Test
+	public void toBytes_ByteBuffer() {
+		UUID uuid = UUIDUtils.randomUUID();
+		byte[] expected = UUIDUtils.toBytes(uuid);
+
+		for (ByteBuffer dst : new ByteBuffer[] { ByteBuffer.allocate(40),
+				ByteBuffer.allocateDirect(40).order(ByteOrder.LITTLE_ENDIAN) }) {
+			ByteOrder bufferOrder = dst.order();
+			dst.position(1);
+			UUIDUtils.toBytes(uuid, dst);
+			UUIDUtils.toBytes(uuid, dst, ByteOrder.LITTLE_ENDIAN);
+			Assertions.assertEquals(33, dst.position());
+			Assertions.assertEquals(bufferOrder, dst.order());
+
+			byte[] actual = new byte[16];
+			dst.get(1, actual);
+			Assertions.assertArrayEquals(expected, actual);
+
+			dst.position(1);
+			Assertions.assertEquals(uuid, UUIDUtils.fromBytes(dst));
+			Assertions.assertEquals(uuid, UUIDUtils.fromBytes(dst, ByteOrder.LITTLE_ENDIAN));
+			Assertions.assertEquals(33, dst.position());
+
+			Assertions.assertThrows(BufferOverflowException.class, () -> UUIDUtils.toBytes(uuid, dst));
+			Assertions.assertThrows(BufferUnderflowException.class, () -> UUIDUtils.fromBytes(dst));
+		}
+	}
+
+	@Test
+	public void toBytes_MemorySegment() {
+		UUID uuid = UUIDUtils.randomUUID();
+		byte[] expected = UUIDUtils.toBytes(uuid);
+
+		try (Arena arena = Arena.ofConfined()) {
+			for (MemorySegment dst : new MemorySegment[] { MemorySegment.ofArray(new byte[40]),
+					arena.allocate(40) }) {
+				UUIDUtils.toBytes(uuid, dst, 3);
+				Assertions.assertArrayEquals(expected, dst.asSlice(3, 16).toArray(ValueLayout.JAVA_BYTE));
+				Assertions.assertEquals(uuid, UUIDUtils.fromBytes(dst, 3));
+
+				UUIDUtils.toBytes(uuid, dst, 21, ByteOrder.LITTLE_ENDIAN);
+				Assertions.assertEquals(uuid, UUIDUtils.fromBytes(dst, 21, ByteOrder.LITTLE_ENDIAN));
+				Assertions.assertEquals(Long.reverseBytes(uuid.getMostSignificantBits()),
+						UUIDUtils.fromBytes(dst, 21).getMostSignificantBits());
+
+				// nothing is written when the UUID does not fit
+				MemorySegment before = MemorySegment.ofArray(dst.toArray(ValueLayout.JAVA_BYTE));
+				Assertions.assertThrows(IndexOutOfBoundsException.class, () -> UUIDUtils.toBytes(uuid, dst, 25));
+				Assertions.assertEquals(-1, dst.mismatch(before));
+			}
+		}
+	}
+
+	@Test
+	public void toUUIDv6() {
+		// RFC 9562 test vectors, the same instant as version 1 and version 6
+		UUID v1 = UUID.fromString("c232ab00-9414-11ec-b3c8-9f6bdeced846");
+		UUID v6 = UUID.fromString("1ec9414c-232a-6b00-b3c8-9f6bdeced846");
+		Assertions.assertEquals(v6, UUIDUtils.toUUIDv6(v1));
+		Assertions.assertEquals(v1, UUIDUtils.toUUIDv1(v6));
+		Assertions.assertEquals(v6.getMostSignificantBits(),
+				UUIDUtils.toUUIDv6MostSigBits(v1.getMostSignificantBits()));
+		Assertions.assertEquals(v1.timestamp(), UUIDUtils.getTimestamp(v1));
+		Assertions.assertEquals(v1.timestamp(), UUIDUtils.getTimestamp(v6));
+		// Tuesday, February 22, 2022 2:22:22.00 PM GMT-05:00
+		Assertions.assertEquals(1645557742000L, UUIDUtils.getUnixMillis(v1));
+		Assertions.assertEquals(1645557742000L, UUIDUtils.getUnixMillis(v6));
+		Assertions.assertEquals(1645557742000L, UUIDUtils.getUnixMillis(
+				UUID.fromString("017f22e2-79b0-7cc3-98c4-dc0c0c07398f")));
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> UUIDUtils.toUUIDv6(v6));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> UUIDUtils.toUUIDv1(v1));
+
+		// a version nibble of 1 or 6 with the NCS or the Microsoft variant, skipped
+		// by the bulk conversions
+		for (long variant : new long[] { 0L, 6L << 61 }) {
+			for (UUID uuid : new UUID[] { v1, v6 }) {
+				UUID other = new UUID(uuid.getMostSignificantBits(),
+						uuid.getLeastSignificantBits() & (-1L >>> 3) | variant);
+				long[] bits = { other.getMostSignificantBits(), other.getLeastSignificantBits() };
+				Assertions.assertEquals(0,
+						uuid == v1 ? UUIDUtils.toUUIDv6(bits, 0, 1) : UUIDUtils.toUUIDv1(bits, 0, 1));
+				Assertions.assertEquals(other, new UUID(bits[0], bits[1]));
+				Assertions.assertThrows(IllegalArgumentException.class, () -> UUIDUtils.toUUIDv6(other));
+				Assertions.assertThrows(IllegalArgumentException.class, () -> UUIDUtils.toUUIDv1(other));
+			}
+		}
+		Assertions.assertThrows(IllegalArgumentException.class, () -> UUIDUtils.getTimestamp(UUID.randomUUID()));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> UUIDUtils.getUnixMillis(UUID.randomUUID()));
+	}
+
+	@Test
+	public void toUUIDv6_batch() {
+		UUID v1 = UUID.fromString("c232ab00-9414-11ec-b3c8-9f6bdeced846");
+		UUID v6 = UUID.fromString("1ec9414c-232a-6b00-b3c8-9f6bdeced846");
+		UUID v4 = UUID.randomUUID();
+		long[] bits = { -1, v1.getMostSignificantBits(), v1.getLeastSignificantBits(), v4.getMostSignificantBits(),
+				v4.getLeastSignificantBits() };
+		Assertions.assertEquals(1, UUIDUtils.toUUIDv6(bits, 1, 2));
+		Assertions.assertEquals(v6, new UUID(bits[1], bits[2]));
+		Assertions.assertEquals(v4, new UUID(bits[3], bits[4]));
+		long[] millis = new long[1];
+		UUIDUtils.getUnixMillis(bits, 1, 1, millis, 0);
+		Assertions.assertEquals(1645557742000L, millis[0]);
+		Assertions.assertEquals(1, UUIDUtils.toUUIDv1(bits, 1, 2));
+		Assertions.assertEquals(v1, new UUID(bits[1], bits[2]));
+
+		byte[] bytes = new byte[33];
+		UUIDUtils.toBytes(v4, bytes, 1);
+		UUIDUtils.toBytes(v1, bytes, 17);
+		Assertions.assertEquals(1, UUIDUtils.toUUIDv6(bytes, 1, 2));
+		Assertions.assertEquals(v4, UUIDUtils.fromBytes(bytes, 1));
+		Assertions.assertEquals(v6, UUIDUtils.fromBytes(bytes, 17));
+		Assertions.assertEquals(v1.timestamp(), UUIDUtils.getTimestamp(bytes, 17));
+		Assertions.assertEquals(1645557742000L, UUIDUtils.getUnixMillis(bytes, 17));
+		Assertions.assertEquals(1, UUIDUtils.toUUIDv1(bytes, 1, 2));
+		Assertions.assertEquals(v1, UUIDUtils.fromBytes(bytes, 17));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> UUIDUtils.toUUIDv6(bytes, 2, 2));
+	}
+
+	@Test
+	public void toSortableKey() {
+		// version 1 UUIDs of increasing timestamps, the raw bytes are not ordered
+		UUID[] v1 = new UUID[64];
+		for (int i = 0; i < v1.length; i++) {
+			long timestamp = 0x1EC9414C232AB00L + ((long) i << 30) + i;
+			long msb = timestamp << 32 | (timestamp >>> 32 & 0xFFFFL) << 16 | 0x1000L | timestamp >>> 48;
+			v1[i] = new UUID(msb, 0x8000000000000000L | i);
+			Assertions.assertEquals(1, v1[i].version());
+			Assertions.assertEquals(timestamp, v1[i].timestamp());
+		}
+		// time_low wraps after the first UUID
+		Assertions.assertTrue(Arrays.compareUnsigned(UUIDUtils.toBytes(v1[0]), UUIDUtils.toBytes(v1[1])) > 0);
+		for (int i = 1; i < v1.length; i++) {
+			byte[] prev = UUIDUtils.toSortableKey(v1[i - 1]);
+			byte[] key = UUIDUtils.toSortableKey(v1[i]);
+			Assertions.assertTrue(Arrays.compareUnsigned(prev, key) < 0);
+			Assertions.assertEquals(v1[i], UUIDUtils.fromSortableKey(key, 0));
+		}
+
+		UUID prev = UUIDUtils.randomUUIDv7();
+		for (int i = 0; i < 1000; i++) {
+			UUID next = UUIDUtils.randomUUIDv7();
+			byte[] key = UUIDUtils.toSortableKey(next);
+			Assertions.assertArrayEquals(UUIDUtils.toBytes(next), key);
+			Assertions.assertTrue(Arrays.compareUnsigned(UUIDUtils.toSortableKey(prev), key) < 0);
+			prev = next;
+		}
+
+		UUID random = UUID.randomUUID();
+		Assertions.assertEquals(random, UUIDUtils.fromSortableKey(UUIDUtils.toSortableKey(random), 0));
+		long[] bits = new long[3];
+		UUIDUtils.fromSortableKey(UUIDUtils.toSortableKey(v1[3]), 0, bits, 1);
+		Assertions.assertEquals(v1[3], new UUID(bits[1], bits[2]));
+	}
+
+	@Test
+	public void toSortableKey_composite() {
+		UUID uuid = UUIDUtils.randomUUIDv7();
+		long[] suffixes = { Long.MIN_VALUE, -2, -1, 0, 1, 42, Long.MAX_VALUE };
+		byte[] buffer = new byte[64];
+		byte[] prev = null;
+		for (long suffix : suffixes) {
+			Assertions.assertEquals(29, UUIDUtils.toSortableKey(uuid.getMostSignificantBits(),
+					uuid.getLeastSignificantBits(), suffix, buffer, 5));
+			byte[] key = Arrays.copyOfRange(buffer, 5, 29);
+			Assertions.assertArrayEquals(UUIDUtils.toSortableKey(uuid, suffix), key);
+			Assertions.assertEquals(uuid, UUIDUtils.fromSortableKey(buffer, 5));
+			Assertions.assertEquals(suffix, UUIDUtils.fromSortableKeySuffix(buffer, 5));
+			if (prev != null) {
+				Assertions.assertTrue(Arrays.compareUnsigned(prev, key) < 0);
+			}
+			prev = key;
+		}
+
+		ByteBuffer little = ByteBuffer.allocateDirect(40).order(ByteOrder.LITTLE_ENDIAN);
+		UUIDUtils.toSortableKey(uuid, -7, little);
+		UUIDUtils.toSortableKey(uuid, little);
+		Assertions.assertThrows(BufferOverflowException.class, () -> UUIDUtils.toSortableKey(uuid, 1, little));
+		little.flip();
+		Assertions.assertEquals(uuid, UUIDUtils.fromSortableKey(little));
+		Assertions.assertEquals(-7, UUIDUtils.fromSortableKeySuffix(little));
+		Assertions.assertEquals(uuid, UUIDUtils.fromSortableKey(little));
+		Assertions.assertThrows(BufferUnderflowException.class, () -> UUIDUtils.fromSortableKey(little));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> UUIDUtils.toSortableKey(1, 2, 3, buffer, 41));
+	}
+
+	@Test
+	public void toCanonical() throws Exception {
+		for (int i = 0; i < 10000; i++) {
+			UUID uuid = i == 0 ? new UUID(0, 0) : i == 1 ? new UUID(-1, -1) : UUIDUtils.randomUUID();
+			String expected = uuid.toString();
+
+			Assertions.assertEquals(expected, UUIDUtils.toCanonicalString(uuid));
+
+			byte[] bytes = new byte[38];
+			UUIDUtils.toCanonical(uuid, bytes, 1);
+			Assertions.assertEquals(expected, new String(bytes, 1, 36, StandardCharsets.US_ASCII));
+
+			char[] chars = new char[38];
+			UUIDUtils.toCanonical(uuid, chars, 2);
+			Assertions.assertEquals(expected, new String(chars, 2, 36));
+
+			StringBuilder sb = new StringBuilder("id=");
+			Assertions.assertSame(sb, UUIDUtils.appendCanonical(sb, uuid));
+			Assertions.assertEquals("id=" + expected, sb.toString());
+
+			StringWriter writer = new StringWriter();
+			UUIDUtils.appendCanonical(writer, uuid);
+			Assertions.assertEquals(expected, writer.toString());
+
+			Assertions.assertEquals(uuid, UUIDUtils.fromCanonicalString(expected));
+			Assertions.assertEquals(uuid, UUIDUtils.fromCanonicalString(expected.toUpperCase()));
+			Assertions.assertEquals(uuid, UUIDUtils.fromCanonical(sb, 3));
+			Assertions.assertEquals(uuid, UUIDUtils.fromCanonical(bytes, 1));
+		}
+	}
+
+	@Test
+	public void fromCanonical_invalid() {
+		String valid = UUIDUtils.getRandomUUID();
+		// length and short forms accepted by UUID.fromString
+		Assertions.assertThrows(IllegalArgumentException.class, () -> UUIDUtils.fromCanonicalString("0-0-0-0-0"));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromCanonicalString(valid.substring(1)));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> UUIDUtils.fromCanonical(valid, 1));
+		// hex digits
+		IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromCanonicalString(valid.substring(0, 30) + "g" + valid.substring(31)));
+		Assertions.assertTrue(e.getMessage().contains("index 30"));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromCanonicalString("\u0661" + valid.substring(1)));
+		// hyphens
+		e = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromCanonicalString(valid.substring(0, 13) + "0" + valid.substring(14)));
+		Assertions.assertTrue(e.getMessage().contains("index 13"));
+		byte[] bytes = valid.replace('-', '_').getBytes(StandardCharsets.US_ASCII);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> UUIDUtils.fromCanonical(bytes, 0));
+	}
+
 	@Test
 	public void toBase64_UUID() {
 		UUID uuid = UUIDUtils.randomUUID();
@@ -150,6 +696,50 @@ public class UUIDUtilsTest {
 		log.debug("bytes toBase64URLSafeString result:" + result);
 	}
 
+	@Test
+	public void toBase64URLSafe_codec() {
+		for (int i = 0; i < 10000; i++) {
+			UUID uuid = i == 0 ? new UUID(0, 0) : i == 1 ? new UUID(-1, -1) : UUIDUtils.randomUUID();
+			byte[] uuid_encode = UUIDUtils.toBytes(uuid);
+			String expected = Base64.encodeBase64URLSafeString(uuid_encode);
+
+			Assertions.assertEquals(expected, UUIDUtils.toBase64URLSafeString(uuid));
+			Assertions.assertArrayEquals(Base64.encodeBase64URLSafe(uuid_encode), UUIDUtils.toBase64URLSafe(uuid));
+
+			char[] chars = new char[24];
+			UUIDUtils.toBase64URLSafe(uuid, chars, 1);
+			Assertions.assertEquals(expected, new String(chars, 1, 22));
+
+			byte[] bytes = new byte[24];
+			UUIDUtils.toBase64URLSafe(uuid, bytes, 2);
+			Assertions.assertEquals(expected, new String(bytes, 2, 22, StandardCharsets.US_ASCII));
+
+			Assertions.assertEquals(uuid, UUIDUtils.fromBase64URLSafeString(expected));
+			Assertions.assertEquals(uuid, UUIDUtils.fromBase64URLSafeString(new StringBuilder(expected)));
+			Assertions.assertEquals(uuid, UUIDUtils.fromBase64URLSafe(bytes, 2));
+		}
+	}
+
+	@Test
+	public void fromBase64URLSafeString_invalid() {
+		String valid = UUIDUtils.toBase64URLSafeString(UUIDUtils.randomUUID());
+		// length
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromBase64URLSafeString(valid.substring(1)));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> UUIDUtils.fromBase64URLSafeString(valid + "A"));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromBase64URLSafeString(UUIDUtils.toBase64String(UUIDUtils.randomUUID())));
+		// alphabet
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromBase64URLSafeString("+" + valid.substring(1)));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromBase64URLSafeString("\u00e9" + valid.substring(1)));
+		// trailing bits
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> UUIDUtils.fromBase64URLSafeString(valid.substring(0, 21) + "B"));
+		Assertions.assertEquals(new UUID(0, 3), UUIDUtils.fromBase64URLSafeString("AAAAAAAAAAAAAAAAAAAAAw"));
+	}
+
 	@Test
 	public void fromBase64_bytes() {
 		UUID uuid = UUIDUtils.randomUUID();